@@ -24,6 +24,10 @@ import uk.co.real_logic.artio.dictionary.ir.Dictionary;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 import static uk.co.real_logic.artio.dictionary.generation.GenerationUtil.*;
 
@@ -51,6 +55,25 @@ public final class CodecGenerationTool
      */
     public static final String FIX_CODECS_ALLOW_DUPLICATE_FIELDS = "fix.codecs.allow_duplicate_fields";
 
+    /**
+     * String system property that declares projection decoders to generate. Each decoder of a listed message
+     * gets a <code>decodeProjection()</code> method that only decodes the listed body fields and groups and stops
+     * scanning the message once they have all been seen. Fields of groups that aren't listed are skipped.
+     * <p>
+     * Format is a semicolon separated list of message names, each followed by a colon and a comma separated list of
+     * field or group names, eg: <code>ExecutionReport:ClOrdID,OrdStatus,ExecType;OrderCancelReject:ClOrdID</code>
+     */
+    public static final String FIX_CODECS_PROJECTIONS = "fix.codecs.projections";
+
+    /**
+     * Boolean system property to make projection decoders decode the trailer and validate the checksum, when
+     * codec validation is enabled, once they have found their fields. Defaults to false, in which case they return
+     * immediately.
+     *
+     * @see #FIX_CODECS_PROJECTIONS
+     */
+    public static final String FIX_CODECS_PROJECTION_TRAILER_CHECK = "fix.codecs.projection_trailer_check";
+
     public static void main(final String[] args) throws Exception
     {
         if (args.length < 2)
@@ -92,6 +115,9 @@ public final class CodecGenerationTool
             .map(String::valueOf)
             .orElse(Generator.RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY);
 
+        final Map<String, Set<String>> projections = parseProjections(System.getProperty(FIX_CODECS_PROJECTIONS));
+        final boolean projectionTrailerCheck = Boolean.getBoolean(FIX_CODECS_PROJECTION_TRAILER_CHECK);
+
         new EncoderGenerator(
             dictionary,
             ENCODER_PACKAGE,
@@ -113,7 +139,9 @@ public final class CodecGenerationTool
             RejectUnknownField.class,
             RejectUnknownEnumValue.class,
             false,
-            codecRejectUnknownEnumValueEnabled).generate();
+            codecRejectUnknownEnumValueEnabled,
+            projections,
+            projectionTrailerCheck).generate();
 
         new PrinterGenerator(dictionary, DECODER_PACKAGE, decoderOutput).generate();
         new AcceptorGenerator(dictionary, DECODER_PACKAGE, decoderOutput).generate();
@@ -133,10 +161,40 @@ public final class CodecGenerationTool
                 RejectUnknownField.class,
                 RejectUnknownEnumValue.class,
                 true,
-                codecRejectUnknownEnumValueEnabled).generate();
+                codecRejectUnknownEnumValueEnabled,
+                projections,
+                projectionTrailerCheck).generate();
         }
     }
 
+    static Map<String, Set<String>> parseProjections(final String projectionsProperty)
+    {
+        final Map<String, Set<String>> projections = new HashMap<>();
+        if (projectionsProperty == null || projectionsProperty.trim().isEmpty())
+        {
+            return projections;
+        }
+
+        for (final String projection : projectionsProperty.split(";"))
+        {
+            final String[] messageAndFields = projection.split(":");
+            if (messageAndFields.length != 2)
+            {
+                throw new IllegalArgumentException(
+                    "Invalid projection, expected <MessageName>:<Field>[,<Field>]* but got: " + projection);
+            }
+
+            final Set<String> fields = new LinkedHashSet<>();
+            for (final String field : messageAndFields[1].split(","))
+            {
+                fields.add(field.trim());
+            }
+            projections.put(messageAndFields[0].trim(), fields);
+        }
+
+        return projections;
+    }
+
     private static Dictionary parseDictionary(final File xmlFile, final Dictionary parentDictionary) throws Exception
     {
         final DictionaryParser parser = new DictionaryParser(
@@ -40,6 +40,10 @@ public final class CodecUtil
     public static final int ENUM_UNKNOWN_INT = Integer.MAX_VALUE;
     public static final String ENUM_UNKNOWN_STRING = Character.toString(ENUM_UNKNOWN_CHAR);
 
+    public static final int FIELD_SLOT_PAGE_SHIFT = 6;
+    public static final int FIELD_SLOT_PAGE_SIZE = 1 << FIELD_SLOT_PAGE_SHIFT;
+    public static final int UNKNOWN_FIELD_SLOT = -1;
+
     private static final char ZERO = '0';
     private static final char DOT = '.';
 
@@ -280,6 +284,66 @@ public final class CodecUtil
 
     }
 
+    /**
+     * Lookup the slot of a tag in a decoder's field slot table. Slots number the fields that a decoder decodes
+     * from 0 so that they can be dispatched upon and tracked with bitsets. The table is split into pages of
+     * {@link #FIELD_SLOT_PAGE_SIZE} tags, page 0 is empty and shared by all the pages that contain no fields.
+     *
+     * @param tag   the tag number of the field.
+     * @param pages the page within the slots of each page of tags.
+     * @param slots the slot of each tag within each page.
+     * @return the slot of the tag or {@link #UNKNOWN_FIELD_SLOT} if the decoder doesn't decode it.
+     */
+    public static int lookupFieldSlot(final int tag, final short[] pages, final short[] slots)
+    {
+        final int page = tag >>> FIELD_SLOT_PAGE_SHIFT;
+        if (page >= pages.length)
+        {
+            return UNKNOWN_FIELD_SLOT;
+        }
+
+        return slots[(pages[page] << FIELD_SLOT_PAGE_SHIFT) | (tag & (FIELD_SLOT_PAGE_SIZE - 1))];
+    }
+
+    /**
+     * Mark a field slot as visited in a bitset of slots.
+     *
+     * @param visitedSlots the bitset of visited slots.
+     * @param slot         the slot of the field being visited.
+     * @return true if the slot had not previously been visited, false otherwise.
+     */
+    public static boolean visitFieldSlot(final long[] visitedSlots, final int slot)
+    {
+        final int index = slot >>> 6;
+        final long bit = 1L << slot;
+        final long visited = visitedSlots[index];
+        visitedSlots[index] = visited | bit;
+
+        return (visited & bit) == 0;
+    }
+
+    public static void clearFieldSlot(final long[] slots, final int slot)
+    {
+        if (slot != UNKNOWN_FIELD_SLOT)
+        {
+            slots[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+
+    public static int firstFieldSlot(final long[] slots)
+    {
+        for (int i = 0; i < slots.length; i++)
+        {
+            final long word = slots[i];
+            if (word != 0)
+            {
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+
+        return UNKNOWN_FIELD_SLOT;
+    }
+
     private static void putTrailingZero(final StringBuilder builder, final int zerosCount)
     {
         for (int ix = 0; ix < zerosCount; ix++)
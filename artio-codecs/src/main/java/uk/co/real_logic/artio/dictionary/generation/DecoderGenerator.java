@@ -35,6 +35,9 @@ import static java.util.Collections.emptySet;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static uk.co.real_logic.artio.dictionary.generation.AggregateType.*;
+import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.FIELD_SLOT_PAGE_SHIFT;
+import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.FIELD_SLOT_PAGE_SIZE;
+import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.UNKNOWN_FIELD_SLOT;
 import static uk.co.real_logic.artio.dictionary.generation.ConstantGenerator.sizeHashSet;
 import static uk.co.real_logic.artio.dictionary.generation.EncoderGenerator.encoderClassName;
 import static uk.co.real_logic.artio.dictionary.generation.EnumGenerator.NULL_VAL_NAME;
@@ -109,6 +112,16 @@ public class DecoderGenerator extends Generator
 
     private final int initialBufferSize;
     private final String encoderPackage;
+    private final Map<String, Set<String>> projections;
+    private final boolean projectionTrailerCheck;
+
+    // Slot of each tag that the decode method of the aggregate currently being generated dispatches on
+    private Map<Integer, Integer> fieldSlots = Collections.emptyMap();
+
+    // Inner group classes can't declare static fields, so their field slot tables are declared by the closest
+    // enclosing class that can, with the names of the groups as a prefix.
+    private StringBuilder enclosedFieldSlotTables = new StringBuilder();
+    private String fieldSlotTablePrefix = "";
 
     public DecoderGenerator(
         final Dictionary dictionary,
@@ -122,11 +135,53 @@ public class DecoderGenerator extends Generator
         final Class<?> rejectUnknownEnumValueClass,
         final boolean flyweightsEnabled,
         final String codecRejectUnknownEnumValueEnabled)
+    {
+        this(dictionary, initialBufferSize, thisPackage, commonPackage, encoderPackage, outputManager,
+            validationClass, rejectUnknownFieldClass, rejectUnknownEnumValueClass, flyweightsEnabled,
+            codecRejectUnknownEnumValueEnabled, Collections.emptyMap(), false);
+    }
+
+    // projections maps a message name, eg: ExecutionReport, to the names of the body fields and groups that its
+    // decodeProjection() method should decode. If projectionTrailerCheck is true then projection decoders decode
+    // the trailer and validate the checksum once all of their fields have been found, otherwise they return
+    // immediately.
+    public DecoderGenerator(
+        final Dictionary dictionary,
+        final int initialBufferSize,
+        final String thisPackage,
+        final String commonPackage,
+        final String encoderPackage,
+        final OutputManager outputManager,
+        final Class<?> validationClass,
+        final Class<?> rejectUnknownFieldClass,
+        final Class<?> rejectUnknownEnumValueClass,
+        final boolean flyweightsEnabled,
+        final String codecRejectUnknownEnumValueEnabled,
+        final Map<String, Set<String>> projections,
+        final boolean projectionTrailerCheck)
     {
         super(dictionary, thisPackage, commonPackage, outputManager, validationClass, rejectUnknownFieldClass,
             rejectUnknownEnumValueClass, flyweightsEnabled, codecRejectUnknownEnumValueEnabled);
         this.initialBufferSize = initialBufferSize;
         this.encoderPackage = encoderPackage;
+        this.projections = projections;
+        this.projectionTrailerCheck = projectionTrailerCheck;
+        validateProjections();
+    }
+
+    private void validateProjections()
+    {
+        for (final String messageName : projections.keySet())
+        {
+            final boolean messageExists = dictionary
+                .messages()
+                .stream()
+                .anyMatch((message) -> message.name().equals(messageName));
+            if (!messageExists)
+            {
+                throw new IllegalArgumentException("Unknown message in projection: " + messageName);
+            }
+        }
     }
 
     public void generate()
@@ -176,7 +231,7 @@ public class DecoderGenerator extends Generator
 
                 importEncoders(aggregate, out);
 
-                generateAggregateClass(aggregate, type, className, out);
+                generateAggregateClass(aggregate, type, className, out, false);
             });
     }
 
@@ -214,10 +269,22 @@ public class DecoderGenerator extends Generator
         final Aggregate aggregate,
         final AggregateType type,
         final String className,
-        final Writer out) throws IOException
+        final Writer out,
+        final boolean isInnerClass) throws IOException
     {
         final Aggregate parentAggregate = currentAggregate;
         currentAggregate = aggregate;
+        final StringBuilder outerFieldSlotTables = enclosedFieldSlotTables;
+        final String outerFieldSlotTablePrefix = fieldSlotTablePrefix;
+        if (isInnerClass)
+        {
+            fieldSlotTablePrefix = outerFieldSlotTablePrefix + constantName(aggregate.name()) + "_";
+        }
+        else
+        {
+            enclosedFieldSlotTables = new StringBuilder();
+            fieldSlotTablePrefix = "";
+        }
 
         final boolean isMessage = type == MESSAGE;
         final boolean isGroup = type == GROUP;
@@ -249,17 +316,28 @@ public class DecoderGenerator extends Generator
             final List<Field> fields = compileAllFieldsFor(message);
             final String messageFieldsSet = generateFieldDictionary(fields, MESSAGE_FIELDS, false);
             out.append(commonCompoundImports("Decoder", true, messageFieldsSet));
+            out.append("    private final HeaderDecoder ownHeader = header;\n\n");
 
         }
         groupMethods(out, aggregate);
         headerMethods(out, aggregate, type);
         generateGetters(out, className, aggregate.entries());
         out.append(decodeMethod(aggregate.entries(), aggregate, type));
-        out.append(completeResetMethod(isMessage, aggregate.entries(), additionalReset(isGroup)));
+        if (isMessage)
+        {
+            out.append(decodeProjectionMethod((Message)aggregate));
+        }
+        out.append(completeResetMethod(isMessage, aggregate.entries(), additionalReset(aggregate, isGroup)));
         out.append(generateAppendTo(aggregate, isMessage));
         out.append(generateToEncoder(aggregate));
+        if (!isInnerClass)
+        {
+            out.append(enclosedFieldSlotTables);
+        }
         out.append("}\n");
         currentAggregate = parentAggregate;
+        enclosedFieldSlotTables = outerFieldSlotTables;
+        fieldSlotTablePrefix = outerFieldSlotTablePrefix;
     }
 
     private List<Field> compileAllFieldsFor(final Message message)
@@ -288,10 +366,11 @@ public class DecoderGenerator extends Generator
         }
     }
 
-    private void groupClass(final Group group, final Writer out) throws IOException
+    // Group classes are inner classes, apart from those declared by component interfaces, which are static.
+    private void groupClass(final Group group, final Writer out, final boolean isInnerClass) throws IOException
     {
         final String className = decoderClassName(group);
-        generateAggregateClass(group, GROUP, className, out);
+        generateAggregateClass(group, GROUP, className, out, isInnerClass);
     }
 
     protected Class<?> topType(final AggregateType aggregateType)
@@ -357,18 +436,20 @@ public class DecoderGenerator extends Generator
         return resetFieldValue(field, "MISSING_INT");
     }
 
-    private String additionalReset(final boolean isGroup)
+    private String additionalReset(final Aggregate aggregate, final boolean isGroup)
     {
+        final int slotWords = fieldSlotWords(slotFields(aggregate.entries()));
         return
             "        buffer = null;\n" +
             "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "        {\n" +
             "            invalidTagId = Decoder.NO_ERROR;\n" +
             "            rejectReason = Decoder.NO_ERROR;\n" +
-            "            missingRequiredFields.clear();\n" +
+            resetFieldSlots("missingRequiredFields", slotWords, null) +
             (isGroup ? "" :
                 "            unknownFields.clear();\n" +
-                "            alreadyVisitedFields.clear();\n") +
+                resetFieldSlots("alreadyVisitedFields", slotWords, null) +
+                "            alreadyVisitedUnknownFields.clear();\n") +
             "        }\n";
     }
 
@@ -378,6 +459,10 @@ public class DecoderGenerator extends Generator
         final List<Field> requiredFields = requiredFields(aggregate.entries()).collect(toList());
         out.append(generateFieldDictionary(requiredFields, REQUIRED_FIELDS, true));
 
+        final List<Field> slotFields = slotFields(aggregate.entries());
+        out.append(fieldSlotTable(slotFields, requiredFields));
+        final int slotWords = fieldSlotWords(slotFields);
+
         if (aggregate.containsGroup())
         {
             final List<Field> groupFields = aggregate
@@ -427,9 +512,10 @@ public class DecoderGenerator extends Generator
 
         out.append(String.format(
             (isGroup ? generateAllGroupFields(aggregate) :
-            "    private final IntHashSet alreadyVisitedFields = new IntHashSet(%5$d);\n\n" +
+            "    private final long[] alreadyVisitedFields = new long[%1$d];\n\n" +
+            "    private final IntHashSet alreadyVisitedUnknownFields = new IntHashSet(10);\n\n" +
             "    private final IntHashSet unknownFields = new IntHashSet(10);\n\n") +
-            "    private final IntHashSet missingRequiredFields = new IntHashSet(%1$d);\n\n" +
+            "    private final long[] missingRequiredFields = new long[%1$d];\n\n" +
             "    private int invalidTagId = Decoder.NO_ERROR;\n\n" +
             "    public int invalidTagId()\n" +
             "    {\n" +
@@ -447,12 +533,12 @@ public class DecoderGenerator extends Generator
             "        {\n" +
             "            return false;\n" +
             "        }\n" +
-            "        final IntIterator missingFieldsIterator = missingRequiredFields.iterator();\n" +
+            "        final int missingFieldSlot = firstFieldSlot(missingRequiredFields);\n" +
             (isMessage ? "        final IntIterator unknownFieldsIterator = unknownFields.iterator();\n" : "") +
             "%2$s" +
-            "        if (missingFieldsIterator.hasNext())\n" +
+            "        if (missingFieldSlot != UNKNOWN_FIELD_SLOT)\n" +
             "        {\n" +
-            "            invalidTagId = missingFieldsIterator.nextValue();\n" +
+            "            invalidTagId = " + fieldSlotTablePrefix + "FIELD_SLOT_TAGS[missingFieldSlot];\n" +
             "            rejectReason = " + REQUIRED_TAG_MISSING + ";\n" +
             "            return false;\n" +
             "        }\n" +
@@ -460,11 +546,123 @@ public class DecoderGenerator extends Generator
             "%4$s" +
             "        return true;\n" +
             "    }\n\n",
-            sizeHashSet(requiredFields),
+            slotWords,
             messageValidation,
             enumValidation,
-            groupValidation,
-            2 * aggregate.allFieldsIncludingComponents().count()));
+            groupValidation));
+    }
+
+    private List<Field> slotFields(final List<Entry> entries)
+    {
+        final List<Field> slotFields = new ArrayList<>();
+        collectSlotFields(entries, slotFields);
+        return slotFields;
+    }
+
+    // The fields that the decode method's switch dispatches on, group bodies are decoded by their own decoder
+    private void collectSlotFields(final List<Entry> entries, final List<Field> slotFields)
+    {
+        for (final Entry entry : entries)
+        {
+            entry.forEach(
+                slotFields::add,
+                (group) -> slotFields.add((Field)group.numberField().element()),
+                (component) -> collectSlotFields(component.entries(), slotFields));
+        }
+    }
+
+    private static int fieldSlotWords(final List<Field> slotFields)
+    {
+        return Math.max(1, (slotFields.size() + 63) / 64);
+    }
+
+    private Map<Integer, Integer> fieldSlotsOf(final List<Entry> entries)
+    {
+        final List<Field> slotFields = slotFields(entries);
+        final Map<Integer, Integer> fieldSlots = new HashMap<>();
+        for (int slot = 0; slot < slotFields.size(); slot++)
+        {
+            fieldSlots.put(slotFields.get(slot).number(), slot);
+        }
+        return fieldSlots;
+    }
+
+    // Two level table that maps tags to dense slots without collisions. The first level indexes pages of
+    // FIELD_SLOT_PAGE_SIZE tags, pages without any fields share the empty page 0, so the table's size is
+    // proportional to the number of distinct pages rather than the largest tag.
+    private String fieldSlotTable(final List<Field> slotFields, final List<Field> requiredFields)
+    {
+        final int maxTag = slotFields.stream().mapToInt(Field::number).max().orElse(0);
+        final int[] pages = new int[(maxTag >>> FIELD_SLOT_PAGE_SHIFT) + 1];
+        final List<Integer> slots = new ArrayList<>(Collections.nCopies(FIELD_SLOT_PAGE_SIZE, UNKNOWN_FIELD_SLOT));
+        final int[] tags = new int[slotFields.size()];
+        final long[] requiredBits = new long[fieldSlotWords(slotFields)];
+        for (int slot = 0; slot < slotFields.size(); slot++)
+        {
+            final Field field = slotFields.get(slot);
+            final int tag = field.number();
+            final int pageIndex = tag >>> FIELD_SLOT_PAGE_SHIFT;
+            if (pages[pageIndex] == 0)
+            {
+                pages[pageIndex] = slots.size() >>> FIELD_SLOT_PAGE_SHIFT;
+                slots.addAll(Collections.nCopies(FIELD_SLOT_PAGE_SIZE, UNKNOWN_FIELD_SLOT));
+            }
+            slots.set((pages[pageIndex] << FIELD_SLOT_PAGE_SHIFT) | (tag & (FIELD_SLOT_PAGE_SIZE - 1)), slot);
+            tags[slot] = tag;
+            if (requiredFields.contains(field))
+            {
+                requiredBits[slot >>> 6] |= 1L << slot;
+            }
+        }
+
+        final String prefix = fieldSlotTablePrefix;
+        final String tables =
+            "    private static final short[] " + prefix + "FIELD_SLOT_PAGES =" +
+            arrayInitializer(Arrays.stream(pages).mapToObj(String::valueOf)) +
+            "    private static final short[] " + prefix + "FIELD_SLOTS =" +
+            arrayInitializer(slots.stream().map(String::valueOf)) +
+            "    private static final int[] " + prefix + "FIELD_SLOT_TAGS =" +
+            arrayInitializer(Arrays.stream(tags).mapToObj(String::valueOf)) +
+            "    private static final long[] " + prefix + "REQUIRED_FIELD_SLOTS =" +
+            arrayInitializer(Arrays.stream(requiredBits).mapToObj((bits) -> bits + "L"));
+        final boolean isInnerClass = !prefix.isEmpty();
+        if (isInnerClass)
+        {
+            enclosedFieldSlotTables.append(tables);
+        }
+
+        return
+            (isInnerClass ? "" : tables) +
+            "    private " + (isInnerClass ? "" : "static ") + "int fieldSlot(final int tag)\n" +
+            "    {\n" +
+            "        return lookupFieldSlot(tag, " + prefix + "FIELD_SLOT_PAGES, " + prefix + "FIELD_SLOTS);\n" +
+            "    }\n\n";
+    }
+
+    private static String arrayInitializer(final Stream<String> values)
+    {
+        final List<String> valueList = values.collect(toList());
+        final StringBuilder initializer = new StringBuilder("\n    {");
+        for (int i = 0; i < valueList.size(); i++)
+        {
+            initializer.append(i % 16 == 0 ? "\n        " : " ").append(valueList.get(i));
+            if (i < valueList.size() - 1)
+            {
+                initializer.append(',');
+            }
+        }
+        return initializer.append("\n    };\n\n").toString();
+    }
+
+    private String resetFieldSlots(final String name, final int slotWords, final String source)
+    {
+        final StringBuilder reset = new StringBuilder();
+        for (int i = 0; i < slotWords; i++)
+        {
+            final String value = source == null ? "0L" : source + "[" + i + "]";
+            reset.append(String.format("            %s[%d] = %s;\n", name, i, value));
+        }
+        return reset.toString();
     }
 
     private String generateAllGroupFields(final Aggregate groupAggregate)
@@ -712,7 +910,7 @@ public class DecoderGenerator extends Generator
 
     private void groupInterfaceGetter(final Aggregate parent, final Group group, final Writer out) throws IOException
     {
-        groupClass(group, out);
+        groupClass(group, out, false);
         generateGroupIterator(parent, out, group);
 
         final Entry numberField = group.numberField();
@@ -907,7 +1105,7 @@ public class DecoderGenerator extends Generator
         // The component interface will generate the group class
         if (!(currentAggregate instanceof Component))
         {
-            groupClass(group, out);
+            groupClass(group, out, true);
             generateGroupIterator(currentAggregate, out, group);
         }
 
@@ -1318,21 +1516,25 @@ public class DecoderGenerator extends Generator
         final boolean isGroup = type == GROUP;
         final boolean isHeader = type == HEADER;
         final String endGroupCheck = endGroupCheck(aggregate, isGroup);
+        final int slotWords = fieldSlotWords(slotFields(entries));
         final String prefix =
             "    private AsciiBuffer buffer;\n\n" +
-            "    public int decode(final AsciiBuffer buffer, final int offset, final int length)\n" +
+            (hasCommonCompounds ? decodeWithHeaderMethods() :
+            "    public int decode(final AsciiBuffer buffer, final int offset, final int length)\n") +
             "    {\n" +
             "        // Decode " + aggregate.name() + "\n" +
             "        int seenFieldCount = 0;\n" +
             "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "        {\n" +
-            "            missingRequiredFields.copy(" + REQUIRED_FIELDS + ");\n" +
-            (isGroup ? "" : "            alreadyVisitedFields.clear();\n") +
+            resetFieldSlots("missingRequiredFields", slotWords, fieldSlotTablePrefix + "REQUIRED_FIELD_SLOTS") +
+            (isGroup ? "" :
+            resetFieldSlots("alreadyVisitedFields", slotWords, null) +
+            "            alreadyVisitedUnknownFields.clear();\n") +
             "        }\n" +
             "        this.buffer = buffer;\n" +
             "        final int end = offset + length;\n" +
             "        int position = offset;\n" +
-            (hasCommonCompounds ? "        position += header.decode(buffer, position, length);\n" : "") +
+            (hasCommonCompounds ? "        position += headerLength;\n" : "") +
             (isGroup ? "        seenFields.clear();\n" : "") +
             "        int tag;\n\n" +
             "        while (position < end)\n" +
@@ -1344,6 +1546,7 @@ public class DecoderGenerator extends Generator
             "            }\n" +
             "            tag = buffer.getInt(position, equalsPosition);\n" +
             endGroupCheck +
+            "            final int slot = fieldSlot(tag);\n" +
             "            final int valueOffset = equalsPosition + 1;\n" +
             "            int endOfField = buffer.scan(valueOffset, end, START_OF_HEADER);\n" +
             malformedMessageCheck() +
@@ -1361,28 +1564,25 @@ public class DecoderGenerator extends Generator
             "                    rejectReason = " + TAG_SPECIFIED_WITHOUT_A_VALUE + ";\n" +
             "                }\n" +
             headerValidation(isHeader) +
-            (isGroup ? "" :
-            "                if (!alreadyVisitedFields.add(tag))\n" +
-            "                {\n" +
-            "                    invalidTagId = tag;\n" +
-            "                    rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
-            "                }\n") +
-
-            "                missingRequiredFields.remove(tag);\n" +
+            (isGroup ? "" : duplicateFieldValidation()) +
+            "                clearFieldSlot(missingRequiredFields, slot);\n" +
             "                seenFieldCount++;\n" +
             "            }\n" +
-            "            switch (tag)\n" +
+            "            switch (slot)\n" +
             "            {\n\n";
+        final Map<Integer, Integer> parentFieldSlots = fieldSlots;
+        fieldSlots = fieldSlotsOf(entries);
         final String body = entries.stream()
             .map(this::decodeEntry)
             .collect(joining("\n", "", "\n"));
+        fieldSlots = parentFieldSlots;
         final String suffix =
             "            default:\n" +
             "                if (!" + CODEC_REJECT_UNKNOWN_FIELD_ENABLED + ")\n" +
             "                {\n" +
             (isGroup ?
             "                    seenFields.remove(tag);\n" :
-            "                    alreadyVisitedFields.remove(tag);\n") +
+            "                    alreadyVisitedUnknownFields.remove(tag);\n") +
             "                }\n" +
             (isGroup ? "" :
             "                else\n" +
@@ -1411,6 +1611,339 @@ public class DecoderGenerator extends Generator
         return prefix + body + suffix;
     }
 
+    protected String resetHeader()
+    {
+        // Stop using a header that was decoded elsewhere, which isn't owned by this decoder
+        return
+            "        header = ownHeader;\n" +
+            "        header.reset();\n";
+    }
+
+    private String decodeWithHeaderMethods()
+    {
+        return
+            "    public int decode(final AsciiBuffer buffer, final int offset, final int length)\n" +
+            "    {\n" +
+            "        header = ownHeader;\n" +
+            "        return decode(buffer, offset, length, header.decode(buffer, offset, length));\n" +
+            "    }\n\n" +
+            "    /**\n" +
+            "     * Decode this message using a header that has already been decoded from the start of the same\n" +
+            "     * message, for example by the session layer, so that only the body and trailer are scanned.\n" +
+            "     * The decoded header is returned by header() until the next decode or reset, it isn't copied or\n" +
+            "     * modified by this decoder.\n" +
+            "     *\n" +
+            "     * @param decodedHeader the header decoder that has decoded the start of this message.\n" +
+            "     * @param headerLength the length of the header that it decoded.\n" +
+            "     * @param buffer the buffer containing the message.\n" +
+            "     * @param offset the offset of the start of the message, including its header.\n" +
+            "     * @param length the length of the message, including its header.\n" +
+            "     * @return the length that has been decoded.\n" +
+            "     */\n" +
+            "    public int decode(\n" +
+            "        final HeaderDecoder decodedHeader,\n" +
+            "        final int headerLength,\n" +
+            "        final AsciiBuffer buffer,\n" +
+            "        final int offset,\n" +
+            "        final int length)\n" +
+            "    {\n" +
+            "        header = decodedHeader;\n" +
+            "        return decode(buffer, offset, length, headerLength);\n" +
+            "    }\n\n" +
+            "    private int decode(\n" +
+            "        final AsciiBuffer buffer, final int offset, final int length, final int headerLength)\n";
+    }
+
+    private String decodeProjectionMethod(final Message message)
+    {
+        final Set<String> projectedNames = projections.get(message.name());
+        if (projectedNames == null)
+        {
+            return "";
+        }
+
+        final List<Entry> projectedEntries = new ArrayList<>();
+        collectProjectedEntries(message.entries(), projectedNames, projectedEntries);
+        for (final String name : projectedNames)
+        {
+            if (projectedEntries.stream().noneMatch((entry) -> entry.name().equals(name)))
+            {
+                throw new IllegalArgumentException(String.format(
+                    "%s is not a body field or group of %s", name, message.name()));
+            }
+        }
+
+        final List<Group> skippedGroups = new ArrayList<>();
+        collectSkippedGroups(message.entries(), projectedNames, skippedGroups);
+
+        final Map<Integer, Integer> parentFieldSlots = fieldSlots;
+        fieldSlots = fieldSlotsOf(message.entries());
+        final String body = Stream.concat(
+            projectedEntries.stream().map(this::decodeProjectedEntry),
+            skippedGroups.stream().map(this::skipGroupCase))
+            .collect(joining("\n", "", "\n"));
+        fieldSlots = parentFieldSlots;
+
+        // Other tags fall through to the default case and are skipped without being decoded. The bodies of groups
+        // that aren't projected are skipped as a whole, as their fields can share tags with projected fields.
+        return
+            "    /**\n" +
+            "     * Decode only the " + projectedEntries.size() + " projected fields and groups of this message,\n" +
+            "     * returning as soon as they have all been seen. Other fields retain their previous values.\n" +
+            "     *\n" +
+            "     * @param buffer the buffer containing the message.\n" +
+            "     * @param offset the offset of the start of the message, including its header.\n" +
+            "     * @param length the length of the message, including its header.\n" +
+            "     * @return the length that has been decoded, up to where decoding stopped.\n" +
+            "     */\n" +
+            "    public int decodeProjection(final AsciiBuffer buffer, final int offset, final int length)\n" +
+            "    {\n" +
+            "        header = ownHeader;\n" +
+            "        this.buffer = buffer;\n" +
+            "        final int end = offset + length;\n" +
+            "        int position = offset;\n" +
+            "        position += header.decode(buffer, position, length);\n" +
+            "        int projectedFieldCount = 0;\n" +
+            "        int tag;\n\n" +
+            "        while (position < end && projectedFieldCount < " + projectedEntries.size() + ")\n" +
+            "        {\n" +
+            "            final int equalsPosition = buffer.scan(position, end, '=');\n" +
+            "            if (equalsPosition == AsciiBuffer.UNKNOWN_INDEX)\n" +
+            "            {\n" +
+            "               return position - offset;\n" +
+            "            }\n" +
+            "            tag = buffer.getInt(position, equalsPosition);\n" +
+            "            final int valueOffset = equalsPosition + 1;\n" +
+            "            int endOfField = buffer.scan(valueOffset, end, START_OF_HEADER);\n" +
+            malformedMessageCheck() +
+            "            final int valueLength = endOfField - valueOffset;\n" +
+            "            switch (fieldSlot(tag))\n" +
+            "            {\n\n" +
+            body +
+            "            }\n\n" +
+            "            if (position < (endOfField + 1))\n" +
+            "            {\n" +
+            "                position = endOfField + 1;\n" +
+            "            }\n" +
+            "        }\n" +
+            projectionTrailerCheck() +
+            "        return position - offset;\n" +
+            "    }\n\n" +
+            skipGroupMethods(skippedGroups);
+    }
+
+    private void collectSkippedGroups(
+        final List<Entry> entries, final Set<String> projectedNames, final List<Group> skippedGroups)
+    {
+        for (final Entry entry : entries)
+        {
+            if (entry.isComponent())
+            {
+                collectSkippedGroups(((Component)entry.element()).entries(), projectedNames, skippedGroups);
+            }
+            else if (entry.isGroup() && !projectedNames.contains(entry.name()))
+            {
+                skippedGroups.add((Group)entry.element());
+            }
+        }
+    }
+
+    private String skipGroupCase(final Group group)
+    {
+        final Field numberField = (Field)group.numberField().element();
+        return String.format(
+            "            case %d: // Constants.%s\n" +
+            "                position = %s(buffer, endOfField + 1, end, buffer.getInt(valueOffset, endOfField));\n" +
+            "                break;\n",
+            fieldSlots.get(numberField.number()),
+            constantName(numberField.name()),
+            skipGroupMethodName(group));
+    }
+
+    private String skipGroupMethods(final List<Group> skippedGroups)
+    {
+        final Map<String, Group> allSkippedGroups = new LinkedHashMap<>();
+        skippedGroups.forEach((group) -> collectNestedGroups(group, allSkippedGroups));
+        return allSkippedGroups.values().stream().map(this::skipGroupMethod).collect(joining());
+    }
+
+    private void collectNestedGroups(final Group group, final Map<String, Group> allGroups)
+    {
+        if (allGroups.putIfAbsent(group.name(), group) == null)
+        {
+            group.allGroupsIncludingComponents().forEach(
+                (entry) -> collectNestedGroups((Group)entry.element(), allGroups));
+        }
+    }
+
+    // Group entries start with their delimiter field and end at a field that isn't in the group or that has already
+    // been seen in the entry, the same as the group's decoder, but without decoding any of their values.
+    private String skipGroupMethod(final Group group)
+    {
+        final String seenFields = "skipped" + group.name() + "Fields";
+        final StringBuilder groupFieldCases = new StringBuilder();
+        final StringBuilder nestedGroupCases = new StringBuilder();
+        collectSkipGroupCases(group.entries(), groupFieldCases, nestedGroupCases);
+
+        return String.format(
+            "    private final IntHashSet %1$s = new IntHashSet();\n\n" +
+            "    private int %2$s(final AsciiBuffer buffer, final int offset, final int end, final int numInGroup)\n" +
+            "    {\n" +
+            "        final IntHashSet seenFields = %1$s;\n" +
+            "        int entryCount = 0;\n" +
+            "        int position = offset;\n" +
+            "        while (position < end)\n" +
+            "        {\n" +
+            "            final int equalsPosition = buffer.scan(position, end, '=');\n" +
+            "            if (equalsPosition == AsciiBuffer.UNKNOWN_INDEX)\n" +
+            "            {\n" +
+            "                return position;\n" +
+            "            }\n" +
+            "            final int tag = buffer.getInt(position, equalsPosition);\n" +
+            "            final int valueOffset = equalsPosition + 1;\n" +
+            "            final int endOfField = buffer.scan(valueOffset, end, START_OF_HEADER);\n" +
+            "            if (endOfField == AsciiBuffer.UNKNOWN_INDEX)\n" +
+            "            {\n" +
+            "                return position;\n" +
+            "            }\n\n" +
+            "            if (tag == %3$d)\n" +
+            "            {\n" +
+            "                if (entryCount == numInGroup)\n" +
+            "                {\n" +
+            "                    return position;\n" +
+            "                }\n" +
+            "                entryCount++;\n" +
+            "                seenFields.clear();\n" +
+            "            }\n\n" +
+            "            if (entryCount == 0 || !seenFields.add(tag))\n" +
+            "            {\n" +
+            "                return position;\n" +
+            "            }\n\n" +
+            "            switch (tag)\n" +
+            "            {\n" +
+            "%4$s" +
+            "                    position = endOfField + 1;\n" +
+            "                    break;\n\n" +
+            "%5$s" +
+            "                default:\n" +
+            "                    return position;\n" +
+            "            }\n" +
+            "        }\n" +
+            "        return position;\n" +
+            "    }\n\n",
+            seenFields,
+            skipGroupMethodName(group),
+            delimiterTag(group.entries()),
+            groupFieldCases,
+            nestedGroupCases);
+    }
+
+    private void collectSkipGroupCases(
+        final List<Entry> entries, final StringBuilder groupFieldCases, final StringBuilder nestedGroupCases)
+    {
+        for (final Entry entry : entries)
+        {
+            if (entry.isComponent())
+            {
+                collectSkipGroupCases(((Component)entry.element()).entries(), groupFieldCases, nestedGroupCases);
+            }
+            else if (entry.isGroup())
+            {
+                final Group nestedGroup = (Group)entry.element();
+                nestedGroupCases.append(String.format(
+                    "                case %d:\n" +
+                    "                    position = %s(\n" +
+                    "                        buffer, endOfField + 1, end, buffer.getInt(valueOffset, endOfField));\n" +
+                    "                    break;\n\n",
+                    nestedGroup.numberField().number(),
+                    skipGroupMethodName(nestedGroup)));
+            }
+            else
+            {
+                groupFieldCases.append(String.format("                case %d:\n", entry.number()));
+            }
+        }
+    }
+
+    private int delimiterTag(final List<Entry> entries)
+    {
+        final Entry firstEntry = entries.get(0);
+        if (firstEntry.isComponent())
+        {
+            return delimiterTag(((Component)firstEntry.element()).entries());
+        }
+
+        return firstEntry.isGroup() ? ((Group)firstEntry.element()).numberField().number() : firstEntry.number();
+    }
+
+    private String skipGroupMethodName(final Group group)
+    {
+        return "skip" + group.name();
+    }
+
+    private String projectionTrailerCheck()
+    {
+        if (!projectionTrailerCheck)
+        {
+            return "";
+        }
+
+        // The trailer is the final field, so it can be found by scanning back from the end of the message rather
+        // than scanning forward over the remaining fields.
+        return
+            "        final int trailerOffset = buffer.scanBack(end - 2, offset, START_OF_HEADER) + 1;\n" +
+            "        trailer.decode(buffer, trailerOffset, end - trailerOffset);\n" +
+            "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
+            "        {\n" +
+            "            final int checkSumOffset = buffer.scan(trailerOffset, end, '=') + 1;\n" +
+            "            final int checkSum = buffer.getInt(checkSumOffset, end - 1);\n" +
+            "            if (checkSum != buffer.computeChecksum(offset, trailerOffset))\n" +
+            "            {\n" +
+            "                invalidTagId = Constants.CHECK_SUM;\n" +
+            "                rejectReason = " + VALUE_IS_INCORRECT + ";\n" +
+            "            }\n" +
+            "        }\n";
+    }
+
+    private void collectProjectedEntries(
+        final List<Entry> entries, final Set<String> projectedNames, final List<Entry> projectedEntries)
+    {
+        for (final Entry entry : entries)
+        {
+            if (entry.isComponent())
+            {
+                collectProjectedEntries(((Component)entry.element()).entries(), projectedNames, projectedEntries);
+            }
+            else if (projectedNames.contains(entry.name()))
+            {
+                projectedEntries.add(entry);
+            }
+        }
+    }
+
+    private String decodeProjectedEntry(final Entry entry)
+    {
+        final String countProjectedField = "                projectedFieldCount++;\n";
+        if (entry.isGroup())
+        {
+            return decodeGroup(entry, countProjectedField);
+        }
+
+        return decodeField(entry, countProjectedField);
+    }
+
+    private String duplicateFieldValidation()
+    {
+        return
+            "                final boolean firstVisit = slot == UNKNOWN_FIELD_SLOT ?\n" +
+            "                    alreadyVisitedUnknownFields.add(tag) : visitFieldSlot(alreadyVisitedFields, slot);\n" +
+            "                if (!firstVisit)\n" +
+            "                {\n" +
+            "                    invalidTagId = tag;\n" +
+            "                    rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
+            "                }\n";
+    }
+
     private String malformedMessageCheck()
     {
         return "            if (endOfField == AsciiBuffer.UNKNOWN_INDEX || " +
@@ -1495,7 +2028,7 @@ public class DecoderGenerator extends Generator
     {
         return entry.matchEntry(
             (e) -> decodeField(e, ""),
-            this::decodeGroup,
+            (e) -> decodeGroup(e, ""),
             this::decodeComponent);
     }
 
@@ -1518,7 +2051,7 @@ public class DecoderGenerator extends Generator
             .collect(joining("\n"));
     }
 
-    private String decodeGroup(final Entry entry)
+    private String decodeGroup(final Entry entry, final String suffix)
     {
         final Group group = (Group)entry.element();
 
@@ -1561,7 +2094,7 @@ public class DecoderGenerator extends Generator
             MESSAGE_FIELDS,
             INCORRECT_NUMINGROUP_COUNT_FOR_REPEATING_GROUP);
 
-        return decodeField(group.numberField(), parseGroup);
+        return decodeField(group.numberField(), parseGroup + suffix);
     }
 
     private String decodeField(final Entry entry, final String suffix)
@@ -1577,13 +2110,14 @@ public class DecoderGenerator extends Generator
         final String fieldName = formatPropertyName(name);
 
         return String.format(
-            "            case Constants.%s:\n" +
+            "            case %d: // Constants.%s\n" +
             "%s" +
             "%s" +
             "%s" +
             "%s" +
             "%s" +
             "                break;\n",
+            fieldSlots.get(field.number()),
             constantName(name),
             optionalAssign(entry),
             fieldDecodeMethod(field, fieldName),
@@ -194,6 +194,11 @@ public abstract class Generator
             isStatic ? "static " : "");
     }
 
+    protected String resetHeader()
+    {
+        return "        header.reset();\n";
+    }
+
     protected String completeResetMethod(
         final boolean isMessage,
         final List<Entry> entries,
@@ -208,7 +213,7 @@ public abstract class Generator
             return String.format(
                 "    public void reset()\n" +
                 "    {\n" +
-                "        header.reset();\n" +
+                "%4$s" +
                 "        trailer.reset();\n" +
                 "        resetMessage();\n" +
                 "%2$s" +
@@ -220,7 +225,8 @@ public abstract class Generator
                 "%3$s",
                 resetEntries,
                 additionalReset,
-                methods);
+                methods,
+                resetHeader());
         }
         else
         {
@@ -149,6 +149,11 @@ public class CharFormatter
         }
     }
 
+    public String formatString()
+    {
+        return formatString;
+    }
+
     public int putIntAscii(final char[] buffer, final int index, final int value)
     {
         if (value == 0)
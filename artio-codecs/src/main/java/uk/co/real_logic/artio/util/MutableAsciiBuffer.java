@@ -25,7 +25,9 @@ import uk.co.real_logic.artio.util.float_parsing.DecimalFloatParser;
 
 import java.nio.ByteBuffer;
 
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
 
 public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffer
 {
@@ -35,6 +37,13 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
     private static final byte Y = (byte)'Y';
     private static final byte N = (byte)'N';
 
+    // Constants for operating on the 8 bytes of a long at a time
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long EVEN_BYTES = 0x00FF00FF00FF00FFL;
+    private static final long SUM_SHORTS = 0x0001000100010001L;
+
     public MutableAsciiBuffer()
     {
         super(0, 0);
@@ -200,7 +209,24 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int scanBack(final int startInclusive, final int endExclusive, final byte terminator)
     {
-        for (int index = startInclusive; index > endExclusive; index--)
+        int index = startInclusive;
+        if (index < capacity())
+        {
+            final int wordEnd = Math.max(endExclusive, -1) + SIZE_OF_LONG;
+            final long pattern = (terminator & 0xFF) * ONES;
+            while (index >= wordEnd)
+            {
+                final int wordStart = index - (SIZE_OF_LONG - 1);
+                final long matches = matchingBytes(getLong(wordStart, LITTLE_ENDIAN), pattern);
+                if (matches != 0)
+                {
+                    return wordStart + ((63 - Long.numberOfLeadingZeros(matches)) >>> 3);
+                }
+                index -= SIZE_OF_LONG;
+            }
+        }
+
+        for (; index > endExclusive; index--)
         {
             final byte value = getByte(index);
             if (value == terminator)
@@ -219,24 +245,57 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int scan(final int startInclusive, final int endExclusive, final byte terminator)
     {
-        int indexValue = UNKNOWN_INDEX;
-        for (int i = startInclusive; i < endExclusive; i++)
+        int index = startInclusive;
+        final int wordEnd = Math.min(endExclusive, capacity()) - SIZE_OF_LONG;
+        if (index <= wordEnd)
+        {
+            final long pattern = (terminator & 0xFF) * ONES;
+            do
+            {
+                final long matches = matchingBytes(getLong(index, LITTLE_ENDIAN), pattern);
+                if (matches != 0)
+                {
+                    return index + (Long.numberOfTrailingZeros(matches) >>> 3);
+                }
+                index += SIZE_OF_LONG;
+            }
+            while (index <= wordEnd);
+        }
+
+        for (; index < endExclusive; index++)
         {
-            final byte value = getByte(i);
+            final byte value = getByte(index);
             if (value == terminator)
             {
-                indexValue = i;
-                break;
+                return index;
             }
         }
 
-        return indexValue;
+        return UNKNOWN_INDEX;
+    }
+
+    // Sets the high bit of exactly those bytes of the word that are equal to the same byte of the pattern.
+    private static long matchingBytes(final long word, final long pattern)
+    {
+        final long difference = word ^ pattern;
+        return ~(((difference & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | difference | LOW_SEVEN_BITS);
     }
 
     public int computeChecksum(final int startInclusive, final int endExclusive)
     {
         int total = 0;
-        for (int index = startInclusive; index < endExclusive; index++)
+        int index = startInclusive;
+        final int wordEnd = endExclusive - SIZE_OF_LONG;
+        while (index <= wordEnd)
+        {
+            final long word = getLong(index);
+            // Sum the bytes as unsigned values, then correct for getByte() sign extending negative bytes.
+            final long pairSums = (word & EVEN_BYTES) + ((word >>> 8) & EVEN_BYTES);
+            total += (int)((pairSums * SUM_SHORTS) >>> 48) - (Long.bitCount(word & HIGH_BITS) << 8);
+            index += SIZE_OF_LONG;
+        }
+
+        for (; index < endExclusive; index++)
         {
             total += getByte(index);
         }
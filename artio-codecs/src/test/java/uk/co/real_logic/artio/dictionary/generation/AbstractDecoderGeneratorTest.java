@@ -26,6 +26,7 @@ import uk.co.real_logic.artio.dictionary.ExampleDictionary;
 import uk.co.real_logic.artio.fields.DecimalFloat;
 import uk.co.real_logic.artio.fields.RejectReason;
 import uk.co.real_logic.artio.fields.UtcTimestampDecoder;
+import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 import uk.co.real_logic.artio.util.Reflection;
 
@@ -39,6 +40,7 @@ import java.util.function.Function;
 
 import static java.lang.reflect.Modifier.isAbstract;
 import static java.lang.reflect.Modifier.isPublic;
+import static java.lang.reflect.Modifier.isStatic;
 import static org.agrona.generation.CompilerUtil.compileInMemory;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -375,6 +377,32 @@ public abstract class AbstractDecoderGeneratorTest
         assertEquals("199", getChecksum(trailer));
     }
 
+    @Test
+    public void shouldDecodeBodyWithAlreadyDecodedHeader() throws Exception
+    {
+        final Class<?> headerClass = heartbeat.getClassLoader().loadClass(HEADER_DECODER);
+        final SessionHeaderDecoder header = (SessionHeaderDecoder)headerClass.getConstructor().newInstance();
+        final int length = ENCODED_MESSAGE.length();
+        buffer.putAscii(1, ENCODED_MESSAGE);
+        final int headerLength = header.decode(buffer, 1, length);
+
+        final Decoder decoder = newHeartbeat();
+        final int consumed = (int)heartbeat
+            .getMethod("decode", headerClass, int.class, AsciiBuffer.class, int.class, int.class)
+            .invoke(decoder, header, headerLength, buffer, 1, length);
+
+        assertEquals(length, consumed);
+        assertSame(header, getHeader(decoder));
+        assertEquals(2, get(decoder, INT_FIELD));
+        assertEquals("199", getChecksum(getTrailer(decoder)));
+        assertTrue(decoder.validate());
+
+        decoder.reset();
+
+        assertNotSame(header, getHeader(decoder));
+        assertEquals("Reset the header that was decoded elsewhere", 81, getBodyLength(header));
+    }
+
     @Test
     public void shouldResetFields() throws Exception
     {
@@ -558,6 +586,19 @@ public abstract class AbstractDecoderGeneratorTest
         assertValid(decoder);
     }
 
+    @Test
+    public void shouldGenerateGroupDecodersAsInnerClassesWithTheirFieldSlotTablesInTheMessage() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(NESTED_GROUP_MESSAGE);
+        final Object group = getEgGroup(decoder);
+        final Object nestedGroup = getNestedGroup(group);
+
+        assertFalse(isStatic(group.getClass().getModifiers()));
+        assertFalse(isStatic(nestedGroup.getClass().getModifiers()));
+        assertNotNull(heartbeat.getDeclaredField("EG_GROUP_GROUP_FIELD_SLOTS"));
+        assertNotNull(heartbeat.getDeclaredField("EG_GROUP_GROUP_NESTED_GROUP_GROUP_FIELD_SLOTS"));
+    }
+
     @Test
     public void shouldDecodeComponents() throws Exception
     {
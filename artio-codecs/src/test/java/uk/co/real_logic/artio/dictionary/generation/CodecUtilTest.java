@@ -17,6 +17,8 @@ package uk.co.real_logic.artio.dictionary.generation;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 
 public class CodecUtilTest
@@ -59,4 +61,39 @@ public class CodecUtilTest
         final int secondHash = CodecUtil.hashCode("abczyx".toCharArray(), 3, 3);
         assertEquals(firstHash, secondHash);
     }
+
+    @Test
+    public void shouldLookupFieldSlotsInPages()
+    {
+        final short[] pages = { 1, 0, 2 };
+        final short[] slots = new short[3 * CodecUtil.FIELD_SLOT_PAGE_SIZE];
+        Arrays.fill(slots, (short)CodecUtil.UNKNOWN_FIELD_SLOT);
+        slots[CodecUtil.FIELD_SLOT_PAGE_SIZE + 35] = 0;
+        slots[2 * CodecUtil.FIELD_SLOT_PAGE_SIZE + (150 - 128)] = 1;
+
+        assertEquals(0, CodecUtil.lookupFieldSlot(35, pages, slots));
+        assertEquals(1, CodecUtil.lookupFieldSlot(150, pages, slots));
+        assertEquals(CodecUtil.UNKNOWN_FIELD_SLOT, CodecUtil.lookupFieldSlot(36, pages, slots));
+        assertEquals(CodecUtil.UNKNOWN_FIELD_SLOT, CodecUtil.lookupFieldSlot(70, pages, slots));
+        assertEquals(CodecUtil.UNKNOWN_FIELD_SLOT, CodecUtil.lookupFieldSlot(5000, pages, slots));
+        assertEquals(CodecUtil.UNKNOWN_FIELD_SLOT, CodecUtil.lookupFieldSlot(-1, pages, slots));
+    }
+
+    @Test
+    public void shouldTrackFieldSlotsInBitsets()
+    {
+        final long[] slots = new long[2];
+
+        assertTrue(CodecUtil.visitFieldSlot(slots, 70));
+        assertFalse(CodecUtil.visitFieldSlot(slots, 70));
+        assertTrue(CodecUtil.visitFieldSlot(slots, 3));
+        assertEquals(3, CodecUtil.firstFieldSlot(slots));
+
+        CodecUtil.clearFieldSlot(slots, 3);
+        CodecUtil.clearFieldSlot(slots, CodecUtil.UNKNOWN_FIELD_SLOT);
+        assertEquals(70, CodecUtil.firstFieldSlot(slots));
+
+        CodecUtil.clearFieldSlot(slots, 70);
+        assertEquals(CodecUtil.UNKNOWN_FIELD_SLOT, CodecUtil.firstFieldSlot(slots));
+    }
 }
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.generation.StringWriterOutputManager;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Decoder;
+import uk.co.real_logic.artio.dictionary.ir.Dictionary;
+import uk.co.real_logic.artio.dictionary.ir.Field;
+import uk.co.real_logic.artio.dictionary.ir.Group;
+import uk.co.real_logic.artio.dictionary.ir.Message;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.agrona.generation.CompilerUtil.compileInMemory;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.builder.Decoder.NO_ERROR;
+import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
+import static uk.co.real_logic.artio.dictionary.generation.Generator.RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY;
+import static uk.co.real_logic.artio.dictionary.ir.Category.APP;
+import static uk.co.real_logic.artio.util.Reflection.get;
+import static uk.co.real_logic.artio.util.Reflection.getField;
+
+public class DecoderGeneratorProjectionTest
+{
+    private static final String TAG_CLASH_DECODER = TEST_PACKAGE + ".TagClashMessageDecoder";
+
+    // The group's entry repeats the body's IntField, which follows the group
+    private static final String TAG_CLASH_MESSAGE =
+        "8=FIX.4.4\0019=37\00135=TC\001115=abc\0015001=1\001121=1\001116=99\001116=2\00110=000\001";
+
+    private static Class<?> heartbeat;
+    private static Class<?> tagClash;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
+
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        final Map<String, Set<String>> projections = new HashMap<>();
+        projections.put("Heartbeat", new HashSet<>(Arrays.asList("IntField", "FloatField", "EgGroupGroup")));
+        final Map<String, CharSequence> sources = generateSources(projections);
+
+        heartbeat = compileInMemory(HEARTBEAT_DECODER, sources);
+        if (heartbeat == null || AbstractDecoderGeneratorTest.CODEC_LOGGING)
+        {
+            System.err.println("sources = " + sources);
+        }
+
+        final Map<String, Set<String>> tagClashProjections = new HashMap<>();
+        tagClashProjections.put("TagClashMessage", singleton("IntField"));
+        final Map<String, CharSequence> tagClashSources = generateSources(
+            tagClashDictionary(), tagClashProjections, false);
+
+        tagClash = compileInMemory(TAG_CLASH_DECODER, tagClashSources);
+        if (tagClash == null || AbstractDecoderGeneratorTest.CODEC_LOGGING)
+        {
+            System.err.println("sources = " + tagClashSources);
+        }
+    }
+
+    @Test
+    public void shouldDecodeOnlyProjectedFields() throws Exception
+    {
+        final Decoder decoder = decodeProjection(heartbeat, ENCODED_MESSAGE, ENCODED_MESSAGE.length());
+
+        assertEquals(2, get(decoder, INT_FIELD));
+        assertFalse("Decoded TestReqID outside of projection", (boolean)getField(decoder, HAS_TEST_REQ_ID));
+        assertFalse("Decoded BooleanField outside of projection", (boolean)getField(decoder, HAS_BOOLEAN_FIELD));
+    }
+
+    @Test
+    public void shouldDecodeProjectedGroups() throws Exception
+    {
+        // Decoding stops after the group, which is the last of the projected fields to be seen
+        final Decoder decoder = decodeProjection(
+            heartbeat, REPEATING_GROUP_MESSAGE, REPEATING_GROUP_MESSAGE.indexOf("\00110=") + 1);
+
+        final Object group = get(decoder, "egGroupGroup");
+        assertEquals(1, get(group, "groupField"));
+        assertEquals(2, get(get(group, "next"), "groupField"));
+    }
+
+    @Test
+    public void shouldValidateChecksumWhenTrailerCheckEnabled() throws Exception
+    {
+        final Decoder decoder = decodeProjection(heartbeat, ENCODED_MESSAGE, ENCODED_MESSAGE.length());
+        assertEquals(NO_ERROR, get(decoder, "rejectReason"));
+
+        final Decoder corruptedDecoder = decodeProjection(
+            heartbeat, ENCODED_MESSAGE.replace("10=199", "10=198"), ENCODED_MESSAGE.length());
+        assertEquals(DecoderGenerator.VALUE_IS_INCORRECT, get(corruptedDecoder, "rejectReason"));
+    }
+
+    @Test
+    public void shouldNotDecodeFieldsOfUnprojectedGroupsIntoProjectedFields() throws Exception
+    {
+        final Decoder decoder = decodeProjection(
+            tagClash, TAG_CLASH_MESSAGE, TAG_CLASH_MESSAGE.indexOf("\00110=") + 1);
+
+        assertEquals(2, get(decoder, INT_FIELD));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectProjectionOfUnknownField()
+    {
+        final Map<String, Set<String>> projections = new HashMap<>();
+        projections.put("Heartbeat", singleton("NotAField"));
+        generateSources(projections);
+    }
+
+    private Decoder decodeProjection(
+        final Class<?> decoderClass, final String message, final int expectedDecodedLength) throws Exception
+    {
+        final Decoder decoder = (Decoder)decoderClass.getConstructor().newInstance();
+        buffer.putAscii(1, message);
+        final int decodedLength = (int)decoderClass
+            .getMethod("decodeProjection", AsciiBuffer.class, int.class, int.class)
+            .invoke(decoder, buffer, 1, message.length());
+        assertEquals(expectedDecodedLength, decodedLength);
+        return decoder;
+    }
+
+    private static Dictionary tagClashDictionary()
+    {
+        final Map<String, Field> fields = new HashMap<>(MESSAGE_EXAMPLE.fields());
+        final Field intField = fields.get("IntField");
+        final Group group = Group.of(Field.registerField(fields, 5001, "NoTagClashGroup", Field.Type.INT));
+        group.optionalEntry(fields.get("GroupField"));
+        group.optionalEntry(intField);
+
+        final Message message = new Message("TagClashMessage", "TC", APP);
+        message.requiredEntry(fields.get("OnBehalfOfCompID"));
+        message.optionalEntry(group);
+        message.requiredEntry(intField);
+
+        return new Dictionary(
+            singletonList(message),
+            fields,
+            MESSAGE_EXAMPLE.components(),
+            MESSAGE_EXAMPLE.header(),
+            MESSAGE_EXAMPLE.trailer(),
+            "FIX",
+            4,
+            4);
+    }
+
+    private static Map<String, CharSequence> generateSources(final Map<String, Set<String>> projections)
+    {
+        return generateSources(MESSAGE_EXAMPLE, projections, true);
+    }
+
+    private static Map<String, CharSequence> generateSources(
+        final Dictionary dictionary, final Map<String, Set<String>> projections, final boolean trailerCheck)
+    {
+        final StringWriterOutputManager outputManager = new StringWriterOutputManager();
+        final ConstantGenerator constantGenerator = new ConstantGenerator(
+            dictionary, TEST_PACKAGE, outputManager);
+        final EnumGenerator enumGenerator = new EnumGenerator(dictionary, TEST_PARENT_PACKAGE, outputManager);
+        final DecoderGenerator decoderGenerator = new DecoderGenerator(
+            dictionary, 1, TEST_PACKAGE, TEST_PARENT_PACKAGE, TEST_PACKAGE,
+            outputManager, ValidationOn.class, RejectUnknownFieldOff.class,
+            RejectUnknownEnumValueOn.class, false, RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY,
+            projections, trailerCheck);
+        final EncoderGenerator encoderGenerator = new EncoderGenerator(dictionary, TEST_PACKAGE,
+            TEST_PARENT_PACKAGE, outputManager, ValidationOn.class, RejectUnknownFieldOn.class,
+            RejectUnknownEnumValueOn.class, RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY);
+
+        constantGenerator.generate();
+        enumGenerator.generate();
+        decoderGenerator.generate();
+        encoderGenerator.generate();
+        return outputManager.getSources();
+    }
+}
@@ -15,12 +15,16 @@
  */
 package uk.co.real_logic.artio.util;
 
+import org.junit.Test;
 import org.junit.experimental.theories.DataPoints;
 import org.junit.experimental.theories.Theories;
 import org.junit.experimental.theories.Theory;
 import org.junit.runner.RunWith;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
 
 @RunWith(Theories.class)
 public class MutableAsciiBufferTest
@@ -55,4 +59,121 @@ public class MutableAsciiBufferTest
         assertEquals("Wrong length for " + value, length, MutableAsciiBuffer.lengthInAscii(value));
     }
 
+    @Test
+    public void shouldScanLikeByteAtATimeImplementation()
+    {
+        final Random random = new Random(42);
+        final MutableAsciiBuffer buffer = randomBuffer(random, 67);
+        final int capacity = buffer.capacity();
+
+        for (int start = 0; start < capacity; start++)
+        {
+            for (int end = start; end <= capacity; end++)
+            {
+                for (final byte terminator : new byte[]{ '\001', '=', (byte)0xFF })
+                {
+                    assertEquals(
+                        start + " -> " + end,
+                        byteAtATimeScan(buffer, start, end, terminator),
+                        buffer.scan(start, end, terminator));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldScanBackLikeByteAtATimeImplementation()
+    {
+        final Random random = new Random(43);
+        final MutableAsciiBuffer buffer = randomBuffer(random, 67);
+        final int capacity = buffer.capacity();
+
+        for (int start = 0; start < capacity; start++)
+        {
+            for (int end = -1; end <= start; end++)
+            {
+                for (final byte terminator : new byte[]{ '\001', '=', (byte)0xFF })
+                {
+                    assertEquals(
+                        start + " -> " + end,
+                        byteAtATimeScanBack(buffer, start, end, terminator),
+                        buffer.scanBack(start, end, terminator));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldComputeChecksumLikeByteAtATimeImplementation()
+    {
+        final Random random = new Random(44);
+        final MutableAsciiBuffer buffer = randomBuffer(random, 67);
+        final int capacity = buffer.capacity();
+
+        for (int start = 0; start < capacity; start++)
+        {
+            for (int end = start; end <= capacity; end++)
+            {
+                assertEquals(
+                    start + " -> " + end,
+                    byteAtATimeChecksum(buffer, start, end),
+                    buffer.computeChecksum(start, end));
+            }
+        }
+    }
+
+    private static MutableAsciiBuffer randomBuffer(final Random random, final int length)
+    {
+        final byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        for (int i = 0; i < length; i++)
+        {
+            // Bias towards separators so that scans find matches at every offset within a word
+            if (random.nextInt(8) == 0)
+            {
+                bytes[i] = random.nextBoolean() ? (byte)'\001' : (byte)'=';
+            }
+        }
+        return new MutableAsciiBuffer(bytes);
+    }
+
+    private static int byteAtATimeScan(
+        final MutableAsciiBuffer buffer, final int startInclusive, final int endExclusive, final byte terminator)
+    {
+        for (int i = startInclusive; i < endExclusive; i++)
+        {
+            if (buffer.getByte(i) == terminator)
+            {
+                return i;
+            }
+        }
+
+        return UNKNOWN_INDEX;
+    }
+
+    private static int byteAtATimeScanBack(
+        final MutableAsciiBuffer buffer, final int startInclusive, final int endExclusive, final byte terminator)
+    {
+        for (int i = startInclusive; i > endExclusive; i--)
+        {
+            if (buffer.getByte(i) == terminator)
+            {
+                return i;
+            }
+        }
+
+        return UNKNOWN_INDEX;
+    }
+
+    private static int byteAtATimeChecksum(
+        final MutableAsciiBuffer buffer, final int startInclusive, final int endExclusive)
+    {
+        int total = 0;
+        for (int i = startInclusive; i < endExclusive; i++)
+        {
+            total += buffer.getByte(i);
+        }
+
+        return total % 256;
+    }
 }
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.BufferUtil;
+import org.agrona.CloseHelper;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableDirectByteBuffer;
+import org.agrona.LangUtil;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.Object2IntHashMap;
+import org.agrona.concurrent.*;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import uk.co.real_logic.artio.util.CharFormatter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.agrona.BitUtil.*;
+import static org.agrona.concurrent.ringbuffer.RingBufferDescriptor.TRAILER_LENGTH;
+
+/**
+ * Debug appender that records events in a compact binary form rather than formatting them as text. Each logging
+ * thread writes its events into its own off-heap ring buffer and a background thread drains them to a file. Use
+ * {@link BinaryDebugLogDecoder} in order to print the file in the same format as the {@link PrintingDebugAppender}.
+ *
+ * Events that don't fit in a thread's ring buffer are dropped and counted rather than blocking the logging thread.
+ *
+ * @see CommonConfiguration#DEBUG_BINARY_FILE_PROPERTY
+ */
+public class BinaryDebugAppender extends AbstractDebugAppender implements AutoCloseable
+{
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    // Record types, used as the ring buffer's message type id
+    static final int FORMATTER_TYPE = 1;
+    static final int EVENT_TYPE = 2;
+    static final int THREAD_TYPE = 3;
+    static final int DROPPED_TYPE = 4;
+
+    static final int NO_FORMATTER = -1;
+
+    // Argument types
+    static final byte LONG_ARG = 1;
+    static final byte STRING_ARG = 2;
+    static final byte BYTES_ARG = 3;
+
+    // File frame: length of the record, record type, thread id, record
+    static final int FRAME_LENGTH_OFFSET = 0;
+    static final int FRAME_TYPE_OFFSET = FRAME_LENGTH_OFFSET + SIZE_OF_INT;
+    static final int FRAME_THREAD_ID_OFFSET = FRAME_TYPE_OFFSET + SIZE_OF_INT;
+    static final int FRAME_HEADER_LENGTH = FRAME_THREAD_ID_OFFSET + SIZE_OF_INT;
+
+    // Event record: timestamp, log tag ordinal, formatter id, argument count, arguments
+    static final int EVENT_TIMESTAMP_OFFSET = 0;
+    static final int EVENT_TAG_OFFSET = EVENT_TIMESTAMP_OFFSET + SIZE_OF_LONG;
+    static final int EVENT_FORMATTER_ID_OFFSET = EVENT_TAG_OFFSET + SIZE_OF_INT;
+    static final int EVENT_ARG_COUNT_OFFSET = EVENT_FORMATTER_ID_OFFSET + SIZE_OF_INT;
+    static final int EVENT_HEADER_LENGTH = EVENT_ARG_COUNT_OFFSET + SIZE_OF_INT;
+
+    // Dropped record: timestamp, number of events dropped since the previous record
+    static final int DROPPED_TIMESTAMP_OFFSET = 0;
+    static final int DROPPED_COUNT_OFFSET = DROPPED_TIMESTAMP_OFFSET + SIZE_OF_LONG;
+    static final int DROPPED_LENGTH = DROPPED_COUNT_OFFSET + SIZE_OF_LONG;
+
+    private static final int MIN_OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final List<BinaryThreadLocalAppender> appenders = new CopyOnWriteArrayList<>();
+    private final AtomicInteger threadIds = new AtomicInteger();
+    private final AtomicInteger formatterIds = new AtomicInteger();
+    private final int ringBufferCapacity;
+    private final FileChannel output;
+    private final AgentRunner drainRunner;
+
+    public BinaryDebugAppender()
+    {
+        this(new File(CommonConfiguration.DEBUG_BINARY_FILE), CommonConfiguration.DEBUG_BINARY_BUFFER_CAPACITY);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "artio-debug-log-shutdown"));
+    }
+
+    public BinaryDebugAppender(final File file, final int ringBufferCapacity)
+    {
+        this.ringBufferCapacity = ringBufferCapacity;
+        output = openOutput(file);
+
+        final IdleStrategy idleStrategy = new BackoffIdleStrategy(
+            1, 1, TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(1));
+        drainRunner = new AgentRunner(idleStrategy, Throwable::printStackTrace, null, new Drainer());
+        AgentRunner.startOnThread(drainRunner, runnable ->
+        {
+            final Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static FileChannel openOutput(final File file)
+    {
+        try
+        {
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            randomAccessFile.setLength(0);
+            return randomAccessFile.getChannel();
+        }
+        catch (final IOException ex)
+        {
+            throw new IllegalStateException(
+                "Unable to configure DebugLogger, please check " + CommonConfiguration.DEBUG_BINARY_FILE_PROPERTY, ex);
+        }
+    }
+
+    public BinaryThreadLocalAppender makeLocalAppender()
+    {
+        final BinaryThreadLocalAppender appender = new BinaryThreadLocalAppender(
+            Thread.currentThread(), threadIds.getAndIncrement());
+        appenders.add(appender);
+        return appender;
+    }
+
+    /**
+     * Stops the background thread once it has drained all the events that have been logged so far.
+     */
+    public void close()
+    {
+        CloseHelper.close(drainRunner);
+    }
+
+    /**
+     * Writes events into a ring buffer that is only ever written to by a single logging thread.
+     *
+     * Use {@link #event(LogTag, CharFormatter)} then one <code>arg()</code> call per formatter argument followed by
+     * {@link #commit()} in order to log an event without formatting it. Events are staged in a scratch buffer so
+     * that their length is known before they're written into the ring buffer.
+     */
+    public final class BinaryThreadLocalAppender extends ThreadLocalAppender
+    {
+        private final Object2IntHashMap<CharFormatter> formatterToId = new Object2IntHashMap<>(NO_FORMATTER);
+        private final ExpandableDirectByteBuffer scratch = new ExpandableDirectByteBuffer(1024);
+        private final UnsafeBuffer droppedBuffer = new UnsafeBuffer(new byte[DROPPED_LENGTH]);
+        private final OneToOneRingBuffer ringBuffer;
+        private final Thread thread;
+        private final int threadId;
+
+        private int position;
+        private int argCount;
+        private boolean dropEvent;
+        private long droppedEvents;
+
+        BinaryThreadLocalAppender(final Thread thread, final int threadId)
+        {
+            this.thread = thread;
+            this.threadId = threadId;
+            ringBuffer = new OneToOneRingBuffer(new UnsafeBuffer(
+                BufferUtil.allocateDirectAligned(ringBufferCapacity + TRAILER_LENGTH, CACHE_LINE_LENGTH)));
+
+            final int nameLength = scratch.putStringAscii(0, thread.getName(), BYTE_ORDER);
+            write(THREAD_TYPE, nameLength);
+        }
+
+        public BinaryThreadLocalAppender event(final LogTag tag, final CharFormatter formatter)
+        {
+            dropEvent = false;
+            final int formatterId = formatter == null ? NO_FORMATTER : formatterId(formatter);
+
+            final ExpandableDirectByteBuffer scratch = this.scratch;
+            scratch.putLong(EVENT_TIMESTAMP_OFFSET, System.currentTimeMillis(), BYTE_ORDER);
+            scratch.putInt(EVENT_TAG_OFFSET, tag.ordinal(), BYTE_ORDER);
+            scratch.putInt(EVENT_FORMATTER_ID_OFFSET, formatterId, BYTE_ORDER);
+            position = EVENT_HEADER_LENGTH;
+            argCount = 0;
+            return this;
+        }
+
+        public BinaryThreadLocalAppender arg(final long value)
+        {
+            final int position = argHeader(LONG_ARG);
+            scratch.putLong(position, value, BYTE_ORDER);
+            this.position = position + SIZE_OF_LONG;
+            return this;
+        }
+
+        public BinaryThreadLocalAppender arg(final String value)
+        {
+            final int position = argHeader(STRING_ARG);
+            this.position = position + scratch.putStringAscii(position, value, BYTE_ORDER);
+            return this;
+        }
+
+        public BinaryThreadLocalAppender arg(final DirectBuffer buffer, final int offset, final int length)
+        {
+            final int position = bytesArgHeader(length);
+            scratch.putBytes(position, buffer, offset, length);
+            this.position = position + length;
+            return this;
+        }
+
+        public BinaryThreadLocalAppender arg(final ByteBuffer buffer, final int offset, final int length)
+        {
+            final int position = bytesArgHeader(length);
+            scratch.putBytes(position, buffer, offset, length);
+            this.position = position + length;
+            return this;
+        }
+
+        public void commit()
+        {
+            scratch.putInt(EVENT_ARG_COUNT_OFFSET, argCount, BYTE_ORDER);
+            // Events are only counted here, whether their formatter or the event itself didn't fit.
+            if (dropEvent || !write(EVENT_TYPE, position))
+            {
+                droppedEvents++;
+            }
+        }
+
+        // Fallback for events that have already been formatted as text, the decoder appends the line separator.
+        public void log(final LogTag tag, final StringBuilder stringBuilder)
+        {
+            final int length = Math.max(0, stringBuilder.length() - System.lineSeparator().length());
+
+            event(tag, null);
+            final int position = argHeader(STRING_ARG);
+            final MutableDirectBuffer scratch = this.scratch;
+            scratch.putInt(position, length, BYTE_ORDER);
+            final int start = position + SIZE_OF_INT;
+            for (int i = 0; i < length; i++)
+            {
+                final char value = stringBuilder.charAt(i);
+                scratch.putByte(start + i, value > 127 ? (byte)'?' : (byte)value);
+            }
+            this.position = start + length;
+            commit();
+        }
+
+        private int formatterId(final CharFormatter formatter)
+        {
+            int formatterId = formatterToId.getValue(formatter);
+            if (formatterId == NO_FORMATTER)
+            {
+                formatterId = formatterIds.getAndIncrement();
+                final ExpandableDirectByteBuffer scratch = this.scratch;
+                scratch.putInt(0, formatterId, BYTE_ORDER);
+                final int length = SIZE_OF_INT + scratch.putStringAscii(
+                    SIZE_OF_INT, formatter.formatString(), BYTE_ORDER);
+                if (write(FORMATTER_TYPE, length))
+                {
+                    formatterToId.put(formatter, formatterId);
+                }
+                else
+                {
+                    dropEvent = true;
+                }
+            }
+
+            return formatterId;
+        }
+
+        private int argHeader(final byte type)
+        {
+            final int position = this.position;
+            scratch.putByte(position, type);
+            argCount++;
+            return position + SIZE_OF_BYTE;
+        }
+
+        private int bytesArgHeader(final int length)
+        {
+            final int position = argHeader(BYTES_ARG);
+            scratch.putInt(position, length, BYTE_ORDER);
+            return position + SIZE_OF_INT;
+        }
+
+        private boolean write(final int type, final int length)
+        {
+            final OneToOneRingBuffer ringBuffer = this.ringBuffer;
+            if (droppedEvents > 0)
+            {
+                droppedBuffer.putLong(DROPPED_TIMESTAMP_OFFSET, System.currentTimeMillis(), BYTE_ORDER);
+                droppedBuffer.putLong(DROPPED_COUNT_OFFSET, droppedEvents, BYTE_ORDER);
+                if (ringBuffer.write(DROPPED_TYPE, droppedBuffer, 0, DROPPED_LENGTH))
+                {
+                    droppedEvents = 0;
+                }
+            }
+
+            return length <= ringBuffer.maxMsgLength() && ringBuffer.write(type, scratch, 0, length);
+        }
+
+        /**
+         * Gets the number of events that have been dropped since the last dropped record was written.
+         *
+         * @return the number of events that have been dropped since the last dropped record was written.
+         */
+        long droppedEvents()
+        {
+            return droppedEvents;
+        }
+    }
+
+    class Drainer implements Agent, MessageHandler
+    {
+        private final ByteBuffer outputBuffer = ByteBuffer
+            .allocateDirect(Math.max(MIN_OUTPUT_BUFFER_SIZE, FRAME_HEADER_LENGTH + ringBufferCapacity / 8))
+            .order(BYTE_ORDER);
+
+        private int threadId;
+
+        public int doWork()
+        {
+            int work = 0;
+            for (final BinaryThreadLocalAppender appender : appenders)
+            {
+                // Check liveness before draining: a dead thread won't log anything after its final drain.
+                final boolean isAlive = appender.thread.isAlive();
+                threadId = appender.threadId;
+                work += appender.ringBuffer.read(this);
+
+                if (!isAlive)
+                {
+                    work += appender.ringBuffer.read(this);
+                    appenders.remove(appender);
+                }
+            }
+
+            if (work > 0)
+            {
+                flush();
+            }
+
+            return work;
+        }
+
+        public void onMessage(final int msgTypeId, final MutableDirectBuffer buffer, final int index, final int length)
+        {
+            final ByteBuffer outputBuffer = this.outputBuffer;
+            if (outputBuffer.remaining() < FRAME_HEADER_LENGTH + length)
+            {
+                flush();
+            }
+
+            outputBuffer.putInt(length);
+            outputBuffer.putInt(msgTypeId);
+            outputBuffer.putInt(threadId);
+            final int position = outputBuffer.position();
+            buffer.getBytes(index, outputBuffer, position, length);
+            outputBuffer.position(position + length);
+        }
+
+        private void flush()
+        {
+            final ByteBuffer outputBuffer = this.outputBuffer;
+            outputBuffer.flip();
+            try
+            {
+                while (outputBuffer.hasRemaining())
+                {
+                    output.write(outputBuffer);
+                }
+            }
+            catch (final IOException ex)
+            {
+                LangUtil.rethrowUnchecked(ex);
+            }
+            outputBuffer.clear();
+        }
+
+        public void onClose()
+        {
+            try
+            {
+                int drained;
+                do
+                {
+                    drained = doWork();
+                }
+                while (drained > 0);
+            }
+            finally
+            {
+                CloseHelper.close(output);
+            }
+        }
+
+        public String roleName()
+        {
+            return "artio-debug-log-drainer";
+        }
+    }
+}
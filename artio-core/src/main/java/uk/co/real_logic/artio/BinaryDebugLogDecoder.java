@@ -0,0 +1,268 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.util.CharFormatter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+
+import static org.agrona.BitUtil.SIZE_OF_BYTE;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static uk.co.real_logic.artio.BinaryDebugAppender.*;
+import static uk.co.real_logic.artio.CommonConfiguration.DEBUG_LOGGING_SEPARATOR;
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_DEBUG_LOGGING_SEPARATOR;
+
+/**
+ * Prints the files written by the {@link BinaryDebugAppender} in the same text format as the
+ * {@link PrintingDebugAppender}. The separator of logged FIX messages is substituted according to the
+ * {@link CommonConfiguration#LOGGING_SEPARATOR_PROPERTY} of the decoding process.
+ */
+public class BinaryDebugLogDecoder
+{
+    public static void main(final String[] args) throws IOException
+    {
+        if (args.length < 1)
+        {
+            System.err.println("Usage: BinaryDebugLogDecoder <logFile>");
+            System.err.println("Where <logFile> is the path to a binary debug log file");
+            System.exit(-1);
+        }
+
+        final PrintStream output = System.out;
+        new BinaryDebugLogDecoder(output).decode(new File(args[0]));
+        output.flush();
+    }
+
+    private static final LogTag[] LOG_TAGS = LogTag.values();
+
+    private final Int2ObjectHashMap<CharFormatter> idToFormatter = new Int2ObjectHashMap<>();
+    private final Int2ObjectHashMap<String> idToThreadName = new Int2ObjectHashMap<>();
+    private final StringBuilder builder = new StringBuilder();
+    private final Appendable output;
+
+    private byte[] bytes = new byte[0];
+
+    public BinaryDebugLogDecoder(final Appendable output)
+    {
+        this.output = output;
+    }
+
+    public void decode(final File file) throws IOException
+    {
+        final MappedByteBuffer mappedBuffer = IoUtil.mapExistingFile(file, file.getName());
+        try
+        {
+            final UnsafeBuffer buffer = new UnsafeBuffer(mappedBuffer);
+            decode(buffer, buffer.capacity());
+        }
+        finally
+        {
+            IoUtil.unmap(mappedBuffer);
+        }
+    }
+
+    /**
+     * Decode the frames in a buffer. A partially written frame at the end of the buffer, for example one that was
+     * being written when the logging process crashed, is ignored.
+     *
+     * @param buffer the buffer to decode.
+     * @param length the length of data in the buffer.
+     * @throws IOException if the output can't be written to.
+     */
+    public void decode(final DirectBuffer buffer, final int length) throws IOException
+    {
+        int offset = 0;
+        while (offset + FRAME_HEADER_LENGTH <= length)
+        {
+            final int recordLength = buffer.getInt(offset + FRAME_LENGTH_OFFSET, BYTE_ORDER);
+            final int recordOffset = offset + FRAME_HEADER_LENGTH;
+            if (recordLength <= 0 || recordOffset + recordLength > length)
+            {
+                return;
+            }
+
+            final int type = buffer.getInt(offset + FRAME_TYPE_OFFSET, BYTE_ORDER);
+            final int threadId = buffer.getInt(offset + FRAME_THREAD_ID_OFFSET, BYTE_ORDER);
+            switch (type)
+            {
+                case THREAD_TYPE:
+                    idToThreadName.put(threadId, buffer.getStringAscii(recordOffset, BYTE_ORDER));
+                    break;
+
+                case FORMATTER_TYPE:
+                {
+                    final int formatterId = buffer.getInt(recordOffset, BYTE_ORDER);
+                    final String formatString = buffer.getStringAscii(recordOffset + SIZE_OF_INT, BYTE_ORDER);
+                    idToFormatter.put(formatterId, new CharFormatter(formatString));
+                    break;
+                }
+
+                case EVENT_TYPE:
+                    onEvent(threadId, buffer, recordOffset);
+                    break;
+
+                case DROPPED_TYPE:
+                    onDropped(threadId, buffer, recordOffset);
+                    break;
+            }
+
+            offset = recordOffset + recordLength;
+        }
+    }
+
+    private void onEvent(final int threadId, final DirectBuffer buffer, final int offset) throws IOException
+    {
+        final long timestamp = buffer.getLong(offset + EVENT_TIMESTAMP_OFFSET, BYTE_ORDER);
+        final LogTag tag = LOG_TAGS[buffer.getInt(offset + EVENT_TAG_OFFSET, BYTE_ORDER)];
+        final int formatterId = buffer.getInt(offset + EVENT_FORMATTER_ID_OFFSET, BYTE_ORDER);
+        final CharFormatter formatter = formatterId == NO_FORMATTER ? null : idToFormatter.get(formatterId);
+        final int argCount = buffer.getInt(offset + EVENT_ARG_COUNT_OFFSET, BYTE_ORDER);
+
+        final StringBuilder builder = this.builder;
+        appendStart(threadId, timestamp);
+        builder.append(tag.logStr());
+
+        if (formatter != null)
+        {
+            formatter.clear();
+        }
+
+        int position = offset + EVENT_HEADER_LENGTH;
+        for (int i = 0; i < argCount; i++)
+        {
+            final byte argType = buffer.getByte(position);
+            position += SIZE_OF_BYTE;
+            switch (argType)
+            {
+                case LONG_ARG:
+                {
+                    final long value = buffer.getLong(position, BYTE_ORDER);
+                    position += SIZE_OF_LONG;
+                    if (formatter == null)
+                    {
+                        builder.append(value);
+                    }
+                    else
+                    {
+                        formatter.with(value);
+                    }
+                    break;
+                }
+
+                case STRING_ARG:
+                {
+                    final String value = buffer.getStringAscii(position, BYTE_ORDER);
+                    position += SIZE_OF_INT + value.length();
+                    if (formatter == null)
+                    {
+                        builder.append(value);
+                    }
+                    else
+                    {
+                        formatter.with(value);
+                    }
+                    break;
+                }
+
+                case BYTES_ARG:
+                {
+                    final int length = buffer.getInt(position, BYTE_ORDER);
+                    position += SIZE_OF_INT;
+                    final byte[] data = readBytes(buffer, position, length);
+                    position += length;
+                    if (formatter == null)
+                    {
+                        for (int j = 0; j < length; j++)
+                        {
+                            builder.append((char)data[j]);
+                        }
+                    }
+                    else
+                    {
+                        formatter.with(data, length);
+                    }
+                    break;
+                }
+
+                default:
+                    throw new IllegalStateException("Unknown argument type: " + argType);
+            }
+        }
+
+        if (formatter != null)
+        {
+            formatter.appendTo(builder);
+        }
+
+        finish();
+    }
+
+    private void onDropped(final int threadId, final DirectBuffer buffer, final int offset) throws IOException
+    {
+        appendStart(threadId, buffer.getLong(offset + DROPPED_TIMESTAMP_OFFSET, BYTE_ORDER));
+        builder
+            .append("Dropped ")
+            .append(buffer.getLong(offset + DROPPED_COUNT_OFFSET, BYTE_ORDER))
+            .append(" debug logging events");
+        finish();
+    }
+
+    private void appendStart(final int threadId, final long timestamp)
+    {
+        final StringBuilder builder = this.builder;
+        builder.setLength(0);
+        builder.append(timestamp).append(':').append(idToThreadName.get(threadId));
+    }
+
+    private void finish() throws IOException
+    {
+        builder.append(System.lineSeparator());
+        output.append(builder);
+    }
+
+    private byte[] readBytes(final DirectBuffer buffer, final int offset, final int length)
+    {
+        byte[] data = this.bytes;
+        if (data.length < length)
+        {
+            data = new byte[length];
+            this.bytes = data;
+        }
+
+        buffer.getBytes(offset, data, 0, length);
+
+        if (DEBUG_LOGGING_SEPARATOR != DEFAULT_DEBUG_LOGGING_SEPARATOR)
+        {
+            for (int i = 0; i < length; i++)
+            {
+                if (data[i] == DEFAULT_DEBUG_LOGGING_SEPARATOR)
+                {
+                    data[i] = DEBUG_LOGGING_SEPARATOR;
+                }
+            }
+        }
+
+        return data;
+    }
+}
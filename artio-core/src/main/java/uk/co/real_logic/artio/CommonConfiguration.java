@@ -90,13 +90,25 @@ public class CommonConfiguration
      */
     public static final String OUTBOUND_MAX_CLAIM_ATTEMPTS_PROPERTY = "fix.core.outbound_max_claims";
     /**
-     * Property name for the flag to enable or disable message timing
+     * Property name for the flag to enable or disable message timing. When enabled the latency of each stage of a
+     * message's path through the engine and library is logged to the histogram file and its percentiles are
+     * published to counters.
      */
     public static final String TIME_MESSAGES_PROPERTY = "fix.core.timing";
     /**
      * Property name for the file to log debug messages to, default is standard output
      */
     public static final String DEBUG_FILE_PROPERTY = "fix.core.debug.file";
+    /**
+     * Property name for the file to log binary debug messages to. When set, debug logging events are written
+     * unformatted by a {@link BinaryDebugAppender} and can be printed with {@link BinaryDebugLogDecoder}.
+     */
+    public static final String DEBUG_BINARY_FILE_PROPERTY = "fix.core.debug.binary_file";
+    /**
+     * Property name for the capacity in bytes of each logging thread's binary debug logging buffer, must be a
+     * power of 2.
+     */
+    public static final String DEBUG_BINARY_BUFFER_CAPACITY_PROPERTY = "fix.core.debug.binary_buffer_capacity";
     /**
      * Property name for the implementation of {@link AbstractDebugAppender} to use in order
      * print debug logging. If none set then defaults to {@link PrintingDebugAppender}
@@ -182,6 +194,9 @@ public class CommonConfiguration
 
     public static final String DEBUG_FILE = System.getProperty(DEBUG_FILE_PROPERTY);
     public static final String APPENDER_CLASS = System.getProperty(APPENDER_CLASS_PROPERTY);
+    public static final String DEBUG_BINARY_FILE = System.getProperty(DEBUG_BINARY_FILE_PROPERTY);
+    public static final int DEBUG_BINARY_BUFFER_CAPACITY = Integer.getInteger(
+        DEBUG_BINARY_BUFFER_CAPACITY_PROPERTY, 1024 * 1024);
     public static final boolean TIME_MESSAGES = Boolean.getBoolean(TIME_MESSAGES_PROPERTY);
     public static final boolean FORCE_WRITES = Boolean.getBoolean(FORCE_WRITES_MESSAGES_PROPERTY);
 
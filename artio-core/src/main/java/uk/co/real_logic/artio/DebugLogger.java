@@ -20,6 +20,7 @@ import org.agrona.AsciiSequenceView;
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.AbstractDebugAppender.ThreadLocalAppender;
+import uk.co.real_logic.artio.engine.ByteBufferUtil;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.util.CharFormatter;
 
@@ -31,25 +32,37 @@ import java.util.function.Consumer;
 import static uk.co.real_logic.artio.CommonConfiguration.*;
 
 /**
- * A logger purely for debug data. Not optimised for high performance logging, but all logging calls must be removable
- * by the optimiser.
+ * A logger purely for debug data. All logging calls must be removable by the optimiser.
+ *
+ * By default events are formatted as text on the logging thread. If {@link CommonConfiguration#DEBUG_BINARY_FILE}
+ * is set then the arguments of the hot logging calls are instead recorded unformatted by a
+ * {@link BinaryDebugAppender}, which is cheap enough to leave enabled in production.
  */
 public final class DebugLogger
 {
     private static final AbstractDebugAppender APPENDER;
-    private static final ThreadLocal<ThreadLocalLogger> THREAD_LOCAL = ThreadLocal.withInitial(ThreadLocalLogger::new);
+    private static final ThreadLocal<ThreadLocalLogger> THREAD_LOCAL;
 
     static
     {
-        final ServiceLoader<AbstractDebugAppender> loader = ServiceLoader.load(AbstractDebugAppender.class);
-        final Iterator<AbstractDebugAppender> it = loader.iterator();
-        if (it.hasNext())
+        if (DEBUG_BINARY_FILE != null)
         {
-            APPENDER = it.next();
+            APPENDER = new BinaryDebugAppender();
+            THREAD_LOCAL = ThreadLocal.withInitial(BinaryThreadLocalLogger::new);
         }
         else
         {
-            APPENDER = new PrintingDebugAppender();
+            final ServiceLoader<AbstractDebugAppender> loader = ServiceLoader.load(AbstractDebugAppender.class);
+            final Iterator<AbstractDebugAppender> it = loader.iterator();
+            if (it.hasNext())
+            {
+                APPENDER = it.next();
+            }
+            else
+            {
+                APPENDER = new PrintingDebugAppender();
+            }
+            THREAD_LOCAL = ThreadLocal.withInitial(ThreadLocalLogger::new);
         }
     }
 
@@ -73,8 +86,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(value);
-            THREAD_LOCAL.get().log(tag, formatter, buffer, offset, length);
+            THREAD_LOCAL.get().log(tag, formatter, value, buffer, offset, length);
         }
     }
 
@@ -89,8 +101,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second);
-            THREAD_LOCAL.get().log(tag, formatter, buffer, offset, length);
+            THREAD_LOCAL.get().log(tag, formatter, first, second, buffer, offset, length);
         }
     }
 
@@ -509,8 +520,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get().log(tag, formatter, first, second);
         }
     }
 
@@ -521,8 +531,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get().log(tag, formatter, first);
         }
     }
 
@@ -534,8 +543,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get().log(tag, formatter, first, second);
         }
     }
 
@@ -548,8 +556,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second).with(third);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get().log(tag, formatter, first, second, third);
         }
     }
 
@@ -562,8 +569,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second).with(third);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get().log(tag, formatter, first, second, third);
         }
     }
 
@@ -576,8 +582,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second).with(third);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get().log(tag, formatter, first, second, third);
         }
     }
 
@@ -591,8 +596,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second).with(third).with(fourth);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get().log(tag, formatter, first, second, third, fourth);
         }
     }
 
@@ -606,8 +610,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second).with(third).with(fourth);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get().log(tag, formatter, first, second, third, fourth);
         }
     }
 
@@ -703,7 +706,7 @@ public final class DebugLogger
         private byte[] bytes = new byte[0];
         private final AsciiSequenceView asciiView = new AsciiSequenceView();
         private final UnsafeBuffer buffer = new UnsafeBuffer(bytes);
-        private final ThreadLocalAppender appender;
+        final ThreadLocalAppender appender;
 
         final boolean isThreadEnabled;
 
@@ -1309,6 +1312,117 @@ public final class DebugLogger
             finish(tag);
         }
 
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final int value,
+            final DirectBuffer buffer,
+            final int offset,
+            final int length)
+        {
+            formatter.clear().with(value);
+            log(tag, formatter, buffer, offset, length);
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first,
+            final String second,
+            final DirectBuffer buffer,
+            final int offset,
+            final int length)
+        {
+            formatter.clear().with(first).with(second);
+            log(tag, formatter, buffer, offset, length);
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first,
+            final String second)
+        {
+            formatter.clear().with(first).with(second);
+            log(tag, formatter);
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first)
+        {
+            formatter.clear().with(first);
+            log(tag, formatter);
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first,
+            final long second)
+        {
+            formatter.clear().with(first).with(second);
+            log(tag, formatter);
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first,
+            final long second,
+            final long third)
+        {
+            formatter.clear().with(first).with(second).with(third);
+            log(tag, formatter);
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final String first,
+            final long second,
+            final long third)
+        {
+            formatter.clear().with(first).with(second).with(third);
+            log(tag, formatter);
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first,
+            final long second,
+            final String third)
+        {
+            formatter.clear().with(first).with(second).with(third);
+            log(tag, formatter);
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first,
+            final long second,
+            final long third,
+            final long fourth)
+        {
+            formatter.clear().with(first).with(second).with(third).with(fourth);
+            log(tag, formatter);
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final String first,
+            final long second,
+            final long third,
+            final long fourth)
+        {
+            formatter.clear().with(first).with(second).with(third).with(fourth);
+            log(tag, formatter);
+        }
+
         private void finish(final LogTag tag)
         {
             final StringBuilder builder = this.builder;
@@ -1316,4 +1430,140 @@ public final class DebugLogger
             appender.log(tag, builder);
         }
     }
+
+    /**
+     * Records the arguments of the hot logging calls through a {@link BinaryDebugAppender} rather than formatting
+     * them. Other calls are formatted as text and then handed to the same appender.
+     */
+    static class BinaryThreadLocalLogger extends ThreadLocalLogger
+    {
+        public void log(final LogTag tag, final String message)
+        {
+            appender().event(tag, null).arg(message).commit();
+        }
+
+        public void log(final LogTag tag, final String prefixString, final String suffixString)
+        {
+            appender().event(tag, null).arg(prefixString).arg(suffixString).commit();
+        }
+
+        public void log(
+            final LogTag tag, final String prefixString, final DirectBuffer buffer, final int offset, final int length)
+        {
+            appender().event(tag, null).arg(prefixString).arg(buffer, offset, length).commit();
+        }
+
+        public void log(final LogTag tag, final String prefixString, final ByteBuffer byteBuffer, final int length)
+        {
+            final int position = byteBuffer.position();
+            appender().event(tag, null).arg(prefixString).arg(byteBuffer, position, length).commit();
+            ByteBufferUtil.position(byteBuffer, position + length);
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final int value,
+            final DirectBuffer buffer,
+            final int offset,
+            final int length)
+        {
+            appender().event(tag, formatter).arg(value).arg(buffer, offset, length).commit();
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first,
+            final String second,
+            final DirectBuffer buffer,
+            final int offset,
+            final int length)
+        {
+            appender().event(tag, formatter).arg(first).arg(second).arg(buffer, offset, length).commit();
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first,
+            final String second)
+        {
+            appender().event(tag, formatter).arg(first).arg(second).commit();
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first)
+        {
+            appender().event(tag, formatter).arg(first).commit();
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first,
+            final long second)
+        {
+            appender().event(tag, formatter).arg(first).arg(second).commit();
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first,
+            final long second,
+            final long third)
+        {
+            appender().event(tag, formatter).arg(first).arg(second).arg(third).commit();
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final String first,
+            final long second,
+            final long third)
+        {
+            appender().event(tag, formatter).arg(first).arg(second).arg(third).commit();
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first,
+            final long second,
+            final String third)
+        {
+            appender().event(tag, formatter).arg(first).arg(second).arg(third).commit();
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final long first,
+            final long second,
+            final long third,
+            final long fourth)
+        {
+            appender().event(tag, formatter).arg(first).arg(second).arg(third).arg(fourth).commit();
+        }
+
+        public void log(
+            final LogTag tag,
+            final CharFormatter formatter,
+            final String first,
+            final long second,
+            final long third,
+            final long fourth)
+        {
+            appender().event(tag, formatter).arg(first).arg(second).arg(third).arg(fourth).commit();
+        }
+
+        private BinaryDebugAppender.BinaryThreadLocalAppender appender()
+        {
+            return (BinaryDebugAppender.BinaryThreadLocalAppender)appender;
+        }
+    }
 }
@@ -39,7 +39,19 @@ public class FixCounters implements AutoCloseable
         INVALID_LIBRARY_ATTEMPTS_TYPE_ID(10_005),
         SENT_MSG_SEQ_NO_TYPE_ID(10_006),
         RECV_MSG_SEQ_NO_TYPE_ID(10_007),
-        CURRENT_REPLAY_COUNT_TYPE_ID(10_008);
+        CURRENT_REPLAY_COUNT_TYPE_ID(10_008),
+        RECEIVER_SELECTS_TYPE_ID(10_009),
+        RECEIVER_READS_TYPE_ID(10_010),
+        SENDER_WRITES_TYPE_ID(10_011),
+        SENDER_MESSAGES_WRITTEN_TYPE_ID(10_012),
+        RESEND_CACHE_HITS_TYPE_ID(10_013),
+        RESEND_CACHE_MISSES_TYPE_ID(10_014),
+        LOGGER_CACHE_HITS_TYPE_ID(10_015),
+        LOGGER_CACHE_MISSES_TYPE_ID(10_016),
+        LOGGER_CACHE_EVICTIONS_TYPE_ID(10_017),
+        INDEX_CATCHUP_REMAINING_BYTES_TYPE_ID(10_018),
+        INDEX_CATCHUP_REMAINING_RECORDINGS_TYPE_ID(10_019),
+        LATENCY_TYPE_ID(10_020);
 
         final int id;
 
@@ -59,6 +71,17 @@ public class FixCounters implements AutoCloseable
     private final AtomicCounter failedOutboundPublications;
     private final AtomicCounter failedReplayPublications;
     private final AtomicCounter currentReplayCount;
+    private final AtomicCounter receiverSelects;
+    private final AtomicCounter receiverReads;
+    private final AtomicCounter senderWrites;
+    private final AtomicCounter senderMessagesWritten;
+    private final AtomicCounter resendCacheHits;
+    private final AtomicCounter resendCacheMisses;
+    private final AtomicCounter loggerCacheHits;
+    private final AtomicCounter loggerCacheMisses;
+    private final AtomicCounter loggerCacheEvictions;
+    private final AtomicCounter indexCatchupRemainingBytes;
+    private final AtomicCounter indexCatchupRemainingRecordings;
     private final Aeron aeron;
 
     public static IntHashSet lookupCounterIds(
@@ -92,10 +115,44 @@ public class FixCounters implements AutoCloseable
         {
             currentReplayCount = newCounter(FixCountersId.CURRENT_REPLAY_COUNT_TYPE_ID.id(),
                 "Current Replay Count");
+            receiverSelects = newCounter(FixCountersId.RECEIVER_SELECTS_TYPE_ID.id(),
+                "Receiver end point select calls");
+            receiverReads = newCounter(FixCountersId.RECEIVER_READS_TYPE_ID.id(),
+                "Receiver end point read calls");
+            senderWrites = newCounter(FixCountersId.SENDER_WRITES_TYPE_ID.id(),
+                "Sender end point write calls");
+            senderMessagesWritten = newCounter(FixCountersId.SENDER_MESSAGES_WRITTEN_TYPE_ID.id(),
+                "Sender end point messages written");
+            resendCacheHits = newCounter(FixCountersId.RESEND_CACHE_HITS_TYPE_ID.id(),
+                "Resend requests replayed from the resend cache");
+            resendCacheMisses = newCounter(FixCountersId.RESEND_CACHE_MISSES_TYPE_ID.id(),
+                "Resend requests replayed from the archive");
+            loggerCacheHits = newCounter(FixCountersId.LOGGER_CACHE_HITS_TYPE_ID.id(),
+                "Replay index files found open in the logger's caches");
+            loggerCacheMisses = newCounter(FixCountersId.LOGGER_CACHE_MISSES_TYPE_ID.id(),
+                "Replay index files opened by the logger's caches");
+            loggerCacheEvictions = newCounter(FixCountersId.LOGGER_CACHE_EVICTIONS_TYPE_ID.id(),
+                "Replay index files closed to make space in the logger's caches");
+            indexCatchupRemainingBytes = newCounter(FixCountersId.INDEX_CATCHUP_REMAINING_BYTES_TYPE_ID.id(),
+                "Bytes of archived recordings left to index on startup");
+            indexCatchupRemainingRecordings = newCounter(
+                FixCountersId.INDEX_CATCHUP_REMAINING_RECORDINGS_TYPE_ID.id(),
+                "Archived recordings left to index on startup");
         }
         else
         {
             currentReplayCount = null;
+            receiverSelects = null;
+            receiverReads = null;
+            senderWrites = null;
+            senderMessagesWritten = null;
+            resendCacheHits = null;
+            resendCacheMisses = null;
+            loggerCacheHits = null;
+            loggerCacheMisses = null;
+            loggerCacheEvictions = null;
+            indexCatchupRemainingBytes = null;
+            indexCatchupRemainingRecordings = null;
         }
     }
 
@@ -119,6 +176,61 @@ public class FixCounters implements AutoCloseable
         return currentReplayCount;
     }
 
+    public AtomicCounter receiverSelects()
+    {
+        return receiverSelects;
+    }
+
+    public AtomicCounter receiverReads()
+    {
+        return receiverReads;
+    }
+
+    public AtomicCounter senderWrites()
+    {
+        return senderWrites;
+    }
+
+    public AtomicCounter senderMessagesWritten()
+    {
+        return senderMessagesWritten;
+    }
+
+    public AtomicCounter resendCacheHits()
+    {
+        return resendCacheHits;
+    }
+
+    public AtomicCounter resendCacheMisses()
+    {
+        return resendCacheMisses;
+    }
+
+    public AtomicCounter loggerCacheHits()
+    {
+        return loggerCacheHits;
+    }
+
+    public AtomicCounter loggerCacheMisses()
+    {
+        return loggerCacheMisses;
+    }
+
+    public AtomicCounter loggerCacheEvictions()
+    {
+        return loggerCacheEvictions;
+    }
+
+    public AtomicCounter indexCatchupRemainingBytes()
+    {
+        return indexCatchupRemainingBytes;
+    }
+
+    public AtomicCounter indexCatchupRemainingRecordings()
+    {
+        return indexCatchupRemainingRecordings;
+    }
+
     public AtomicCounter messagesRead(final long connectionId, final String address)
     {
         return newCounter(FixCountersId.MESSAGES_READ_TYPE_ID.id(),
@@ -147,6 +259,12 @@ public class FixCounters implements AutoCloseable
         return newCounter(FixCountersId.RECV_MSG_SEQ_NO_TYPE_ID.id(), "Last Received MsgSeqNo for " + connectionId);
     }
 
+    public AtomicCounter latency(final String processName, final String timerName, final String statistic)
+    {
+        return newCounter(FixCountersId.LATENCY_TYPE_ID.id(),
+            "Latency " + statistic + " of " + timerName + " in " + processName);
+    }
+
     private AtomicCounter newCounter(final int typeId, final String label)
     {
         final Counter counter = aeron.addCounter(typeId, label);
@@ -144,6 +144,7 @@ public abstract class GatewayProcess implements AutoCloseable
 
     protected void initMonitoringAgent(
         final List<Timer> timers,
+        final String processName,
         final CommonConfiguration configuration,
         final AeronArchive aeronArchive,
         final Agent agent)
@@ -158,7 +159,9 @@ public abstract class GatewayProcess implements AutoCloseable
                 errorHandler,
                 new SystemEpochClock(),
                 configuration.histogramHandler(),
-                configuration.agentNamePrefix()));
+                configuration.agentNamePrefix(),
+                fixCounters,
+                processName));
         }
 
         if (configuration.printErrorMessages())
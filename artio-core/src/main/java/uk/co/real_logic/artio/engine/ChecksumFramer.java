@@ -21,7 +21,6 @@ import org.agrona.concurrent.AtomicBuffer;
 import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
 
-// TODO: optimisation: write and checksum only needed bytes
 public class ChecksumFramer extends SectorFramer
 {
     private final CRC32 crc32 = new CRC32();
@@ -58,6 +57,25 @@ public class ChecksumFramer extends SectorFramer
         withChecksums(saveChecksumFunc);
     }
 
+    /**
+     * Update the checksum of a single sector, for callers that track which sectors they've modified.
+     *
+     * @param sectorIndex the index of the sector within the buffer, ie its offset / {@link #SECTOR_SIZE}.
+     */
+    public void updateChecksum(final int sectorIndex)
+    {
+        final int sectorEnd = (sectorIndex + 1) * SECTOR_SIZE;
+        if (sectorEnd <= capacity)
+        {
+            final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
+            checksum(sectorEnd, buffer.byteArray(), inMemoryByteBuffer, buffer.wrapAdjustment(), saveChecksumFunc);
+            if (inMemoryByteBuffer != null)
+            {
+                inMemoryByteBuffer.clear();
+            }
+        }
+    }
+
     private void validateChecksum(final int checksumOffset, final int calculatedChecksum)
     {
         final int savedChecksum = buffer.getInt(checksumOffset);
@@ -75,22 +93,7 @@ public class ChecksumFramer extends SectorFramer
 
         for (int sectorEnd = SECTOR_SIZE; sectorEnd <= capacity; sectorEnd += SECTOR_SIZE)
         {
-            final int sectorStart = sectorEnd - SECTOR_SIZE + wrapAdjustment;
-            final int checksumOffset = sectorEnd - CHECKSUM_SIZE;
-
-            crc32.reset();
-            if (inMemoryBytes != null)
-            {
-                crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
-            }
-            else
-            {
-                ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
-                ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
-                crc32.update(inMemoryByteBuffer);
-            }
-            final int sectorChecksum = (int)crc32.getValue();
-            consumer.accept(checksumOffset, sectorChecksum);
+            checksum(sectorEnd, inMemoryBytes, inMemoryByteBuffer, wrapAdjustment, consumer);
         }
 
         if (inMemoryByteBuffer != null)
@@ -99,6 +102,31 @@ public class ChecksumFramer extends SectorFramer
         }
     }
 
+    private void checksum(
+        final int sectorEnd,
+        final byte[] inMemoryBytes,
+        final ByteBuffer inMemoryByteBuffer,
+        final int wrapAdjustment,
+        final ChecksumConsumer consumer)
+    {
+        final int sectorStart = sectorEnd - SECTOR_SIZE + wrapAdjustment;
+        final int checksumOffset = sectorEnd - CHECKSUM_SIZE;
+
+        crc32.reset();
+        if (inMemoryBytes != null)
+        {
+            crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
+        }
+        else
+        {
+            ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
+            ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
+            crc32.update(inMemoryByteBuffer);
+        }
+        final int sectorChecksum = (int)crc32.getValue();
+        consumer.accept(checksumOffset, sectorChecksum);
+    }
+
     private interface ChecksumConsumer
     {
         void accept(int checksumOffset, int sectorChecksum);
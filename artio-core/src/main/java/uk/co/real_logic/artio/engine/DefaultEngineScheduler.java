@@ -26,6 +26,14 @@ import java.util.concurrent.ThreadFactory;
 import static org.agrona.concurrent.AgentRunner.startOnThread;
 
 /**
+ * Schedules the framer, archiver and (optional) monitoring agents onto a thread each.
+ * <p>
+ * All TCP connections of an engine are owned by its single framer agent, which also owns the session id,
+ * library and gateway session state, so the framer thread is the throughput limit of an engine. In order to
+ * scale connection handling over more cores run multiple {@link FixEngine} instances, each with its own
+ * {@link EngineConfiguration#logFileDir(String)}, bind address and library streams, and spread the sessions
+ * between them.
+ * <p>
  * NB: Ensure that a new instance is created for each engine.
  */
 public class DefaultEngineScheduler implements EngineScheduler
@@ -30,6 +30,8 @@ import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.dictionary.SessionConstants;
 import uk.co.real_logic.artio.engine.framer.DefaultTcpChannelSupplier;
 import uk.co.real_logic.artio.engine.framer.TcpChannelSupplier;
+import uk.co.real_logic.artio.engine.logger.ClockLoggerCache;
+import uk.co.real_logic.artio.engine.logger.LoggerCacheFactory;
 import uk.co.real_logic.artio.library.SessionConfiguration;
 import uk.co.real_logic.artio.messages.InitialAcceptedSessionOwner;
 import uk.co.real_logic.artio.validation.AuthenticationProxy;
@@ -40,6 +42,7 @@ import java.io.File;
 import java.net.InetSocketAddress;
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.lang.Integer.getInteger;
 import static java.lang.System.getProperty;
@@ -72,6 +75,14 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for size of logging index files
      */
     public static final String REPLAY_INDEX_FILE_SIZE_PROP = "logging.index.size";
+    /**
+     * Property name for the size that logging index files are created with
+     */
+    public static final String REPLAY_INDEX_INITIAL_FILE_SIZE_PROP = "logging.index.initial_size";
+    /**
+     * Property name for the number of sessions' indices that are stored in each logging index segment file
+     */
+    public static final String REPLAY_INDEX_SESSIONS_PER_SEGMENT_PROP = "logging.index.sessions_per_segment";
 
     // Care needs to be taken when setting the fragment limits, and buffer sizes
     // The inbound bytes received and buffer sizes should always be set low enough
@@ -118,6 +129,32 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for the timeout before a connection that hasn't sent a logon is disconnected
      */
     public static final String NO_LOGON_DISCONNECT_TIMEOUT_PROP = "fix.core.no_logon_disconnect";
+    /**
+     * Property name for the number of TCP connections up to which the framer reads each connection directly rather
+     * than using a selector to find the readable ones.
+     */
+    public static final String RECEIVER_POLLING_THRESHOLD_PROP = "fix.core.receiver_polling_threshold";
+    /**
+     * Property name for the size in bytes of the per connection buffer used to coalesce outbound messages into a
+     * single TCP write.
+     */
+    public static final String SENDER_COALESCING_BUFFER_SIZE_PROP = "fix.core.sender_coalescing_buffer_size";
+    /**
+     * Property name for the size in bytes of the blocks of archived messages summarised by each time index record.
+     */
+    public static final String TIME_INDEX_BLOCK_SIZE_PROP = "fix.core.time_index_block_size";
+    /**
+     * Property name for the size in bytes of the buffer that each session's recently sent messages are cached in.
+     */
+    public static final String RESEND_CACHE_SESSION_SIZE_PROP = "fix.core.resend_cache_session_size";
+    /**
+     * Property name for the total size in bytes of the buffers that sessions' recently sent messages are cached in.
+     */
+    public static final String RESEND_CACHE_SIZE_PROP = "fix.core.resend_cache_size";
+    /**
+     * Property name for whether the engine's indices are built on threads of their own.
+     */
+    public static final String DEDICATED_INDEXER_THREADS_PROP = "fix.core.dedicated_indexer_threads";
 
     // ------------------------------------------------
     //          Configuration Defaults
@@ -125,6 +162,8 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
 
     public static final String DEFAULT_LOG_FILE_DIR = "logs";
     public static final int DEFAULT_REPLAY_INDEX_FILE_SIZE = 2 * 1024 * 1024 + INITIAL_RECORD_OFFSET;
+    public static final int DEFAULT_REPLAY_INDEX_INITIAL_FILE_SIZE = 4 * 1024 + INITIAL_RECORD_OFFSET;
+    public static final int DEFAULT_REPLAY_INDEX_SESSIONS_PER_SEGMENT = 0;
     public static final int DEFAULT_LOGGER_CACHE_NUM_SETS = 8;
     public static final int DEFAULT_LOGGER_CACHE_SET_SIZE = 4;
 
@@ -139,6 +178,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final int DEFAULT_SENDER_MAX_BYTES_IN_BUFFER = 4 * 1024 * 1024;
     public static final int DEFAULT_REPLAY_POSITION_BUFFER_SIZE = 4 * 1024;
     public static final int DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT = (int)SECONDS.toMillis(5);
+    public static final int DEFAULT_RECEIVER_POLLING_THRESHOLD = 5;
+    public static final int DEFAULT_SENDER_COALESCING_BUFFER_SIZE = 0;
+    public static final int DEFAULT_TIME_INDEX_BLOCK_SIZE = 0;
+    public static final int DEFAULT_RESEND_CACHE_SESSION_SIZE = 0;
+    public static final int DEFAULT_RESEND_CACHE_SIZE = 0;
     public static final String DEFAULT_SESSION_ID_FILE = "session_id_buffer";
     public static final String DEFAULT_ILINK3_ID_FILE = "ilink3_id_buffer";
     public static final String DEFAULT_SEQUENCE_NUMBERS_SENT_FILE = "sequence_numbers_sent";
@@ -181,9 +225,14 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private String host = null;
     private int port;
     private int replayIndexFileSize = getInteger(REPLAY_INDEX_FILE_SIZE_PROP, DEFAULT_REPLAY_INDEX_FILE_SIZE);
+    private int replayIndexInitialFileSize =
+        getInteger(REPLAY_INDEX_INITIAL_FILE_SIZE_PROP, DEFAULT_REPLAY_INDEX_INITIAL_FILE_SIZE);
+    private int replayIndexSessionsPerSegment =
+        getInteger(REPLAY_INDEX_SESSIONS_PER_SEGMENT_PROP, DEFAULT_REPLAY_INDEX_SESSIONS_PER_SEGMENT);
     private String logFileDir = getProperty(LOG_FILE_DIR_PROP, DEFAULT_LOG_FILE_DIR);
     private int loggerCacheNumSets = DEFAULT_LOGGER_CACHE_NUM_SETS;
     private int loggerCacheSetSize = DEFAULT_LOGGER_CACHE_SET_SIZE;
+    private LoggerCacheFactory loggerCacheFactory = ClockLoggerCache::new;
     private boolean logInboundMessages = true;
     private boolean logOutboundMessages = true;
     private boolean printStartupWarnings = true;
@@ -221,6 +270,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         getInteger(SENDER_MAX_BYTES_IN_BUFFER_PROP, DEFAULT_SENDER_MAX_BYTES_IN_BUFFER);
     private int noLogonDisconnectTimeoutInMs =
         getInteger(NO_LOGON_DISCONNECT_TIMEOUT_PROP, DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT);
+    private int receiverPollingThreshold =
+        getInteger(RECEIVER_POLLING_THRESHOLD_PROP, DEFAULT_RECEIVER_POLLING_THRESHOLD);
+    private int senderCoalescingBufferSize =
+        getInteger(SENDER_COALESCING_BUFFER_SIZE_PROP, DEFAULT_SENDER_COALESCING_BUFFER_SIZE);
+    private int timeIndexBlockSize = getInteger(TIME_INDEX_BLOCK_SIZE_PROP, DEFAULT_TIME_INDEX_BLOCK_SIZE);
+    private int resendCacheSessionSize =
+        getInteger(RESEND_CACHE_SESSION_SIZE_PROP, DEFAULT_RESEND_CACHE_SESSION_SIZE);
+    private int resendCacheSize = getInteger(RESEND_CACHE_SIZE_PROP, DEFAULT_RESEND_CACHE_SIZE);
+    private boolean dedicatedIndexerThreads = Boolean.getBoolean(DEDICATED_INDEXER_THREADS_PROP);
+    private Supplier<IdleStrategy> dedicatedIndexerIdleStrategySupplier = CommonConfiguration::backoffIdleStrategy;
 
     private String libraryAeronChannel = null;
     private Function<EngineConfiguration, TcpChannelSupplier> channelSupplierFactory = DefaultTcpChannelSupplier::new;
@@ -340,14 +399,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     }
 
     /**
-     * Sets the size of index files. This is the size in bytes for the replay index file that is used for each session.
+     * Sets the maximum size of index files. This is the size in bytes that the replay index file used for each
+     * session grows to, once it is this size the oldest index records are overwritten.
      * If you want to size in terms of the last N Fix message fragments that you have received then
      * use the formula: INITIAL_RECORD_OFFSET + N * ReplayIndexDescriptor.RECORD_LENGTH.
      *
-     * @param indexFileSize the size of index files.
+     * @param indexFileSize the maximum size of index files.
      * @return this
      * @see EngineConfiguration#REPLAY_INDEX_FILE_SIZE_PROP
      * @see EngineConfiguration#DEFAULT_REPLAY_INDEX_FILE_SIZE
+     * @see EngineConfiguration#replayIndexInitialFileSize(int)
      */
     public EngineConfiguration replayIndexFileSize(final int indexFileSize)
     {
@@ -355,16 +416,58 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the size that index files are created with. Index files double in size whenever they fill up, until they
+     * reach the {@link #replayIndexFileSize(int)}, so sessions that send few messages only use small index files.
+     * The same formula applies as for {@link #replayIndexFileSize(int)}, and if this is larger than the
+     * {@link #replayIndexFileSize(int)} then index files are simply created at that size.
+     *
+     * @param indexInitialFileSize the size that index files are created with.
+     * @return this
+     * @see EngineConfiguration#REPLAY_INDEX_INITIAL_FILE_SIZE_PROP
+     * @see EngineConfiguration#DEFAULT_REPLAY_INDEX_INITIAL_FILE_SIZE
+     */
+    public EngineConfiguration replayIndexInitialFileSize(final int indexInitialFileSize)
+    {
+        this.replayIndexInitialFileSize = indexInitialFileSize;
+        return this;
+    }
+
+    /**
+     * Sets the number of sessions whose replay indices are stored together in each replay index segment file.
+     * <p>
+     * By default each session's replay index is stored in a file of its own, which means that engines with many
+     * sessions have many files open and create a file for every new session. If this is positive then the replay
+     * indices are instead packed into segment files that hold this many sessions each. Every session is given the
+     * {@link #replayIndexFileSize(int)} within its segment up front, so the {@link #replayIndexInitialFileSize(int)}
+     * isn't used, but segment files are sparse so disk space is only used as indices are written to. A segment must
+     * fit within 2GB, so this can be at most around 1000 sessions with the default replay index file size.
+     * <p>
+     * Existing replay indices aren't migrated when this is changed.
+     *
+     * @param replayIndexSessionsPerSegment the number of sessions per segment file, or 0 for a file per session.
+     * @return this
+     * @see EngineConfiguration#REPLAY_INDEX_SESSIONS_PER_SEGMENT_PROP
+     * @see EngineConfiguration#DEFAULT_REPLAY_INDEX_SESSIONS_PER_SEGMENT
+     */
+    public EngineConfiguration replayIndexSessionsPerSegment(final int replayIndexSessionsPerSegment)
+    {
+        this.replayIndexSessionsPerSegment = replayIndexSessionsPerSegment;
+        return this;
+    }
+
     /**
      * Sets the set size of the logger's caches.
      * <p>
      * The logging and archival mechanism
      * has several caches of open memory mapped files which it stores streams of messages
      * into. This and {@link #loggerCacheNumSets} controls the size of those caches.
-     * Should be increased if you see files being opened/closed in that area too frequently.
+     * Should be increased if you see files being opened/closed in that area too frequently, the
+     * {@link uk.co.real_logic.artio.FixCounters.FixCountersId#LOGGER_CACHE_MISSES_TYPE_ID} counter tracks this.
      * <p>
      * {@link org.agrona.collections.Int2ObjectCache} explains the difference between set size
-     * and num sets.
+     * and num sets. Caches that aren't set associative, like the default {@link ClockLoggerCache}, hold up to
+     * set size * num sets entries.
      *
      * @param loggerCacheSetSize the set size of the logger's caches.
      * @return this
@@ -389,6 +492,24 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the factory that creates the logger's caches of open files.
+     * <p>
+     * Defaults to {@link ClockLoggerCache}, whose eviction policy takes account of how frequently each session's files
+     * are used. {@link uk.co.real_logic.artio.engine.logger.SetAssociativeLoggerCache} can be used for the set
+     * associative eviction policy of previous versions.
+     *
+     * @see #loggerCacheSetSize(int)
+     *
+     * @param loggerCacheFactory the factory that creates the logger's caches.
+     * @return this
+     */
+    public EngineConfiguration loggerCacheFactory(final LoggerCacheFactory loggerCacheFactory)
+    {
+        this.loggerCacheFactory = loggerCacheFactory;
+        return this;
+    }
+
     /**
      * Sets logging of inbound messages.
      * <p>
@@ -493,6 +614,134 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the number of TCP connections up to which the framer reads from every connection on each duty cycle.
+     * Above this number a selector is used so that only connections with data available are read from, which
+     * costs a single select call per duty cycle rather than a read call per connection. Set to 0 in order to
+     * always use the selector, this is recommended when hosting a large number of mostly idle sessions.
+     *
+     * @param receiverPollingThreshold the number of connections up to which they are read without a selector.
+     * @return this
+     * @see EngineConfiguration#RECEIVER_POLLING_THRESHOLD_PROP
+     */
+    public EngineConfiguration receiverPollingThreshold(final int receiverPollingThreshold)
+    {
+        this.receiverPollingThreshold = receiverPollingThreshold;
+        return this;
+    }
+
+    /**
+     * Sets the size of the per connection buffer used to coalesce outbound messages. When enabled the messages
+     * that are sent to the same connection within a single poll of the outbound library stream are copied into
+     * this buffer and written to the TCP connection with a single write call at the end of the poll, so no
+     * message is held back to a later duty cycle. Messages larger than the buffer are written directly.
+     * <p>
+     * Defaults to 0, which disables coalescing and writes each message as it is polled. Note that a buffer
+     * of this size is allocated for each connection.
+     *
+     * @param senderCoalescingBufferSize the size in bytes of the coalescing buffer, or 0 to disable coalescing.
+     * @return this
+     * @see EngineConfiguration#SENDER_COALESCING_BUFFER_SIZE_PROP
+     * @see EngineConfiguration#outboundLibraryFragmentLimit(int)
+     */
+    public EngineConfiguration senderCoalescingBufferSize(final int senderCoalescingBufferSize)
+    {
+        this.senderCoalescingBufferSize = senderCoalescingBufferSize;
+        return this;
+    }
+
+    /**
+     * Sets the size of the blocks of archived messages that are summarised by each record of the time index. The
+     * time index records the range of timestamps, the message types and the sessions within each block of the
+     * inbound and outbound library streams' recordings. This lets a {@link
+     * uk.co.real_logic.artio.engine.logger.FixArchiveScanner} that is given the engine's log file directory only
+     * replay the blocks that could contain messages matching its predicate.
+     * <p>
+     * Smaller blocks make scans more selective at the cost of a larger index, 64KB is a reasonable starting point.
+     * Defaults to 0, which disables the time index.
+     *
+     * @param timeIndexBlockSize the size in bytes of each block, or 0 to disable the time index.
+     * @return this
+     * @see EngineConfiguration#TIME_INDEX_BLOCK_SIZE_PROP
+     * @see uk.co.real_logic.artio.engine.logger.FixArchiveScanner.Context#logFileDir(String)
+     */
+    public EngineConfiguration timeIndexBlockSize(final int timeIndexBlockSize)
+    {
+        this.timeIndexBlockSize = timeIndexBlockSize;
+        return this;
+    }
+
+    /**
+     * Sets the size of the buffer that each session's most recently sent messages are kept in, so that resend
+     * requests for them can be served without replaying the archive. A resend request is only served from this
+     * cache if every message that it asks for is cached, otherwise the archive is replayed.
+     * <p>
+     * The resend cache is disabled by default, both this and {@link #resendCacheSize(int)} need to be set in order
+     * to enable it, for example 64KB per session within a total of 16MB.
+     *
+     * @param resendCacheSessionSize the size in bytes of each session's buffer.
+     * @return this
+     * @see EngineConfiguration#RESEND_CACHE_SESSION_SIZE_PROP
+     * @see EngineConfiguration#resendCacheSize(int)
+     */
+    public EngineConfiguration resendCacheSessionSize(final int resendCacheSessionSize)
+    {
+        this.resendCacheSessionSize = resendCacheSessionSize;
+        return this;
+    }
+
+    /**
+     * Sets the total size of the buffers that sessions' most recently sent messages are kept in. When a session
+     * needs a buffer and this has been used up the least recently used session's buffer is taken. Defaults to 0,
+     * which disables the resend cache.
+     *
+     * @param resendCacheSize the total size in bytes of the session buffers, or 0 to disable the cache.
+     * @return this
+     * @see EngineConfiguration#RESEND_CACHE_SIZE_PROP
+     * @see EngineConfiguration#resendCacheSessionSize(int)
+     */
+    public EngineConfiguration resendCacheSize(final int resendCacheSize)
+    {
+        this.resendCacheSize = resendCacheSize;
+        return this;
+    }
+
+    /**
+     * Sets whether the engine's indices are built on threads of their own rather than on the archiving thread
+     * alongside the replayer. When enabled the replay indices, the sequence number indices and the time indices each
+     * get a thread and a subscription, so that a slow index, for example while the sequence number index is flushed
+     * to disk, doesn't hold back the others. The resend cache is still built on the archiving thread because the
+     * replayer reads it.
+     *
+     * These threads are created by the {@link CommonConfiguration#threadFactory()} whichever
+     * {@link #scheduler(EngineScheduler)} is used.
+     *
+     * @param dedicatedIndexerThreads true to build indices on threads of their own, false to build them on the
+     *                                archiving thread.
+     * @return this
+     * @see EngineConfiguration#DEDICATED_INDEXER_THREADS_PROP
+     * @see EngineConfiguration#dedicatedIndexerIdleStrategySupplier(Supplier)
+     */
+    public EngineConfiguration dedicatedIndexerThreads(final boolean dedicatedIndexerThreads)
+    {
+        this.dedicatedIndexerThreads = dedicatedIndexerThreads;
+        return this;
+    }
+
+    /**
+     * Sets the supplier of idle strategies for the threads that indices are built on when
+     * {@link #dedicatedIndexerThreads(boolean)} is enabled. It's called once per thread.
+     *
+     * @param dedicatedIndexerIdleStrategySupplier supplies the idle strategy for each indexer thread.
+     * @return this
+     */
+    public EngineConfiguration dedicatedIndexerIdleStrategySupplier(
+        final Supplier<IdleStrategy> dedicatedIndexerIdleStrategySupplier)
+    {
+        this.dedicatedIndexerIdleStrategySupplier = dedicatedIndexerIdleStrategySupplier;
+        return this;
+    }
+
     public EngineConfiguration senderMaxBytesInBuffer(final int senderMaxBytesInBuffer)
     {
         this.senderMaxBytesInBuffer = senderMaxBytesInBuffer;
@@ -869,6 +1118,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return replayIndexFileSize;
     }
 
+    public int replayIndexInitialFileSize()
+    {
+        return replayIndexInitialFileSize;
+    }
+
+    public int replayIndexSessionsPerSegment()
+    {
+        return replayIndexSessionsPerSegment;
+    }
+
     public int loggerCacheSetSize()
     {
         return loggerCacheSetSize;
@@ -879,6 +1138,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return loggerCacheNumSets;
     }
 
+    public LoggerCacheFactory loggerCacheFactory()
+    {
+        return loggerCacheFactory;
+    }
+
     public boolean logInboundMessages()
     {
         return logInboundMessages;
@@ -929,6 +1193,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return inboundBytesReceivedLimit;
     }
 
+    public int receiverPollingThreshold()
+    {
+        return receiverPollingThreshold;
+    }
+
+    public int senderCoalescingBufferSize()
+    {
+        return senderCoalescingBufferSize;
+    }
+
     public MappedFile sentSequenceNumberIndex()
     {
         return sentSequenceNumberIndex;
@@ -973,6 +1247,31 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return gapfillOnRetransmitILinkTemplateIds;
     }
 
+    public int timeIndexBlockSize()
+    {
+        return timeIndexBlockSize;
+    }
+
+    public int resendCacheSessionSize()
+    {
+        return resendCacheSessionSize;
+    }
+
+    public int resendCacheSize()
+    {
+        return resendCacheSize;
+    }
+
+    public boolean dedicatedIndexerThreads()
+    {
+        return dedicatedIndexerThreads;
+    }
+
+    public Supplier<IdleStrategy> dedicatedIndexerIdleStrategySupplier()
+    {
+        return dedicatedIndexerIdleStrategySupplier;
+    }
+
     public int senderMaxBytesInBuffer()
     {
         return senderMaxBytesInBuffer;
@@ -35,11 +35,12 @@ import uk.co.real_logic.artio.engine.logger.*;
 import uk.co.real_logic.artio.fields.EpochFractionFormat;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.protocol.Streams;
+import uk.co.real_logic.artio.timing.Timer;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-import static java.util.Arrays.asList;
 import static uk.co.real_logic.artio.dictionary.generation.Exceptions.suppressingClose;
 import static uk.co.real_logic.artio.engine.SessionInfo.UNK_SESSION;
 
@@ -60,6 +61,7 @@ public class EngineContext implements AutoCloseable
     private final SenderSequenceNumbers senderSequenceNumbers;
     private final AeronArchive aeronArchive;
     private final RecordingCoordinator recordingCoordinator;
+    private final Timer indexTimer;
     private final ExclusivePublication replayPublication;
     private final SequenceNumberIndexWriter sentSequenceNumberIndex;
     private final SequenceNumberIndexWriter receivedSequenceNumberIndex;
@@ -68,8 +70,11 @@ public class EngineContext implements AutoCloseable
     private Streams outboundLibraryStreams;
 
     // Indexers are owned by the indexingAgent
-    private Indexer inboundIndexer;
-    private Indexer outboundIndexer;
+    private final List<Agent> indexers = new ArrayList<>();
+    // Pruned on the indexing agent's threads after the archive is pruned on the replayer thread
+    private final List<TimeIndexWriter> timeIndices = new ArrayList<>();
+    private ResendCache resendCache;
+    private IndexCatchup indexCatchup;
     private Agent indexingAgent;
     private ReplayQuery pruneInboundReplayQuery;
     private ReplayQuery outboundReplayQuery;
@@ -82,9 +87,11 @@ public class EngineContext implements AutoCloseable
         final FixCounters fixCounters,
         final Aeron aeron,
         final AeronArchive aeronArchive,
-        final RecordingCoordinator recordingCoordinator)
+        final RecordingCoordinator recordingCoordinator,
+        final Timer indexTimer)
     {
         this.configuration = configuration;
+        this.indexTimer = indexTimer;
         this.errorHandler = errorHandler;
         this.fixCounters = fixCounters;
         this.aeron = aeron;
@@ -171,9 +178,11 @@ public class EngineContext implements AutoCloseable
             logFileDir,
             streamId,
             configuration.replayIndexFileSize(),
+            configuration.replayIndexInitialFileSize(),
             cacheNumSets,
             cacheSetSize,
-            LoggerUtil::map,
+            loggerCacheFactory(),
+            newReplayIndexStorage(logFileDir, streamId),
             ReplayIndexDescriptor.replayPositionBuffer(logFileDir, streamId, configuration.replayPositionBufferSize()),
             errorHandler,
             recordingIdLookup,
@@ -188,17 +197,38 @@ public class EngineContext implements AutoCloseable
         final int archiveReplayStream = configuration.archiveReplayStream();
 
         return new ReplayQuery(
-            logFileDir,
             cacheNumSets,
             cacheSetSize,
-            LoggerUtil::mapExistingFile,
-            streamId,
+            loggerCacheFactory(),
+            newReplayIndexStorage(logFileDir, streamId),
             idleStrategy,
             aeronArchive,
             errorHandler,
             archiveReplayStream);
     }
 
+    private ReplayIndexStorage newReplayIndexStorage(final String logFileDir, final int streamId)
+    {
+        final int sessionsPerSegment = configuration.replayIndexSessionsPerSegment();
+        if (sessionsPerSegment > 0)
+        {
+            return new SegmentedReplayIndexStorage(
+                logFileDir, streamId, configuration.replayIndexFileSize(), sessionsPerSegment);
+        }
+
+        return new FileReplayIndexStorage(
+            logFileDir, streamId, LoggerUtil::map, LoggerUtil::mapExistingFile, errorHandler);
+    }
+
+    private LoggerCacheFactory loggerCacheFactory()
+    {
+        return CountingLoggerCache.factory(
+            configuration.loggerCacheFactory(),
+            fixCounters.loggerCacheHits(),
+            fixCounters.loggerCacheMisses(),
+            fixCounters.loggerCacheEvictions());
+    }
+
     private Replayer newReplayer(
         final ExclusivePublication replayPublication, final ReplayQuery replayQuery)
     {
@@ -223,7 +253,8 @@ public class EngineContext implements AutoCloseable
             replayerCommandQueue,
             epochFractionFormat,
             fixCounters.currentReplayCount(),
-            configuration.maxConcurrentSessionReplays());
+            configuration.maxConcurrentSessionReplays(),
+            resendCache);
     }
 
     private void newIndexers()
@@ -231,6 +262,12 @@ public class EngineContext implements AutoCloseable
         final int cacheSetSize = configuration.loggerCacheSetSize();
         final int cacheNumSets = configuration.loggerCacheNumSets();
         final String logFileDir = configuration.logFileDir();
+        indexCatchup = new IndexCatchup(
+            aeronArchive,
+            errorHandler,
+            configuration.archiveReplayStream(),
+            fixCounters.indexCatchupRemainingBytes(),
+            fixCounters.indexCatchupRemainingRecordings());
 
         final Long2LongHashMap connectionIdToILinkUuid = new Long2LongHashMap(UNK_SESSION);
         final ReplayIndex inboundReplayIndex = newReplayIndex(
@@ -240,36 +277,148 @@ public class EngineContext implements AutoCloseable
             configuration.inboundLibraryStream(),
             recordingCoordinator.indexerInboundRecordingIdLookup(),
             connectionIdToILinkUuid);
+        final TimeIndexWriter inboundTimeIndex = newTimeIndex(
+            configuration.inboundLibraryStream(),
+            recordingCoordinator.indexerInboundRecordingIdLookup());
 
-        inboundIndexer = new Indexer(
-            asList(inboundReplayIndex, receivedSequenceNumberIndex),
-            inboundLibraryStreams.subscription("inboundIndexer"),
-            configuration.agentNamePrefix(),
-            inboundCompletionPosition,
-            aeronArchive,
-            errorHandler,
-            configuration.archiveReplayStream(),
-            configuration.gracefulShutdown());
-
-        final List<Index> outboundIndices = new ArrayList<>();
-        outboundIndices.add(newReplayIndex(
+        final ReplayIndex outboundReplayIndex = newReplayIndex(
             cacheSetSize,
             cacheNumSets,
             logFileDir,
             configuration.outboundLibraryStream(),
             recordingCoordinator.indexerOutboundRecordingIdLookup(),
-            connectionIdToILinkUuid));
-        outboundIndices.add(sentSequenceNumberIndex);
+            connectionIdToILinkUuid);
+        // Shares the indexing agent's thread with the Replayer that reads it
+        resendCache = new ResendCache(
+            configuration.resendCacheSessionSize(),
+            configuration.resendCacheSize(),
+            configuration.outboundLibraryStream(),
+            errorHandler,
+            fixCounters.resendCacheHits(),
+            fixCounters.resendCacheMisses());
+        final TimeIndexWriter outboundTimeIndex = newTimeIndex(
+            configuration.outboundLibraryStream(),
+            recordingCoordinator.indexerOutboundRecordingIdLookup());
+
+        if (configuration.dedicatedIndexerThreads())
+        {
+            // Indices that share state are built on the same thread: the replay indices of both streams share the
+            // connection id map, as do the sequence number indices. Replay is what waits for messages to be indexed,
+            // so only the replay indices are timed.
+            final List<Agent> dedicatedIndexers = new ArrayList<>();
+            dedicatedIndexers.add(new CompositeAgent(
+                newInboundIndexer(inboundReplayIndex, indexTimer),
+                newOutboundIndexer(outboundReplayIndex, indexTimer)));
+            dedicatedIndexers.add(new CompositeAgent(
+                newInboundIndexer(receivedSequenceNumberIndex, null),
+                newOutboundIndexer(sentSequenceNumberIndex, null)));
+            if (inboundTimeIndex != null)
+            {
+                dedicatedIndexers.add(new CompositeAgent(
+                    newInboundIndexer(inboundTimeIndex, null),
+                    newOutboundIndexer(outboundTimeIndex, null)));
+            }
+
+            indexers.add(newOutboundIndexer(resendCache, null));
+            indexers.add(new DedicatedIndexers(
+                dedicatedIndexers,
+                configuration.dedicatedIndexerIdleStrategySupplier(),
+                errorHandler,
+                configuration.threadFactory(),
+                configuration.agentNamePrefix()));
+        }
+        else
+        {
+            final List<Index> inboundIndices = new ArrayList<>();
+            inboundIndices.add(inboundReplayIndex);
+            inboundIndices.add(receivedSequenceNumberIndex);
+            addIfPresent(inboundIndices, inboundTimeIndex);
+
+            final List<Index> outboundIndices = new ArrayList<>();
+            outboundIndices.add(outboundReplayIndex);
+            outboundIndices.add(sentSequenceNumberIndex);
+            outboundIndices.add(resendCache);
+            addIfPresent(outboundIndices, outboundTimeIndex);
+
+            indexers.add(newInboundIndexer(inboundIndices, indexTimer));
+            indexers.add(newOutboundIndexer(outboundIndices, indexTimer));
+        }
+
+        // Every indexer's recordings are caught up together, so that they can be replayed concurrently
+        indexCatchup.run();
+        indexCatchup = null;
+    }
 
-        outboundIndexer = new Indexer(
-            outboundIndices,
+    private void addIfPresent(final List<Index> indices, final Index index)
+    {
+        if (index != null)
+        {
+            indices.add(index);
+        }
+    }
+
+    private Indexer newInboundIndexer(final Index index, final Timer timer)
+    {
+        return newInboundIndexer(Collections.singletonList(index), timer);
+    }
+
+    private Indexer newInboundIndexer(final List<Index> indices, final Timer timer)
+    {
+        return newIndexer(
+            indices,
+            inboundLibraryStreams.subscription("inboundIndexer"),
+            inboundCompletionPosition,
+            timer);
+    }
+
+    private Indexer newOutboundIndexer(final Index index, final Timer timer)
+    {
+        return newOutboundIndexer(Collections.singletonList(index), timer);
+    }
+
+    private Indexer newOutboundIndexer(final List<Index> indices, final Timer timer)
+    {
+        return newIndexer(
+            indices,
             outboundLibraryStreams.subscription("outboundIndexer"),
-            configuration.agentNamePrefix(),
             outboundLibraryCompletionPosition,
-            aeronArchive,
-            errorHandler,
-            configuration.archiveReplayStream(),
-            configuration.gracefulShutdown());
+            timer);
+    }
+
+    private Indexer newIndexer(
+        final List<Index> indices,
+        final Subscription subscription,
+        final CompletionPosition completionPosition,
+        final Timer timer)
+    {
+        indexCatchup.add(indices);
+
+        return new Indexer(
+            indices,
+            subscription,
+            configuration.agentNamePrefix(),
+            completionPosition,
+            configuration.gracefulShutdown(),
+            timer);
+    }
+
+    private TimeIndexWriter newTimeIndex(final int streamId, final RecordingIdLookup recordingIdLookup)
+    {
+        final int timeIndexBlockSize = configuration.timeIndexBlockSize();
+        if (timeIndexBlockSize > 0)
+        {
+            final TimeIndexWriter timeIndex = new TimeIndexWriter(
+                configuration.logFileDir(),
+                streamId,
+                timeIndexBlockSize,
+                errorHandler,
+                recordingIdLookup,
+                aeronArchive);
+            timeIndices.add(timeIndex);
+            return timeIndex;
+        }
+
+        return null;
     }
 
     private void newArchivingAgent()
@@ -282,9 +431,7 @@ public class EngineContext implements AutoCloseable
                 configuration.archiverIdleStrategy(), configuration.outboundLibraryStream());
             final Replayer replayer = newReplayer(replayPublication, outboundReplayQuery);
 
-            final List<Agent> agents = new ArrayList<>();
-            agents.add(inboundIndexer);
-            agents.add(outboundIndexer);
+            final List<Agent> agents = new ArrayList<>(indexers);
             agents.add(replayer);
 
             indexingAgent = new CompositeAgent(agents);
@@ -395,7 +542,8 @@ public class EngineContext implements AutoCloseable
             pruneInboundReplayQuery,
             aeronArchive,
             replayerCommandQueue,
-            recordingCoordinator);
+            recordingCoordinator,
+            timeIndices);
 
         if (!framerContext.offer(operation))
         {
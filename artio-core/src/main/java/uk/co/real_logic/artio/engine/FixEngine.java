@@ -274,9 +274,10 @@ public final class FixEngine extends GatewayProcess
                 fixCounters,
                 aeron,
                 aeronArchive,
-                recordingCoordinator);
+                recordingCoordinator,
+                timers.indexTimer());
             initFramer(configuration, fixCounters, replayPublication.sessionId());
-            initMonitoringAgent(timers.all(), configuration, aeronArchive, duplicateEngineChecker);
+            initMonitoringAgent(timers.all(), "engine", configuration, aeronArchive, duplicateEngineChecker);
         }
         catch (final Exception e)
         {
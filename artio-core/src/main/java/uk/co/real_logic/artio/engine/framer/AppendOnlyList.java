@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * A list that a single thread appends to and that any thread can read.
+ * <p>
+ * Elements are stored in chunks that double in size, so unlike a {@link java.util.concurrent.CopyOnWriteArrayList}
+ * adding an element never copies the elements that are already in the list. The size is published after the element
+ * has been stored, so readers always see a complete prefix of the list, and iterators stop at the size that the list
+ * had when they were created.
+ *
+ * @param <E> the type of the elements.
+ */
+final class AppendOnlyList<E> extends AbstractList<E> implements RandomAccess
+{
+    private static final int FIRST_CHUNK_SHIFT = 4;
+    private static final int FIRST_CHUNK_SIZE = 1 << FIRST_CHUNK_SHIFT;
+    private static final int MAX_CHUNKS = Integer.SIZE - FIRST_CHUNK_SHIFT;
+
+    private final Object[][] chunks = new Object[MAX_CHUNKS][];
+    private volatile int size;
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean add(final E element)
+    {
+        final int index = size;
+        final int chunkIndex = chunkIndex(index);
+        Object[] chunk = chunks[chunkIndex];
+        if (chunk == null)
+        {
+            chunk = new Object[FIRST_CHUNK_SIZE << chunkIndex];
+            chunks[chunkIndex] = chunk;
+        }
+        chunk[offsetInChunk(index, chunkIndex)] = element;
+        size = index + 1;
+
+        return true;
+    }
+
+    public E get(final int index)
+    {
+        checkIndex(index);
+        return element(index);
+    }
+
+    public E set(final int index, final E element)
+    {
+        checkIndex(index);
+        final int chunkIndex = chunkIndex(index);
+        final Object[] chunk = chunks[chunkIndex];
+        final int offset = offsetInChunk(index, chunkIndex);
+        @SuppressWarnings("unchecked") final E oldElement = (E)chunk[offset];
+        chunk[offset] = element;
+        return oldElement;
+    }
+
+    /**
+     * Empties the list, the chunks are kept in order to be reused and elements are only released as they're
+     * overwritten, so iterators that were created before this is called still see the old elements.
+     */
+    public void clear()
+    {
+        size = 0;
+    }
+
+    public Iterator<E> iterator()
+    {
+        final int size = this.size;
+        return new Iterator<E>()
+        {
+            private int index = 0;
+
+            public boolean hasNext()
+            {
+                return index < size;
+            }
+
+            public E next()
+            {
+                if (index >= size)
+                {
+                    throw new NoSuchElementException();
+                }
+
+                return element(index++);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private E element(final int index)
+    {
+        final int chunkIndex = chunkIndex(index);
+        return (E)chunks[chunkIndex][offsetInChunk(index, chunkIndex)];
+    }
+
+    private void checkIndex(final int index)
+    {
+        final int size = this.size;
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("index = " + index + ", size = " + size);
+        }
+    }
+
+    // Chunk n holds FIRST_CHUNK_SIZE << n elements, starting from index FIRST_CHUNK_SIZE * (2^n - 1)
+    private static int chunkIndex(final int index)
+    {
+        return 31 - Integer.numberOfLeadingZeros((index >> FIRST_CHUNK_SHIFT) + 1);
+    }
+
+    private static int offsetInChunk(final int index, final int chunkIndex)
+    {
+        return index - FIRST_CHUNK_SIZE * ((1 << chunkIndex) - 1);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
+import uk.co.real_logic.artio.session.CompositeKey;
+import uk.co.real_logic.artio.session.SessionIdStrategy;
+
+import java.util.List;
+
+/**
+ * An open addressed hash table from the composite keys of sessions to their contexts.
+ * <p>
+ * Each entry packs the hash code of a key with the position of its context in a list of contexts, so the table
+ * itself is a single long array. When a session logs on again its context is looked up by hashing and comparing the
+ * fields of the logon's header with the {@link SessionIdStrategy}, without creating a composite key.
+ * Contexts are never removed individually, only by clearing the whole index.
+ */
+final class CompositeKeyIndex
+{
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long EMPTY = 0;
+
+    private final List<SessionContext> contexts;
+
+    private long[] entries = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Create an index.
+     *
+     * @param contexts the list that contexts are added to, this must only be modified through the index.
+     */
+    CompositeKeyIndex(final List<SessionContext> contexts)
+    {
+        this.contexts = contexts;
+    }
+
+    SessionContext get(final CompositeKey compositeKey)
+    {
+        final int hashCode = compositeKey.hashCode();
+        final long[] entries = this.entries;
+        final int mask = entries.length - 1;
+        for (int i = slot(hashCode, mask); entries[i] != EMPTY; i = (i + 1) & mask)
+        {
+            final long entry = entries[i];
+            if (hashCode(entry) == hashCode)
+            {
+                final SessionContext context = contexts.get(contextIndex(entry));
+                if (compositeKey.equals(context.sessionKey()))
+                {
+                    return context;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    SessionContext get(final SessionHeaderDecoder header, final SessionIdStrategy idStrategy)
+    {
+        final int hashCode = idStrategy.acceptLogonHashCode(header);
+        final long[] entries = this.entries;
+        final int mask = entries.length - 1;
+        for (int i = slot(hashCode, mask); entries[i] != EMPTY; i = (i + 1) & mask)
+        {
+            final long entry = entries[i];
+            if (hashCode(entry) == hashCode)
+            {
+                final SessionContext context = contexts.get(contextIndex(entry));
+                if (idStrategy.matchesAcceptLogon(context.sessionKey(), header))
+                {
+                    return context;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Add a context to the index, replacing any context that has an equal key.
+     *
+     * @param context the context to add.
+     * @return the context that has been replaced or null if there wasn't one.
+     */
+    SessionContext put(final SessionContext context)
+    {
+        final CompositeKey compositeKey = context.sessionKey();
+        final int hashCode = compositeKey.hashCode();
+        final long[] entries = this.entries;
+        final int mask = entries.length - 1;
+        int i = slot(hashCode, mask);
+        for (; entries[i] != EMPTY; i = (i + 1) & mask)
+        {
+            final long entry = entries[i];
+            if (hashCode(entry) == hashCode)
+            {
+                final int contextIndex = contextIndex(entry);
+                if (compositeKey.equals(contexts.get(contextIndex).sessionKey()))
+                {
+                    return contexts.set(contextIndex, context);
+                }
+            }
+        }
+
+        entries[i] = entry(hashCode, contexts.size());
+        contexts.add(context);
+        size++;
+
+        if (size > (entries.length >> 1))
+        {
+            rehash(entries.length << 1);
+        }
+
+        return null;
+    }
+
+    void clear()
+    {
+        entries = new long[INITIAL_CAPACITY];
+        size = 0;
+        contexts.clear();
+    }
+
+    private void rehash(final int newCapacity)
+    {
+        final long[] oldEntries = entries;
+        final long[] newEntries = new long[newCapacity];
+        final int mask = newCapacity - 1;
+        for (final long entry : oldEntries)
+        {
+            if (entry != EMPTY)
+            {
+                int i = slot(hashCode(entry), mask);
+                while (newEntries[i] != EMPTY)
+                {
+                    i = (i + 1) & mask;
+                }
+                newEntries[i] = entry;
+            }
+        }
+        entries = newEntries;
+    }
+
+    private static int slot(final int hashCode, final int mask)
+    {
+        return (hashCode ^ (hashCode >>> 16)) & mask;
+    }
+
+    // Context indices are stored offset by one so that an entry is never EMPTY
+    private static long entry(final int hashCode, final int contextIndex)
+    {
+        return ((long)hashCode << 32) | (contextIndex + 1);
+    }
+
+    private static int hashCode(final long entry)
+    {
+        return (int)(entry >>> 32);
+    }
+
+    private static int contextIndex(final long entry)
+    {
+        return (int)entry - 1;
+    }
+}
@@ -22,6 +22,7 @@ import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.MessageTimingHandler;
 import uk.co.real_logic.artio.engine.SenderSequenceNumbers;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.timing.Timer;
 
 class EndPointFactory
 {
@@ -36,6 +37,7 @@ class EndPointFactory
     private final GatewaySessions gatewaySessions;
     private final SenderSequenceNumbers senderSequenceNumbers;
     private final MessageTimingHandler messageTimingHandler;
+    private final Timer inboundPublishTimer;
 
     private SlowPeeker replaySlowPeeker;
 
@@ -47,7 +49,8 @@ class EndPointFactory
         final ErrorHandler errorHandler,
         final GatewaySessions gatewaySessions,
         final SenderSequenceNumbers senderSequenceNumbers,
-        final MessageTimingHandler messageTimingHandler)
+        final MessageTimingHandler messageTimingHandler,
+        final Timer inboundPublishTimer)
     {
         this.configuration = configuration;
         this.sessionContexts = sessionContexts;
@@ -57,6 +60,7 @@ class EndPointFactory
         this.gatewaySessions = gatewaySessions;
         this.senderSequenceNumbers = senderSequenceNumbers;
         this.messageTimingHandler = messageTimingHandler;
+        this.inboundPublishTimer = inboundPublishTimer;
     }
 
     FixReceiverEndPoint receiverEndPoint(
@@ -81,6 +85,7 @@ class EndPointFactory
             libraryId,
             gatewaySessions,
             configuration.clock(),
+            inboundPublishTimer,
             framer.acceptorFixDictionaryLookup(),
             formatters);
     }
@@ -108,7 +113,10 @@ class EndPointFactory
             configuration.slowConsumerTimeoutInMs(),
             System.currentTimeMillis(),
             senderSequenceNumbers.onNewSender(connectionId, bytesInBuffer),
-            messageTimingHandler);
+            messageTimingHandler,
+            configuration.senderCoalescingBufferSize(),
+            fixCounters.senderWrites(),
+            fixCounters.senderMessagesWritten());
     }
 
     void replaySlowPeeker(final SlowPeeker replaySlowPeeker)
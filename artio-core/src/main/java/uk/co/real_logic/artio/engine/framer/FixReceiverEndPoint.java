@@ -28,6 +28,7 @@ import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.ByteBufferUtil;
 import uk.co.real_logic.artio.messages.DisconnectReason;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.timing.Timer;
 import uk.co.real_logic.artio.util.CharFormatter;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
@@ -149,6 +150,7 @@ class FixReceiverEndPoint extends ReceiverEndPoint
     private final PasswordCleaner passwordCleaner = new PasswordCleaner();
     private final GatewaySessions gatewaySessions;
     private final Clock clock;
+    private final Timer publishTimer;
     private final AcceptorFixDictionaryLookup acceptorFixDictionaryLookup;
     private final FixReceiverEndPointFormatters formatters;
 
@@ -178,6 +180,7 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         final int libraryId,
         final GatewaySessions gatewaySessions,
         final Clock clock,
+        final Timer publishTimer,
         final AcceptorFixDictionaryLookup acceptorFixDictionaryLookup,
         final FixReceiverEndPointFormatters formatters)
     {
@@ -193,6 +196,7 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         this.messagesRead = messagesRead;
         this.gatewaySessions = gatewaySessions;
         this.clock = clock;
+        this.publishTimer = publishTimer;
         this.acceptorFixDictionaryLookup = acceptorFixDictionaryLookup;
 
         address = channel.remoteAddress();
@@ -803,6 +807,7 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         }
         else
         {
+            publishTimer.recordSince(readTimestamp);
             gatewaySession.onMessage(buffer, offset, length, messageType, position);
             return true;
         }
@@ -188,6 +188,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final Timer sendTimer,
         final EngineConfiguration configuration,
         final EndPointFactory endPointFactory,
+        final FixCounters fixCounters,
         final Subscription librarySubscription,
         final Subscription slowSubscription,
         final Image replayImage,
@@ -244,7 +245,11 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             configuration.acceptorfixDictionary(),
             configuration.acceptorFixDictionaryOverrides());
 
-        receiverEndPoints = new ReceiverEndPoints(errorHandler);
+        receiverEndPoints = new ReceiverEndPoints(
+            errorHandler,
+            configuration.receiverPollingThreshold(),
+            fixCounters.receiverSelects(),
+            fixCounters.receiverReads());
 
         this.librarySlowPeeker = new SubscriptionSlowPeeker(slowSubscription, librarySubscription);
 
@@ -417,6 +422,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private int sendOutboundMessages()
     {
         return librarySubscription.controlledPoll(librarySubscriber, outboundLibraryFragmentLimit) +
+            senderEndPoints.flush() +
             librarySlowPeeker.peek(senderEndPointAssembler);
     }
 
@@ -1265,20 +1271,18 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         if (messageType == LOGON_MESSAGE_TYPE)
         {
             // Always a sequence reset
-            final Map.Entry<CompositeKey, SessionContext> entry = sessionContexts.lookupById(sessionId);
-            if (entry != null)
+            final SessionContext context = sessionContexts.lookupById(sessionId);
+            if (context != null)
             {
-                final SessionContext context = entry.getValue();
                 context.onSequenceReset(clock.time());
             }
         }
         else if (messageType == SEQUENCE_RESET_MESSAGE_TYPE)
         {
             // If it's not a gap-fill it's a sequence reset
-            final Map.Entry<CompositeKey, SessionContext> entry = sessionContexts.lookupById(sessionId);
-            if (entry != null)
+            final SessionContext context = sessionContexts.lookupById(sessionId);
+            if (context != null)
             {
-                final SessionContext context = entry.getValue();
                 final AbstractSequenceResetDecoder decoder = acceptorFixDictionaryLookup.lookupSequenceResetDecoder(
                     context.lastFixDictionary());
                 asciiBuffer.wrap(buffer);
@@ -1358,6 +1362,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     public Action onRequestDisconnect(final int libraryId, final long connectionId, final DisconnectReason reason)
     {
+        // Messages sent before the disconnect request may still be staged for write coalescing.
+        senderEndPoints.flush(connectionId);
         return onDisconnect(libraryId, connectionId, reason);
     }
 
@@ -1699,8 +1705,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final int replayFromSequenceIndex,
         final int replayFromSequenceNumber)
     {
-        final Map.Entry<CompositeKey, SessionContext> entry = sessionContexts.lookupById(sessionId);
-        if (entry == null)
+        final SessionContext context = sessionContexts.lookupById(sessionId);
+        if (context == null)
         {
             return false;
         }
@@ -1718,8 +1724,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                 correlationId,
                 replayFromSequenceIndex,
                 replayFromSequenceNumber,
-                entry.getKey(),
-                entry.getValue()));
+                context.sessionKey(),
+                context));
         }
 
         return true;
@@ -1986,8 +1992,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         acceptorHeaderDecoder.reset();
         acceptorHeaderDecoder.decode(asciiBuffer, srcOffset, srcLength);
 
-        final CompositeKey compositeKey = sessionIdStrategy.onAcceptLogon(acceptorHeaderDecoder);
-        final SessionContext sessionContext = sessionContexts.newSessionContext(compositeKey, fixDictionary);
+        final SessionContext sessionContext = sessionContexts.newSessionContext(acceptorHeaderDecoder, fixDictionary);
         final long sessionId = sessionContext.sessionId();
 
         schedule(() -> inboundPublication.saveFollowerSessionReply(
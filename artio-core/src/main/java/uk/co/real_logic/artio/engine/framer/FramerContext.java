@@ -115,7 +115,8 @@ public class FramerContext
             errorHandler,
             gatewaySessions,
             engineContext.senderSequenceNumbers(),
-            configuration.messageTimingHandler());
+            configuration.messageTimingHandler(),
+            timers.inboundPublishTimer());
 
         final FinalImagePositions finalImagePositions = new FinalImagePositions();
 
@@ -125,6 +126,7 @@ public class FramerContext
             timers.sendTimer(),
             configuration,
             endPointFactory,
+            fixCounters,
             engineContext.outboundLibrarySubscription(
                 "outboundLibrarySubscription", finalImagePositions),
             engineContext.outboundLibrarySubscription(
@@ -73,6 +73,12 @@ class GatewaySession implements ConnectedSessionInfo, SessionProcessHandler
     private long lastLogonTime = Session.UNKNOWN_TIME;
     private int libraryId;
 
+    // Poll scheduling state, owned by the GatewaySessions whilst the engine manages this session.
+    private GatewaySessions gatewaySessions;
+    private long pollTimerId = GatewaySessions.NO_POLL_TIMER;
+    private int pollingIndex = GatewaySessions.NO_INDEX;
+    private GatewaySession nextWithSameSessionId;
+
     GatewaySession(
         final long connectionId,
         final SessionContext context,
@@ -141,6 +147,7 @@ class GatewaySession implements ConnectedSessionInfo, SessionProcessHandler
         this.session.sessionProcessHandler(this);
         receiverEndPoint.libraryId(ENGINE_LIBRARY_ID);
         senderEndPoint.libraryId(ENGINE_LIBRARY_ID, blockablePosition);
+        requirePoll();
     }
 
     // sets management to a library and also cleans up locally associated session.
@@ -179,6 +186,67 @@ class GatewaySession implements ConnectedSessionInfo, SessionProcessHandler
         return events + checkNoLogonDisconnect(timeInMs);
     }
 
+    long nextPollTimeInMs(final long timeInMs)
+    {
+        final long sessionPollTimeInMs = session != null ? session.nextPollTimeInMs(timeInMs) : Long.MAX_VALUE;
+        return disconnectTimeInMs == NO_TIMEOUT ?
+            sessionPollTimeInMs : Math.min(sessionPollTimeInMs, disconnectTimeInMs);
+    }
+
+    public void onPollTimeChanged(final Session session)
+    {
+        requirePoll();
+    }
+
+    // Called when anything that may change the next poll time happens
+    private void requirePoll()
+    {
+        if (gatewaySessions != null)
+        {
+            gatewaySessions.requirePoll(this);
+        }
+    }
+
+    void gatewaySessions(final GatewaySessions gatewaySessions)
+    {
+        this.gatewaySessions = gatewaySessions;
+    }
+
+    long pollTimerId()
+    {
+        return pollTimerId;
+    }
+
+    void pollTimerId(final long pollTimerId)
+    {
+        this.pollTimerId = pollTimerId;
+    }
+
+    GatewaySession nextWithSameSessionId()
+    {
+        return nextWithSameSessionId;
+    }
+
+    void nextWithSameSessionId(final GatewaySession nextWithSameSessionId)
+    {
+        this.nextWithSameSessionId = nextWithSameSessionId;
+    }
+
+    boolean isPolling()
+    {
+        return pollingIndex != GatewaySessions.NO_INDEX;
+    }
+
+    int pollingIndex()
+    {
+        return pollingIndex;
+    }
+
+    void pollingIndex(final int pollingIndex)
+    {
+        this.pollingIndex = pollingIndex;
+    }
+
     private int checkNoLogonDisconnect(final long timeInMs)
     {
         if (disconnectTimeInMs == NO_TIMEOUT)
@@ -206,6 +274,7 @@ class GatewaySession implements ConnectedSessionInfo, SessionProcessHandler
     {
         hasStartedAuthentication = true;
         disconnectTimeInMs = timeInMs + authenticationTimeoutInMs;
+        requirePoll();
     }
 
     void onAuthenticationResult()
@@ -259,6 +328,7 @@ class GatewaySession implements ConnectedSessionInfo, SessionProcessHandler
             session.messageInfo().isValid(true);
 
             sessionParser.onMessage(buffer, offset, length, messageType, position);
+            requirePoll();
         }
     }
 
@@ -270,6 +340,7 @@ class GatewaySession implements ConnectedSessionInfo, SessionProcessHandler
         this.username = username;
         this.password = password;
         this.heartbeatIntervalInS = heartbeatIntervalInS;
+        requirePoll();
         if (session != null)
         {
             session.setupSession(sessionId, sessionKey);
@@ -289,7 +360,12 @@ class GatewaySession implements ConnectedSessionInfo, SessionProcessHandler
         final int heartbeatIntervalInS,
         final int logonReceivedSequenceNumber)
     {
+        final long oldSessionId = this.sessionId;
         this.sessionId = sessionId;
+        if (gatewaySessions != null)
+        {
+            gatewaySessions.onSessionIdChanged(this, oldSessionId);
+        }
         this.context = context;
         this.sessionKey = sessionKey;
         this.logonReceivedSequenceNumber = logonReceivedSequenceNumber;
@@ -344,6 +420,7 @@ class GatewaySession implements ConnectedSessionInfo, SessionProcessHandler
     void disconnectAt(final long disconnectTimeout)
     {
         this.disconnectTimeInMs = disconnectTimeout;
+        requirePoll();
     }
 
     public long bytesInBuffer()
@@ -15,9 +15,11 @@
  */
 package uk.co.real_logic.artio.engine.framer;
 
+import org.agrona.DeadlineTimerWheel;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.concurrent.EpochClock;
 import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.Clock;
@@ -41,6 +43,7 @@ import uk.co.real_logic.artio.messages.DisconnectReason;
 import uk.co.real_logic.artio.messages.SessionState;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.session.*;
+import uk.co.real_logic.artio.timing.TimerWheels;
 import uk.co.real_logic.artio.util.CharFormatter;
 import uk.co.real_logic.artio.util.EpochFractionClock;
 import uk.co.real_logic.artio.util.EpochFractionClocks;
@@ -56,17 +59,39 @@ import java.util.function.Function;
 import static uk.co.real_logic.artio.LogTag.FIX_CONNECTION;
 import static uk.co.real_logic.artio.engine.ConnectedSessionInfo.UNK_SESSION;
 import static uk.co.real_logic.artio.engine.framer.SessionContexts.DUPLICATE_SESSION;
+import static uk.co.real_logic.artio.engine.framer.SessionContexts.LOWEST_VALID_SESSION_ID;
 import static uk.co.real_logic.artio.engine.framer.SessionContexts.UNKNOWN_SESSION;
 import static uk.co.real_logic.artio.validation.SessionPersistenceStrategy.resetSequenceNumbersUponLogon;
 
 /**
  * Keeps track of which sessions managed by the gateway
+ * <p>
+ * Sessions are indexed by session id and connection id. Only sessions that have work to do are polled each duty
+ * cycle: after being polled a session that is idle is scheduled on a timer wheel for the next time that it needs
+ * polling, eg: to send a heartbeat or to time out, and anything that may change that time, such as receiving a
+ * message or changing its state, puts it back into the polling list. Each session records its slot in the polling
+ * list, so it's removed from it in constant time by moving the last polling session into that slot. The order that
+ * sessions are polled in doesn't matter, but {@link #sessions()} is kept in the order that sessions were added.
+ * <p>
+ * Sessions that share a session id, eg: a duplicate logon attempt, are chained together in the order that they were
+ * indexed, so lookups by session id find the first of them.
  */
-class GatewaySessions
+class GatewaySessions implements DeadlineTimerWheel.TimerHandler
 {
+    static final long NO_POLL_TIMER = -1;
+    static final int NO_INDEX = -1;
+
+    private static final int POLL_TIMER_TICK_RESOLUTION_IN_MS = 1;
+    private static final int POLL_TIMER_TICKS_PER_WHEEL = 1024;
+
     private final CharFormatter acquiredConnection =
         new CharFormatter("Gateway Acquired Connection %s%n");
     private final List<GatewaySession> sessions = new ArrayList<>();
+    private final Long2ObjectHashMap<GatewaySession> sessionIdToSession = new Long2ObjectHashMap<>();
+    private final Long2ObjectHashMap<GatewaySession> connectionIdToSession = new Long2ObjectHashMap<>();
+    private final ArrayList<GatewaySession> pollingSessions = new ArrayList<>();
+    private final Long2ObjectHashMap<GatewaySession> pollTimerIdToSession = new Long2ObjectHashMap<>();
+    private final DeadlineTimerWheel pollTimerWheel;
     private final Map<FixDictionary, UserRequestExtractor> dictionaryToUserRequestExtractor = new HashMap<>();
 
     private final EpochClock epochClock;
@@ -139,6 +164,8 @@ class GatewaySessions
             epochFractionPrecision);
 
         sendingTimeEncoder = new UtcTimestampEncoder(epochFractionPrecision);
+        pollTimerWheel = new DeadlineTimerWheel(
+            TimeUnit.MILLISECONDS, epochClock.time(), POLL_TIMER_TICK_RESOLUTION_IN_MS, POLL_TIMER_TICKS_PER_WHEEL);
     }
 
     static GatewaySession removeSessionByConnectionId(final long connectionId, final List<GatewaySession> sessions)
@@ -222,9 +249,9 @@ class GatewaySessions
             messageInfo,
             sessionIdStrategy);
 
-        if (!sessions.contains(gatewaySession))
+        if (connectionIdToSession.get(connectionId) != gatewaySession)
         {
-            sessions.add(gatewaySession);
+            add(gatewaySession);
         }
         gatewaySession.manage(sessionParser, session, engineBlockablePosition);
 
@@ -243,31 +270,18 @@ class GatewaySessions
 
     GatewaySession releaseBySessionId(final long sessionId)
     {
-        final int index = indexBySessionId(sessionId);
-        if (index < 0)
+        final GatewaySession session = sessionIdToSession.get(sessionId);
+        if (session != null)
         {
-            return null;
+            remove(session);
         }
 
-        return sessions.remove(index);
+        return session;
     }
 
     GatewaySession sessionById(final long sessionId)
     {
-        final int index = indexBySessionId(sessionId);
-        if (index < 0)
-        {
-            return null;
-        }
-
-        return sessions.get(index);
-    }
-
-    private int indexBySessionId(final long sessionId)
-    {
-        final List<GatewaySession> sessions = this.sessions;
-
-        return indexBySessionId(sessionId, sessions);
+        return sessionIdToSession.get(sessionId);
     }
 
     static int indexBySessionId(final long sessionId, final List<GatewaySession> sessions)
@@ -286,34 +300,215 @@ class GatewaySessions
 
     void releaseByConnectionId(final long connectionId)
     {
-        final GatewaySession session = removeSessionByConnectionId(connectionId, sessions);
+        final GatewaySession session = connectionIdToSession.get(connectionId);
         if (session != null)
         {
+            remove(session);
             session.close();
         }
     }
 
     int pollSessions(final long time)
     {
-        final List<GatewaySession> sessions = this.sessions;
+        TimerWheels.poll(pollTimerWheel, time, this);
 
+        final ArrayList<GatewaySession> pollingSessions = this.pollingSessions;
         int eventsProcessed = 0;
-        for (int i = 0, size = sessions.size(); i < size;)
+        for (int i = 0; i < pollingSessions.size();)
         {
-            final GatewaySession session = sessions.get(i);
-            eventsProcessed += session.poll(time);
-            if (session.hasDisconnected())
+            final GatewaySession session = pollingSessions.get(i);
+            final int events = session.poll(time);
+            eventsProcessed += events;
+
+            if (i >= pollingSessions.size() || pollingSessions.get(i) != session)
             {
-                size--;
+                // Removed whilst being polled, eg: by disconnecting.
+                continue;
             }
-            else
+
+            final long nextPollTimeInMs = events > 0 ? time : session.nextPollTimeInMs(time);
+            if (nextPollTimeInMs <= time)
             {
                 i++;
             }
+            else
+            {
+                removePolling(session);
+                if (nextPollTimeInMs != Long.MAX_VALUE)
+                {
+                    final long timerId = pollTimerWheel.scheduleTimer(nextPollTimeInMs);
+                    session.pollTimerId(timerId);
+                    pollTimerIdToSession.put(timerId, session);
+                }
+            }
         }
         return eventsProcessed;
     }
 
+    public boolean onTimerExpiry(final TimeUnit timeUnit, final long now, final long timerId)
+    {
+        final GatewaySession session = pollTimerIdToSession.remove(timerId);
+        if (session != null)
+        {
+            session.pollTimerId(NO_POLL_TIMER);
+            addPolling(session);
+        }
+
+        return true;
+    }
+
+    void requirePoll(final GatewaySession session)
+    {
+        if (!session.isPolling())
+        {
+            cancelPollTimer(session);
+            addPolling(session);
+        }
+    }
+
+    void onSessionIdChanged(final GatewaySession session, final long oldSessionId)
+    {
+        unindexSessionId(session, oldSessionId);
+        indexSessionId(session);
+    }
+
+    private void add(final GatewaySession session)
+    {
+        sessions.add(session);
+        connectionIdToSession.put(session.connectionId(), session);
+        indexSessionId(session);
+        session.gatewaySessions(this);
+        addPolling(session);
+    }
+
+    private void remove(final GatewaySession session)
+    {
+        sessions.remove(session);
+        removeIfMapped(connectionIdToSession, session.connectionId(), session);
+        unindexSessionId(session, session.sessionId());
+        session.gatewaySessions(null);
+        cancelPollTimer(session);
+        if (session.isPolling())
+        {
+            removePolling(session);
+        }
+    }
+
+    private void indexSessionId(final GatewaySession session)
+    {
+        final long sessionId = session.sessionId();
+        if (sessionId < LOWEST_VALID_SESSION_ID)
+        {
+            return;
+        }
+
+        GatewaySession indexedSession = sessionIdToSession.get(sessionId);
+        if (indexedSession == null)
+        {
+            sessionIdToSession.put(sessionId, session);
+            return;
+        }
+
+        while (indexedSession != session)
+        {
+            final GatewaySession nextSession = indexedSession.nextWithSameSessionId();
+            if (nextSession == null)
+            {
+                indexedSession.nextWithSameSessionId(session);
+                return;
+            }
+
+            indexedSession = nextSession;
+        }
+    }
+
+    private void unindexSessionId(final GatewaySession session, final long sessionId)
+    {
+        final GatewaySession indexedSession = sessionIdToSession.get(sessionId);
+        if (indexedSession == session)
+        {
+            final GatewaySession nextSession = session.nextWithSameSessionId();
+            if (nextSession == null)
+            {
+                sessionIdToSession.remove(sessionId);
+            }
+            else
+            {
+                sessionIdToSession.put(sessionId, nextSession);
+            }
+        }
+        else if (indexedSession != null)
+        {
+            GatewaySession previousSession = indexedSession;
+            GatewaySession nextSession;
+            while ((nextSession = previousSession.nextWithSameSessionId()) != null && nextSession != session)
+            {
+                previousSession = nextSession;
+            }
+
+            if (nextSession == session)
+            {
+                previousSession.nextWithSameSessionId(session.nextWithSameSessionId());
+            }
+        }
+
+        session.nextWithSameSessionId(null);
+    }
+
+    private static boolean removeIfMapped(
+        final Long2ObjectHashMap<GatewaySession> index, final long key, final GatewaySession session)
+    {
+        if (index.get(key) == session)
+        {
+            index.remove(key);
+            return true;
+        }
+
+        return false;
+    }
+
+    private void addPolling(final GatewaySession session)
+    {
+        session.pollingIndex(pollingSessions.size());
+        pollingSessions.add(session);
+    }
+
+    private void removePolling(final GatewaySession session)
+    {
+        final int pollingIndex = session.pollingIndex();
+        final GatewaySession moved = swapRemove(pollingSessions, pollingIndex);
+        if (moved != null)
+        {
+            moved.pollingIndex(pollingIndex);
+        }
+        session.pollingIndex(NO_INDEX);
+    }
+
+    // Removes the element at index by moving the last element into its place, returns the moved element, if any.
+    private static GatewaySession swapRemove(final ArrayList<GatewaySession> sessions, final int index)
+    {
+        final int lastIndex = sessions.size() - 1;
+        final GatewaySession last = sessions.remove(lastIndex);
+        if (index == lastIndex)
+        {
+            return null;
+        }
+
+        sessions.set(index, last);
+        return last;
+    }
+
+    private void cancelPollTimer(final GatewaySession session)
+    {
+        final long timerId = session.pollTimerId();
+        if (timerId != NO_POLL_TIMER)
+        {
+            pollTimerWheel.cancelTimer(timerId);
+            pollTimerIdToSession.remove(timerId);
+            session.pollTimerId(NO_POLL_TIMER);
+        }
+    }
+
     List<GatewaySession> sessions()
     {
         return sessions;
@@ -376,7 +571,7 @@ class GatewaySessions
     // But we aren't actually acquiring the session.
     void track(final GatewaySession gatewaySession)
     {
-        sessions.add(gatewaySession);
+        add(gatewaySession);
     }
 
     enum AuthenticationState
@@ -677,8 +872,7 @@ class GatewaySessions
             final String password = SessionParser.password(logon);
 
             final SessionHeaderDecoder header = logon.header();
-            final CompositeKey compositeKey = sessionIdStrategy.onAcceptLogon(header);
-            sessionContext = sessionContexts.onLogon(compositeKey, fixDictionary);
+            sessionContext = sessionContexts.onAcceptLogon(header, fixDictionary);
 
             if (sessionContext == DUPLICATE_SESSION)
             {
@@ -686,6 +880,8 @@ class GatewaySessions
                 return;
             }
 
+            final CompositeKey compositeKey = sessionContext.sessionKey();
+
             final boolean isOfflineReconnect = framer.onLogonMessageReceived(session, sessionContext.sessionId());
 
             final long logonTime = clock.time();
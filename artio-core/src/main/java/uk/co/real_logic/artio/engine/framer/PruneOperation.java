@@ -26,8 +26,11 @@ import uk.co.real_logic.artio.engine.RecordingCoordinator;
 import uk.co.real_logic.artio.engine.ReplayerCommand;
 import uk.co.real_logic.artio.engine.ReplayerCommandQueue;
 import uk.co.real_logic.artio.engine.logger.ReplayQuery;
+import uk.co.real_logic.artio.engine.logger.TimeIndexWriter;
 import uk.co.real_logic.artio.util.CharFormatter;
 
+import java.util.List;
+
 import static io.aeron.Publication.BACK_PRESSURED;
 import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
 import static io.aeron.archive.client.AeronArchive.segmentFileBasePosition;
@@ -59,6 +62,7 @@ public class PruneOperation
     private final AeronArchive aeronArchive;
     private final ReplayerCommandQueue replayerCommandQueue;
     private final RecordingCoordinator recordingCoordinator;
+    private final List<TimeIndexWriter> timeIndices;
     private final LongHashSet allRecordingIds = new LongHashSet();
 
     private volatile State replyState;
@@ -72,7 +76,7 @@ public class PruneOperation
 
     public PruneOperation(final Formatters formatters, final Exception error)
     {
-        this(formatters, null, null, null, null, null, null);
+        this(formatters, null, null, null, null, null, null, null);
 
         this.error = error;
         replyState = State.ERRORED;
@@ -85,7 +89,8 @@ public class PruneOperation
         final ReplayQuery inboundReplayQuery,
         final AeronArchive aeronArchive,
         final ReplayerCommandQueue replayerCommandQueue,
-        final RecordingCoordinator recordingCoordinator)
+        final RecordingCoordinator recordingCoordinator,
+        final List<TimeIndexWriter> timeIndices)
     {
         this.formatters = formatters;
         this.outboundReplayQuery = outboundReplayQuery;
@@ -94,6 +99,7 @@ public class PruneOperation
         this.aeronArchive = aeronArchive;
         this.replayerCommandQueue = replayerCommandQueue;
         this.recordingCoordinator = recordingCoordinator;
+        this.timeIndices = timeIndices;
         replyState = State.EXECUTING;
     }
 
@@ -222,6 +228,12 @@ public class PruneOperation
                 return;
             }
         }
+
+        for (int i = 0, size = timeIndices.size(); i < size; i++)
+        {
+            timeIndices.get(i).onPruned(recordingIdToNewStartPosition);
+        }
+
         result = recordingIdToNewStartPosition;
         replyState = State.COMPLETED;
     }
@@ -18,6 +18,7 @@ package uk.co.real_logic.artio.engine.framer;
 import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
 import org.agrona.collections.ArrayUtil;
+import org.agrona.concurrent.status.AtomicCounter;
 import org.agrona.nio.TransportPoller;
 import uk.co.real_logic.artio.messages.DisconnectReason;
 
@@ -33,6 +34,9 @@ import static uk.co.real_logic.artio.messages.DisconnectReason.ENGINE_SHUTDOWN;
 class ReceiverEndPoints extends TransportPoller
 {
     private final ErrorHandler errorHandler;
+    private final int pollingThreshold;
+    private final AtomicCounter selects;
+    private final AtomicCounter reads;
 
     // Authentication flow requires periodic polling of the receiver end points until the authentication is
     // complete, so these endpoints are always polled, rather than using the selector.
@@ -41,10 +45,19 @@ class ReceiverEndPoints extends TransportPoller
     // An endpoint that has read data out of the TCP layer but has been back-pressured when attempting to write
     // the data into the Aeron stream.
     private ReceiverEndPoint backpressuredEndPoint = null;
-
-    ReceiverEndPoints(final ErrorHandler errorHandler)
+    // Number of end points polled, and thus read calls made, within the current pollEndPoints() call.
+    private int polledEndPoints;
+
+    ReceiverEndPoints(
+        final ErrorHandler errorHandler,
+        final int pollingThreshold,
+        final AtomicCounter selects,
+        final AtomicCounter reads)
     {
         this.errorHandler = errorHandler;
+        this.pollingThreshold = pollingThreshold;
+        this.selects = selects;
+        this.reads = reads;
     }
 
     void add(final ReceiverEndPoint endPoint)
@@ -152,6 +165,7 @@ class ReceiverEndPoints extends TransportPoller
     int pollEndPoints()
     {
         int bytesReceived = 0;
+        polledEndPoints = 0;
         try
         {
             final ReceiverEndPoint[] requiredPollingEndPoints = this.requiredPollingEndPoints;
@@ -179,6 +193,12 @@ class ReceiverEndPoints extends TransportPoller
             LangUtil.rethrowUnchecked(ex);
         }
 
+        final int polledEndPoints = this.polledEndPoints;
+        if (polledEndPoints > 0)
+        {
+            reads.getAndAddOrdered(polledEndPoints);
+        }
+
         return bytesReceived;
     }
 
@@ -187,7 +207,7 @@ class ReceiverEndPoints extends TransportPoller
         int bytesReceived = 0;
         final ReceiverEndPoint[] endPoints = this.endPoints;
         final int numEndPoints = endPoints.length;
-        final int threshold = ITERATION_THRESHOLD - numRequiredPollingEndPoints;
+        final int threshold = pollingThreshold - numRequiredPollingEndPoints;
         if (numEndPoints <= threshold)
         {
             bytesReceived = pollArray(bytesReceived, endPoints, numEndPoints);
@@ -195,6 +215,7 @@ class ReceiverEndPoints extends TransportPoller
         else
         {
             selector.selectNow();
+            selects.incrementOrdered();
 
             final SelectionKey[] keys = selectedKeySet.keys();
             final int size = selectedKeySet.size();
@@ -212,6 +233,7 @@ class ReceiverEndPoints extends TransportPoller
 
                 bytesReceived += polledBytes;
             }
+            polledEndPoints += Math.min(i + 1, size);
 
             // check we need to reset
             if (i != 0)
@@ -230,6 +252,7 @@ class ReceiverEndPoints extends TransportPoller
         {
             bytesReceived += endPoints[i].poll();
         }
+        polledEndPoints += numRequiredPollingEndPoints;
         return bytesReceived;
     }
 
@@ -19,6 +19,7 @@ import io.aeron.logbuffer.ControlledFragmentHandler.Action;
 import io.aeron.protocol.DataHeaderFlyweight;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.engine.ByteBufferUtil;
@@ -42,6 +43,7 @@ class SenderEndPoint
 {
     private static final int HEADER_LENGTH = MessageHeaderDecoder.ENCODED_LENGTH;
     private static final int REPLAY_MESSAGE = -1;
+    private static final int MAX_COALESCED_MESSAGES = 64;
 
     private final long connectionId;
     private final TcpChannel channel;
@@ -55,6 +57,18 @@ class SenderEndPoint
     private final StreamTracker replayTracker;
     private final SenderSequenceNumber senderSequenceNumber;
     private final MessageTimingHandler messageTimingHandler;
+    private final AtomicCounter writes;
+    private final AtomicCounter messagesWritten;
+
+    // Staging area for outbound messages that are written to the channel in a single call by flush(), null if
+    // write coalescing is disabled.
+    private final ByteBuffer coalescingByteBuffer;
+    private final UnsafeBuffer coalescingBuffer;
+    private final long[] coalescedPositions;
+    private final int[] coalescedLengths;
+    private final int[] coalescedSequenceNumbers;
+    private int coalescedMessages;
+    private int coalescedLength;
 
     private int libraryId;
     private long sessionId;
@@ -75,7 +89,10 @@ class SenderEndPoint
         final long slowConsumerTimeoutInMs,
         final long timeInMs,
         final SenderSequenceNumber senderSequenceNumber,
-        final MessageTimingHandler messageTimingHandler)
+        final MessageTimingHandler messageTimingHandler,
+        final int coalescingBufferSize,
+        final AtomicCounter writes,
+        final AtomicCounter messagesWritten)
     {
         this.connectionId = connectionId;
         this.libraryId = libraryId;
@@ -91,7 +108,26 @@ class SenderEndPoint
         outboundTracker = new StreamTracker(outboundBlockablePosition);
         replayTracker = new StreamTracker(replayBlockablePosition);
         this.messageTimingHandler = messageTimingHandler;
+        this.writes = writes;
+        this.messagesWritten = messagesWritten;
         sendingTimeoutTimeInMs = timeInMs + slowConsumerTimeoutInMs;
+
+        if (coalescingBufferSize > 0)
+        {
+            coalescingByteBuffer = ByteBuffer.allocateDirect(coalescingBufferSize);
+            coalescingBuffer = new UnsafeBuffer(coalescingByteBuffer);
+            coalescedPositions = new long[MAX_COALESCED_MESSAGES];
+            coalescedLengths = new int[MAX_COALESCED_MESSAGES];
+            coalescedSequenceNumbers = new int[MAX_COALESCED_MESSAGES];
+        }
+        else
+        {
+            coalescingByteBuffer = null;
+            coalescingBuffer = null;
+            coalescedPositions = null;
+            coalescedLengths = null;
+            coalescedSequenceNumbers = null;
+        }
     }
 
     void onOutboundMessage(
@@ -116,7 +152,11 @@ class SenderEndPoint
             return;
         }
 
-        if (attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, outboundTracker) &&
+        if (coalescingBuffer != null)
+        {
+            coalesceMessage(directBuffer, offset, bodyLength, sequenceNumber, position, timeInMs);
+        }
+        else if (attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, outboundTracker) &&
             messageTimingHandler != null)
         {
             messageTimingHandler.onMessage(sequenceNumber, connectionId);
@@ -125,6 +165,125 @@ class SenderEndPoint
         senderSequenceNumber.onNewMessage(sequenceNumber);
     }
 
+    private void coalesceMessage(
+        final DirectBuffer directBuffer,
+        final int offset,
+        final int bodyLength,
+        final int sequenceNumber,
+        final long position,
+        final long timeInMs)
+    {
+        final UnsafeBuffer coalescingBuffer = this.coalescingBuffer;
+        final int capacity = coalescingBuffer.capacity();
+        if (coalescedLength + bodyLength > capacity || coalescedMessages == MAX_COALESCED_MESSAGES)
+        {
+            flush(timeInMs);
+        }
+
+        if (bodyLength > capacity || isSlowConsumer())
+        {
+            if (attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, outboundTracker) &&
+                messageTimingHandler != null)
+            {
+                messageTimingHandler.onMessage(sequenceNumber, connectionId);
+            }
+        }
+        else
+        {
+            final int coalescedMessages = this.coalescedMessages;
+            coalescingBuffer.putBytes(coalescedLength, directBuffer, offset, bodyLength);
+            coalescedPositions[coalescedMessages] = position;
+            coalescedLengths[coalescedMessages] = bodyLength;
+            coalescedSequenceNumbers[coalescedMessages] = sequenceNumber;
+            this.coalescedMessages = coalescedMessages + 1;
+            coalescedLength += bodyLength;
+        }
+    }
+
+    boolean hasCoalescedMessages()
+    {
+        return coalescedMessages > 0;
+    }
+
+    /**
+     * Write out any messages staged for write coalescing with a single write call.
+     *
+     * @param timeInMs the current time.
+     * @return the number of messages that were staged.
+     */
+    int flush(final long timeInMs)
+    {
+        final int coalescedMessages = this.coalescedMessages;
+        if (coalescedMessages == 0)
+        {
+            return 0;
+        }
+
+        final int coalescedLength = this.coalescedLength;
+        this.coalescedMessages = 0;
+        this.coalescedLength = 0;
+
+        try
+        {
+            final ByteBuffer buffer = coalescingByteBuffer;
+            ByteBufferUtil.limit(buffer, coalescedLength);
+            ByteBufferUtil.position(buffer, 0);
+
+            final int written = channel.write(buffer);
+            writes.incrementOrdered();
+            if (written > 0)
+            {
+                ByteBufferUtil.position(buffer, 0);
+                DebugLogger.log(FIX_MESSAGE_TCP, "Written  ", buffer, written);
+                updateSendingTimeoutTimeInMs(timeInMs, written);
+            }
+
+            final long[] coalescedPositions = this.coalescedPositions;
+            final int[] coalescedLengths = this.coalescedLengths;
+            boolean becameSlow = false;
+            int messageEnd = 0;
+            int unsentLength = 0;
+            for (int i = 0; i < coalescedMessages; i++)
+            {
+                final int length = coalescedLengths[i];
+                final int messageStart = messageEnd;
+                messageEnd += length;
+
+                if (messageEnd <= written)
+                {
+                    outboundTracker.sentPosition = coalescedPositions[i];
+                    messagesWritten.incrementOrdered();
+                    if (messageTimingHandler != null)
+                    {
+                        messageTimingHandler.onMessage(coalescedSequenceNumbers[i], connectionId);
+                    }
+                }
+                else if (!becameSlow)
+                {
+                    becomeSlowConsumer(
+                        Math.max(written - messageStart, 0), length, coalescedPositions[i], outboundTracker);
+                    becameSlow = true;
+                }
+                else
+                {
+                    // Equivalent to having been sent individually after becoming a slow consumer
+                    unsentLength += length;
+                }
+            }
+
+            if (unsentLength > 0)
+            {
+                dropFurtherBehind(unsentLength);
+            }
+        }
+        catch (final IOException ex)
+        {
+            onError(ex);
+        }
+
+        return coalescedMessages;
+    }
+
     Action onReplayMessage(
         final DirectBuffer directBuffer,
         final int offset,
@@ -226,6 +385,12 @@ class SenderEndPoint
         ByteBufferUtil.position(buffer, offset);
 
         final int written = channel.write(buffer);
+        writes.incrementOrdered();
+        if (written == length)
+        {
+            messagesWritten.incrementOrdered();
+        }
+
         if (written > 0)
         {
             ByteBufferUtil.position(buffer, offset);
@@ -390,6 +555,7 @@ class SenderEndPoint
             ByteBufferUtil.position(buffer, dataOffset);
 
             final int written = channel.write(buffer);
+            writes.incrementOrdered();
             bytesInBuffer.getAndAddOrdered(-written);
 
             updateSendingTimeoutTimeInMs(timeInMs, written);
@@ -404,6 +570,7 @@ class SenderEndPoint
                 tracker.sentPosition = position;
                 tracker.partiallySentMessage = false;
                 tracker.skipPosition = Long.MAX_VALUE;
+                messagesWritten.incrementOrdered();
 
                 if (sequenceNumber != REPLAY_MESSAGE && messageTimingHandler != null)
                 {
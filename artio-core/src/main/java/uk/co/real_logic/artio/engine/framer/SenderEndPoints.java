@@ -19,6 +19,7 @@ import io.aeron.logbuffer.ControlledFragmentHandler;
 import io.aeron.logbuffer.Header;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.collections.ArrayUtil;
 import org.agrona.collections.Long2ObjectHashMap;
 import uk.co.real_logic.artio.engine.FixEngine;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
@@ -52,6 +53,9 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
     }
 
     private long timeInMs;
+    // End points that have staged messages which need to be flushed, when write coalescing is enabled
+    private SenderEndPoint[] coalescingEndPoints = new SenderEndPoint[0];
+    private int coalescingEndPointCount;
 
     SenderEndPoints(final ErrorHandler errorHandler)
     {
@@ -68,10 +72,27 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         final SenderEndPoint senderEndPoint = connectionIdToSenderEndpoint.remove(connectionId);
         if (senderEndPoint != null)
         {
+            removeCoalescingEndPoint(senderEndPoint);
             senderEndPoint.close();
         }
     }
 
+    private void removeCoalescingEndPoint(final SenderEndPoint senderEndPoint)
+    {
+        final SenderEndPoint[] coalescingEndPoints = this.coalescingEndPoints;
+        final int lastIndex = coalescingEndPointCount - 1;
+        for (int i = 0; i <= lastIndex; i++)
+        {
+            if (coalescingEndPoints[i] == senderEndPoint)
+            {
+                coalescingEndPoints[i] = coalescingEndPoints[lastIndex];
+                coalescingEndPoints[lastIndex] = null;
+                coalescingEndPointCount = lastIndex;
+                return;
+            }
+        }
+    }
+
     boolean onMessage(
         final int libraryId,
         final long connectionId,
@@ -84,13 +105,72 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         final SenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
         if (endPoint != null)
         {
+            final boolean hadCoalescedMessages = endPoint.hasCoalescedMessages();
             endPoint.onOutboundMessage(libraryId, buffer, offset, length, sequenceNumber, position, timeInMs);
+            if (!hadCoalescedMessages && endPoint.hasCoalescedMessages())
+            {
+                addCoalescingEndPoint(endPoint);
+            }
             return true;
         }
 
         return false;
     }
 
+    private void addCoalescingEndPoint(final SenderEndPoint endPoint)
+    {
+        SenderEndPoint[] coalescingEndPoints = this.coalescingEndPoints;
+        final int coalescingEndPointCount = this.coalescingEndPointCount;
+        if (coalescingEndPointCount == coalescingEndPoints.length)
+        {
+            coalescingEndPoints = ArrayUtil.ensureCapacity(coalescingEndPoints, coalescingEndPointCount + 1);
+            this.coalescingEndPoints = coalescingEndPoints;
+        }
+        coalescingEndPoints[coalescingEndPointCount] = endPoint;
+        this.coalescingEndPointCount = coalescingEndPointCount + 1;
+    }
+
+    /**
+     * Writes out the messages staged by end points that coalesce their writes. Should be called after each poll of
+     * the outbound library stream so that messages are never held over to a later duty cycle.
+     *
+     * @return the number of end points that were flushed.
+     */
+    int flush()
+    {
+        final int coalescingEndPointCount = this.coalescingEndPointCount;
+        if (coalescingEndPointCount == 0)
+        {
+            return 0;
+        }
+
+        final SenderEndPoint[] coalescingEndPoints = this.coalescingEndPoints;
+        final long timeInMs = this.timeInMs;
+        // Reset first as flushing can disconnect an end point, which removes it from the array.
+        this.coalescingEndPointCount = 0;
+        for (int i = 0; i < coalescingEndPointCount; i++)
+        {
+            final SenderEndPoint endPoint = coalescingEndPoints[i];
+            coalescingEndPoints[i] = null;
+            if (endPoint != null)
+            {
+                endPoint.flush(timeInMs);
+            }
+        }
+
+        return coalescingEndPointCount;
+    }
+
+    void flush(final long connectionId)
+    {
+        final SenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
+        if (endPoint != null && endPoint.hasCoalescedMessages())
+        {
+            removeCoalescingEndPoint(endPoint);
+            endPoint.flush(timeInMs);
+        }
+    }
+
     Action onReplayMessage(
         final long connectionId, final DirectBuffer buffer, final int offset, final int length, final long position)
     {
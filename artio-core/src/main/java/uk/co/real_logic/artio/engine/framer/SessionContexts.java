@@ -16,9 +16,11 @@
 package uk.co.real_logic.artio.engine.framer;
 
 import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.collections.LongHashSet;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.engine.ByteBufferUtil;
 import uk.co.real_logic.artio.engine.MappedFile;
@@ -35,11 +37,10 @@ import uk.co.real_logic.artio.storage.messages.SessionIdEncoder;
 
 import java.io.File;
 import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.zip.CRC32;
 
 import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_INITIAL_SEQUENCE_INDEX;
@@ -93,8 +94,10 @@ public class SessionContexts
     private final int actingVersion = sessionIdEncoder.sbeSchemaVersion();
 
     private final LongHashSet currentlyAuthenticatedSessionIds = new LongHashSet();
-    private final CopyOnWriteArrayList<SessionInfo> allSessions = new CopyOnWriteArrayList<>();
-    private final Map<CompositeKey, SessionContext> compositeToContext = new HashMap<>();
+    private final AppendOnlyList<SessionContext> contexts = new AppendOnlyList<>();
+    private final List<SessionInfo> allSessions = Collections.unmodifiableList(contexts);
+    private final CompositeKeyIndex compositeToContext = new CompositeKeyIndex(contexts);
+    private final Long2ObjectHashMap<SessionContext> sessionIdToContext = new Long2ObjectHashMap<>();
 
     private final CRC32 crc32 = new CRC32();
     private final SectorFramer sectorFramer;
@@ -123,7 +126,6 @@ public class SessionContexts
         this.initialSequenceIndex = initialSequenceIndex;
         this.errorHandler = errorHandler;
         loadBuffer();
-        allSessions.addAll(compositeToContext.values());
     }
 
     private void loadBuffer()
@@ -139,12 +141,14 @@ public class SessionContexts
         if (needsUpgrading || requiresCompaction)
         {
             resetBuffer();
-            compositeToContext.values().forEach(this::allocateNewSlot);
+            contexts.forEach(this::allocateNewSlot);
         }
     }
 
     private boolean readFileSessionInfos(final FixDictionary dictionary)
     {
+        // Sessions mostly share a few dictionaries, so avoid looking up and instantiating one per session
+        final Map<String, FixDictionary> nameToDictionary = new HashMap<>();
         boolean requiresCompaction = false;
         int sectorEnd = 0;
         filePosition = HEADER_SIZE;
@@ -195,12 +199,13 @@ public class SessionContexts
                 }
 
                 final FixDictionary thisDictionary = (dictionary == null) ?
-                    FixDictionary.of(FixDictionary.find(lastFixDictionary)) : dictionary;
+                    nameToDictionary.computeIfAbsent(
+                    lastFixDictionary, name -> FixDictionary.of(FixDictionary.find(name))) : dictionary;
                 final SessionContext sessionContext = new SessionContext(compositeKey,
                     sessionId, sequenceIndex, lastLogonTime, lastSequenceResetTime, this,
                     sessionIdDecoder.initialOffset(),
                     initialSequenceIndex, thisDictionary);
-                compositeToContext.put(compositeKey, sessionContext);
+                index(sessionContext);
 
                 counter = Math.max(counter, sessionId + 1);
 
@@ -262,10 +267,36 @@ public class SessionContexts
         return sectorEnd;
     }
 
+    private void index(final SessionContext context)
+    {
+        final SessionContext replacedContext = compositeToContext.put(context);
+        if (replacedContext != null)
+        {
+            sessionIdToContext.remove(replacedContext.sessionId());
+        }
+        sessionIdToContext.put(context.sessionId(), context);
+    }
+
     public SessionContext onLogon(final CompositeKey compositeKey, final FixDictionary fixDictionary)
     {
-        final SessionContext sessionContext = newSessionContext(compositeKey, fixDictionary);
+        return onLogon(newSessionContext(compositeKey, fixDictionary));
+    }
+
+    /**
+     * Equivalent to {@link #onLogon(CompositeKey, FixDictionary)} with the key that the
+     * {@link SessionIdStrategy} creates for the header, but only creates the key if the session is new.
+     *
+     * @param header the header of the logon message that has been received.
+     * @param fixDictionary the fix dictionary of the session.
+     * @return the context of the session or {@link #DUPLICATE_SESSION} if it's already authenticated.
+     */
+    public SessionContext onAcceptLogon(final SessionHeaderDecoder header, final FixDictionary fixDictionary)
+    {
+        return onLogon(newSessionContext(header, fixDictionary));
+    }
 
+    private SessionContext onLogon(final SessionContext sessionContext)
+    {
         if (!currentlyAuthenticatedSessionIds.add(sessionContext.sessionId()))
         {
             return DUPLICATE_SESSION;
@@ -276,9 +307,28 @@ public class SessionContexts
 
     SessionContext newSessionContext(final CompositeKey compositeKey, final FixDictionary fixDictionary)
     {
-        final SessionContext context = compositeToContext.computeIfAbsent(
-            compositeKey,
-            key -> onNewLogon(key, fixDictionary));
+        SessionContext context = compositeToContext.get(compositeKey);
+        if (context == null)
+        {
+            context = onNewLogon(compositeKey, fixDictionary);
+        }
+
+        return ensureFixDictionary(context, fixDictionary);
+    }
+
+    SessionContext newSessionContext(final SessionHeaderDecoder header, final FixDictionary fixDictionary)
+    {
+        SessionContext context = compositeToContext.get(header, idStrategy);
+        if (context == null)
+        {
+            context = onNewLogon(idStrategy.onAcceptLogon(header), fixDictionary);
+        }
+
+        return ensureFixDictionary(context, fixDictionary);
+    }
+
+    private SessionContext ensureFixDictionary(final SessionContext context, final FixDictionary fixDictionary)
+    {
         if (context.lastFixDictionary() != fixDictionary)
         {
             context.ensureFixDictionary(fixDictionary);
@@ -294,7 +344,7 @@ public class SessionContexts
             sessionId,
             SessionInfo.UNKNOWN_SEQUENCE_INDEX,
             fixDictionary);
-        allSessions.add(sessionContext);
+        index(sessionContext);
         return sessionContext;
     }
 
@@ -382,25 +432,16 @@ public class SessionContexts
 
     void sequenceReset(final long sessionId, final long resetTime)
     {
-        final Entry<CompositeKey, SessionContext> entry = lookupById(sessionId);
-        if (entry != null)
+        final SessionContext context = lookupById(sessionId);
+        if (context != null)
         {
-            final SessionContext context = entry.getValue();
             context.onSequenceReset(resetTime);
         }
     }
 
-    Entry<CompositeKey, SessionContext> lookupById(final long sessionId)
+    SessionContext lookupById(final long sessionId)
     {
-        for (final Entry<CompositeKey, SessionContext> entry : compositeToContext.entrySet())
-        {
-            if (entry.getValue().sessionId() == sessionId)
-            {
-                return entry;
-            }
-        }
-
-        return null;
+        return sessionIdToContext.get(sessionId);
     }
 
     // TODO: optimisation, more efficient checksumming, only checksum new data
@@ -431,7 +472,7 @@ public class SessionContexts
 
         counter = LOWEST_VALID_SESSION_ID;
         compositeToContext.clear();
-        allSessions.clear();
+        sessionIdToContext.clear();
 
         if (backupLocation != null)
         {
@@ -504,7 +545,7 @@ public class SessionContexts
 
     boolean isKnownSessionId(final long sessionId)
     {
-        return lookupById(sessionId) != null;
+        return sessionIdToContext.containsKey(sessionId);
     }
 
     public List<SessionInfo> allSessions()
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.collections.Long2LongHashMap;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * A {@link LoggerCache} that evicts using the generalised CLOCK algorithm, which approximates evicting the least
+ * frequently used value. Every value has a small usage count that's incremented when it's looked up. When the cache
+ * is full a hand sweeps around the values decrementing their counts and evicts the first one it finds at zero.
+ * <p>
+ * New values start with a count of zero, so a burst of lookups that are only made once, for example querying every
+ * session's index on startup, doesn't evict the values of sessions that are used often. Unlike a set associative
+ * cache any key can occupy any slot, so all {@code numSets * setSize} slots are usable whatever the keys.
+ *
+ * @param <V> the type of the values held in the cache.
+ */
+public class ClockLoggerCache<V> implements LoggerCache<V>
+{
+    static final int MAX_USAGE_COUNT = 3;
+
+    private static final int MISSING_SLOT = -1;
+
+    private final Long2LongHashMap keyToSlot = new Long2LongHashMap(MISSING_SLOT);
+    private final long[] keys;
+    private final Object[] values;
+    private final byte[] usageCounts;
+    private final Consumer<V> evictionConsumer;
+    private final int capacity;
+
+    private int size;
+    private int hand;
+
+    public ClockLoggerCache(final int numSets, final int setSize, final Consumer<V> evictionConsumer)
+    {
+        this(numSets * setSize, evictionConsumer);
+    }
+
+    public ClockLoggerCache(final int capacity, final Consumer<V> evictionConsumer)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.evictionConsumer = evictionConsumer;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        usageCounts = new byte[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(final long key, final LongFunction<? extends V> mappingFunction)
+    {
+        int slot = (int)keyToSlot.get(key);
+        if (slot != MISSING_SLOT)
+        {
+            final byte[] usageCounts = this.usageCounts;
+            if (usageCounts[slot] < MAX_USAGE_COUNT)
+            {
+                usageCounts[slot]++;
+            }
+            return (V)values[slot];
+        }
+
+        final V value = mappingFunction.apply(key);
+        if (value != null)
+        {
+            slot = size < capacity ? size++ : evict();
+            keys[slot] = key;
+            values[slot] = value;
+            usageCounts[slot] = 0;
+            keyToSlot.put(key, slot);
+        }
+
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(final long key)
+    {
+        final int slot = (int)keyToSlot.remove(key);
+        if (slot == MISSING_SLOT)
+        {
+            return null;
+        }
+
+        final V value = (V)values[slot];
+
+        // Keep the occupied slots contiguous by moving the last value into the removed one's place
+        final int lastSlot = --size;
+        if (slot != lastSlot)
+        {
+            final long lastKey = keys[lastSlot];
+            keys[slot] = lastKey;
+            values[slot] = values[lastSlot];
+            usageCounts[slot] = usageCounts[lastSlot];
+            keyToSlot.put(lastKey, slot);
+        }
+        values[lastSlot] = null;
+
+        evictionConsumer.accept(value);
+
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(final Consumer<? super V> consumer)
+    {
+        final Object[] values = this.values;
+        for (int i = 0, size = this.size; i < size; i++)
+        {
+            consumer.accept((V)values[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void clear()
+    {
+        final Object[] values = this.values;
+        final int size = this.size;
+        this.size = 0;
+        hand = 0;
+        keyToSlot.clear();
+
+        for (int i = 0; i < size; i++)
+        {
+            final V value = (V)values[i];
+            values[i] = null;
+            evictionConsumer.accept(value);
+        }
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public int capacity()
+    {
+        return capacity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int evict()
+    {
+        final byte[] usageCounts = this.usageCounts;
+        final int capacity = this.capacity;
+
+        int hand = this.hand;
+        while (usageCounts[hand] > 0)
+        {
+            usageCounts[hand]--;
+            hand = hand + 1 == capacity ? 0 : hand + 1;
+        }
+
+        final int slot = hand;
+        this.hand = hand + 1 == capacity ? 0 : hand + 1;
+
+        final V value = (V)values[slot];
+        keyToSlot.remove(keys[slot]);
+        values[slot] = null;
+        evictionConsumer.accept(value);
+
+        return slot;
+    }
+}
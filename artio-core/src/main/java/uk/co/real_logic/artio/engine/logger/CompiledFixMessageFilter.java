@@ -0,0 +1,207 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.collections.LongHashSet;
+import uk.co.real_logic.artio.engine.framer.MessageTypeExtractor;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+/**
+ * A {@link FixMessagePredicate} compiled from a {@link FixMessageFilter}. Like the other predicates it isn't
+ * thread safe, as it wraps the body of each message that it tests with the same buffer.
+ */
+public final class CompiledFixMessageFilter implements FixMessagePredicate
+{
+    private static final byte EQUALS = (byte)'=';
+
+    private final long beginTimestampInclusive;
+    private final long endTimestampExclusive;
+    private final LongHashSet sessionIds;
+    private final LongHashSet messageTypes;
+    private final int[] tags;
+    private final byte[][] values;
+    private final long allFieldsMatched;
+    private final MutableAsciiBuffer body = new MutableAsciiBuffer();
+
+    CompiledFixMessageFilter(
+        final long beginTimestampInclusive,
+        final long endTimestampExclusive,
+        final LongHashSet sessionIds,
+        final LongHashSet messageTypes,
+        final int[] tags,
+        final byte[][] values)
+    {
+        this.beginTimestampInclusive = beginTimestampInclusive;
+        this.endTimestampExclusive = endTimestampExclusive;
+        this.sessionIds = sessionIds;
+        this.messageTypes = messageTypes;
+        this.tags = tags;
+        this.values = values;
+        allFieldsMatched = tags.length == Long.SIZE ? -1L : (1L << tags.length) - 1;
+    }
+
+    public boolean test(final FixMessageDecoder message)
+    {
+        final long timestamp = message.timestamp();
+        if (timestamp < beginTimestampInclusive || timestamp >= endTimestampExclusive)
+        {
+            return false;
+        }
+
+        if (sessionIds != null && !sessionIds.contains(message.session()))
+        {
+            return false;
+        }
+
+        if (messageTypes != null && !messageTypes.contains(MessageTypeExtractor.getMessageType(message)))
+        {
+            return false;
+        }
+
+        if (tags.length == 0)
+        {
+            return true;
+        }
+
+        // Matches the body in place, the limit is left pointing at the body's length field.
+        final int length = message.bodyLength();
+        body.wrap(message.buffer(), message.limit() + FixMessageDecoder.bodyHeaderLength(), length);
+        return matchesBody(body, 0, length);
+    }
+
+    public void narrow(final TimeIndexQuery query)
+    {
+        query.from(beginTimestampInclusive);
+        query.to(endTimestampExclusive);
+
+        if (sessionIds != null)
+        {
+            query.sessionIds(sessionIds);
+        }
+
+        if (messageTypes != null)
+        {
+            query.messageTypes(messageTypes);
+        }
+    }
+
+    /**
+     * Checks the tag=value conditions of the filter against a raw FIX message.
+     *
+     * @param buffer the buffer containing the FIX message.
+     * @param offset the offset of the message within the buffer.
+     * @param length the length of the message.
+     * @return true if the first occurrence of every filtered field has the expected value.
+     */
+    public boolean matchesBody(final AsciiBuffer buffer, final int offset, final int length)
+    {
+        final long allFieldsMatched = this.allFieldsMatched;
+        final int end = offset + length;
+        long fieldsMatched = 0;
+        int index = offset;
+
+        while (index < end)
+        {
+            final int equalsIndex = buffer.scan(index, end, EQUALS);
+            if (equalsIndex == UNKNOWN_INDEX)
+            {
+                return false;
+            }
+
+            int tag = 0;
+            for (; index < equalsIndex; index++)
+            {
+                tag = tag * 10 + (buffer.getByte(index) - '0');
+            }
+
+            final int valueOffset = equalsIndex + 1;
+            final int separatorIndex = buffer.scan(valueOffset, end, SEPARATOR);
+            final int valueEnd = separatorIndex == UNKNOWN_INDEX ? end : separatorIndex;
+            final int valueLength = valueEnd - valueOffset;
+            index = valueEnd + 1;
+
+            final int position = positionOf(tag);
+            if (position != -1)
+            {
+                final long bit = 1L << position;
+                if ((fieldsMatched & bit) == 0)
+                {
+                    if (!valueEquals(buffer, valueOffset, valueLength, values[position]))
+                    {
+                        return false;
+                    }
+
+                    fieldsMatched |= bit;
+                    if (fieldsMatched == allFieldsMatched)
+                    {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private int positionOf(final int tag)
+    {
+        final int[] tags = this.tags;
+        for (int i = 0, size = tags.length; i < size; i++)
+        {
+            if (tags[i] == tag)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean valueEquals(
+        final AsciiBuffer buffer, final int offset, final int length, final byte[] expected)
+    {
+        if (length != expected.length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            if (buffer.getByte(offset + i) != expected[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public String toString()
+    {
+        return "CompiledFixMessageFilter{" +
+            "beginTimestampInclusive=" + beginTimestampInclusive +
+            ", endTimestampExclusive=" + endTimestampExclusive +
+            ", sessionIds=" + sessionIds +
+            ", messageTypes=" + messageTypes +
+            ", fields=" + tags.length +
+            '}';
+    }
+}
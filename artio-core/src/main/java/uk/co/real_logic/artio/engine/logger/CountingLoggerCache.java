@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.status.AtomicCounter;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Decorates a {@link LoggerCache} in order to count its hits, misses and evictions, so that any
+ * {@link LoggerCacheFactory} can be monitored. Removals and clears aren't counted as evictions.
+ *
+ * @param <V> the type of the values held in the cache.
+ */
+public class CountingLoggerCache<V> implements LoggerCache<V>
+{
+    private final LongFunction<V> countingMappingFunction = this::onMiss;
+    private final LoggerCache<V> delegate;
+    private final Consumer<V> evictionConsumer;
+    private final AtomicCounter hits;
+    private final AtomicCounter misses;
+    private final AtomicCounter evictions;
+
+    private LongFunction<? extends V> mappingFunction;
+    private boolean missed;
+    private boolean removing;
+
+    /**
+     * Create a factory that decorates the caches created by another factory so they're counted.
+     *
+     * @param factory the factory that creates the caches to count.
+     * @param hits incremented when a lookup finds its value in the cache.
+     * @param misses incremented when a lookup has to create its value.
+     * @param evictions incremented when a value is evicted to make space for another.
+     * @return the counting factory.
+     */
+    public static LoggerCacheFactory factory(
+        final LoggerCacheFactory factory,
+        final AtomicCounter hits,
+        final AtomicCounter misses,
+        final AtomicCounter evictions)
+    {
+        return new LoggerCacheFactory()
+        {
+            public <V> LoggerCache<V> newCache(final int numSets, final int setSize, final Consumer<V> evictionConsumer)
+            {
+                return new CountingLoggerCache<>(factory, numSets, setSize, evictionConsumer, hits, misses, evictions);
+            }
+        };
+    }
+
+    CountingLoggerCache(
+        final LoggerCacheFactory factory,
+        final int numSets,
+        final int setSize,
+        final Consumer<V> evictionConsumer,
+        final AtomicCounter hits,
+        final AtomicCounter misses,
+        final AtomicCounter evictions)
+    {
+        this.evictionConsumer = evictionConsumer;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        delegate = factory.newCache(numSets, setSize, this::onEviction);
+    }
+
+    public V computeIfAbsent(final long key, final LongFunction<? extends V> mappingFunction)
+    {
+        this.mappingFunction = mappingFunction;
+        missed = false;
+        try
+        {
+            return delegate.computeIfAbsent(key, countingMappingFunction);
+        }
+        finally
+        {
+            this.mappingFunction = null;
+            if (missed)
+            {
+                misses.increment();
+            }
+            else
+            {
+                hits.increment();
+            }
+        }
+    }
+
+    public V remove(final long key)
+    {
+        removing = true;
+        try
+        {
+            return delegate.remove(key);
+        }
+        finally
+        {
+            removing = false;
+        }
+    }
+
+    public void forEach(final Consumer<? super V> consumer)
+    {
+        delegate.forEach(consumer);
+    }
+
+    public void clear()
+    {
+        removing = true;
+        try
+        {
+            delegate.clear();
+        }
+        finally
+        {
+            removing = false;
+        }
+    }
+
+    private V onMiss(final long key)
+    {
+        missed = true;
+        return mappingFunction.apply(key);
+    }
+
+    private void onEviction(final V value)
+    {
+        if (!removing)
+        {
+            evictions.increment();
+        }
+        evictionConsumer.accept(value);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.IdleStrategy;
+import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+import static org.agrona.concurrent.AgentRunner.startOnThread;
+
+/**
+ * Runs indexing agents on a thread each, rather than on the thread of the agent that this is scheduled as part of.
+ * The threads are started when this agent starts and are stopped when it's closed, so they follow the lifecycle of
+ * the engine's archiving agent whichever {@link uk.co.real_logic.artio.engine.EngineScheduler} is used.
+ */
+public class DedicatedIndexers implements Agent
+{
+    private final List<Agent> agents;
+    private final Supplier<IdleStrategy> idleStrategySupplier;
+    private final ErrorHandler errorHandler;
+    private final ThreadFactory threadFactory;
+    private final String agentNamePrefix;
+    private final List<AgentRunner> runners = new ArrayList<>();
+
+    public DedicatedIndexers(
+        final List<Agent> agents,
+        final Supplier<IdleStrategy> idleStrategySupplier,
+        final ErrorHandler errorHandler,
+        final ThreadFactory threadFactory,
+        final String agentNamePrefix)
+    {
+        this.agents = agents;
+        this.idleStrategySupplier = idleStrategySupplier;
+        this.errorHandler = errorHandler;
+        this.threadFactory = threadFactory;
+        this.agentNamePrefix = agentNamePrefix;
+    }
+
+    public void onStart()
+    {
+        for (final Agent agent : agents)
+        {
+            final AgentRunner runner = new AgentRunner(idleStrategySupplier.get(), errorHandler, null, agent);
+            runners.add(runner);
+            startOnThread(runner, threadFactory);
+        }
+    }
+
+    public int doWork()
+    {
+        return 0;
+    }
+
+    public void onClose()
+    {
+        Exceptions.closeAll(runners);
+    }
+
+    public String roleName()
+    {
+        return agentNamePrefix + "DedicatedIndexers";
+    }
+}
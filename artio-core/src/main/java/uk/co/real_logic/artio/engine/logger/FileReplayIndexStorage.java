@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.agrona.collections.LongHashSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.listReplayIndexSessionIds;
+
+/**
+ * Stores the replay index of each FIX session in a file of its own at
+ * {@link ReplayIndexDescriptor#replayIndexFile(String, long, int)}. Files grow by being extended in place.
+ */
+public class FileReplayIndexStorage implements ReplayIndexStorage
+{
+    private final String logFileDir;
+    private final File logFileDirFile;
+    private final int streamId;
+    private final BufferFactory bufferFactory;
+    private final ExistingBufferFactory existingBufferFactory;
+    private final ErrorHandler errorHandler;
+
+    public FileReplayIndexStorage(
+        final String logFileDir,
+        final int streamId,
+        final BufferFactory bufferFactory,
+        final ExistingBufferFactory existingBufferFactory,
+        final ErrorHandler errorHandler)
+    {
+        this.logFileDir = logFileDir;
+        this.streamId = streamId;
+        this.bufferFactory = bufferFactory;
+        this.existingBufferFactory = existingBufferFactory;
+        this.errorHandler = errorHandler;
+
+        logFileDirFile = new File(logFileDir);
+    }
+
+    public boolean exists(final long fixSessionId)
+    {
+        return replayIndexFile(fixSessionId).exists();
+    }
+
+    public ByteBuffer map(final long fixSessionId, final int size)
+    {
+        return bufferFactory.map(replayIndexFile(fixSessionId), size);
+    }
+
+    public ByteBuffer grow(final long fixSessionId, final ByteBuffer buffer, final int size)
+    {
+        unmap(buffer);
+
+        final File replayIndexFile = replayIndexFile(fixSessionId);
+        try (RandomAccessFile file = new RandomAccessFile(replayIndexFile, "rw"))
+        {
+            file.setLength(size);
+        }
+        catch (final IOException e)
+        {
+            errorHandler.onError(e);
+        }
+
+        return bufferFactory.map(replayIndexFile, size);
+    }
+
+    public ByteBuffer mapExisting(final long fixSessionId)
+    {
+        return existingBufferFactory.map(replayIndexFile(fixSessionId));
+    }
+
+    public boolean hasGrown(final long fixSessionId, final ByteBuffer buffer)
+    {
+        return replayIndexFile(fixSessionId).length() > buffer.capacity();
+    }
+
+    public void unmap(final ByteBuffer buffer)
+    {
+        IoUtil.unmap(buffer);
+    }
+
+    public void delete(final long fixSessionId)
+    {
+        final File replayIndexFile = replayIndexFile(fixSessionId);
+        if (replayIndexFile.exists() && !replayIndexFile.delete())
+        {
+            errorHandler.onError(new IOException("Unable to delete replay index file: " + replayIndexFile));
+        }
+    }
+
+    public long resetPosition(final long fixSessionId)
+    {
+        // Deleted index files are recreated from the start.
+        return 0;
+    }
+
+    public LongHashSet listSessionIds()
+    {
+        return listReplayIndexSessionIds(logFileDirFile, streamId);
+    }
+
+    public void close()
+    {
+    }
+
+    private File replayIndexFile(final long fixSessionId)
+    {
+        return ReplayIndexDescriptor.replayIndexFile(logFileDir, fixSessionId, streamId);
+    }
+}
@@ -18,11 +18,9 @@ package uk.co.real_logic.artio.engine.logger;
 import io.aeron.logbuffer.Header;
 import org.agrona.DirectBuffer;
 import uk.co.real_logic.artio.CommonConfiguration;
-import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
-import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 
-import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static java.lang.Long.parseLong;
 import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_OUTBOUND_LIBRARY_STREAM;
@@ -46,88 +44,86 @@ public final class FixArchivePrinter
 
     private String aeronDirectoryName = null;
     private String aeronChannel = null;
+    private String logFileDir = null;
+    private int parallelism = 1;
     private int queryStreamId = DEFAULT_OUTBOUND_LIBRARY_STREAM;
     private int archiveScannerStreamId = DEFAULT_ARCHIVE_SCANNER_STREAM;
-    private FixMessagePredicate predicate = FixMessagePredicates.alwaysTrue();
+    private final FixMessageFilter filter = new FixMessageFilter();
     private boolean follow = false;
-    private boolean ilink = false;
-    private Class<? extends FixDictionary> fixDictionaryType = null;
-    private Predicate<SessionHeaderDecoder> headerPredicate = null;
 
     private void scan(final String[] args)
     {
-        parseArgs(args);
-        validateArgs();
-        scanArchive(aeronDirectoryName, aeronChannel, queryStreamId, predicate, follow, headerPredicate,
-            archiveScannerStreamId, fixDictionaryType);
+        try
+        {
+            parseArgs(args);
+            validateArgs();
+        }
+        catch (final IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            printHelp();
+            System.exit(-1);
+        }
+
+        scanArchive(aeronDirectoryName, aeronChannel, queryStreamId, filter.compile(), follow,
+            archiveScannerStreamId, logFileDir, parallelism);
     }
 
-    private void parseArgs(final String[] args)
+    void parseArgs(final String[] args)
     {
         for (final String arg : args)
         {
             final int eqIndex = arg.indexOf('=');
             final String optionName = eqIndex != -1 ? arg.substring(2, eqIndex) : arg.substring(2);
 
-            // Options without arguments
-            switch (optionName)
-            {
-                case "help":
-                    printHelp();
-                    System.exit(0);
-                    break; // checkstyle
-
-                case "follow":
-                    follow = true;
-                    break;
-
-                case "ilink":
-                    ilink = true;
-                    break;
-
-                default:
-                    requiredArgument(eqIndex);
-            }
+            parseOptionWithoutValue(optionName, eqIndex);
 
             final String optionValue = arg.substring(eqIndex + 1);
 
             switch (optionName)
             {
                 case "from":
-                    predicate = from(parseLong(optionValue)).and(predicate);
+                    filter.from(parseLong(optionValue));
                     break;
 
                 case "to":
-                    predicate = to(parseLong(optionValue)).and(predicate);
+                    filter.to(parseLong(optionValue));
                     break;
 
                 case "message-types":
-                    final String[] messageTypes = optionValue.split(",");
-                    predicate = messageTypeOf(messageTypes).and(predicate);
+                    filter.messageTypes(optionValue.split(","));
                     break;
 
                 case "sender-comp-id":
-                    headerPredicate = safeAnd(headerPredicate, senderCompIdOf(optionValue));
+                    filter.senderCompId(optionValue);
                     break;
 
                 case "target-comp-id":
-                    headerPredicate = safeAnd(headerPredicate, targetCompIdOf(optionValue));
+                    filter.targetCompId(optionValue);
                     break;
 
                 case "sender-sub-id":
-                    headerPredicate = safeAnd(headerPredicate, senderSubIdOf(optionValue));
+                    filter.senderSubId(optionValue);
                     break;
 
                 case "target-sub-id":
-                    headerPredicate = safeAnd(headerPredicate, targetSubIdOf(optionValue));
+                    filter.targetSubId(optionValue);
                     break;
 
                 case "sender-location-id":
-                    headerPredicate = safeAnd(headerPredicate, senderLocationIdOf(optionValue));
+                    filter.senderLocationId(optionValue);
                     break;
 
                 case "target-location-id":
-                    headerPredicate = safeAnd(headerPredicate, targetLocationIdOf(optionValue));
+                    filter.targetLocationId(optionValue);
+                    break;
+
+                case "session-ids":
+                    filter.sessionIds(Stream.of(optionValue.split(",")).mapToLong(Long::parseLong).toArray());
+                    break;
+
+                case "field":
+                    parseField(optionValue);
                     break;
 
                 case "query-stream-id":
@@ -146,20 +142,59 @@ public final class FixArchivePrinter
                     aeronChannel = optionValue;
                     break;
 
-                case "fix-dictionary":
-                    fixDictionaryType = FixDictionary.find(optionValue);
+                case "log-file-dir":
+                    logFileDir = optionValue;
+                    break;
+
+                case "parallelism":
+                    parallelism = Integer.parseInt(optionValue);
                     break;
             }
         }
     }
 
-    private void validateArgs()
+    private void parseOptionWithoutValue(final String optionName, final int eqIndex)
+    {
+        switch (optionName)
+        {
+            case "help":
+                printHelp();
+                System.exit(0);
+                break; // checkstyle
+
+            case "follow":
+                follow = true;
+                break;
+
+            case "ilink":
+                // No longer needed as filtering doesn't use a fix dictionary, accepted for compatibility
+                break;
+
+            case "fix-dictionary":
+                // Ignored so that existing scripts keep working
+                System.err.println(
+                    "Warning: --fix-dictionary is deprecated and ignored, header fields are matched by their tags" +
+                    " without a fix dictionary");
+                break;
+
+            default:
+                requiredArgument(eqIndex);
+        }
+    }
+
+    private void parseField(final String optionValue)
     {
-        if (fixDictionaryType == null && !ilink)
+        final int eqIndex = optionValue.indexOf('=');
+        if (eqIndex == -1)
         {
-            fixDictionaryType = FixDictionary.findDefault();
+            throw new IllegalArgumentException("--field must be of the form --field=tag=value");
         }
 
+        filter.fieldEquals(Integer.parseInt(optionValue.substring(0, eqIndex)), optionValue.substring(eqIndex + 1));
+    }
+
+    void validateArgs()
+    {
         requiredArgument(aeronDirectoryName, "aeron-dir-name");
         requiredArgument(aeronChannel, "aeron-channel");
     }
@@ -168,9 +203,8 @@ public final class FixArchivePrinter
     {
         if (eqIndex == -1)
         {
-            System.err.println("--ilink, --help and --follow are the only options that don't take a value");
-            printHelp();
-            System.exit(-1);
+            throw new IllegalArgumentException(
+                "--ilink, --help and --follow are the only options that don't take a value");
         }
     }
 
@@ -178,32 +212,40 @@ public final class FixArchivePrinter
         final String aeronDirectoryName,
         final String aeronChannel,
         final int queryStreamId,
-        final FixMessagePredicate otherPredicate,
+        final FixMessagePredicate predicate,
         final boolean follow,
-        final Predicate<SessionHeaderDecoder> headerPredicate,
         final int archiveScannerStreamId,
-        final Class<? extends FixDictionary> fixDictionaryType)
+        final String logFileDir,
+        final int parallelism)
     {
-        final FixDictionary fixDictionary = fixDictionaryType == null ? null : FixDictionary.of(fixDictionaryType);
-        FixMessagePredicate predicate = otherPredicate;
-        if (headerPredicate != null)
-        {
-            predicate = whereHeader(fixDictionary, headerPredicate).and(predicate);
-        }
-
         final FixArchiveScanner.Context context = new FixArchiveScanner.Context()
             .aeronDirectoryName(aeronDirectoryName)
-            .idleStrategy(CommonConfiguration.backoffIdleStrategy());
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy())
+            .logFileDir(logFileDir)
+            .parallelism(parallelism);
 
         try (FixArchiveScanner scanner = new FixArchiveScanner(context))
         {
-            scanner.scan(
-                aeronChannel,
-                queryStreamId,
-                filterBy(FixArchivePrinter::print, predicate),
-                new LazyILinkMessagePrinter(queryStreamId),
-                follow,
-                archiveScannerStreamId);
+            if (logFileDir == null)
+            {
+                scanner.scan(
+                    aeronChannel,
+                    queryStreamId,
+                    filterBy(FixArchivePrinter::print, predicate),
+                    new LazyILinkMessagePrinter(queryStreamId),
+                    follow,
+                    archiveScannerStreamId);
+            }
+            else
+            {
+                scanner.scan(
+                    aeronChannel,
+                    queryStreamId,
+                    predicate,
+                    FixArchivePrinter::print,
+                    follow,
+                    archiveScannerStreamId);
+            }
         }
     }
 
@@ -211,9 +253,7 @@ public final class FixArchivePrinter
     {
         if (argument == null)
         {
-            System.err.printf("Missing required --%s argument%n", description);
-            printHelp();
-            System.exit(-1);
+            throw new IllegalArgumentException(String.format("Missing required --%s argument", description));
         }
     }
 
@@ -232,14 +272,25 @@ public final class FixArchivePrinter
             "Specifies the aeron channel that was used to by the engine",
             true);
 
+        printOption(
+            "log-file-dir",
+            "The engine's log file directory, when provided the engine's time index is used to only scan the" +
+            " parts of the archive that can match the --from, --to, --message-types and --session-ids options." +
+            " iLink3 messages" +
+            " aren't printed when this is provided",
+            false);
+        printOption(
+            "parallelism",
+            "The number of recordings to replay at the same time, messages from recordings that are replayed at" +
+            " the same time are printed in timestamp order. Defaults to 1",
+            false);
         printOption(
             "fix-dictionary",
-            "The class name of the Fix Dictionary to use, default is used if this is not provided",
+            "Deprecated and ignored, header fields are matched by their tags without a fix dictionary",
             false);
         printOption(
             "ilink",
-            "Suppresses the need to provide a fix dictionary on the classpath - used for situations where" +
-            " only ilink3 messages will be printed out",
+            "No longer required as a fix dictionary isn't needed on the classpath. Accepted for compatibility",
             false);
         printOption(
             "from",
@@ -259,23 +310,32 @@ public final class FixArchivePrinter
             false);
         printOption(
             "target-comp-id",
-            "Only print messages where the header's sender comp id field matches this",
+            "Only print messages where the header's target comp id field matches this",
             false);
         printOption(
             "sender-sub-id",
-            "Only print messages where the header's sender comp id field matches this",
+            "Only print messages where the header's sender sub id field matches this",
             false);
         printOption(
             "target-sub-id",
-            "Only print messages where the header's sender comp id field matches this",
+            "Only print messages where the header's target sub id field matches this",
             false);
         printOption(
             "sender-location-id",
-            "Only print messages where the header's sender comp id field matches this",
+            "Only print messages where the header's sender location id field matches this",
             false);
         printOption(
             "target-location-id",
-            "Only print messages where the header's sender comp id field matches this",
+            "Only print messages where the header's target location id field matches this",
+            false);
+        printOption(
+            "session-ids",
+            "Comma separated list of the surrogate session ids of the sessions whose messages are printed",
+            false);
+        printOption(
+            "field",
+            "Only print messages where the first occurrence of a field has this value, of the form" +
+            " --field=tag=value. Can be repeated to filter on multiple fields",
             false);
         printOption(
             "query-stream-id",
@@ -298,11 +358,6 @@ public final class FixArchivePrinter
         System.out.printf("  --%-20s [%s] - %s%n", name, required ? "required" : "optional", description);
     }
 
-    private static <T> Predicate<T> safeAnd(final Predicate<T> left, final Predicate<T> right)
-    {
-        return left == null ? right : left.and(right);
-    }
-
     private static void print(
         final FixMessageDecoder message,
         final DirectBuffer buffer,
@@ -16,13 +16,21 @@
 package uk.co.real_logic.artio.engine.logger;
 
 import io.aeron.Aeron;
+import io.aeron.ControlledFragmentAssembler;
 import io.aeron.FragmentAssembler;
 import io.aeron.Image;
 import io.aeron.Subscription;
 import io.aeron.archive.client.AeronArchive;
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
 import org.agrona.concurrent.IdleStrategy;
 import uk.co.real_logic.artio.ilink.ILinkMessageConsumer;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 
+import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -30,9 +38,17 @@ import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.archive.client.AeronArchive.NULL_LENGTH;
 import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
 import static java.util.Comparator.comparingLong;
+import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.filterBy;
 
 /**
  * Scan the archive for fix messages. Can be combined with predicates to create rich queries.
+ * <p>
+ * If the {@link Context#logFileDir(String)} of the engine is provided then scans with a predicate use the time
+ * index that the engine writes in order to only replay the parts of the archive that could contain matching
+ * messages, see {@link FixMessagePredicate#narrow(TimeIndexQuery)}.
+ * <p>
+ * If the {@link Context#parallelism(int)} is greater than one then several recordings are replayed concurrently
+ * and their messages are merged in timestamp order, see {@link Context#parallelism(int)} for details.
  *
  * @see FixMessageConsumer
  * @see FixMessagePredicate
@@ -43,11 +59,15 @@ public class FixArchiveScanner implements AutoCloseable
     private final Aeron aeron;
     private final AeronArchive aeronArchive;
     private final IdleStrategy idleStrategy;
+    private final String logFileDir;
+    private final int parallelism;
 
     public static class Context
     {
         private String aeronDirectoryName;
         private IdleStrategy idleStrategy;
+        private String logFileDir;
+        private int parallelism = 1;
 
         public Context()
         {
@@ -74,11 +94,59 @@ public class FixArchiveScanner implements AutoCloseable
         {
             return idleStrategy;
         }
+
+        /**
+         * Sets the log file directory of the engine that archived the messages being scanned. This is optional,
+         * when it is set the time index files within it are used to narrow down scans.
+         *
+         * @param logFileDir the engine's log file directory.
+         * @return this
+         * @see uk.co.real_logic.artio.engine.EngineConfiguration#logFileDir(String)
+         */
+        public Context logFileDir(final String logFileDir)
+        {
+            this.logFileDir = logFileDir;
+            return this;
+        }
+
+        public String logFileDir()
+        {
+            return logFileDir;
+        }
+
+        /**
+         * Sets the maximum number of recordings that are replayed at the same time. Defaults to 1, which replays
+         * each recording in turn.
+         * <p>
+         * When it's greater than one the fix messages of the recordings being replayed at the same time are handed
+         * to the consumer in timestamp order, so if there are no more recordings than this then the whole scan is in
+         * timestamp order. Scans that follow a recording that's still being archived don't replay concurrently.
+         *
+         * @param parallelism the maximum number of recordings that are replayed at the same time.
+         * @return this
+         */
+        public Context parallelism(final int parallelism)
+        {
+            if (parallelism < 1)
+            {
+                throw new IllegalArgumentException("parallelism must be at least 1, but was " + parallelism);
+            }
+
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public int parallelism()
+        {
+            return parallelism;
+        }
     }
 
     public FixArchiveScanner(final Context context)
     {
         this.idleStrategy = context.idleStrategy();
+        this.logFileDir = context.logFileDir();
+        this.parallelism = context.parallelism();
 
         final Aeron.Context aeronContext = new Aeron.Context().aeronDirectoryName(context.aeronDirectoryName());
         aeron = Aeron.connect(aeronContext);
@@ -93,67 +161,232 @@ public class FixArchiveScanner implements AutoCloseable
         final boolean follow,
         final int archiveScannerStreamId)
     {
-        final LogEntryHandler logEntryHandler = new LogEntryHandler(fixHandler, iLinkHandler);
-        final FragmentAssembler fragmentAssembler = new FragmentAssembler(logEntryHandler);
+        final List<ArchiveLocation> archiveLocations = lookupArchiveLocations(aeronChannel, queryStreamId);
+        final List<ArchiveLocation> ranges = new ArrayList<>();
+        archiveLocations.forEach(archiveLocation -> ranges.add(new ArchiveLocation(
+            archiveLocation.recordingId,
+            archiveLocation.startPosition,
+            scanStopPosition(archiveLocation, follow))));
+
+        scanRanges(ranges, new LogEntryHandler(fixHandler, iLinkHandler), archiveScannerStreamId);
+    }
+
+    public void scan(
+        final String aeronChannel,
+        final int queryStreamId,
+        final FixMessageConsumer handler,
+        final boolean follow,
+        final int archiveScannerStreamId)
+    {
+        scan(aeronChannel, queryStreamId, handler, null, follow, archiveScannerStreamId);
+    }
+
+    /**
+     * Scan the archive for fix messages that pass a predicate. If the time index of the stream is available then
+     * only the ranges of the archive that could contain messages passing the predicate are replayed.
+     *
+     * @param aeronChannel           the channel that the engine's library streams use.
+     * @param queryStreamId          the stream id to scan, either the inbound or outbound library stream.
+     * @param predicate              the predicate that the scanned messages must pass.
+     * @param handler                the consumer of messages that pass the predicate.
+     * @param follow                 true to continue to scan recordings that are still being archived.
+     * @param archiveScannerStreamId the stream id to replay the archive onto.
+     */
+    public void scan(
+        final String aeronChannel,
+        final int queryStreamId,
+        final FixMessagePredicate predicate,
+        final FixMessageConsumer handler,
+        final boolean follow,
+        final int archiveScannerStreamId)
+    {
+        final File timeIndexFile = logFileDir == null ? null : TimeIndexDescriptor.timeIndexFile(
+            logFileDir, queryStreamId);
+        final TimeIndexQuery query = new TimeIndexQuery();
+        predicate.narrow(query);
+
+        if (timeIndexFile == null || !timeIndexFile.exists() || query.isUnconstrained())
+        {
+            scan(aeronChannel, queryStreamId, filterBy(handler, predicate), null, follow, archiveScannerStreamId);
+            return;
+        }
 
         final List<ArchiveLocation> archiveLocations = lookupArchiveLocations(aeronChannel, queryStreamId);
+        final List<ArchiveLocation> ranges = new ArrayList<>();
+        try (TimeIndexReader timeIndexReader = new TimeIndexReader(timeIndexFile))
+        {
+            for (final ArchiveLocation archiveLocation : archiveLocations)
+            {
+                timeIndexReader.findRanges(
+                    archiveLocation.recordingId,
+                    archiveLocation.startPosition,
+                    scanStopPosition(archiveLocation, follow),
+                    query,
+                    ranges);
+            }
+        }
+
+        scanRanges(ranges, new LogEntryHandler(filterBy(handler, predicate), null), archiveScannerStreamId);
+    }
+
+    private long scanStopPosition(final ArchiveLocation archiveLocation, final boolean follow)
+    {
+        final boolean stillArchiving = archiveLocation.stopPosition == NULL_POSITION;
+        if (stillArchiving)
+        {
+            return follow ? NULL_POSITION : aeronArchive.getRecordingPosition(archiveLocation.recordingId);
+        }
 
+        return archiveLocation.stopPosition;
+    }
+
+    private void scanRanges(
+        final List<ArchiveLocation> ranges,
+        final LogEntryHandler logEntryHandler,
+        final int archiveScannerStreamId)
+    {
         try (Subscription replaySubscription = aeron.addSubscription(IPC_CHANNEL, archiveScannerStreamId))
         {
-            archiveLocations.forEach(archiveLocation ->
+            if (parallelism > 1 && !followsRecording(ranges))
             {
-                final long recordingId = archiveLocation.recordingId;
-                final boolean stillArchiving = archiveLocation.stopPosition == NULL_POSITION;
+                scanRangesInParallel(ranges, logEntryHandler, replaySubscription, archiveScannerStreamId);
+            }
+            else
+            {
+                scanRangesInTurn(ranges, logEntryHandler, replaySubscription, archiveScannerStreamId);
+            }
+        }
+    }
 
-                final long stopPosition;
-                final long length;
-                if (stillArchiving)
+    private static boolean followsRecording(final List<ArchiveLocation> ranges)
+    {
+        for (int i = 0, size = ranges.size(); i < size; i++)
+        {
+            if (ranges.get(i).stopPosition == NULL_POSITION)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void scanRangesInTurn(
+        final List<ArchiveLocation> ranges,
+        final LogEntryHandler logEntryHandler,
+        final Subscription replaySubscription,
+        final int archiveScannerStreamId)
+    {
+        final FragmentAssembler fragmentAssembler = new FragmentAssembler(logEntryHandler);
+
+        ranges.forEach(range ->
+        {
+            final long stopPosition = range.stopPosition;
+            final long length = stopPosition == NULL_POSITION ? NULL_LENGTH : stopPosition - range.startPosition;
+
+            if (length != 0)
+            {
+                final Image image = startReplay(range, length, replaySubscription, archiveScannerStreamId);
+
+                while (stopPosition == NULL_POSITION || image.position() < stopPosition)
                 {
-                    if (follow)
-                    {
-                        length = NULL_LENGTH;
-                        stopPosition = NULL_POSITION;
-                    }
-                    else
-                    {
-                        stopPosition = aeronArchive.getRecordingPosition(recordingId);
-                        length = stopPosition - archiveLocation.startPosition;
-                    }
+                    idleStrategy.idle(image.poll(fragmentAssembler, 10));
                 }
-                else
+            }
+        });
+    }
+
+    private void scanRangesInParallel(
+        final List<ArchiveLocation> ranges,
+        final LogEntryHandler logEntryHandler,
+        final Subscription replaySubscription,
+        final int archiveScannerStreamId)
+    {
+        // The ranges of a recording are adjacent to each other, so group them together in order to replay each
+        // recording's ranges in turn whilst different recordings are replayed concurrently.
+        final ArrayDeque<RecordingReplay> pendingReplays = new ArrayDeque<>();
+        RecordingReplay lastReplay = null;
+        for (final ArchiveLocation range : ranges)
+        {
+            if (range.stopPosition == range.startPosition)
+            {
+                continue;
+            }
+
+            if (lastReplay == null || lastReplay.recordingId != range.recordingId)
+            {
+                lastReplay = new RecordingReplay(
+                    range.recordingId, logEntryHandler, replaySubscription, archiveScannerStreamId);
+                pendingReplays.add(lastReplay);
+            }
+            lastReplay.ranges.add(range);
+        }
+
+        final List<RecordingReplay> activeReplays = new ArrayList<>(parallelism);
+        while (!pendingReplays.isEmpty() || !activeReplays.isEmpty())
+        {
+            while (activeReplays.size() < parallelism && !pendingReplays.isEmpty())
+            {
+                final RecordingReplay replay = pendingReplays.poll();
+                replay.startNextRange();
+                activeReplays.add(replay);
+            }
+
+            int workCount = 0;
+            RecordingReplay earliestReplay = null;
+            boolean allReplaysHaveMessage = true;
+            for (int i = activeReplays.size() - 1; i >= 0; i--)
+            {
+                final RecordingReplay replay = activeReplays.get(i);
+                if (!replay.hasMessage)
                 {
-                    stopPosition = archiveLocation.stopPosition;
-                    length = stopPosition - archiveLocation.startPosition;
+                    workCount += replay.peek();
                 }
 
-                if (length != 0)
+                if (replay.hasMessage)
                 {
-                    final int sessionId = (int)aeronArchive.startReplay(
-                        recordingId,
-                        archiveLocation.startPosition,
-                        length,
-                        IPC_CHANNEL,
-                        archiveScannerStreamId);
-
-                    final Image image = lookupImage(replaySubscription, sessionId);
-
-                    while (stopPosition == NULL_POSITION || image.position() < stopPosition)
+                    if (earliestReplay == null || replay.timestamp <= earliestReplay.timestamp)
                     {
-                        idleStrategy.idle(image.poll(fragmentAssembler, 10));
+                        earliestReplay = replay;
                     }
                 }
-            });
+                else if (replay.isComplete())
+                {
+                    activeReplays.remove(i);
+                    workCount++;
+                }
+                else
+                {
+                    allReplaysHaveMessage = false;
+                }
+            }
+
+            // A message can only be handed over once every replay's next message is known, otherwise a replay that
+            // hasn't caught up yet could have an earlier one.
+            if (allReplaysHaveMessage && earliestReplay != null)
+            {
+                earliestReplay.deliver();
+                workCount++;
+            }
+
+            idleStrategy.idle(workCount);
         }
     }
 
-    public void scan(
-        final String aeronChannel,
-        final int queryStreamId,
-        final FixMessageConsumer handler,
-        final boolean follow,
+    private Image startReplay(
+        final ArchiveLocation range,
+        final long length,
+        final Subscription replaySubscription,
         final int archiveScannerStreamId)
     {
-        scan(aeronChannel, queryStreamId, handler, null, follow, archiveScannerStreamId);
+        final int sessionId = (int)aeronArchive.startReplay(
+            range.recordingId,
+            range.startPosition,
+            length,
+            IPC_CHANNEL,
+            archiveScannerStreamId);
+
+        return lookupImage(replaySubscription, sessionId);
     }
 
     private Image lookupImage(final Subscription replaySubscription, final int sessionId)
@@ -201,6 +434,102 @@ public class FixArchiveScanner implements AutoCloseable
         return archiveLocations;
     }
 
+    /**
+     * Replays the ranges of a single recording in turn, peeking at the timestamp of the next fix message so that
+     * it can be merged with other recordings. Other messages are handed over as soon as they're read.
+     */
+    private final class RecordingReplay implements ControlledFragmentHandler
+    {
+        private final ArrayDeque<ArchiveLocation> ranges = new ArrayDeque<>();
+        private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+        private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+        private final ControlledFragmentAssembler fragmentAssembler = new ControlledFragmentAssembler(this);
+
+        private final long recordingId;
+        private final LogEntryHandler logEntryHandler;
+        private final Subscription replaySubscription;
+        private final int archiveScannerStreamId;
+
+        private Image image;
+        private long stopPosition;
+        private boolean delivering;
+        private boolean hasMessage;
+        private long timestamp;
+
+        RecordingReplay(
+            final long recordingId,
+            final LogEntryHandler logEntryHandler,
+            final Subscription replaySubscription,
+            final int archiveScannerStreamId)
+        {
+            this.recordingId = recordingId;
+            this.logEntryHandler = logEntryHandler;
+            this.replaySubscription = replaySubscription;
+            this.archiveScannerStreamId = archiveScannerStreamId;
+        }
+
+        void startNextRange()
+        {
+            final ArchiveLocation range = ranges.poll();
+            stopPosition = range.stopPosition;
+            image = startReplay(range, stopPosition - range.startPosition, replaySubscription, archiveScannerStreamId);
+        }
+
+        boolean isComplete()
+        {
+            return image.position() >= stopPosition && ranges.isEmpty();
+        }
+
+        int peek()
+        {
+            if (image.position() >= stopPosition)
+            {
+                if (ranges.isEmpty())
+                {
+                    return 0;
+                }
+
+                startNextRange();
+            }
+
+            return image.controlledPoll(fragmentAssembler, 10);
+        }
+
+        void deliver()
+        {
+            delivering = true;
+            image.controlledPoll(fragmentAssembler, 1);
+            delivering = false;
+            hasMessage = false;
+        }
+
+        public Action onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+        {
+            messageHeader.wrap(buffer, offset);
+            if (messageHeader.templateId() != FixMessageDecoder.TEMPLATE_ID)
+            {
+                logEntryHandler.onFragment(buffer, offset, length, header);
+                return Action.CONTINUE;
+            }
+
+            if (delivering)
+            {
+                logEntryHandler.onFragment(buffer, offset, length, header);
+                return Action.BREAK;
+            }
+
+            // Leave the message in the image until it's the earliest one.
+            fixMessage.wrap(
+                buffer,
+                offset + MessageHeaderDecoder.ENCODED_LENGTH,
+                messageHeader.blockLength(),
+                messageHeader.version());
+            timestamp = fixMessage.timestamp();
+            hasMessage = true;
+            return Action.ABORT;
+        }
+    }
+
     static class ArchiveLocation
     {
         final long recordingId;
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.collections.LongHashSet;
+import uk.co.real_logic.artio.dictionary.generation.GenerationUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static uk.co.real_logic.artio.dictionary.SessionConstants.*;
+
+/**
+ * Builds up a filter over archived FIX messages and compiles it into a single {@link FixMessagePredicate}.
+ *
+ * Unlike composing the predicates from {@link FixMessagePredicates}, the compiled filter doesn't decode the
+ * header of each message or copy its body. The fixed fields of the archive's message frame (timestamp, session id
+ * and message type) are checked first and then the tag=value conditions are matched directly against the raw
+ * bytes of the FIX message, stopping as soon as the message can't pass or once all the conditions have passed.
+ * Filtering doesn't allocate once the filter is compiled.
+ *
+ * Every condition set on this builder must hold for a message to pass. The compiled predicate narrows the time
+ * index query of the {@link FixArchiveScanner} in the same way as the equivalent predicates in
+ * {@link FixMessagePredicates}, and can be combined with other predicates using
+ * {@link FixMessagePredicate#and(FixMessagePredicate)}.
+ *
+ * <pre>
+ * final FixMessagePredicate predicate = new FixMessageFilter()
+ *     .from(beginTimestamp)
+ *     .messageTypes("D", "8")
+ *     .senderCompId("INITIATOR")
+ *     .fieldEquals(55, "MSFT")
+ *     .compile();
+ * </pre>
+ */
+public final class FixMessageFilter
+{
+    static final int MAX_FIELD_CONDITIONS = Long.SIZE;
+
+    private final LongHashSet sessionIds = new LongHashSet();
+    private final LongHashSet messageTypes = new LongHashSet();
+    private final int[] tags = new int[MAX_FIELD_CONDITIONS];
+    private final byte[][] values = new byte[MAX_FIELD_CONDITIONS][];
+    private int fieldCount = 0;
+    private long beginTimestampInclusive = Long.MIN_VALUE;
+    private long endTimestampExclusive = Long.MAX_VALUE;
+
+    /**
+     * Only pass messages with a timestamp &gt;= this value.
+     *
+     * @param beginTimestampInclusive the message's timestamp must be &gt;= this value.
+     * @return this
+     */
+    public FixMessageFilter from(final long beginTimestampInclusive)
+    {
+        this.beginTimestampInclusive = Math.max(this.beginTimestampInclusive, beginTimestampInclusive);
+        return this;
+    }
+
+    /**
+     * Only pass messages with a timestamp &lt; this value.
+     *
+     * @param endTimestampExclusive the message's timestamp must be &lt; this value.
+     * @return this
+     */
+    public FixMessageFilter to(final long endTimestampExclusive)
+    {
+        this.endTimestampExclusive = Math.min(this.endTimestampExclusive, endTimestampExclusive);
+        return this;
+    }
+
+    /**
+     * Only pass messages that belong to one of these sessions. Can be called multiple times to add more sessions.
+     *
+     * @param sessionIds the surrogate session id keys.
+     * @return this
+     */
+    public FixMessageFilter sessionIds(final long... sessionIds)
+    {
+        for (final long sessionId : sessionIds)
+        {
+            this.sessionIds.add(sessionId);
+        }
+        return this;
+    }
+
+    /**
+     * Only pass messages of one of these message types. Can be called multiple times to add more types.
+     *
+     * @param messageTypes the fix message type strings that you see in the message.
+     * @return this
+     */
+    public FixMessageFilter messageTypes(final String... messageTypes)
+    {
+        for (final String messageType : messageTypes)
+        {
+            this.messageTypes.add(GenerationUtil.packMessageType(messageType));
+        }
+        return this;
+    }
+
+    /**
+     * Only pass messages of one of these message types. Can be called multiple times to add more types.
+     *
+     * @param messageTypes the fix message types encoded as packed longs.
+     * @return this
+     */
+    public FixMessageFilter messageTypes(final long... messageTypes)
+    {
+        for (final long messageType : messageTypes)
+        {
+            this.messageTypes.add(messageType);
+        }
+        return this;
+    }
+
+    /**
+     * Only pass messages where the first occurrence of a tag has exactly this value. Setting the same tag twice
+     * replaces the previous value. Fields are matched in the order that they appear within the message, so
+     * conditions on header fields let most messages be rejected without scanning their bodies.
+     *
+     * @param tag the tag number of the field.
+     * @param value the value that the field must have.
+     * @return this
+     */
+    public FixMessageFilter fieldEquals(final int tag, final String value)
+    {
+        if (tag <= 0)
+        {
+            throw new IllegalArgumentException("Invalid tag: " + tag);
+        }
+
+        final byte[] expectedValue = value.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < fieldCount; i++)
+        {
+            if (tags[i] == tag)
+            {
+                values[i] = expectedValue;
+                return this;
+            }
+        }
+
+        if (fieldCount == MAX_FIELD_CONDITIONS)
+        {
+            throw new IllegalArgumentException(
+                "Unable to filter on more than " + MAX_FIELD_CONDITIONS + " fields, tag: " + tag);
+        }
+
+        tags[fieldCount] = tag;
+        values[fieldCount] = expectedValue;
+        fieldCount++;
+        return this;
+    }
+
+    public FixMessageFilter senderCompId(final String senderCompId)
+    {
+        return fieldEquals(SENDER_COMP_ID, senderCompId);
+    }
+
+    public FixMessageFilter targetCompId(final String targetCompId)
+    {
+        return fieldEquals(TARGET_COMP_ID, targetCompId);
+    }
+
+    public FixMessageFilter senderSubId(final String senderSubId)
+    {
+        return fieldEquals(SENDER_SUB_ID, senderSubId);
+    }
+
+    public FixMessageFilter targetSubId(final String targetSubId)
+    {
+        return fieldEquals(TARGET_SUB_ID, targetSubId);
+    }
+
+    public FixMessageFilter senderLocationId(final String senderLocationId)
+    {
+        return fieldEquals(SENDER_LOCATION_ID, senderLocationId);
+    }
+
+    public FixMessageFilter targetLocationId(final String targetLocationId)
+    {
+        return fieldEquals(TARGET_LOCATION_ID, targetLocationId);
+    }
+
+    /**
+     * Compile the conditions set so far into a predicate. Later changes to this builder don't affect predicates
+     * that have already been compiled.
+     *
+     * @return the compiled predicate.
+     */
+    public CompiledFixMessageFilter compile()
+    {
+        return new CompiledFixMessageFilter(
+            beginTimestampInclusive,
+            endTimestampExclusive,
+            copyOrNull(sessionIds),
+            copyOrNull(messageTypes),
+            Arrays.copyOf(tags, fieldCount),
+            Arrays.copyOf(values, fieldCount));
+    }
+
+    private static LongHashSet copyOrNull(final LongHashSet set)
+    {
+        if (set.isEmpty())
+        {
+            return null;
+        }
+
+        final LongHashSet copy = new LongHashSet();
+        copy.addAll(set);
+        return copy;
+    }
+}
@@ -85,14 +85,48 @@ public class FixMessageLogger implements Agent
         final int inboundStreamId,
         final int outboundStreamId,
         final int outboundReplayStreamId)
+    {
+        this(
+            fixMessageConsumer,
+            null,
+            context,
+            libraryAeronChannel,
+            inboundStreamId,
+            outboundStreamId,
+            outboundReplayStreamId);
+    }
+
+    /**
+     * Create a logger that only passes the messages that pass a predicate on to its consumer. Predicates compiled
+     * from a {@link FixMessageFilter} are checked without creating any objects, so this is a cheap way to cut
+     * down the messages that have to be printed.
+     *
+     * @param fixMessageConsumer     the consumer of messages that pass the predicate.
+     * @param predicate              the predicate that the logged messages must pass, null to log all messages.
+     * @param context                the context used to connect to Aeron.
+     * @param libraryAeronChannel    the channel used by the engine and its libraries.
+     * @param inboundStreamId        the engine's inbound library stream id.
+     * @param outboundStreamId       the engine's outbound library stream id.
+     * @param outboundReplayStreamId the engine's outbound replay stream id.
+     */
+    public FixMessageLogger(
+        final FixMessageConsumer fixMessageConsumer,
+        final FixMessagePredicate predicate,
+        final Aeron.Context context,
+        final String libraryAeronChannel,
+        final int inboundStreamId,
+        final int outboundStreamId,
+        final int outboundReplayStreamId)
     {
         aeron = Aeron.connect(context);
         inboundSubscription = aeron.addSubscription(libraryAeronChannel, inboundStreamId);
         outboundSubscription = aeron.addSubscription(libraryAeronChannel, outboundStreamId);
         replaySubscription = aeron.addSubscription(libraryAeronChannel, outboundReplayStreamId);
 
+        final FixMessageConsumer consumer = predicate == null ?
+            fixMessageConsumer : FixMessagePredicates.filterBy(fixMessageConsumer, predicate);
         final LogEntryHandler logEntryHandler = new LogEntryHandler(
-            fixMessageConsumer, new LazyILinkMessagePrinter(inboundStreamId));
+            consumer, new LazyILinkMessagePrinter(inboundStreamId));
         fragmentAssembler = new FragmentAssembler(logEntryHandler);
     }
 
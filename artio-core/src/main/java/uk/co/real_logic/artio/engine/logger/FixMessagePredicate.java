@@ -27,20 +27,41 @@ public interface FixMessagePredicate
 {
     boolean test(FixMessageDecoder message);
 
+    /**
+     * Narrows down a query of the archive's time index to the messages that could pass this predicate. This lets
+     * the {@link FixArchiveScanner} skip the parts of the archive that don't contain any such messages. The query
+     * must never be narrowed to exclude a message that passes the predicate, so by default it is left unchanged.
+     *
+     * @param query the query to narrow down.
+     */
+    default void narrow(final TimeIndexQuery query)
+    {
+    }
+
     default FixMessagePredicate and(final FixMessagePredicate other)
     {
-        return (message) ->
+        final FixMessagePredicate self = this;
+        return new FixMessagePredicate()
         {
-            final int limit = message.limit();
-
-            if (!test(message))
+            public boolean test(final FixMessageDecoder message)
             {
-                return false;
-            }
+                final int limit = message.limit();
 
-            message.limit(limit);
+                if (!self.test(message))
+                {
+                    return false;
+                }
 
-            return other.test(message);
+                message.limit(limit);
+
+                return other.test(message);
+            }
+
+            public void narrow(final TimeIndexQuery query)
+            {
+                self.narrow(query);
+                other.narrow(query);
+            }
         };
     }
 
@@ -15,14 +15,15 @@
  */
 package uk.co.real_logic.artio.engine.logger;
 
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
-import org.agrona.ExpandableArrayBuffer;
 import org.agrona.collections.LongHashSet;
 
 
@@ -31,12 +32,15 @@ import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.dictionary.generation.CodecUtil;
 import uk.co.real_logic.artio.dictionary.generation.GenerationUtil;
 import uk.co.real_logic.artio.engine.framer.MessageTypeExtractor;
-import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.util.BufferAsciiSequence;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 /**
  * Filters to be used in conjunction with {@link FixArchiveScanner}.
+ *
+ * When filtering large archives on several criteria at once prefer a {@link FixMessageFilter}, which compiles
+ * them into a single predicate that matches fields without decoding or copying the message.
  */
 public final class FixMessagePredicates
 {
@@ -92,7 +96,9 @@ public final class FixMessagePredicates
      */
     public static FixMessagePredicate from(final long beginTimestampInclusive)
     {
-        return (message) -> message.timestamp() >= beginTimestampInclusive;
+        return indexed(
+            (message) -> message.timestamp() >= beginTimestampInclusive,
+            (query) -> query.from(beginTimestampInclusive));
     }
 
     /**
@@ -105,7 +111,9 @@ public final class FixMessagePredicates
      */
     public static FixMessagePredicate to(final long endTimestampExclusive)
     {
-        return (message) -> message.timestamp() < endTimestampExclusive;
+        return indexed(
+            (message) -> message.timestamp() < endTimestampExclusive,
+            (query) -> query.to(endTimestampExclusive));
     }
 
     /**
@@ -141,11 +149,13 @@ public final class FixMessagePredicates
 
     private static FixMessagePredicate messageTypeOf(final LongHashSet hashSet)
     {
-        return (message) ->
-        {
-            final long messageType = MessageTypeExtractor.getMessageType(message);
-            return hashSet.contains(messageType);
-        };
+        return indexed(
+            (message) ->
+            {
+                final long messageType = MessageTypeExtractor.getMessageType(message);
+                return hashSet.contains(messageType);
+            },
+            (query) -> query.messageTypes(hashSet));
     }
 
     /**
@@ -220,14 +230,11 @@ public final class FixMessagePredicates
         final Predicate<SessionHeaderDecoder> matches)
     {
         final SessionHeaderDecoder header = fixDictionary.makeHeaderDecoder();
-        final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(1024);
-        final AsciiBuffer asciiBuffer = new MutableAsciiBuffer();
+        final MutableAsciiBuffer asciiBuffer = new MutableAsciiBuffer();
         return message ->
         {
             final int length = message.bodyLength();
-            buffer.checkLimit(length);
-            message.getBody(buffer, 0, length);
-            asciiBuffer.wrap(buffer);
+            asciiBuffer.wrap(message.buffer(), message.limit() + FixMessageDecoder.bodyHeaderLength(), length);
             header.decode(asciiBuffer, 0, length);
             return matches.test(header);
         };
@@ -241,20 +248,22 @@ public final class FixMessagePredicates
      */
     public static FixMessagePredicate sessionOf(final long sessionId)
     {
-        return (message) -> message.session() == sessionId;
+        final LongHashSet sessionIds = new LongHashSet();
+        sessionIds.add(sessionId);
+        return indexed(
+            (message) -> message.session() == sessionId,
+            (query) -> query.sessionIds(sessionIds));
     }
 
     public static FixMessagePredicate bodyMatches(final Pattern pattern)
     {
-        final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(1024);
         final BufferAsciiSequence sequence = new BufferAsciiSequence();
+        final Matcher matcher = pattern.matcher(sequence);
         return message ->
         {
             final int length = message.bodyLength();
-            buffer.checkLimit(length);
-            message.getBody(buffer, 0, length);
-            sequence.wrap(buffer, 0, length);
-            return pattern.matcher(sequence).matches();
+            sequence.wrap(message.buffer(), message.limit() + FixMessageDecoder.bodyHeaderLength(), length);
+            return matcher.reset(sequence).matches();
         };
     }
 
@@ -262,4 +271,21 @@ public final class FixMessagePredicates
     {
         return message -> true;
     }
+
+    private static FixMessagePredicate indexed(
+        final FixMessagePredicate predicate, final Consumer<TimeIndexQuery> narrowing)
+    {
+        return new FixMessagePredicate()
+        {
+            public boolean test(final FixMessageDecoder message)
+            {
+                return predicate.test(message);
+            }
+
+            public void narrow(final TimeIndexQuery query)
+            {
+                narrowing.accept(query);
+            }
+        };
+    }
 }
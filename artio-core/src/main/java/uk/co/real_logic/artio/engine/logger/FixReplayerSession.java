@@ -74,7 +74,10 @@ class FixReplayerSession extends ReplayerSession
     private final SequenceNumberExtractor sequenceNumberExtractor;
     private final AtomicCounter bytesInBuffer;
     private final int maxBytesInBuffer;
+    private final ResendCache resendCache;
 
+    private ResendCache.Replay cachedReplay;
+    private int cachedReplayedMessages;
     private int lastSeqNo;
 
     private int beginGapFillSeqNum = NONE;
@@ -101,6 +104,7 @@ class FixReplayerSession extends ReplayerSession
         final AtomicCounter bytesInBuffer,
         final int maxBytesInBuffer,
         final UtcTimestampEncoder utcTimestampEncoder,
+        final ResendCache resendCache,
         final Replayer replayer)
     {
         super(connectionId, bufferClaim, idleStrategy, maxClaimAttempts, publication, replayQuery, beginSeqNo, endSeqNo,
@@ -112,6 +116,7 @@ class FixReplayerSession extends ReplayerSession
         this.gapFillEncoder = gapFillEncoder;
         this.maxBytesInBuffer = maxBytesInBuffer;
         this.bytesInBuffer = bytesInBuffer;
+        this.resendCache = resendCache;
 
         sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
 
@@ -131,6 +136,15 @@ class FixReplayerSession extends ReplayerSession
         state = State.REPLAYING;
     }
 
+    void query()
+    {
+        cachedReplay = resendCache.replay(sessionId, sequenceIndex, beginSeqNo, endSeqNo, this);
+        if (cachedReplay == null)
+        {
+            super.query();
+        }
+    }
+
     MessageTracker messageTracker()
     {
         return new FixMessageTracker(REPLAY, this, sessionId);
@@ -278,7 +292,7 @@ class FixReplayerSession extends ReplayerSession
         {
             case REPLAYING:
                 DebugLogger.log(REPLAY_ATTEMPT, "ReplayerSession: REPLAYING step");
-                if (replayOperation.attemptReplay())
+                if (attemptReplayStep())
                 {
                     state = State.CHECK_REPLAY;
                     return attemptReplay();
@@ -301,10 +315,43 @@ class FixReplayerSession extends ReplayerSession
         }
     }
 
+    private boolean attemptReplayStep()
+    {
+        final ResendCache.Replay cachedReplay = this.cachedReplay;
+        if (cachedReplay == null)
+        {
+            return replayOperation.attemptReplay();
+        }
+
+        if (!cachedReplay.attemptReplay())
+        {
+            return false;
+        }
+
+        cachedReplayedMessages = cachedReplay.replayedMessages();
+        this.cachedReplay = null;
+        if (cachedReplay.evicted())
+        {
+            // The rest of the range was evicted whilst the replay was back pressured, so carry on from the archive
+            replayOperation = replayQuery.query(
+                sessionId,
+                lastSeqNo + 1,
+                sequenceIndex,
+                endSeqNo,
+                sequenceIndex,
+                REPLAY,
+                messageTracker());
+            return replayOperation.attemptReplay();
+        }
+
+        return true;
+    }
+
     private boolean completeReplay()
     {
         // Load state needed to complete the replay
-        final int replayedMessages = replayOperation.replayedMessages();
+        final int replayedMessages = cachedReplayedMessages +
+            (replayOperation == null ? 0 : replayOperation.replayedMessages());
 
         // If the last N messages were admin messages then we need to send a gapfill
         // after the replay query has run.
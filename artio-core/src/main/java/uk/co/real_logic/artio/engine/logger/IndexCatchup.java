@@ -0,0 +1,316 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.Image;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.archive.client.ArchiveException;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongArrayList;
+import org.agrona.concurrent.AgentInvoker;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.CommonConfiguration;
+import uk.co.real_logic.artio.DebugLogger;
+import uk.co.real_logic.artio.LogTag;
+import uk.co.real_logic.artio.util.CharFormatter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.aeron.CommonContext.IPC_CHANNEL;
+
+/**
+ * Catches indices up with the recordings that they haven't finished indexing when the engine starts.
+ *
+ * Each recording is replayed once, from the lowest position that any index has reached, and each fragment is only
+ * passed to the indices that haven't indexed it yet. Several recordings are replayed at the same time and polled in
+ * turn, so catching up takes about as long as the longest recording rather than the sum of every index's recordings.
+ * Everything happens on the calling thread, so indices still see a single thread.
+ */
+public class IndexCatchup
+{
+    private static final int LIMIT = 20;
+    private static final int MAX_CONCURRENT_REPLAYS = 8;
+
+    private final CharFormatter catchupFormatter = new CharFormatter(
+        "Catchup [%s]: recordingId = %s, recordingStopped @ %s, indexStopped @ %s%n");
+
+    private final Long2ObjectHashMap<RecordingCatchup> recordingIdToCatchup = new Long2ObjectHashMap<>();
+    private final AeronArchive aeronArchive;
+    private final ErrorHandler errorHandler;
+    private final int archiveReplayStream;
+    private final AtomicCounter remainingBytes;
+    private final AtomicCounter remainingRecordings;
+
+    public IndexCatchup(
+        final AeronArchive aeronArchive,
+        final ErrorHandler errorHandler,
+        final int archiveReplayStream,
+        final AtomicCounter remainingBytes,
+        final AtomicCounter remainingRecordings)
+    {
+        this.aeronArchive = aeronArchive;
+        this.errorHandler = errorHandler;
+        this.archiveReplayStream = archiveReplayStream;
+        this.remainingBytes = remainingBytes;
+        this.remainingRecordings = remainingRecordings;
+    }
+
+    /**
+     * Find the recordings that these indices need to catch up with.
+     *
+     * @param indices the indices to catch up.
+     */
+    public void add(final List<Index> indices)
+    {
+        for (int i = 0, size = indices.size(); i < size; i++)
+        {
+            final Index index = indices.get(i);
+            index.readLastPosition((aeronSessionId, recordingId, indexStoppedPosition) ->
+            {
+                try
+                {
+                    RecordingCatchup catchup = recordingIdToCatchup.get(recordingId);
+                    if (catchup == null)
+                    {
+                        catchup = new RecordingCatchup(recordingId, aeronArchive.getStopPosition(recordingId));
+                        recordingIdToCatchup.put(recordingId, catchup);
+                    }
+
+                    if (catchup.recordingStoppedPosition > indexStoppedPosition)
+                    {
+                        DebugLogger.log(
+                            LogTag.INDEX,
+                            catchupFormatter,
+                            index.getName(),
+                            recordingId,
+                            catchup.recordingStoppedPosition,
+                            indexStoppedPosition);
+
+                        catchup.add(index, indexStoppedPosition);
+                    }
+                }
+                catch (final ArchiveException ex)
+                {
+                    errorHandler.onError(ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Replay the recordings found by {@link #add(List)} into their indices, returning once they've all been indexed.
+     */
+    public void run()
+    {
+        final ArrayDeque<RecordingCatchup> queued = new ArrayDeque<>();
+        long totalBytes = 0;
+        for (final RecordingCatchup catchup : recordingIdToCatchup.values())
+        {
+            if (!catchup.indices.isEmpty())
+            {
+                queued.add(catchup);
+                totalBytes += catchup.length();
+            }
+        }
+        recordingIdToCatchup.clear();
+
+        if (queued.isEmpty())
+        {
+            return;
+        }
+
+        remainingBytes.setOrdered(totalBytes);
+        remainingRecordings.setOrdered(queued.size());
+
+        final IdleStrategy idleStrategy = CommonConfiguration.backoffIdleStrategy();
+        final AgentInvoker aeronInvoker = aeronArchive.context().aeron().conductorAgentInvoker();
+        final List<RecordingCatchup> replaying = new ArrayList<>();
+
+        // The subscription has to be added before the replays start so that none of their data is missed.
+        try (Subscription subscription = aeronArchive.context().aeron().addSubscription(
+            IPC_CHANNEL, archiveReplayStream))
+        {
+            while (!queued.isEmpty() || !replaying.isEmpty())
+            {
+                while (replaying.size() < MAX_CONCURRENT_REPLAYS && !queued.isEmpty())
+                {
+                    final RecordingCatchup catchup = queued.poll();
+                    if (catchup.startReplay())
+                    {
+                        replaying.add(catchup);
+                    }
+                    else
+                    {
+                        remainingRecordings.decrement();
+                    }
+                }
+
+                int workCount = 0;
+                for (int i = replaying.size() - 1; i >= 0; i--)
+                {
+                    final RecordingCatchup catchup = replaying.get(i);
+                    workCount += catchup.poll(subscription);
+                    if (catchup.isComplete())
+                    {
+                        replaying.remove(i);
+                        remainingRecordings.decrement();
+                    }
+                }
+
+                if (workCount == 0)
+                {
+                    aeronArchive.checkForErrorResponse();
+                }
+
+                idle(idleStrategy, aeronInvoker, workCount);
+            }
+        }
+        catch (final ArchiveException ex)
+        {
+            errorHandler.onError(ex);
+        }
+    }
+
+    private void idle(final IdleStrategy idleStrategy, final AgentInvoker aeronInvoker, final int workCount)
+    {
+        int totalWork = workCount;
+        if (aeronInvoker != null)
+        {
+            totalWork += aeronInvoker.invoke();
+        }
+
+        idleStrategy.idle(totalWork);
+    }
+
+    private final class RecordingCatchup implements FragmentHandler
+    {
+        private final List<Index> indices = new ArrayList<>();
+        private final LongArrayList indexStoppedPositions = new LongArrayList();
+        private final long recordingId;
+        private final long recordingStoppedPosition;
+
+        private long startPosition = Long.MAX_VALUE;
+        private int replaySessionId;
+        private Image image;
+        private long position;
+        private boolean complete;
+
+        RecordingCatchup(final long recordingId, final long recordingStoppedPosition)
+        {
+            this.recordingId = recordingId;
+            this.recordingStoppedPosition = recordingStoppedPosition;
+        }
+
+        void add(final Index index, final long indexStoppedPosition)
+        {
+            final int existing = indices.indexOf(index);
+            if (existing == -1)
+            {
+                indices.add(index);
+                indexStoppedPositions.addLong(indexStoppedPosition);
+            }
+            else if (indexStoppedPosition < indexStoppedPositions.getLong(existing))
+            {
+                indexStoppedPositions.setLong(existing, indexStoppedPosition);
+            }
+
+            startPosition = Math.min(startPosition, indexStoppedPosition);
+        }
+
+        long length()
+        {
+            return recordingStoppedPosition - startPosition;
+        }
+
+        boolean startReplay()
+        {
+            try
+            {
+                replaySessionId = (int)aeronArchive.startReplay(
+                    recordingId, startPosition, length(), IPC_CHANNEL, archiveReplayStream);
+                position = startPosition;
+                return true;
+            }
+            catch (final ArchiveException ex)
+            {
+                errorHandler.onError(ex);
+                remainingBytes.getAndAdd(-length());
+                return false;
+            }
+        }
+
+        int poll(final Subscription subscription)
+        {
+            if (image == null)
+            {
+                image = subscription.imageBySessionId(replaySessionId);
+                if (image == null)
+                {
+                    return 0;
+                }
+            }
+
+            final int workCount = image.poll(this, LIMIT);
+
+            final long newPosition = image.position();
+            remainingBytes.getAndAdd(position - newPosition);
+            position = newPosition;
+
+            if (position >= recordingStoppedPosition)
+            {
+                complete = true;
+            }
+            else if (image.isClosed() || image.isEndOfStream())
+            {
+                errorHandler.onError(new IllegalStateException(String.format(
+                    "Replay of recording %d ended at %d before reaching %d, indices might not be caught up",
+                    recordingId,
+                    position,
+                    recordingStoppedPosition)));
+                remainingBytes.getAndAdd(position - recordingStoppedPosition);
+                complete = true;
+            }
+
+            return workCount;
+        }
+
+        boolean isComplete()
+        {
+            return complete;
+        }
+
+        public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+        {
+            final long endPosition = header.position();
+            final List<Index> indices = this.indices;
+            for (int i = 0, size = indices.size(); i < size; i++)
+            {
+                if (endPosition > indexStoppedPositions.getLong(i))
+                {
+                    indices.get(i).onCatchup(buffer, offset, length, header, recordingId);
+                }
+            }
+        }
+    }
+}
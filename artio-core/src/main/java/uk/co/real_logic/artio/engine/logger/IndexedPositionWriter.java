@@ -23,8 +23,11 @@ import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.storage.messages.IndexedPositionDecoder;
 import uk.co.real_logic.artio.storage.messages.IndexedPositionEncoder;
 
+import java.util.BitSet;
+
 import static io.aeron.archive.status.RecordingPos.NULL_RECORDING_ID;
 import static uk.co.real_logic.artio.engine.SectorFramer.OUT_OF_SPACE;
+import static uk.co.real_logic.artio.engine.SectorFramer.SECTOR_SIZE;
 
 /**
  * Writes out a log of the stream positions that we have indexed up to.
@@ -48,6 +51,7 @@ class IndexedPositionWriter
     private final RecordingIdLookup recordingIdLookup;
     private final ChecksumFramer checksumFramer;
     private final Long2LongHashMap recheckSessions = new Long2LongHashMap(MISSING_RECORD);
+    private final BitSet dirtySectors = new BitSet();
 
     IndexedPositionWriter(
         final AtomicBuffer buffer,
@@ -162,6 +166,27 @@ class IndexedPositionWriter
     void updateChecksums()
     {
         checksumFramer.updateChecksums();
+        dirtySectors.clear();
+    }
+
+    /**
+     * Update the checksums of only the sectors that positions have been written to since the checksums were last
+     * updated.
+     *
+     * @param updatedSectors the set to add the sectors that have been updated to.
+     * @param sectorOffset the offset to add to sector indices in updatedSectors, ie the index of the sector that
+     *                     this writer's buffer starts at.
+     */
+    void updateDirtyChecksums(final BitSet updatedSectors, final int sectorOffset)
+    {
+        final BitSet dirtySectors = this.dirtySectors;
+        final ChecksumFramer checksumFramer = this.checksumFramer;
+        for (int sector = dirtySectors.nextSetBit(0); sector >= 0; sector = dirtySectors.nextSetBit(sector + 1))
+        {
+            checksumFramer.updateChecksum(sector);
+            updatedSectors.set(sectorOffset + sector);
+        }
+        dirtySectors.clear();
     }
 
     AtomicBuffer buffer()
@@ -172,6 +197,7 @@ class IndexedPositionWriter
     private void putPosition(final long position, final AtomicBuffer buffer, final int offset)
     {
         buffer.putLongVolatile(offset + POSITION_OFFSET, position);
+        dirtySectors.set(offset / SECTOR_SIZE);
     }
 
     public void trackPosition(final int aeronSessionId, final long endPosition)
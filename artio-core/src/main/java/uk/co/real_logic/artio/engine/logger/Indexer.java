@@ -15,33 +15,29 @@
  */
 package uk.co.real_logic.artio.engine.logger;
 
-import io.aeron.Image;
 import io.aeron.Subscription;
-import io.aeron.archive.client.AeronArchive;
-import io.aeron.archive.client.ArchiveException;
 import io.aeron.logbuffer.ControlledFragmentHandler;
-import io.aeron.logbuffer.FragmentHandler;
 import io.aeron.logbuffer.Header;
 import org.agrona.DirectBuffer;
-import org.agrona.ErrorHandler;
 import org.agrona.collections.CollectionUtil;
 import org.agrona.concurrent.Agent;
-import org.agrona.concurrent.AgentInvoker;
-import org.agrona.concurrent.IdleStrategy;
-import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.LogTag;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.CompletionPosition;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.timing.Timer;
 import uk.co.real_logic.artio.util.CharFormatter;
 
 import java.util.List;
 
-import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static uk.co.real_logic.artio.CommonConfiguration.TIME_MESSAGES;
 
 /**
- * Incrementally builds indexes by polling a subscription.
+ * Incrementally builds indexes by polling a subscription. Indices should have been caught up with any recordings that
+ * they haven't finished indexing by an {@link IndexCatchup} before this is polled.
  */
 @SuppressWarnings("ForLoopReplaceableByForEach")
 public class Indexer implements Agent, ControlledFragmentHandler
@@ -50,33 +46,41 @@ public class Indexer implements Agent, ControlledFragmentHandler
 
     private final CharFormatter indexingFormatter = new CharFormatter(
         "Indexing @ %s from [%s, %s]%n");
-    private final CharFormatter catchupFormatter = new CharFormatter(
-        "Catchup [%s]: recordingId = %s, recordingStopped @ %s, indexStopped @ %s%n");
+
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder fixMessage = new FixMessageDecoder();
 
     private final List<Index> indices;
     private final Subscription subscription;
     private final String agentNamePrefix;
     private final CompletionPosition completionPosition;
-    private final int archiveReplayStream;
     private final boolean gracefulShutdown;
-
+    private final Timer timer;
+
+    /**
+     * Create the indexer.
+     *
+     * @param indices the indices to update.
+     * @param subscription the subscription to poll.
+     * @param agentNamePrefix the prefix for the agent's role name.
+     * @param completionPosition the positions to index up to when closing.
+     * @param gracefulShutdown whether to index up to the completion position when closing.
+     * @param timer times FIX messages from their timestamp until they're indexed, or null not to time them.
+     */
     public Indexer(
         final List<Index> indices,
         final Subscription subscription,
         final String agentNamePrefix,
         final CompletionPosition completionPosition,
-        final AeronArchive aeronArchive,
-        final ErrorHandler errorHandler,
-        final int archiveReplayStream,
-        final boolean gracefulShutdown)
+        final boolean gracefulShutdown,
+        final Timer timer)
     {
         this.indices = indices;
         this.subscription = subscription;
         this.agentNamePrefix = agentNamePrefix;
         this.completionPosition = completionPosition;
-        this.archiveReplayStream = archiveReplayStream;
         this.gracefulShutdown = gracefulShutdown;
-        catchIndexUp(aeronArchive, errorHandler);
+        this.timer = timer;
     }
 
     public int doWork()
@@ -84,75 +88,6 @@ public class Indexer implements Agent, ControlledFragmentHandler
         return subscription.controlledPoll(this, LIMIT) + CollectionUtil.sum(indices, Index::doWork);
     }
 
-    private void catchIndexUp(final AeronArchive aeronArchive, final ErrorHandler errorHandler)
-    {
-        final IdleStrategy idleStrategy = CommonConfiguration.backoffIdleStrategy();
-        final AgentInvoker aeronInvoker = aeronArchive.context().aeron().conductorAgentInvoker();
-
-        for (int i = 0, size = indices.size(); i < size; i++)
-        {
-            final Index index = indices.get(i);
-
-            index.readLastPosition((aeronSessionId, recordingId, indexStoppedPosition) ->
-            {
-                try
-                {
-                    final long recordingStoppedPosition = aeronArchive.getStopPosition(recordingId);
-                    if (recordingStoppedPosition > indexStoppedPosition)
-                    {
-                        DebugLogger.log(
-                            LogTag.INDEX,
-                            catchupFormatter,
-                            index.getName(),
-                            recordingId,
-                            recordingStoppedPosition,
-                            indexStoppedPosition);
-
-                        final long length = recordingStoppedPosition - indexStoppedPosition;
-                        try (Subscription subscription = aeronArchive.replay(
-                            recordingId, indexStoppedPosition, length, IPC_CHANNEL, archiveReplayStream))
-                        {
-                            // Only do 1 replay at a time
-                            while (subscription.imageCount() != 1)
-                            {
-                                idle(idleStrategy, aeronInvoker, 0);
-                                aeronArchive.checkForErrorResponse();
-                            }
-                            idleStrategy.reset();
-
-                            final Image replayImage = subscription.imageAtIndex(0);
-
-                            final FragmentHandler handler = (buffer, offset, srcLength, header) ->
-                                index.onCatchup(buffer, offset, srcLength, header, recordingId);
-
-                            while (replayImage.position() < recordingStoppedPosition)
-                            {
-                                final int workCount = replayImage.poll(handler, LIMIT);
-                                idle(idleStrategy, aeronInvoker, workCount);
-                            }
-                            idleStrategy.reset();
-                        }
-                    }
-                }
-                catch (final ArchiveException ex)
-                {
-                    errorHandler.onError(ex);
-                }
-            });
-        }
-    }
-
-    private void idle(final IdleStrategy idleStrategy, final AgentInvoker aeronInvoker, final int workCount)
-    {
-        int totalWork = workCount;
-        if (aeronInvoker != null)
-        {
-            totalWork += aeronInvoker.invoke();
-        }
-
-        idleStrategy.idle(totalWork);
-    }
-
     public Action onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
     {
         final int streamId = header.streamId();
@@ -171,9 +106,29 @@ public class Indexer implements Agent, ControlledFragmentHandler
             index.onFragment(buffer, offset, length, header);
         }
 
+        if (TIME_MESSAGES && timer != null)
+        {
+            timeFixMessage(buffer, offset);
+        }
+
         return CONTINUE;
     }
 
+    private void timeFixMessage(final DirectBuffer buffer, final int offset)
+    {
+        final MessageHeaderDecoder messageHeader = this.messageHeader;
+        messageHeader.wrap(buffer, offset);
+        if (messageHeader.templateId() == FixMessageDecoder.TEMPLATE_ID)
+        {
+            fixMessage.wrap(
+                buffer,
+                offset + MessageHeaderDecoder.ENCODED_LENGTH,
+                messageHeader.blockLength(),
+                messageHeader.version());
+            timer.recordSince(fixMessage.timestamp());
+        }
+    }
+
     public void onClose()
     {
         if (gracefulShutdown)
@@ -60,7 +60,7 @@ class LogEntryHandler implements FragmentHandler
 
             fixHandler.onMessage(fixMessage, buffer, offset, length, header);
         }
-        else if (templateId == ILinkMessageDecoder.TEMPLATE_ID)
+        else if (templateId == ILinkMessageDecoder.TEMPLATE_ID && iLinkHandler != null)
         {
             offset += MessageHeaderDecoder.ENCODED_LENGTH;
             offset += ILinkMessageDecoder.BLOCK_LENGTH;
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * A cache of the files that the engine's logger holds open, for example the memory mapped replay index files of
+ * each FIX session. When a value is removed or evicted from the cache it's passed to the eviction consumer that the
+ * cache was created with in order to close it.
+ * <p>
+ * Implementations are only used by a single thread so don't need to be thread safe.
+ *
+ * @param <V> the type of the values held in the cache.
+ * @see LoggerCacheFactory
+ */
+public interface LoggerCache<V>
+{
+    /**
+     * Get the value associated with a key, creating and caching it if it isn't already in the cache. This may
+     * evict another value from the cache.
+     *
+     * @param key the key to lookup.
+     * @param mappingFunction creates the value if it isn't in the cache.
+     * @return the value associated with the key or null if the mapping function returned null.
+     */
+    V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction);
+
+    /**
+     * Remove the value associated with a key from the cache, passing it to the eviction consumer.
+     *
+     * @param key the key to remove.
+     * @return the removed value or null if the key wasn't in the cache.
+     */
+    V remove(long key);
+
+    /**
+     * Iterate over the values that are currently in the cache.
+     *
+     * @param consumer the consumer to pass each value to.
+     */
+    void forEach(Consumer<? super V> consumer);
+
+    /**
+     * Remove all values from the cache, passing each one to the eviction consumer.
+     */
+    void clear();
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import java.util.function.Consumer;
+
+/**
+ * Creates the caches of open files used by the engine's logger, see
+ * {@link uk.co.real_logic.artio.engine.EngineConfiguration#loggerCacheFactory(LoggerCacheFactory)}.
+ * <p>
+ * {@link ClockLoggerCache} and {@link SetAssociativeLoggerCache} are provided, and both of their constructors can be
+ * used as a factory, eg: {@code ClockLoggerCache::new}.
+ */
+public interface LoggerCacheFactory
+{
+    /**
+     * Create a new cache.
+     *
+     * @param numSets the number of sets configured by
+     *                {@link uk.co.real_logic.artio.engine.EngineConfiguration#loggerCacheNumSets(int)}.
+     * @param setSize the set size configured by
+     *                {@link uk.co.real_logic.artio.engine.EngineConfiguration#loggerCacheSetSize(int)}.
+     * @param evictionConsumer closes values when they're removed or evicted from the cache.
+     * @param <V> the type of the values held in the cache.
+     * @return the new cache.
+     */
+    <V> LoggerCache<V> newCache(int numSets, int setSize, Consumer<V> evictionConsumer);
+}
@@ -21,15 +21,12 @@ import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
 import org.agrona.collections.Long2LongHashMap;
-import org.agrona.collections.Long2ObjectCache;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
 
-import java.io.File;
-import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.function.LongFunction;
 
@@ -45,6 +42,11 @@ import static uk.co.real_logic.artio.messages.MessageStatus.OK;
  * Builds an index of a composite key of session id and sequence number for a given stream.
  *
  * Written Positions are stored in a separate file at {@link ReplayIndexDescriptor#replayPositionPath(String, int)}.
+ * Each session's index is kept in the {@link ReplayIndexStorage} that this is given.
+ *
+ * Indices are created at the initial index file size and double in size whenever the writer reaches the end of
+ * the index for the first time, until they reach the index file size. After that point they're used as a ring buffer
+ * and old records are overwritten. Records are never moved when a file grows because it hasn't wrapped yet.
  *
  * Buffer Consists of:
  *
@@ -69,34 +71,34 @@ public class ReplayIndex implements Index
 
     private final ILinkSequenceNumberExtractor iLinkSequenceNumberExtractor;
 
-    private final Long2ObjectCache<SessionIndex> fixSessionIdToIndex;
+    private final LoggerCache<SessionIndex> fixSessionIdToIndex;
 
-    private final String logFileDir;
     private final int requiredStreamId;
     private final int indexFileSize;
-    private final BufferFactory bufferFactory;
+    private final int initialIndexFileSize;
+    private final ReplayIndexStorage storage;
     private final AtomicBuffer positionBuffer;
-    private final ErrorHandler errorHandler;
     private final RecordingIdLookup recordingIdLookup;
 
     public ReplayIndex(
         final String logFileDir,
         final int requiredStreamId,
         final int indexFileSize,
+        final int initialIndexFileSize,
         final int cacheNumSets,
         final int cacheSetSize,
-        final BufferFactory bufferFactory,
+        final LoggerCacheFactory cacheFactory,
+        final ReplayIndexStorage storage,
         final AtomicBuffer positionBuffer,
         final ErrorHandler errorHandler,
         final RecordingIdLookup recordingIdLookup,
         final Long2LongHashMap connectionIdToILinkUuid)
     {
-        this.logFileDir = logFileDir;
         this.requiredStreamId = requiredStreamId;
         this.indexFileSize = indexFileSize;
-        this.bufferFactory = bufferFactory;
+        this.initialIndexFileSize = Math.min(initialIndexFileSize, indexFileSize);
+        this.storage = storage;
         this.positionBuffer = positionBuffer;
-        this.errorHandler = errorHandler;
         this.recordingIdLookup = recordingIdLookup;
 
         iLinkSequenceNumberExtractor = new ILinkSequenceNumberExtractor(
@@ -106,7 +108,8 @@ public class ReplayIndex implements Index
                 .onRecord(endPosition, messageSize, sequenceNumber, 0, aeronSessionId, NULL_RECORDING_ID));
         sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
         checkIndexFileSize(indexFileSize);
-        fixSessionIdToIndex = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, SessionIndex::close);
+        checkIndexFileSize(initialIndexFileSize);
+        fixSessionIdToIndex = cacheFactory.newCache(cacheNumSets, cacheSetSize, SessionIndex::close);
         final String replayPositionPath = replayPositionPath(logFileDir, requiredStreamId);
         positionWriter = new IndexedPositionWriter(
             positionBuffer, errorHandler, 0, replayPositionPath, recordingIdLookup);
@@ -227,21 +230,9 @@ public class ReplayIndex implements Index
 
     private void onResetSequenceNumber(final long fixSessionId)
     {
-        final SessionIndex index = fixSessionIdToIndex.remove(fixSessionId);
-
-        if (index != null)
-        {
-            index.reset();
-        }
-        else
-        {
-            // File might be present but not within the cache.
-            final File replayIndexFile = replayIndexFile(fixSessionId);
-            if (replayIndexFile.exists())
-            {
-                deleteFile(replayIndexFile);
-            }
-        }
+        // Removing the index closes it, the index might also be present but not within the cache.
+        fixSessionIdToIndex.remove(fixSessionId);
+        storage.delete(fixSessionId);
     }
 
     private SessionIndex sessionIndex(final long fixSessionId)
@@ -259,6 +250,7 @@ public class ReplayIndex implements Index
     {
         positionWriter.close();
         fixSessionIdToIndex.clear();
+        storage.close();
         IoUtil.unmap(positionBuffer.byteBuffer());
     }
 
@@ -269,19 +261,19 @@ public class ReplayIndex implements Index
 
     private final class SessionIndex implements AutoCloseable
     {
-        private final ByteBuffer wrappedBuffer;
-        private final AtomicBuffer buffer;
-        private final int recordCapacity;
-        private final File replayIndexFile;
+        private final AtomicBuffer buffer = new UnsafeBuffer(0, 0);
+        private final long fixSessionId;
+        private final int maxRecordCapacity = recordCapacity(indexFileSize);
+
+        private ByteBuffer wrappedBuffer;
+        private int recordCapacity;
 
         SessionIndex(final long fixSessionId)
         {
-            replayIndexFile = replayIndexFile(fixSessionId);
-            final boolean exists = replayIndexFile.exists();
-            this.wrappedBuffer = bufferFactory.map(replayIndexFile, indexFileSize);
-            this.buffer = new UnsafeBuffer(wrappedBuffer);
+            this.fixSessionId = fixSessionId;
+            final boolean exists = storage.exists(fixSessionId);
+            map(storage.map(fixSessionId, initialIndexFileSize));
 
-            recordCapacity = recordCapacity(buffer.capacity());
             if (!exists)
             {
                 indexHeaderEncoder
@@ -308,6 +300,11 @@ public class ReplayIndex implements Index
             final long knownRecordingId)
         {
             final long beginChangePosition = beginChange(buffer);
+            if (beginChangePosition == recordCapacity && recordCapacity < maxRecordCapacity)
+            {
+                grow();
+            }
+
             final long changePosition = beginChangePosition + RECORD_LENGTH;
             final long recordingId = knownRecordingId ==
                 NULL_RECORDING_ID ? recordingIdLookup.getRecordingId(aeronSessionId) : knownRecordingId;
@@ -329,28 +326,25 @@ public class ReplayIndex implements Index
             endChangeOrdered(buffer, changePosition);
         }
 
-        void reset()
+        // Only called before the first wrap, so every record is already at the right offset for the new capacity
+        private void grow()
         {
-            close();
-            deleteFile(replayIndexFile);
+            final int newRecordCapacity = Math.min(recordCapacity * 2, maxRecordCapacity);
+            final int newFileSize = INITIAL_RECORD_OFFSET + newRecordCapacity;
+
+            map(storage.grow(fixSessionId, wrappedBuffer, newFileSize));
         }
 
-        public void close()
+        private void map(final ByteBuffer mappedBuffer)
         {
-            IoUtil.unmap(wrappedBuffer);
+            wrappedBuffer = mappedBuffer;
+            buffer.wrap(wrappedBuffer);
+            recordCapacity = recordCapacity(buffer.capacity());
         }
-    }
 
-    private File replayIndexFile(final long fixSessionId)
-    {
-        return ReplayIndexDescriptor.replayIndexFile(logFileDir, fixSessionId, requiredStreamId);
-    }
-
-    private void deleteFile(final File replayIndexFile)
-    {
-        if (!replayIndexFile.delete())
+        public void close()
         {
-            errorHandler.onError(new IOException("Unable to delete replay index file: " + replayIndexFile));
+            storage.unmap(wrappedBuffer);
         }
     }
 }
@@ -47,6 +47,11 @@ public final class ReplayIndexDescriptor
         return new File(String.format(logFileDir + File.separator + "replay-index-%d-%d", fixSessionId, streamId));
     }
 
+    static File replayIndexSegmentFile(final String logFileDir, final int segmentIndex, final int streamId)
+    {
+        return new File(String.format(logFileDir + File.separator + "replay-segment-%d-%d", segmentIndex, streamId));
+    }
+
     static LongHashSet listReplayIndexSessionIds(final File logFileDir, final int streamId)
     {
         final String prefix = "replay-index-";
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.collections.LongHashSet;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Where the replay index of each FIX session is stored. {@link ReplayIndex} writes through one instance of this and
+ * {@link ReplayQuery} reads through another, so implementations only ever have a single writer per stream.
+ *
+ * @see FileReplayIndexStorage
+ * @see SegmentedReplayIndexStorage
+ */
+public interface ReplayIndexStorage extends AutoCloseable
+{
+    /**
+     * Check whether a session's index has already been created, so that the writer knows whether to initialise it.
+     *
+     * @param fixSessionId the FIX session id of the index.
+     * @return true if the index exists, false otherwise.
+     */
+    boolean exists(long fixSessionId);
+
+    /**
+     * Map a session's index for writing, creating it if it doesn't exist.
+     *
+     * @param fixSessionId the FIX session id of the index.
+     * @param size the size to create the index with, existing indices are mapped at their current size.
+     * @return the mapped index.
+     */
+    ByteBuffer map(long fixSessionId, int size);
+
+    /**
+     * Grow a session's index that has been mapped by {@link #map(long, int)}, the old buffer shouldn't be used after
+     * this has been called.
+     *
+     * @param fixSessionId the FIX session id of the index.
+     * @param buffer the currently mapped index.
+     * @param size the size to grow the index to.
+     * @return the mapped index at its new size.
+     */
+    ByteBuffer grow(long fixSessionId, ByteBuffer buffer, int size);
+
+    /**
+     * Map a session's index for reading.
+     *
+     * @param fixSessionId the FIX session id of the index.
+     * @return the mapped index.
+     * @throws IllegalStateException if the session has no index.
+     */
+    ByteBuffer mapExisting(long fixSessionId);
+
+    /**
+     * Check whether the writer has grown a session's index since the reader mapped it.
+     *
+     * @param fixSessionId the FIX session id of the index.
+     * @param buffer the currently mapped index.
+     * @return true if the index should be remapped with {@link #mapExisting(long)}, false otherwise.
+     */
+    boolean hasGrown(long fixSessionId, ByteBuffer buffer);
+
+    /**
+     * Release a buffer returned by this storage.
+     *
+     * @param buffer the buffer to release.
+     */
+    void unmap(ByteBuffer buffer);
+
+    /**
+     * Delete a session's index, the session's index should have been unmapped before this is called.
+     *
+     * @param fixSessionId the FIX session id of the index.
+     */
+    void delete(long fixSessionId);
+
+    /**
+     * Get the position that a session's index was last reset to by {@link #delete(long)}. Records at lower positions
+     * were written before the reset and shouldn't be read. This should be read after the index's begin change
+     * position, it's updated before it.
+     *
+     * @param fixSessionId the FIX session id of the index.
+     * @return the position that the index was reset to, or 0 if it has never been reset.
+     */
+    long resetPosition(long fixSessionId);
+
+    /**
+     * List the sessions that have an index.
+     *
+     * @return the FIX session ids of the sessions that have an index.
+     */
+    LongHashSet listSessionIds();
+
+    void close();
+}
@@ -19,9 +19,7 @@ import io.aeron.Subscription;
 import io.aeron.archive.client.AeronArchive;
 import org.agrona.CloseHelper;
 import org.agrona.ErrorHandler;
-import org.agrona.IoUtil;
 import org.agrona.collections.Long2LongHashMap;
-import org.agrona.collections.Long2ObjectCache;
 import org.agrona.collections.LongHashSet;
 import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -29,9 +27,7 @@ import uk.co.real_logic.artio.LogTag;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordDecoder;
 
-import java.io.File;
 import java.nio.ByteBuffer;
-import java.nio.MappedByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.LongFunction;
@@ -54,11 +50,8 @@ public class ReplayQuery implements AutoCloseable
     private final ReplayIndexRecordDecoder indexRecord = new ReplayIndexRecordDecoder();
 
     private final LongFunction<SessionQuery> newSessionQuery = SessionQuery::new;
-    private final Long2ObjectCache<SessionQuery> fixSessionToIndex;
-    private final String logFileDir;
-    private final File logFileDirFile;
-    private final ExistingBufferFactory indexBufferFactory;
-    private final int requiredStreamId;
+    private final LoggerCache<SessionQuery> fixSessionToIndex;
+    private final ReplayIndexStorage storage;
     private final IdleStrategy idleStrategy;
     private final AeronArchive aeronArchive;
     private final ErrorHandler errorHandler;
@@ -67,26 +60,22 @@ public class ReplayQuery implements AutoCloseable
     private Subscription replaySubscription;
 
     public ReplayQuery(
-        final String logFileDir,
         final int cacheNumSets,
         final int cacheSetSize,
-        final ExistingBufferFactory indexBufferFactory,
-        final int requiredStreamId,
+        final LoggerCacheFactory cacheFactory,
+        final ReplayIndexStorage storage,
         final IdleStrategy idleStrategy,
         final AeronArchive aeronArchive,
         final ErrorHandler errorHandler,
         final int archiveReplayStream)
     {
-        this.logFileDir = logFileDir;
-        this.indexBufferFactory = indexBufferFactory;
-        this.requiredStreamId = requiredStreamId;
+        this.storage = storage;
         this.idleStrategy = idleStrategy;
         this.aeronArchive = aeronArchive;
         this.errorHandler = errorHandler;
         this.archiveReplayStream = archiveReplayStream;
 
-        logFileDirFile = new File(logFileDir);
-        fixSessionToIndex = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, SessionQuery::close);
+        fixSessionToIndex = cacheFactory.newCache(cacheNumSets, cacheSetSize, SessionQuery::close);
     }
 
     /**
@@ -108,21 +97,52 @@ public class ReplayQuery implements AutoCloseable
         final int endSequenceIndex,
         final LogTag logTag,
         final MessageTracker tracker)
+    {
+        final List<RecordingRange> ranges = queryRanges(
+            sessionId, beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex);
+        return newReplayOperation(ranges, logTag, tracker);
+    }
+
+    List<RecordingRange> queryRanges(
+        final long sessionId,
+        final int beginSequenceNumber,
+        final int beginSequenceIndex,
+        final int endSequenceNumber,
+        final int endSequenceIndex)
     {
         return lookupSessionQuery(sessionId)
-            .query(beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex, logTag, tracker);
+            .queryRanges(beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex);
+    }
+
+    private ReplayOperation newReplayOperation(
+        final List<RecordingRange> ranges, final LogTag logTag, final MessageTracker messageTracker)
+    {
+        if (replaySubscription == null)
+        {
+            replaySubscription = aeronArchive.context().aeron().addSubscription(
+                IPC_CHANNEL, archiveReplayStream);
+        }
+
+        return new ReplayOperation(
+            ranges,
+            aeronArchive,
+            errorHandler,
+            replaySubscription,
+            archiveReplayStream,
+            logTag,
+            messageTracker);
     }
 
     public void queryStartPositions(final Long2LongHashMap newStartPositions)
     {
-        final LongHashSet allSessionIds = listReplayIndexSessionIds(logFileDirFile, requiredStreamId);
+        final LongHashSet allSessionIds = storage.listSessionIds();
 
         // Run over existing session queries first in order to minimise cache evictions then reloads.
-        for (final SessionQuery query : fixSessionToIndex.values())
+        fixSessionToIndex.forEach(query ->
         {
             aggregateLowerPosition(query.queryStartPositions(), newStartPositions);
             allSessionIds.remove(query.sessionId);
-        }
+        });
 
         final LongHashSet.LongIterator sessionIdIt = allSessionIds.iterator();
         while (sessionIdIt.hasNext())
@@ -160,37 +180,37 @@ public class ReplayQuery implements AutoCloseable
     public void close()
     {
         fixSessionToIndex.clear();
+        storage.close();
 
         CloseHelper.close(replaySubscription);
     }
 
     private final class SessionQuery implements AutoCloseable
     {
-        private final ByteBuffer wrappedBuffer;
         private final long sessionId;
-        private final UnsafeBuffer buffer;
-        private final int capacity;
+        private final UnsafeBuffer buffer = new UnsafeBuffer(0, 0);
         private final int actingBlockLength;
         private final int actingVersion;
 
+        private ByteBuffer wrappedBuffer;
+        private int capacity;
+        private long resetPosition;
+
         SessionQuery(final long sessionId)
         {
-            wrappedBuffer = indexBufferFactory.map(replayIndexFile(logFileDir, sessionId, requiredStreamId));
-            buffer = new UnsafeBuffer(wrappedBuffer);
-            capacity = recordCapacity(buffer.capacity());
             this.sessionId = sessionId;
+            map();
 
             messageFrameHeader.wrap(buffer, 0);
             actingBlockLength = messageFrameHeader.blockLength();
             actingVersion = messageFrameHeader.version();
         }
 
-        ReplayOperation query(
+        List<RecordingRange> queryRanges(
             final int beginSequenceNumber,
             final int beginSequenceIndex,
             final int endSequenceNumber,
-            final int endSequenceIndex,
-            final LogTag logTag, final MessageTracker messageTracker)
+            final int endSequenceIndex)
         {
             final int actingBlockLength = this.actingBlockLength;
             final int actingVersion = this.actingVersion;
@@ -201,17 +221,26 @@ public class ReplayQuery implements AutoCloseable
             final List<RecordingRange> ranges = new ArrayList<>();
             RecordingRange currentRange = null;
 
+            remapIfWrittenPastCapacity();
             long iteratorPosition = getIteratorPosition();
             long stopIteratingPosition = iteratorPosition + capacity;
+            iteratorPosition = searchStartPosition(beginSequenceNumber, beginSequenceIndex, iteratorPosition);
 
             int lastSequenceNumber = -1;
             while (iteratorPosition != stopIteratingPosition)
             {
                 final long changePosition = endChangeVolatile(buffer);
 
-                // Lapped by writer
+                // Lapped by writer, unless it has just grown the file instead
                 if (changePosition > iteratorPosition && (iteratorPosition + capacity) <= beginChangeVolatile(buffer))
                 {
+                    final int oldCapacity = capacity;
+                    if (remapIfGrown())
+                    {
+                        stopIteratingPosition += capacity - oldCapacity;
+                        continue;
+                    }
+
                     iteratorPosition = changePosition;
                     stopIteratingPosition = iteratorPosition + capacity;
                 }
@@ -233,7 +262,7 @@ public class ReplayQuery implements AutoCloseable
 
                     final boolean afterEnd = !upToMostRecentMessage && (sequenceIndex > endSequenceIndex ||
                         (sequenceIndex == endSequenceIndex && sequenceNumber > endSequenceNumber));
-                    if (beginPosition == 0 || afterEnd)
+                    if (beginPosition == 0 || afterEnd || isFromBeforeReset(iteratorPosition, changePosition))
                     {
                         break;
                     }
@@ -269,7 +298,55 @@ public class ReplayQuery implements AutoCloseable
                 ranges.add(currentRange);
             }
 
-            return newReplayOperation(ranges, logTag, messageTracker);
+            return ranges;
+        }
+
+        // Binary searches the records that have been completely written for the first one at or after the beginning
+        // of the query. Records are written in (sequence index, sequence number) order, fragments of a message have
+        // the same key, so this finds the first fragment. If the writer laps the search we go back to scanning.
+        private long searchStartPosition(
+            final int beginSequenceNumber, final int beginSequenceIndex, final long iteratorPosition)
+        {
+            final int actingBlockLength = this.actingBlockLength;
+            final int actingVersion = this.actingVersion;
+            final int capacity = this.capacity;
+
+            // The iterator position is a lap ahead of the record positions once the writer has wrapped.
+            final long lowestPosition = iteratorPosition == resetPosition ? resetPosition : iteratorPosition - capacity;
+            final long highestPosition = Math.min(endChangeVolatile(buffer), lowestPosition + capacity);
+
+            long low = 0;
+            long high = (highestPosition - lowestPosition) / RECORD_LENGTH;
+            while (low < high)
+            {
+                final long middle = (low + high) >>> 1;
+                final long position = lowestPosition + middle * RECORD_LENGTH;
+
+                indexRecord.wrap(buffer, offset(position, capacity), actingBlockLength, actingVersion);
+                final int sequenceIndex = indexRecord.sequenceIndex();
+                final int sequenceNumber = indexRecord.sequenceNumber();
+
+                UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past version check below.
+
+                // Lapped by writer, it has begun writing this record's slot
+                if (beginChangeVolatile(buffer) > (position + capacity))
+                {
+                    return iteratorPosition;
+                }
+
+                final boolean beforeQueryRange = sequenceIndex < beginSequenceIndex ||
+                    (sequenceIndex == beginSequenceIndex && sequenceNumber < beginSequenceNumber);
+                if (beforeQueryRange)
+                {
+                    low = middle + 1;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+
+            return iteratorPosition + low * RECORD_LENGTH;
         }
 
         private long skipToStart(final int beginSequenceNumber, final long iteratorPosition, final int sequenceNumber)
@@ -294,25 +371,6 @@ public class ReplayQuery implements AutoCloseable
             return iteratorPosition + jumpInBytes;
         }
 
-        private ReplayOperation newReplayOperation(
-            final List<RecordingRange> ranges, final LogTag logTag, final MessageTracker messageTracker)
-        {
-            if (replaySubscription == null)
-            {
-                replaySubscription = aeronArchive.context().aeron().addSubscription(
-                    IPC_CHANNEL, archiveReplayStream);
-            }
-
-            return new ReplayOperation(
-                ranges,
-                aeronArchive,
-                errorHandler,
-                replaySubscription,
-                archiveReplayStream,
-                logTag,
-                messageTracker);
-        }
-
         private RecordingRange addRange(
             final List<RecordingRange> ranges,
             final RecordingRange currentRange,
@@ -345,23 +403,65 @@ public class ReplayQuery implements AutoCloseable
             return range;
         }
 
+        private void remapIfWrittenPastCapacity()
+        {
+            // The writer only grows the file when it reaches the end of it, so this avoids checking the file otherwise
+            if (beginChangeVolatile(buffer) > capacity)
+            {
+                remapIfGrown();
+            }
+        }
+
+        private boolean remapIfGrown()
+        {
+            if (!storage.hasGrown(sessionId, wrappedBuffer))
+            {
+                return false;
+            }
+
+            close();
+            map();
+            return true;
+        }
+
+        private void map()
+        {
+            wrappedBuffer = storage.mapExisting(sessionId);
+            buffer.wrap(wrappedBuffer);
+            capacity = recordCapacity(buffer.capacity());
+        }
+
         private long getIteratorPosition()
         {
             // positions on a monotonically increasing scale
             long iteratorPosition = beginChangeVolatile(buffer);
-            // First iteration around you need to start at 0
-            if (iteratorPosition < capacity)
+            final long resetPosition = storage.resetPosition(sessionId);
+            this.resetPosition = resetPosition;
+            // First iteration around you need to start at the reset position, the file may also be about to grow
+            // rather than wrap
+            if (iteratorPosition <= resetPosition + capacity)
             {
-                iteratorPosition = 0;
+                iteratorPosition = resetPosition;
             }
             return iteratorPosition;
         }
 
+        // Records written before the index was reset are left in place, they follow the last record written since
+        // the reset until the writer wraps around to them.
+        private boolean isFromBeforeReset(final long iteratorPosition, final long changePosition)
+        {
+            final long resetPosition = this.resetPosition;
+            return resetPosition != 0 &&
+                iteratorPosition >= changePosition &&
+                iteratorPosition < resetPosition + capacity;
+        }
+
         public Long2LongHashMap queryStartPositions()
         {
             final int actingBlockLength = this.actingBlockLength;
             final int actingVersion = this.actingVersion;
 
+            remapIfWrittenPastCapacity();
             long iteratorPosition = getIteratorPosition();
             long stopIteratingPosition = iteratorPosition + capacity;
 
@@ -372,9 +472,16 @@ public class ReplayQuery implements AutoCloseable
             {
                 final long changePosition = endChangeVolatile(buffer);
 
-                // Lapped by writer
+                // Lapped by writer, unless it has just grown the file instead
                 if (changePosition > iteratorPosition && (iteratorPosition + capacity) <= beginChangeVolatile(buffer))
                 {
+                    final int oldCapacity = capacity;
+                    if (remapIfGrown())
+                    {
+                        stopIteratingPosition += capacity - oldCapacity;
+                        continue;
+                    }
+
                     iteratorPosition = changePosition;
                     stopIteratingPosition = iteratorPosition + capacity;
                 }
@@ -393,7 +500,7 @@ public class ReplayQuery implements AutoCloseable
                 {
                     idleStrategy.reset();
 
-                    if (beginPosition == 0)
+                    if (beginPosition == 0 || isFromBeforeReset(iteratorPosition, changePosition))
                     {
                         return recordingIdToStartPosition;
                     }
@@ -433,10 +540,7 @@ public class ReplayQuery implements AutoCloseable
 
         public void close()
         {
-            if (wrappedBuffer instanceof MappedByteBuffer)
-            {
-                IoUtil.unmap((MappedByteBuffer)wrappedBuffer);
-            }
+            storage.unmap(wrappedBuffer);
         }
     }
 
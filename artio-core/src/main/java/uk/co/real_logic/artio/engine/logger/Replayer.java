@@ -124,6 +124,7 @@ public class Replayer implements Agent, ControlledFragmentHandler
     private final ILink3RetransmitHandler iLink3RetransmitHandler;
     private final SenderSequenceNumbers senderSequenceNumbers;
     private final UtcTimestampEncoder utcTimestampEncoder;
+    private final ResendCache resendCache;
 
     public Replayer(
         final ReplayQuery outboundReplayQuery,
@@ -145,7 +146,8 @@ public class Replayer implements Agent, ControlledFragmentHandler
         final ReplayerCommandQueue replayerCommandQueue,
         final EpochFractionFormat epochFractionFormat,
         final AtomicCounter currentReplayCount,
-        final int maxConcurrentSessionReplays)
+        final int maxConcurrentSessionReplays,
+        final ResendCache resendCache)
     {
         this.outboundReplayQuery = outboundReplayQuery;
         this.publication = publication;
@@ -165,6 +167,7 @@ public class Replayer implements Agent, ControlledFragmentHandler
         this.replayerCommandQueue = replayerCommandQueue;
         this.currentReplayCount = currentReplayCount;
         this.maxConcurrentSessionReplays = maxConcurrentSessionReplays;
+        this.resendCache = resendCache;
 
         gapFillMessageTypes = new LongHashSet();
         gapfillOnReplayMessageTypes.forEach(messageTypeAsString ->
@@ -418,6 +421,7 @@ public class Replayer implements Agent, ControlledFragmentHandler
             bytesInBuffer,
             maxBytesInBuffer,
             utcTimestampEncoder,
+            resendCache,
             this);
 
         fixReplayerSession.query();
@@ -0,0 +1,515 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+import uk.co.real_logic.artio.messages.*;
+
+import java.nio.ByteBuffer;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.BREAK;
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.align;
+import static uk.co.real_logic.artio.engine.SequenceNumberExtractor.NO_SEQUENCE_NUMBER;
+import static uk.co.real_logic.artio.messages.FixMessageDecoder.*;
+import static uk.co.real_logic.artio.messages.MessageStatus.OK;
+
+/**
+ * Keeps the most recently sent messages of each session in memory so that small resend requests can be served
+ * without replaying the archive.
+ *
+ * Each session has an off-heap ring buffer of the same size that holds a contiguous range of its sequence numbers
+ * within a single sequence index. When a new session needs a buffer and the total budget has been used the least
+ * recently used session is evicted. Fragmented messages aren't cached, a session's range starts again after them.
+ *
+ * Updated by the outbound {@link Indexer} and read by the {@link Replayer}, so this relies on them sharing a thread.
+ */
+public class ResendCache implements Index
+{
+    private static final long NO_SESSION = -1;
+    private static final int RECORD_LENGTH_OFFSET = 0;
+    private static final int FRAME_LENGTH_OFFSET = RECORD_LENGTH_OFFSET + SIZE_OF_INT;
+    private static final int RECORD_HEADER_LENGTH = FRAME_LENGTH_OFFSET + SIZE_OF_INT;
+    private static final int RECORD_ALIGNMENT = RECORD_HEADER_LENGTH;
+    private static final int PADDING_FRAME_LENGTH = 0;
+
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+    private final ResetSequenceNumberDecoder resetSequenceNumber = new ResetSequenceNumberDecoder();
+    private final RedactSequenceUpdateDecoder redactSequenceUpdate = new RedactSequenceUpdateDecoder();
+    private final Long2ObjectHashMap<SessionCache> sessionIdToCache = new Long2ObjectHashMap<>();
+
+    private final SequenceNumberExtractor sequenceNumberExtractor;
+    private final int requiredStreamId;
+    private final int sessionCacheSize;
+    private final int maxCachedSessions;
+    private final AtomicCounter hits;
+    private final AtomicCounter misses;
+
+    private long useCount;
+
+    /**
+     * Create the cache.
+     *
+     * @param sessionCacheSize the size in bytes of each session's buffer.
+     * @param cacheSize the total size in bytes of the session buffers, or 0 to disable the cache.
+     * @param requiredStreamId the stream of sent messages that the cache is populated from.
+     * @param errorHandler the handler for errors when extracting sequence numbers.
+     * @param hits counts the resend requests that are served from the cache.
+     * @param misses counts the resend requests that have to replay the archive.
+     */
+    public ResendCache(
+        final int sessionCacheSize,
+        final int cacheSize,
+        final int requiredStreamId,
+        final ErrorHandler errorHandler,
+        final AtomicCounter hits,
+        final AtomicCounter misses)
+    {
+        if (cacheSize > 0 && sessionCacheSize < RECORD_ALIGNMENT)
+        {
+            throw new IllegalArgumentException(
+                "sessionCacheSize must be at least " + RECORD_ALIGNMENT + " when the cache is enabled, but was " +
+                sessionCacheSize);
+        }
+
+        this.sessionCacheSize = sessionCacheSize & ~(RECORD_ALIGNMENT - 1);
+        this.maxCachedSessions = cacheSize > 0 ? cacheSize / this.sessionCacheSize : 0;
+        this.requiredStreamId = requiredStreamId;
+        this.hits = hits;
+        this.misses = misses;
+
+        sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
+    }
+
+    public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        if (maxCachedSessions == 0 || header.streamId() != requiredStreamId)
+        {
+            return;
+        }
+
+        // Continuations of a fragmented message are ignored, its first fragment has already broken the range.
+        final byte flags = header.flags();
+        if ((flags & BEGIN_FRAG_FLAG) != BEGIN_FRAG_FLAG)
+        {
+            return;
+        }
+
+        messageHeader.wrap(buffer, offset);
+        final int templateId = messageHeader.templateId();
+        final int blockLength = messageHeader.blockLength();
+        final int version = messageHeader.version();
+        final int bodyOffset = offset + MessageHeaderDecoder.ENCODED_LENGTH;
+
+        switch (templateId)
+        {
+            case FixMessageDecoder.TEMPLATE_ID:
+            {
+                fixMessage.wrap(buffer, bodyOffset, blockLength, version);
+                if (fixMessage.status() == OK)
+                {
+                    final boolean unfragmented = (flags & UNFRAGMENTED) == UNFRAGMENTED;
+                    onFixMessage(buffer, offset, length, bodyOffset + blockLength, version, unfragmented);
+                }
+                break;
+            }
+
+            case ResetSequenceNumberDecoder.TEMPLATE_ID:
+            {
+                resetSequenceNumber.wrap(buffer, bodyOffset, blockLength, version);
+                clear(resetSequenceNumber.session());
+                break;
+            }
+
+            case RedactSequenceUpdateDecoder.TEMPLATE_ID:
+            {
+                redactSequenceUpdate.wrap(buffer, bodyOffset, blockLength, version);
+                clear(redactSequenceUpdate.session());
+                break;
+            }
+        }
+    }
+
+    private void onFixMessage(
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final int metaDataOffset,
+        final int version,
+        final boolean unfragmented)
+    {
+        final long sessionId = fixMessage.session();
+        if (!unfragmented || length > sessionCacheSize - RECORD_HEADER_LENGTH)
+        {
+            clear(sessionId);
+            return;
+        }
+
+        int messageOffset = metaDataOffset;
+        if (version >= metaDataSinceVersion())
+        {
+            messageOffset += metaDataHeaderLength() + fixMessage.metaDataLength();
+            fixMessage.skipMetaData();
+        }
+        messageOffset += bodyHeaderLength();
+
+        final int sequenceNumber = sequenceNumberExtractor.extract(buffer, messageOffset, fixMessage.bodyLength());
+        if (sequenceNumber == NO_SEQUENCE_NUMBER)
+        {
+            return;
+        }
+
+        SessionCache sessionCache = sessionIdToCache.get(sessionId);
+        if (sessionCache == null)
+        {
+            sessionCache = newSessionCache(sessionId);
+        }
+
+        sessionCache.lastUsed = ++useCount;
+        sessionCache.append(buffer, offset, length, sequenceNumber, fixMessage.sequenceIndex());
+    }
+
+    private SessionCache newSessionCache(final long sessionId)
+    {
+        final Long2ObjectHashMap<SessionCache> sessionIdToCache = this.sessionIdToCache;
+        final SessionCache sessionCache;
+        if (sessionIdToCache.size() < maxCachedSessions)
+        {
+            sessionCache = new SessionCache(sessionCacheSize);
+        }
+        else
+        {
+            sessionCache = leastRecentlyUsed();
+            sessionIdToCache.remove(sessionCache.sessionId);
+        }
+
+        sessionCache.sessionId = sessionId;
+        sessionCache.clear();
+        sessionIdToCache.put(sessionId, sessionCache);
+
+        return sessionCache;
+    }
+
+    private SessionCache leastRecentlyUsed()
+    {
+        SessionCache leastRecentlyUsed = null;
+        for (final SessionCache sessionCache : sessionIdToCache.values())
+        {
+            if (leastRecentlyUsed == null || sessionCache.lastUsed < leastRecentlyUsed.lastUsed)
+            {
+                leastRecentlyUsed = sessionCache;
+            }
+        }
+        return leastRecentlyUsed;
+    }
+
+    private void clear(final long sessionId)
+    {
+        final SessionCache sessionCache = sessionIdToCache.get(sessionId);
+        if (sessionCache != null)
+        {
+            sessionCache.clear();
+        }
+    }
+
+    /**
+     * Start replaying a range of a session's messages from the cache, if the whole range is cached.
+     *
+     * @param sessionId the session whose messages are replayed.
+     * @param sequenceIndex the sequence index of the range.
+     * @param beginSeqNo the first sequence number of the range.
+     * @param endSeqNo the last sequence number of the range, inclusive.
+     * @param handler the handler that the cached fragments are passed to, with a null {@link Header}.
+     * @return the replay, or null if the range isn't fully cached and the archive should be replayed instead.
+     */
+    Replay replay(
+        final long sessionId,
+        final int sequenceIndex,
+        final int beginSeqNo,
+        final int endSeqNo,
+        final ControlledFragmentHandler handler)
+    {
+        final SessionCache sessionCache = sessionIdToCache.get(sessionId);
+        if (sessionCache != null && sessionCache.contains(sequenceIndex, beginSeqNo, endSeqNo))
+        {
+            hits.increment();
+            sessionCache.lastUsed = ++useCount;
+            return new Replay(
+                sessionCache, sessionId, sessionCache.positionOf(beginSeqNo), endSeqNo - beginSeqNo + 1, handler);
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    public void onCatchup(
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final Header header,
+        final long recordingId)
+    {
+        // Only populated from live traffic, messages sent before a restart are replayed from the archive.
+    }
+
+    public void readLastPosition(final IndexedPositionConsumer consumer)
+    {
+        // Nothing is persisted, so there's nothing to catch up on.
+    }
+
+    public void close()
+    {
+        sessionIdToCache.clear();
+    }
+
+    /**
+     * A replay of cached messages that can be continued if its handler aborts.
+     */
+    static final class Replay
+    {
+        private final SessionCache sessionCache;
+        private final long sessionId;
+        private final ControlledFragmentHandler handler;
+
+        private long position;
+        private int remainingMessages;
+        private int replayedMessages;
+        private boolean evicted;
+
+        private Replay(
+            final SessionCache sessionCache,
+            final long sessionId,
+            final long position,
+            final int remainingMessages,
+            final ControlledFragmentHandler handler)
+        {
+            this.sessionCache = sessionCache;
+            this.sessionId = sessionId;
+            this.position = position;
+            this.remainingMessages = remainingMessages;
+            this.handler = handler;
+        }
+
+        /**
+         * Attempt a replay step.
+         *
+         * @return true if complete, either because every message has been replayed or because the remaining
+         * messages have been evicted from the cache.
+         */
+        boolean attemptReplay()
+        {
+            final SessionCache sessionCache = this.sessionCache;
+            final UnsafeBuffer buffer = sessionCache.buffer;
+
+            while (remainingMessages > 0)
+            {
+                if (!sessionCache.holds(sessionId, position))
+                {
+                    evicted = true;
+                    return true;
+                }
+
+                final int index = sessionCache.index(position);
+                final int recordLength = buffer.getInt(index + RECORD_LENGTH_OFFSET);
+                final int frameLength = buffer.getInt(index + FRAME_LENGTH_OFFSET);
+                if (frameLength == PADDING_FRAME_LENGTH)
+                {
+                    position += recordLength;
+                    continue;
+                }
+
+                final Action action = handler.onFragment(buffer, index + RECORD_HEADER_LENGTH, frameLength, null);
+                if (action == ABORT)
+                {
+                    return false;
+                }
+
+                position += recordLength;
+                remainingMessages--;
+                replayedMessages++;
+
+                if (action == BREAK)
+                {
+                    return remainingMessages == 0;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Whether the replay stopped early because messages were evicted before they could be replayed.
+         *
+         * @return true if the replay stopped early.
+         */
+        boolean evicted()
+        {
+            return evicted;
+        }
+
+        int replayedMessages()
+        {
+            return replayedMessages;
+        }
+    }
+
+    /**
+     * Positions only ever increase, even when the cache is cleared or reused for another session, so that a
+     * {@link Replay} can tell when its messages have been evicted.
+     */
+    private static final class SessionCache
+    {
+        private final UnsafeBuffer buffer;
+        private final int capacity;
+
+        private long sessionId = NO_SESSION;
+        private long lastUsed;
+        private long headPosition;
+        private long tailPosition;
+        private int sequenceIndex;
+        private int firstSequenceNumber;
+        private int lastSequenceNumber;
+
+        SessionCache(final int capacity)
+        {
+            this.capacity = capacity;
+            buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(capacity));
+        }
+
+        void append(
+            final DirectBuffer srcBuffer,
+            final int srcOffset,
+            final int srcLength,
+            final int sequenceNumber,
+            final int sequenceIndex)
+        {
+            if (isEmpty() || sequenceIndex != this.sequenceIndex || sequenceNumber != lastSequenceNumber + 1)
+            {
+                clear();
+                this.sequenceIndex = sequenceIndex;
+                firstSequenceNumber = sequenceNumber;
+            }
+
+            final int recordLength = align(RECORD_HEADER_LENGTH + srcLength, RECORD_ALIGNMENT);
+            int index = index(tailPosition);
+            final int remaining = capacity - index;
+            int paddingLength = recordLength > remaining ? remaining : 0;
+            while (tailPosition + paddingLength + recordLength - headPosition > capacity)
+            {
+                if (isEmpty())
+                {
+                    clear();
+                    index = 0;
+                    paddingLength = 0;
+                }
+                else
+                {
+                    removeHead();
+                }
+            }
+
+            final UnsafeBuffer buffer = this.buffer;
+            if (paddingLength > 0)
+            {
+                buffer.putInt(index + RECORD_LENGTH_OFFSET, paddingLength);
+                buffer.putInt(index + FRAME_LENGTH_OFFSET, PADDING_FRAME_LENGTH);
+                tailPosition += paddingLength;
+                index = 0;
+            }
+
+            buffer.putInt(index + RECORD_LENGTH_OFFSET, recordLength);
+            buffer.putInt(index + FRAME_LENGTH_OFFSET, srcLength);
+            buffer.putBytes(index + RECORD_HEADER_LENGTH, srcBuffer, srcOffset, srcLength);
+            tailPosition += recordLength;
+            lastSequenceNumber = sequenceNumber;
+        }
+
+        private void removeHead()
+        {
+            final int index = index(headPosition);
+            if (buffer.getInt(index + FRAME_LENGTH_OFFSET) != PADDING_FRAME_LENGTH)
+            {
+                firstSequenceNumber++;
+            }
+            headPosition += buffer.getInt(index + RECORD_LENGTH_OFFSET);
+        }
+
+        // Starts the next lap of the buffer so that the empty cache has all of its capacity available
+        void clear()
+        {
+            final int index = index(tailPosition);
+            tailPosition += index == 0 ? 0 : capacity - index;
+            headPosition = tailPosition;
+        }
+
+        boolean isEmpty()
+        {
+            return headPosition == tailPosition;
+        }
+
+        boolean contains(final int sequenceIndex, final int beginSeqNo, final int endSeqNo)
+        {
+            return !isEmpty() &&
+                sequenceIndex == this.sequenceIndex &&
+                beginSeqNo <= endSeqNo &&
+                beginSeqNo >= firstSequenceNumber &&
+                endSeqNo <= lastSequenceNumber;
+        }
+
+        long positionOf(final int sequenceNumber)
+        {
+            final UnsafeBuffer buffer = this.buffer;
+            long position = headPosition;
+            int skippedMessages = sequenceNumber - firstSequenceNumber;
+            while (true)
+            {
+                final int index = index(position);
+                final boolean padding = buffer.getInt(index + FRAME_LENGTH_OFFSET) == PADDING_FRAME_LENGTH;
+                if (!padding)
+                {
+                    if (skippedMessages == 0)
+                    {
+                        return position;
+                    }
+                    skippedMessages--;
+                }
+                position += buffer.getInt(index + RECORD_LENGTH_OFFSET);
+            }
+        }
+
+        boolean holds(final long sessionId, final long position)
+        {
+            return this.sessionId == sessionId && position >= headPosition && position < tailPosition;
+        }
+
+        int index(final long position)
+        {
+            return (int)(position % capacity);
+        }
+    }
+}
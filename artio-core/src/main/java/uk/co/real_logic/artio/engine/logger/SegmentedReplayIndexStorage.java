@@ -0,0 +1,333 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.BitUtil;
+import org.agrona.IoUtil;
+import org.agrona.LangUtil;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.collections.LongHashSet;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static uk.co.real_logic.artio.engine.ByteBufferUtil.limit;
+import static uk.co.real_logic.artio.engine.ByteBufferUtil.position;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+
+/**
+ * Stores the replay indices of many FIX sessions in a small number of segment files at
+ * {@link ReplayIndexDescriptor#replayIndexSegmentFile(String, int, int)}, rather than a file per session.
+ *
+ * Each segment file starts with a directory of the sessions stored in it, followed by a slot per session. Slots have
+ * the same layout as a per session index file at its maximum size, so indices never grow. Segment files are created
+ * sparse, so slots only use disk space as they're written to.
+ *
+ * Slots are allocated in order and never freed. Readers can therefore cache where a session's index is stored and
+ * only need to read directory entries that they haven't seen yet in order to find new sessions.
+ *
+ * Deleting a session's index leaves its records in place, rather than writing over the whole slot, and advances the
+ * slot's change positions to the start of its next lap. That position is kept as the slot's reset position, readers
+ * ignore the records before it.
+ *
+ * Directory entries consist of:
+ *
+ * FIX session id (long)
+ * State (int), written after the session id and the slot's header
+ * Reset position (long), written before the slot's change positions
+ */
+public class SegmentedReplayIndexStorage implements ReplayIndexStorage
+{
+    private static final int SESSION_ID_OFFSET = 0;
+    private static final int STATE_OFFSET = SESSION_ID_OFFSET + BitUtil.SIZE_OF_LONG;
+    private static final int RESET_POSITION_OFFSET = STATE_OFFSET + BitUtil.SIZE_OF_LONG;
+    private static final int DIRECTORY_ENTRY_LENGTH = RESET_POSITION_OFFSET + BitUtil.SIZE_OF_LONG;
+    private static final int DIRECTORY_ALIGNMENT = 4096;
+    private static final int SLOT_IN_USE = 1;
+    private static final long NO_SLOT = -1;
+
+    private final Long2LongHashMap fixSessionIdToSlot = new Long2LongHashMap(NO_SLOT);
+    private final List<UnsafeBuffer> segments = new ArrayList<>();
+
+    private final String logFileDir;
+    private final int streamId;
+    private final int slotSize;
+    private final int slotsPerSegment;
+    private final int directoryLength;
+    private final long segmentFileSize;
+
+    private int slotCount;
+
+    public SegmentedReplayIndexStorage(
+        final String logFileDir,
+        final int streamId,
+        final int indexFileSize,
+        final int slotsPerSegment)
+    {
+        checkIndexFileSize(indexFileSize);
+        if (slotsPerSegment <= 0)
+        {
+            throw new IllegalArgumentException("slotsPerSegment must be positive: " + slotsPerSegment);
+        }
+
+        this.logFileDir = logFileDir;
+        this.streamId = streamId;
+        this.slotSize = indexFileSize;
+        this.slotsPerSegment = slotsPerSegment;
+
+        directoryLength = BitUtil.align(slotsPerSegment * DIRECTORY_ENTRY_LENGTH, DIRECTORY_ALIGNMENT);
+        segmentFileSize = directoryLength + (long)slotsPerSegment * slotSize;
+        if (segmentFileSize > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException(String.format(
+                "Replay index segments of %d slots of %d bytes are too large to map, reduce the slots per segment",
+                slotsPerSegment,
+                slotSize));
+        }
+
+        readNewDirectoryEntries();
+    }
+
+    public boolean exists(final long fixSessionId)
+    {
+        return fixSessionIdToSlot.containsKey(fixSessionId);
+    }
+
+    public ByteBuffer map(final long fixSessionId, final int size)
+    {
+        long slot = fixSessionIdToSlot.get(fixSessionId);
+        if (slot == NO_SLOT)
+        {
+            slot = allocateSlot(fixSessionId);
+        }
+
+        return slotBuffer((int)slot);
+    }
+
+    public ByteBuffer grow(final long fixSessionId, final ByteBuffer buffer, final int size)
+    {
+        // Slots are always mapped at their maximum size.
+        return buffer;
+    }
+
+    public ByteBuffer mapExisting(final long fixSessionId)
+    {
+        long slot = fixSessionIdToSlot.get(fixSessionId);
+        if (slot == NO_SLOT)
+        {
+            readNewDirectoryEntries();
+            slot = fixSessionIdToSlot.get(fixSessionId);
+            if (slot == NO_SLOT)
+            {
+                throw new IllegalStateException(
+                    "Missing replay index for session " + fixSessionId + " on stream " + streamId);
+            }
+        }
+
+        return slotBuffer((int)slot);
+    }
+
+    public boolean hasGrown(final long fixSessionId, final ByteBuffer buffer)
+    {
+        return false;
+    }
+
+    public void unmap(final ByteBuffer buffer)
+    {
+        // Slots share their segment's mapping, which stays mapped until this is closed.
+    }
+
+    public void delete(final long fixSessionId)
+    {
+        final long slot = fixSessionIdToSlot.get(fixSessionId);
+        if (slot != NO_SLOT)
+        {
+            final UnsafeBuffer segment = segments.get(segmentIndex((int)slot));
+            final UnsafeBuffer index = new UnsafeBuffer(segment, slotOffset((int)slot), slotSize);
+
+            // Change positions only ever increase, so that readers can tell when they've been lapped.
+            final long recordCapacity = recordCapacity(slotSize);
+            final long resetPosition = (beginChange(index) + recordCapacity - 1) & ~(recordCapacity - 1);
+            segment.putLongOrdered(directoryEntryOffset((int)slot) + RESET_POSITION_OFFSET, resetPosition);
+            beginChangeOrdered(index, resetPosition);
+            endChangeOrdered(index, resetPosition);
+        }
+    }
+
+    public long resetPosition(final long fixSessionId)
+    {
+        final long slot = fixSessionIdToSlot.get(fixSessionId);
+        if (slot == NO_SLOT)
+        {
+            return 0;
+        }
+
+        final UnsafeBuffer segment = segments.get(segmentIndex((int)slot));
+        return segment.getLongVolatile(directoryEntryOffset((int)slot) + RESET_POSITION_OFFSET);
+    }
+
+    public LongHashSet listSessionIds()
+    {
+        readNewDirectoryEntries();
+
+        final LongHashSet sessionIds = new LongHashSet();
+        final Long2LongHashMap.KeyIterator it = fixSessionIdToSlot.keySet().iterator();
+        while (it.hasNext())
+        {
+            sessionIds.add(it.nextValue());
+        }
+        return sessionIds;
+    }
+
+    public void close()
+    {
+        for (final UnsafeBuffer segment : segments)
+        {
+            IoUtil.unmap(segment.byteBuffer());
+        }
+        segments.clear();
+    }
+
+    private void readNewDirectoryEntries()
+    {
+        while (true)
+        {
+            final int segmentIndex = segmentIndex(slotCount);
+            if (segmentIndex == segments.size() && !mapSegment(segmentIndex))
+            {
+                return;
+            }
+
+            final UnsafeBuffer segment = segments.get(segmentIndex);
+            final int entryOffset = directoryEntryOffset(slotCount);
+            if (segment.getIntVolatile(entryOffset + STATE_OFFSET) != SLOT_IN_USE)
+            {
+                return;
+            }
+
+            fixSessionIdToSlot.put(segment.getLong(entryOffset + SESSION_ID_OFFSET), slotCount);
+            slotCount++;
+        }
+    }
+
+    private long allocateSlot(final long fixSessionId)
+    {
+        final int slot = slotCount;
+        final int segmentIndex = segmentIndex(slot);
+        if (segmentIndex == segments.size())
+        {
+            createSegment(segmentIndex);
+        }
+
+        final UnsafeBuffer segment = segments.get(segmentIndex);
+        final ReplayIndexRecordEncoder replayIndexRecord = new ReplayIndexRecordEncoder();
+        new MessageHeaderEncoder()
+            .wrap(segment, slotOffset(slot))
+            .blockLength(replayIndexRecord.sbeBlockLength())
+            .templateId(replayIndexRecord.sbeTemplateId())
+            .schemaId(replayIndexRecord.sbeSchemaId())
+            .version(replayIndexRecord.sbeSchemaVersion());
+
+        final int entryOffset = directoryEntryOffset(slot);
+        segment.putLong(entryOffset + SESSION_ID_OFFSET, fixSessionId);
+        segment.putIntOrdered(entryOffset + STATE_OFFSET, SLOT_IN_USE);
+
+        fixSessionIdToSlot.put(fixSessionId, slot);
+        slotCount++;
+        return slot;
+    }
+
+    // Segment files are only renamed into place once they've reached their full size, so readers never map a
+    // partially created segment.
+    private void createSegment(final int segmentIndex)
+    {
+        final File segmentFile = segmentFile(segmentIndex);
+        final File newSegmentFile = new File(segmentFile.getPath() + ".new");
+        try (RandomAccessFile file = new RandomAccessFile(newSegmentFile, "rw"))
+        {
+            file.setLength(segmentFileSize);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+
+        if (!newSegmentFile.renameTo(segmentFile))
+        {
+            throw new IllegalStateException("Unable to create replay index segment file: " + segmentFile);
+        }
+
+        mapSegment(segmentIndex);
+    }
+
+    private boolean mapSegment(final int segmentIndex)
+    {
+        final File segmentFile = segmentFile(segmentIndex);
+        if (!segmentFile.exists())
+        {
+            return false;
+        }
+
+        if (segmentFile.length() != segmentFileSize)
+        {
+            throw new IllegalStateException(String.format(
+                "Replay index segment file %s is %d bytes but %d bytes are configured, " +
+                "was it written with a different replay index file size or number of slots per segment?",
+                segmentFile,
+                segmentFile.length(),
+                segmentFileSize));
+        }
+
+        segments.add(new UnsafeBuffer(LoggerUtil.mapExistingFile(segmentFile)));
+        return true;
+    }
+
+    private ByteBuffer slotBuffer(final int slot)
+    {
+        final ByteBuffer buffer = segments.get(segmentIndex(slot)).byteBuffer().duplicate();
+        final int offset = slotOffset(slot);
+        limit(buffer, offset + slotSize);
+        position(buffer, offset);
+        return buffer.slice();
+    }
+
+    private File segmentFile(final int segmentIndex)
+    {
+        return replayIndexSegmentFile(logFileDir, segmentIndex, streamId);
+    }
+
+    private int segmentIndex(final int slot)
+    {
+        return slot / slotsPerSegment;
+    }
+
+    private int directoryEntryOffset(final int slot)
+    {
+        return (slot % slotsPerSegment) * DIRECTORY_ENTRY_LENGTH;
+    }
+
+    private int slotOffset(final int slot)
+    {
+        return directoryLength + (slot % slotsPerSegment) * slotSize;
+    }
+}
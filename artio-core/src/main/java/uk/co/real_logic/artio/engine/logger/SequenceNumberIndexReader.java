@@ -19,6 +19,7 @@ import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
+import org.agrona.collections.Long2LongHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import uk.co.real_logic.artio.engine.SectorFramer;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
@@ -39,8 +40,18 @@ import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor
 import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder.BLOCK_LENGTH;
 import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder.SCHEMA_VERSION;
 
+/**
+ * Reads the last known sequence numbers written by a {@link SequenceNumberIndexWriter}.
+ * <p>
+ * Record offsets are cached by session id. Since the writer only ever appends records, only the records after
+ * the last one that was cached need to be scanned when a session isn't found. Resetting the index rewrites records
+ * from the start of the file, so a cached record that no longer belongs to its session or a session that isn't found
+ * after the last cached record causes the cache to be rebuilt from the start of the file.
+ */
 public class SequenceNumberIndexReader implements AutoCloseable
 {
+    private static final long MISSING_RECORD = -1L;
+
     private final MessageHeaderDecoder fileHeaderDecoder = new MessageHeaderDecoder();
     private final LastKnownSequenceNumberDecoder lastKnownDecoder = new LastKnownSequenceNumberDecoder();
     private final AtomicBuffer inMemoryBuffer;
@@ -49,6 +60,9 @@ public class SequenceNumberIndexReader implements AutoCloseable
     private final ErrorHandler errorHandler;
     private final RecordingIdLookup recordingIdLookup;
     private final RandomAccessFile metaDataFile;
+    private final Long2LongHashMap recordOffsets = new Long2LongHashMap(MISSING_RECORD);
+
+    private int nextRecordOffset = HEADER_SIZE;
 
     public SequenceNumberIndexReader(
         final AtomicBuffer inMemoryBuffer,
@@ -86,26 +100,80 @@ public class SequenceNumberIndexReader implements AutoCloseable
 
     public int lastKnownSequenceNumber(final long sessionId)
     {
-        int position = SequenceNumberIndexDescriptor.HEADER_SIZE;
-        while (true)
+        final int recordOffset = recordOffset(sessionId);
+        if (recordOffset == MISSING_RECORD)
+        {
+            return UNK_SESSION;
+        }
+
+        lastKnownDecoder.wrap(inMemoryBuffer, recordOffset, BLOCK_LENGTH, SCHEMA_VERSION);
+        return lastKnownDecoder.sequenceNumber();
+    }
+
+    private int recordOffset(final long sessionId)
+    {
+        final int recordOffset = (int)recordOffsets.get(sessionId);
+        if (recordOffset != MISSING_RECORD)
         {
-            position = sectorFramer.claim(position, RECORD_SIZE);
-            if (position == OUT_OF_SPACE)
+            if (sessionIdAt(recordOffset) == sessionId)
             {
-                return UNK_SESSION;
+                return recordOffset;
             }
 
-            lastKnownDecoder.wrap(inMemoryBuffer, position, BLOCK_LENGTH, SCHEMA_VERSION);
+            clearRecordOffsets();
+        }
+
+        final int newRecordOffset = indexNewRecords(sessionId);
+        if (newRecordOffset == MISSING_RECORD && nextRecordOffset != HEADER_SIZE)
+        {
+            // The cached records may have been rewritten by a reset, so rescan them
+            clearRecordOffsets();
+            return indexNewRecords(sessionId);
+        }
+
+        return newRecordOffset;
+    }
 
-            if (lastKnownDecoder.sessionId() == sessionId)
+    private int indexNewRecords(final long sessionId)
+    {
+        int position = nextRecordOffset;
+        while (true)
+        {
+            final int recordOffset = sectorFramer.claim(position, RECORD_SIZE);
+            if (recordOffset == OUT_OF_SPACE)
+            {
+                return (int)MISSING_RECORD;
+            }
+
+            final long recordSessionId = sessionIdAt(recordOffset);
+            if (recordSessionId == 0)
             {
-                return lastKnownDecoder.sequenceNumber();
+                return (int)MISSING_RECORD;
             }
 
-            position += RECORD_SIZE;
+            recordOffsets.put(recordSessionId, recordOffset);
+            position = recordOffset + RECORD_SIZE;
+            nextRecordOffset = position;
+
+            if (recordSessionId == sessionId)
+            {
+                return recordOffset;
+            }
         }
     }
 
+    private long sessionIdAt(final int recordOffset)
+    {
+        lastKnownDecoder.wrap(inMemoryBuffer, recordOffset, BLOCK_LENGTH, SCHEMA_VERSION);
+        return lastKnownDecoder.sessionId();
+    }
+
+    private void clearRecordOffsets()
+    {
+        recordOffsets.clear();
+        nextRecordOffset = HEADER_SIZE;
+    }
+
     public long indexedPosition(final int aeronSessionId)
     {
         final long recordingId = recordingIdLookup.findRecordingId(aeronSessionId);
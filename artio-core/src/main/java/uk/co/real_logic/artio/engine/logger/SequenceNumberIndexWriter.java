@@ -42,6 +42,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -57,6 +58,9 @@ import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEnc
 /**
  * Writes updates into an in-memory buffer. This buffer is then flushed down to disk. A passing place
  * file is used to ensure that there's a recoverable option if it fails.
+ * <p>
+ * The offset of every session's record is indexed when the file is loaded and new records are always appended
+ * at the end of the existing ones, so neither updating nor creating a record needs to scan the buffer.
  */
 public class SequenceNumberIndexWriter implements Index
 {
@@ -104,7 +108,12 @@ public class SequenceNumberIndexWriter implements Index
 
     private MappedFile writableFile;
     private MappedFile indexFile;
+    // The writable file lags the index file by one flush, so a flush has to copy the sectors modified since the
+    // previous flush as well as the ones modified since this one.
+    private BitSet dirtySectors = new BitSet();
+    private BitSet previouslyDirtySectors = new BitSet();
     private long nextRollPosition = UNINITIALISED;
+    private int nextRecordOffset = SequenceNumberIndexDescriptor.HEADER_SIZE;
 
     private final EpochClock clock;
     private final long indexFileStateFlushTimeoutInMs;
@@ -145,11 +154,13 @@ public class SequenceNumberIndexWriter implements Index
 
         // TODO: Fsync parent directory
         indexedPositionsOffset = positionTableOffset(fileCapacity);
+        copyAllSectorsOnNextTwoFlushes();
         checksumFramer = new ChecksumFramer(
             inMemoryBuffer, indexedPositionsOffset, errorHandler, 0, "SequenceNumberIndex");
         try
         {
             initialiseBuffer();
+            indexRecordOffsets();
             positionWriter = new IndexedPositionWriter(
                 positionsBuffer(inMemoryBuffer, indexedPositionsOffset),
                 errorHandler,
@@ -525,6 +536,7 @@ public class SequenceNumberIndexWriter implements Index
         inMemoryBuffer.setMemory(0, indexedPositionsOffset, (byte)0);
         initialiseBlankBuffer();
         recordOffsets.clear();
+        nextRecordOffset = SequenceNumberIndexDescriptor.HEADER_SIZE;
         resetMetaDataFile();
     }
 
@@ -560,19 +572,48 @@ public class SequenceNumberIndexWriter implements Index
         }
     }
 
-    private void updateFile()
+    void updateFile()
     {
-        checksumFramer.updateChecksums();
-        positionWriter.updateChecksums();
+        updateChecksums();
         saveFile();
-        flipFiles();
+        if (flipFiles())
+        {
+            final BitSet dirtySectors = this.previouslyDirtySectors;
+            previouslyDirtySectors = this.dirtySectors;
+            dirtySectors.clear();
+            this.dirtySectors = dirtySectors;
+        }
+        else
+        {
+            copyAllSectorsOnNextTwoFlushes();
+        }
         hasSavedRecordSinceFileUpdate = false;
         lastUpdatedFileTimeInMs = clock.time();
     }
 
+    private void updateChecksums()
+    {
+        final BitSet dirtySectors = this.dirtySectors;
+        final ChecksumFramer checksumFramer = this.checksumFramer;
+        for (int sector = dirtySectors.nextSetBit(0); sector >= 0; sector = dirtySectors.nextSetBit(sector + 1))
+        {
+            checksumFramer.updateChecksum(sector);
+        }
+        positionWriter.updateDirtyChecksums(dirtySectors, indexedPositionsOffset / SECTOR_SIZE);
+    }
+
     private void saveFile()
     {
-        writableFile.buffer().putBytes(0, inMemoryBuffer, 0, fileCapacity);
+        final AtomicBuffer writableBuffer = writableFile.buffer();
+        final AtomicBuffer inMemoryBuffer = this.inMemoryBuffer;
+        final int fileCapacity = this.fileCapacity;
+        final BitSet sectorsToCopy = previouslyDirtySectors;
+        sectorsToCopy.or(dirtySectors);
+        for (int sector = sectorsToCopy.nextSetBit(0); sector >= 0; sector = sectorsToCopy.nextSetBit(sector + 1))
+        {
+            final int offset = sector * SECTOR_SIZE;
+            writableBuffer.putBytes(offset, inMemoryBuffer, offset, Math.min(SECTOR_SIZE, fileCapacity - offset));
+        }
         writableFile.force();
         syncMetaDataFile();
     }
@@ -592,7 +633,7 @@ public class SequenceNumberIndexWriter implements Index
         }
     }
 
-    private void flipFiles()
+    private boolean flipFiles()
     {
         if (RUNNING_ON_WINDOWS)
         {
@@ -616,6 +657,22 @@ public class SequenceNumberIndexWriter implements Index
             writableFile = indexFile;
             indexFile = file;
         }
+
+        return flipsFiles;
+    }
+
+    // We don't know what state the writable file is in, eg: at startup or after a failed flip. The first flush
+    // brings it up to date, but then it's flipped with the index file, which has to be brought up to date by the
+    // following flush.
+    private void copyAllSectorsOnNextTwoFlushes()
+    {
+        dirtySectors.set(0, sectorCount());
+        previouslyDirtySectors.set(0, sectorCount());
+    }
+
+    private int sectorCount()
+    {
+        return (fileCapacity + SECTOR_SIZE - 1) / SECTOR_SIZE;
     }
 
     private boolean rename(final Path src, final Path dest)
@@ -682,46 +739,54 @@ public class SequenceNumberIndexWriter implements Index
         final long messagePosition,
         final long requiredPosition)
     {
-        int position = (int)recordOffsets.get(sessionId);
-        if (position == MISSING_RECORD)
+        final int recordOffset = (int)recordOffsets.get(sessionId);
+        if (recordOffset != MISSING_RECORD)
         {
-            position = SequenceNumberIndexDescriptor.HEADER_SIZE;
-            while (true)
-            {
-                position = checksumFramer.claim(position, RECORD_SIZE);
-                if (position == OUT_OF_SPACE)
-                {
-                    errorHandler.onError(new IllegalStateException(
-                        "Sequence Number Index out of space, can't claim slot for " + sessionId));
-                    return position;
-                }
+            updateSequenceNumber(newSequenceNumber, recordOffset, messagePosition, requiredPosition);
+            return recordOffset;
+        }
 
-                lastKnownDecoder.wrap(inMemoryBuffer, position, RECORD_SIZE, SCHEMA_VERSION);
-                if (lastKnownDecoder.sessionId() == 0)
-                {
-                    // Don't redact if there's nothing to redact
-                    if (requiredPosition == NO_REQUIRED_POSITION)
-                    {
-                        createNewRecord(newSequenceNumber, sessionId, position, messagePosition);
-                        hasSavedRecordSinceFileUpdate = true;
-                    }
-                    return position;
-                }
-                else if (lastKnownDecoder.sessionId() == sessionId)
-                {
-                    recordOffsets.put(sessionId, position);
-                    updateSequenceNumber(newSequenceNumber, position, messagePosition, requiredPosition);
-                    return position;
-                }
+        final int position = checksumFramer.claim(nextRecordOffset, RECORD_SIZE);
+        if (position == OUT_OF_SPACE)
+        {
+            errorHandler.onError(new IllegalStateException(
+                "Sequence Number Index out of space, can't claim slot for " + sessionId));
+            return position;
+        }
 
-                position += RECORD_SIZE;
-            }
+        // Don't redact if there's nothing to redact
+        if (requiredPosition == NO_REQUIRED_POSITION)
+        {
+            createNewRecord(newSequenceNumber, sessionId, position, messagePosition);
+            nextRecordOffset = position + RECORD_SIZE;
+            hasSavedRecordSinceFileUpdate = true;
         }
-        else
+        return position;
+    }
+
+    private void indexRecordOffsets()
+    {
+        int position = SequenceNumberIndexDescriptor.HEADER_SIZE;
+        while (true)
         {
-            updateSequenceNumber(newSequenceNumber, position, messagePosition, requiredPosition);
-            return position;
+            final int recordOffset = checksumFramer.claim(position, RECORD_SIZE);
+            if (recordOffset == OUT_OF_SPACE)
+            {
+                break;
+            }
+
+            lastKnownDecoder.wrap(inMemoryBuffer, recordOffset, RECORD_SIZE, SCHEMA_VERSION);
+            final long sessionId = lastKnownDecoder.sessionId();
+            if (sessionId == 0)
+            {
+                break;
+            }
+
+            recordOffsets.put(sessionId, recordOffset);
+            position = recordOffset + RECORD_SIZE;
         }
+
+        nextRecordOffset = position;
     }
 
     private void updateSequenceNumber(
@@ -812,6 +877,8 @@ public class SequenceNumberIndexWriter implements Index
             lastKnownEncoder.sbeSchemaVersion(),
             lastKnownEncoder.sbeBlockLength(),
             errorHandler);
+        // Even empty sectors need their checksums to be valid
+        dirtySectors.set(0, indexedPositionsOffset / SECTOR_SIZE);
     }
 
     private boolean fileHasBeenInitialized(final AtomicBuffer fileBuffer)
@@ -856,6 +923,7 @@ public class SequenceNumberIndexWriter implements Index
         final long value)
     {
         inMemoryBuffer.putLongOrdered(recordOffset + MESSAGE_POSITION_OFFSET, value);
+        dirtySectors.set(recordOffset / SECTOR_SIZE);
     }
 
     private void putSequenceNumber(
@@ -863,6 +931,7 @@ public class SequenceNumberIndexWriter implements Index
         final int value)
     {
         inMemoryBuffer.putIntOrdered(recordOffset + SEQUENCE_NUMBER_OFFSET, value);
+        dirtySectors.set(recordOffset / SECTOR_SIZE);
     }
 
     private int getSequenceNumber(final int recordOffset)
@@ -880,6 +949,7 @@ public class SequenceNumberIndexWriter implements Index
         final int value)
     {
         inMemoryBuffer.putIntOrdered(recordOffset + META_DATA_OFFSET, value);
+        dirtySectors.set(recordOffset / SECTOR_SIZE);
     }
 
     private int getMetaData(
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.collections.Long2ObjectCache;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * A {@link LoggerCache} backed by a set associative {@link Long2ObjectCache}. Lookups are cheap but keys are evicted
+ * whenever their set is full, however often they're used, so it can thrash when there are many more sessions than
+ * {@code numSets * setSize}.
+ *
+ * @param <V> the type of the values held in the cache.
+ */
+public class SetAssociativeLoggerCache<V> implements LoggerCache<V>
+{
+    private final Long2ObjectCache<V> cache;
+
+    public SetAssociativeLoggerCache(final int numSets, final int setSize, final Consumer<V> evictionConsumer)
+    {
+        cache = new Long2ObjectCache<>(numSets, setSize, evictionConsumer);
+    }
+
+    public V computeIfAbsent(final long key, final LongFunction<? extends V> mappingFunction)
+    {
+        return cache.computeIfAbsent(key, mappingFunction);
+    }
+
+    public V remove(final long key)
+    {
+        return cache.remove(key);
+    }
+
+    public void forEach(final Consumer<? super V> consumer)
+    {
+        cache.values().forEach(consumer);
+    }
+
+    public void clear()
+    {
+        cache.clear();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.collections.Hashing;
+
+import java.io.File;
+
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * A sparse index of the archived messages of a stream, written by the {@link TimeIndexWriter}.
+ * <p>
+ * The file is a series of fixed length records, each of which summarises a block of a recording:
+ * <p>
+ * Recording Id
+ * Start Position
+ * End Position
+ * Min Timestamp
+ * Max Timestamp
+ * Message Type Filter
+ * Session Id Filter
+ * Aeron Session Id (padded to a long)
+ * <p>
+ * The filters are bitsets with a bit set for the hash of every message type or session id within the block, so
+ * a block whose filter doesn't have a value's bit set doesn't contain that value.
+ */
+final class TimeIndexDescriptor
+{
+    static final int RECORDING_ID_OFFSET = 0;
+    static final int START_POSITION_OFFSET = RECORDING_ID_OFFSET + SIZE_OF_LONG;
+    static final int END_POSITION_OFFSET = START_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int MIN_TIMESTAMP_OFFSET = END_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int MAX_TIMESTAMP_OFFSET = MIN_TIMESTAMP_OFFSET + SIZE_OF_LONG;
+    static final int MESSAGE_TYPE_FILTER_OFFSET = MAX_TIMESTAMP_OFFSET + SIZE_OF_LONG;
+    static final int SESSION_ID_FILTER_OFFSET = MESSAGE_TYPE_FILTER_OFFSET + SIZE_OF_LONG;
+
+    static final int SESSION_ID_FILTER_WORDS = 4;
+    static final int AERON_SESSION_ID_OFFSET = SESSION_ID_FILTER_OFFSET + SESSION_ID_FILTER_WORDS * SIZE_OF_LONG;
+    static final int RECORD_LENGTH = AERON_SESSION_ID_OFFSET + SIZE_OF_LONG;
+
+    private static final int MESSAGE_TYPE_FILTER_MASK = Long.SIZE - 1;
+    private static final int SESSION_ID_FILTER_MASK = SESSION_ID_FILTER_WORDS * Long.SIZE - 1;
+
+    static File timeIndexFile(final String logFileDir, final int streamId)
+    {
+        return new File(String.format("%s/archive-time-index-%d", logFileDir, streamId));
+    }
+
+    static long messageTypeFilterBit(final long messageType)
+    {
+        return 1L << (Hashing.hash(messageType) & MESSAGE_TYPE_FILTER_MASK);
+    }
+
+    static int sessionIdFilterIndex(final long sessionId)
+    {
+        return Hashing.hash(sessionId) & SESSION_ID_FILTER_MASK;
+    }
+}
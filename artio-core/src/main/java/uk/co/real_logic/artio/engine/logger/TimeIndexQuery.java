@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.DirectBuffer;
+import org.agrona.collections.LongHashSet;
+
+import static uk.co.real_logic.artio.engine.logger.TimeIndexDescriptor.*;
+
+/**
+ * The constraints of a {@link FixMessagePredicate} that can be looked up in the time index in order to skip
+ * the blocks of the archive that can't contain any matching messages.
+ *
+ * @see FixMessagePredicate#narrow(TimeIndexQuery)
+ */
+public final class TimeIndexQuery
+{
+    private long beginTimestampInclusive = Long.MIN_VALUE;
+    private long endTimestampExclusive = Long.MAX_VALUE;
+    private LongHashSet messageTypes;
+    private LongHashSet sessionIds;
+
+    private long messageTypeFilter;
+    private long[] sessionIdFilter;
+
+    TimeIndexQuery()
+    {
+    }
+
+    void from(final long beginTimestampInclusive)
+    {
+        this.beginTimestampInclusive = Math.max(this.beginTimestampInclusive, beginTimestampInclusive);
+    }
+
+    void to(final long endTimestampExclusive)
+    {
+        this.endTimestampExclusive = Math.min(this.endTimestampExclusive, endTimestampExclusive);
+    }
+
+    void messageTypes(final LongHashSet messageTypes)
+    {
+        this.messageTypes = intersect(this.messageTypes, messageTypes);
+        messageTypeFilter = 0;
+        for (final long messageType : this.messageTypes)
+        {
+            messageTypeFilter |= messageTypeFilterBit(messageType);
+        }
+    }
+
+    void sessionIds(final LongHashSet sessionIds)
+    {
+        this.sessionIds = intersect(this.sessionIds, sessionIds);
+        sessionIdFilter = new long[SESSION_ID_FILTER_WORDS];
+        for (final long sessionId : this.sessionIds)
+        {
+            final int sessionIdIndex = sessionIdFilterIndex(sessionId);
+            sessionIdFilter[sessionIdIndex >>> 6] |= 1L << sessionIdIndex;
+        }
+    }
+
+    boolean isUnconstrained()
+    {
+        return beginTimestampInclusive == Long.MIN_VALUE && endTimestampExclusive == Long.MAX_VALUE &&
+            messageTypes == null && sessionIds == null;
+    }
+
+    /**
+     * Checks whether the block summarised by a time index record could contain a matching message.
+     *
+     * @param buffer the buffer containing the record.
+     * @param offset the offset of the record within the buffer.
+     * @return true if the block needs to be scanned, false if it can be skipped.
+     */
+    boolean matches(final DirectBuffer buffer, final int offset)
+    {
+        if (isUnconstrained())
+        {
+            return true;
+        }
+
+        final long minTimestamp = buffer.getLong(offset + MIN_TIMESTAMP_OFFSET);
+        final long maxTimestamp = buffer.getLong(offset + MAX_TIMESTAMP_OFFSET);
+        if (maxTimestamp < beginTimestampInclusive || minTimestamp >= endTimestampExclusive)
+        {
+            return false;
+        }
+
+        if (messageTypes != null && (buffer.getLong(offset + MESSAGE_TYPE_FILTER_OFFSET) & messageTypeFilter) == 0)
+        {
+            return false;
+        }
+
+        if (sessionIds != null)
+        {
+            for (int i = 0; i < SESSION_ID_FILTER_WORDS; i++)
+            {
+                final long blockFilter = buffer.getLong(offset + SESSION_ID_FILTER_OFFSET + i * Long.BYTES);
+                if ((blockFilter & sessionIdFilter[i]) != 0)
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        return true;
+    }
+
+    private static LongHashSet intersect(final LongHashSet current, final LongHashSet values)
+    {
+        final LongHashSet result = new LongHashSet();
+        for (final long value : values)
+        {
+            if (current == null || current.contains(value))
+            {
+                result.add(value);
+            }
+        }
+
+        return result;
+    }
+
+    public String toString()
+    {
+        return "TimeIndexQuery{" +
+            "beginTimestampInclusive=" + beginTimestampInclusive +
+            ", endTimestampExclusive=" + endTimestampExclusive +
+            ", messageTypes=" + messageTypes +
+            ", sessionIds=" + sessionIds +
+            '}';
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.CloseHelper;
+import org.agrona.LangUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.engine.logger.FixArchiveScanner.ArchiveLocation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static java.nio.file.StandardOpenOption.READ;
+import static uk.co.real_logic.artio.engine.logger.TimeIndexDescriptor.*;
+
+/**
+ * Reads a time index file in order to find the ranges of a recording that need to be scanned for a query.
+ * <p>
+ * The file is read a batch of records at a time, so memory use doesn't grow with the size of the archive.
+ */
+class TimeIndexReader implements AutoCloseable
+{
+    private static final int RECORDS_PER_READ = 1024;
+
+    private final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(RECORDS_PER_READ * RECORD_LENGTH);
+    private final UnsafeBuffer buffer = new UnsafeBuffer(byteBuffer);
+    private final FileChannel fileChannel;
+
+    TimeIndexReader(final File file)
+    {
+        fileChannel = openFile(file);
+    }
+
+    private static FileChannel openFile(final File file)
+    {
+        try
+        {
+            return FileChannel.open(file.toPath(), READ);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+            return null;
+        }
+    }
+
+    /**
+     * Adds the ranges of a recording that could contain messages matching the query. Ranges that aren't covered
+     * by the index, for example the tail of the recording that has been written since the last indexed block,
+     * are always included.
+     *
+     * @param recordingId   the id of the recording to scan.
+     * @param startPosition the position that the recording starts from.
+     * @param stopPosition  the position to scan the recording until, or {@link
+     *                      io.aeron.archive.client.AeronArchive#NULL_POSITION} to follow the recording.
+     * @param query         the query to lookup in the index.
+     * @param ranges        the list to add the ranges to, adjacent ranges are merged.
+     */
+    void findRanges(
+        final long recordingId,
+        final long startPosition,
+        final long stopPosition,
+        final TimeIndexQuery query,
+        final List<ArchiveLocation> ranges)
+    {
+        final UnsafeBuffer buffer = this.buffer;
+        long scannedPosition = startPosition;
+        long rangeStartPosition = NULL_POSITION;
+
+        boolean scanning = true;
+        long filePosition = 0;
+        while (scanning)
+        {
+            final int length = readRecords(filePosition);
+            filePosition += length;
+            scanning = length > 0;
+
+            for (int offset = 0; scanning && offset < length; offset += RECORD_LENGTH)
+            {
+                if (buffer.getLong(offset + RECORDING_ID_OFFSET) != recordingId)
+                {
+                    continue;
+                }
+
+                final long blockStartPosition = Math.max(buffer.getLong(offset + START_POSITION_OFFSET), startPosition);
+                final long blockEndPosition = buffer.getLong(offset + END_POSITION_OFFSET);
+                if (blockEndPosition <= scannedPosition)
+                {
+                    continue;
+                }
+
+                if (stopPosition != NULL_POSITION && blockStartPosition >= stopPosition)
+                {
+                    scanning = false;
+                    continue;
+                }
+
+                // Part of the recording that wasn't indexed needs to be scanned.
+                if (blockStartPosition > scannedPosition && rangeStartPosition == NULL_POSITION)
+                {
+                    rangeStartPosition = scannedPosition;
+                }
+
+                if (query.matches(buffer, offset))
+                {
+                    if (rangeStartPosition == NULL_POSITION)
+                    {
+                        rangeStartPosition = blockStartPosition;
+                    }
+                }
+                else if (rangeStartPosition != NULL_POSITION)
+                {
+                    ranges.add(new ArchiveLocation(recordingId, rangeStartPosition, blockStartPosition));
+                    rangeStartPosition = NULL_POSITION;
+                }
+
+                scannedPosition = blockEndPosition;
+            }
+        }
+
+        if (stopPosition == NULL_POSITION || scannedPosition < stopPosition)
+        {
+            ranges.add(new ArchiveLocation(
+                recordingId,
+                rangeStartPosition == NULL_POSITION ? scannedPosition : rangeStartPosition,
+                stopPosition));
+        }
+        else if (rangeStartPosition != NULL_POSITION)
+        {
+            ranges.add(new ArchiveLocation(recordingId, rangeStartPosition, stopPosition));
+        }
+    }
+
+    // Returns the length of the whole records read, 0 at the end of the file.
+    private int readRecords(final long filePosition)
+    {
+        final ByteBuffer byteBuffer = this.byteBuffer;
+        byteBuffer.clear();
+        try
+        {
+            int read = 0;
+            while (byteBuffer.hasRemaining() && read >= 0)
+            {
+                read = fileChannel.read(byteBuffer, filePosition + byteBuffer.position());
+            }
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+
+        final int length = byteBuffer.position();
+        return length - (length % RECORD_LENGTH);
+    }
+
+    public void close()
+    {
+        CloseHelper.close(fileChannel);
+    }
+}
@@ -0,0 +1,460 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.archive.client.ArchiveException;
+import io.aeron.logbuffer.Header;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+import org.agrona.LangUtil;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.engine.framer.MessageTypeExtractor;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.archive.status.RecordingPos.NULL_RECORDING_ID;
+import static io.aeron.logbuffer.FrameDescriptor.*;
+import static java.nio.file.StandardOpenOption.*;
+import static uk.co.real_logic.artio.engine.logger.TimeIndexDescriptor.*;
+import static uk.co.real_logic.artio.messages.MessageStatus.OK;
+
+/**
+ * Builds a sparse index of the timestamps, message types and sessions of the messages within each block of a
+ * stream's recordings. This lets the {@link FixArchiveScanner} only replay the blocks that can contain messages
+ * matching a query.
+ * <p>
+ * Blocks end on message boundaries once they reach the configured size, the block being filled when the index
+ * is closed is written out as well.
+ * <p>
+ * Records are removed along with the parts of the recordings that they index: when the archive is pruned, see
+ * {@link #onPruned(Long2LongHashMap)}, and on startup for recordings that have been truncated or deleted since the
+ * index was last written.
+ *
+ * @see TimeIndexDescriptor
+ */
+public class TimeIndexWriter implements Index
+{
+    private static final int PRUNED_START_POSITIONS_CAPACITY = 16;
+
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder messageFrame = new FixMessageDecoder();
+    private final Long2ObjectHashMap<Block> recordingIdToBlock = new Long2ObjectHashMap<>();
+    private final Long2LongHashMap recordingIdToIndexedPosition = new Long2LongHashMap(NULL_POSITION);
+    private final Long2LongHashMap recordingIdToAeronSessionId = new Long2LongHashMap(NULL_POSITION);
+    private final OneToOneConcurrentArrayQueue<Long2LongHashMap> prunedStartPositions =
+        new OneToOneConcurrentArrayQueue<>(PRUNED_START_POSITIONS_CAPACITY);
+    private final ByteBuffer recordByteBuffer = ByteBuffer.allocateDirect(RECORD_LENGTH);
+    private final UnsafeBuffer recordBuffer = new UnsafeBuffer(recordByteBuffer);
+
+    private final int requiredStreamId;
+    private final int blockSize;
+    private final ErrorHandler errorHandler;
+    private final RecordingIdLookup recordingIdLookup;
+    private final AeronArchive aeronArchive;
+    private final FileChannel fileChannel;
+
+    private long filePosition;
+
+    public TimeIndexWriter(
+        final String logFileDir,
+        final int requiredStreamId,
+        final int blockSize,
+        final ErrorHandler errorHandler,
+        final RecordingIdLookup recordingIdLookup,
+        final AeronArchive aeronArchive)
+    {
+        this.requiredStreamId = requiredStreamId;
+        this.blockSize = blockSize;
+        this.errorHandler = errorHandler;
+        this.recordingIdLookup = recordingIdLookup;
+        this.aeronArchive = aeronArchive;
+
+        fileChannel = openFile(timeIndexFile(logFileDir, requiredStreamId));
+    }
+
+    private FileChannel openFile(final File file)
+    {
+        try
+        {
+            final FileChannel fileChannel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+            try
+            {
+                // Discard any record that was partially written before a crash
+                final long fileLength = fileChannel.size();
+                filePosition = fileLength - (fileLength % RECORD_LENGTH);
+                fileChannel.truncate(filePosition);
+                readIndexedPositions(fileChannel);
+                removeRecordsOfTruncatedRecordings(fileChannel);
+            }
+            catch (final IOException e)
+            {
+                fileChannel.close();
+                throw e;
+            }
+
+            return fileChannel;
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+            return null;
+        }
+    }
+
+    private void readIndexedPositions(final FileChannel fileChannel) throws IOException
+    {
+        for (long position = 0; position < filePosition; position += RECORD_LENGTH)
+        {
+            readRecord(fileChannel, position);
+
+            final long recordingId = recordBuffer.getLong(RECORDING_ID_OFFSET);
+            recordingIdToIndexedPosition.put(recordingId, recordBuffer.getLong(END_POSITION_OFFSET));
+            recordingIdToAeronSessionId.put(recordingId, recordBuffer.getInt(AERON_SESSION_ID_OFFSET));
+        }
+    }
+
+    private void removeRecordsOfTruncatedRecordings(final FileChannel fileChannel) throws IOException
+    {
+        if (aeronArchive == null || recordingIdToIndexedPosition.isEmpty())
+        {
+            return;
+        }
+
+        final Long2LongHashMap recordingIdToStartPosition = new Long2LongHashMap(NULL_POSITION);
+        final Long2LongHashMap.KeyIterator recordingIds = recordingIdToIndexedPosition.keySet().iterator();
+        while (recordingIds.hasNext())
+        {
+            final long recordingId = recordingIds.nextValue();
+            try
+            {
+                recordingIdToStartPosition.put(recordingId, aeronArchive.getStartPosition(recordingId));
+            }
+            catch (final ArchiveException e)
+            {
+                if (e.errorCode() == ArchiveException.UNKNOWN_RECORDING)
+                {
+                    // The recording has been deleted, so there's nothing left to index or catch up with.
+                    recordingIdToStartPosition.put(recordingId, Long.MAX_VALUE);
+                    recordingIdToAeronSessionId.remove(recordingId);
+                    recordingIds.remove();
+                }
+                else
+                {
+                    errorHandler.onError(e);
+                }
+            }
+        }
+
+        removeRecords(fileChannel, recordingIdToStartPosition);
+    }
+
+    /**
+     * Removes the records of blocks that end before the new start positions of pruned recordings. The records are
+     * removed on the indexer thread the next time that it calls {@link #doWork()}.
+     *
+     * @param recordingIdToStartPosition the positions that each recording has been pruned up to.
+     */
+    public void onPruned(final Long2LongHashMap recordingIdToStartPosition)
+    {
+        final Long2LongHashMap copy = new Long2LongHashMap(NULL_POSITION);
+        final Long2LongHashMap.EntryIterator it = recordingIdToStartPosition.entrySet().iterator();
+        while (it.hasNext())
+        {
+            it.next();
+            copy.put(it.getLongKey(), it.getLongValue());
+        }
+
+        // If the queue is full then the records are removed when the index is next opened instead.
+        prunedStartPositions.offer(copy);
+    }
+
+    public int doWork()
+    {
+        final Long2LongHashMap recordingIdToStartPosition = prunedStartPositions.poll();
+        if (recordingIdToStartPosition == null)
+        {
+            return 0;
+        }
+
+        try
+        {
+            removeRecords(fileChannel, recordingIdToStartPosition);
+        }
+        catch (final IOException e)
+        {
+            errorHandler.onError(e);
+        }
+
+        return 1;
+    }
+
+    // Compacts the file in place, records are kept in order so a crash part way through only leaves duplicates.
+    private void removeRecords(final FileChannel fileChannel, final Long2LongHashMap recordingIdToStartPosition)
+        throws IOException
+    {
+        long keptPosition = 0;
+        for (long position = 0; position < filePosition; position += RECORD_LENGTH)
+        {
+            readRecord(fileChannel, position);
+
+            final long startPosition = recordingIdToStartPosition.get(recordBuffer.getLong(RECORDING_ID_OFFSET));
+            if (startPosition == NULL_POSITION || recordBuffer.getLong(END_POSITION_OFFSET) > startPosition)
+            {
+                if (keptPosition != position)
+                {
+                    writeRecord(fileChannel, keptPosition);
+                }
+                keptPosition += RECORD_LENGTH;
+            }
+        }
+
+        if (keptPosition != filePosition)
+        {
+            fileChannel.truncate(keptPosition);
+            filePosition = keptPosition;
+        }
+    }
+
+    private void readRecord(final FileChannel fileChannel, final long position) throws IOException
+    {
+        recordByteBuffer.clear();
+        while (recordByteBuffer.hasRemaining())
+        {
+            fileChannel.read(recordByteBuffer, position + recordByteBuffer.position());
+        }
+    }
+
+    private void writeRecord(final FileChannel fileChannel, final long position) throws IOException
+    {
+        recordByteBuffer.clear();
+        while (recordByteBuffer.hasRemaining())
+        {
+            fileChannel.write(recordByteBuffer, position + recordByteBuffer.position());
+        }
+    }
+
+    public void onCatchup(
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final Header header,
+        final long recordingId)
+    {
+        onFragment(buffer, offset, length, header, recordingId);
+    }
+
+    public void onFragment(
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final Header header)
+    {
+        if (header.streamId() == requiredStreamId)
+        {
+            onFragment(buffer, offset, length, header, NULL_RECORDING_ID);
+        }
+    }
+
+    private void onFragment(
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final Header header,
+        final long knownRecordingId)
+    {
+        final int flags = header.flags();
+        messageHeader.wrap(buffer, offset);
+        final boolean isFixMessage = (flags & BEGIN_FRAG_FLAG) == BEGIN_FRAG_FLAG &&
+            messageHeader.templateId() == FixMessageDecoder.TEMPLATE_ID;
+
+        long recordingId = knownRecordingId;
+        if (recordingId == NULL_RECORDING_ID)
+        {
+            // Only block on the recording being setup for fix messages, the same as the replay index
+            final int aeronSessionId = header.sessionId();
+            recordingId = isFixMessage ?
+                recordingIdLookup.getRecordingId(aeronSessionId) : recordingIdLookup.findRecordingId(aeronSessionId);
+            if (recordingId == NULL_RECORDING_ID)
+            {
+                return;
+            }
+        }
+
+        Block block = recordingIdToBlock.get(recordingId);
+        if (block == null)
+        {
+            block = new Block(header.sessionId());
+            recordingIdToBlock.put(recordingId, block);
+        }
+
+        final long endPosition = header.position();
+        if (block.isEmpty())
+        {
+            block.startPosition = block.endPosition != NULL_POSITION ?
+                block.endPosition : endPosition - BitUtil.align(header.frameLength(), FRAME_ALIGNMENT);
+        }
+        block.endPosition = endPosition;
+
+        if (isFixMessage)
+        {
+            messageFrame.wrap(
+                buffer,
+                offset + MessageHeaderDecoder.ENCODED_LENGTH,
+                messageHeader.blockLength(),
+                messageHeader.version());
+
+            if (messageFrame.status() == OK)
+            {
+                block.onMessage(
+                    messageFrame.timestamp(),
+                    MessageTypeExtractor.getMessageType(messageFrame),
+                    messageFrame.session());
+            }
+        }
+
+        final boolean endOfMessage = (flags & END_FRAG_FLAG) == END_FRAG_FLAG;
+        if (endOfMessage && block.endPosition - block.startPosition >= blockSize)
+        {
+            writeBlock(recordingId, block);
+        }
+    }
+
+    private void writeBlock(final long recordingId, final Block block)
+    {
+        final UnsafeBuffer recordBuffer = this.recordBuffer;
+        recordBuffer.putLong(RECORDING_ID_OFFSET, recordingId);
+        recordBuffer.putLong(START_POSITION_OFFSET, block.startPosition);
+        recordBuffer.putLong(END_POSITION_OFFSET, block.endPosition);
+        recordBuffer.putLong(MIN_TIMESTAMP_OFFSET, block.minTimestamp);
+        recordBuffer.putLong(MAX_TIMESTAMP_OFFSET, block.maxTimestamp);
+        recordBuffer.putLong(MESSAGE_TYPE_FILTER_OFFSET, block.messageTypeFilter);
+        final long[] sessionIdFilter = block.sessionIdFilter;
+        for (int i = 0; i < SESSION_ID_FILTER_WORDS; i++)
+        {
+            recordBuffer.putLong(SESSION_ID_FILTER_OFFSET + i * Long.BYTES, sessionIdFilter[i]);
+        }
+        recordBuffer.putInt(AERON_SESSION_ID_OFFSET, block.aeronSessionId);
+
+        try
+        {
+            writeRecord(fileChannel, filePosition);
+            filePosition += RECORD_LENGTH;
+            recordingIdToIndexedPosition.put(recordingId, block.endPosition);
+            recordingIdToAeronSessionId.put(recordingId, block.aeronSessionId);
+        }
+        catch (final IOException e)
+        {
+            errorHandler.onError(e);
+        }
+
+        block.reset();
+    }
+
+    public void close()
+    {
+        try
+        {
+            recordingIdToBlock.forEach((recordingId, block) ->
+            {
+                if (!block.isEmpty())
+                {
+                    writeBlock(recordingId, block);
+                }
+            });
+            fileChannel.force(false);
+        }
+        catch (final IOException e)
+        {
+            errorHandler.onError(e);
+        }
+        finally
+        {
+            try
+            {
+                fileChannel.close();
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+            }
+        }
+    }
+
+    public void readLastPosition(final IndexedPositionConsumer consumer)
+    {
+        final Long2LongHashMap.EntryIterator it = recordingIdToIndexedPosition.entrySet().iterator();
+        while (it.hasNext())
+        {
+            it.next();
+            final long recordingId = it.getLongKey();
+            consumer.accept((int)recordingIdToAeronSessionId.get(recordingId), recordingId, it.getLongValue());
+        }
+    }
+
+    private static final class Block
+    {
+        private final long[] sessionIdFilter = new long[SESSION_ID_FILTER_WORDS];
+        private final int aeronSessionId;
+
+        // The end position is kept after a block is written so that the next block continues from it
+        private long startPosition = NULL_POSITION;
+        private long endPosition = NULL_POSITION;
+        private long minTimestamp;
+        private long maxTimestamp;
+        private long messageTypeFilter;
+
+        Block(final int aeronSessionId)
+        {
+            this.aeronSessionId = aeronSessionId;
+            reset();
+        }
+
+        boolean isEmpty()
+        {
+            return startPosition == NULL_POSITION;
+        }
+
+        void onMessage(final long timestamp, final long messageType, final long sessionId)
+        {
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            messageTypeFilter |= messageTypeFilterBit(messageType);
+            final int sessionIdIndex = sessionIdFilterIndex(sessionId);
+            sessionIdFilter[sessionIdIndex >>> 6] |= 1L << sessionIdIndex;
+        }
+
+        void reset()
+        {
+            startPosition = NULL_POSITION;
+            minTimestamp = Long.MAX_VALUE;
+            maxTimestamp = Long.MIN_VALUE;
+            messageTypeFilter = 0;
+            Arrays.fill(sessionIdFilter, 0);
+        }
+    }
+}
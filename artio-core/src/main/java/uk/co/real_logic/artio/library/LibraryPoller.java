@@ -22,9 +22,11 @@ import io.aeron.Subscription;
 import io.aeron.exceptions.RegistrationException;
 import io.aeron.logbuffer.ControlledFragmentHandler;
 import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import org.agrona.DeadlineTimerWheel;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
+import org.agrona.collections.ArrayListUtil;
 import org.agrona.collections.ArrayUtil;
 import org.agrona.collections.CollectionUtil;
 import org.agrona.collections.Long2ObjectHashMap;
@@ -45,6 +47,7 @@ import uk.co.real_logic.artio.protocol.*;
 import uk.co.real_logic.artio.session.*;
 import uk.co.real_logic.artio.timing.LibraryTimers;
 import uk.co.real_logic.artio.timing.Timer;
+import uk.co.real_logic.artio.timing.TimerWheels;
 import uk.co.real_logic.artio.util.CharFormatter;
 import uk.co.real_logic.artio.util.EpochFractionClock;
 import uk.co.real_logic.artio.util.EpochFractionClocks;
@@ -59,6 +62,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
@@ -74,9 +78,11 @@ import static uk.co.real_logic.artio.messages.ConnectionType.INITIATOR;
 import static uk.co.real_logic.artio.messages.DisconnectReason.ENGINE_SHUTDOWN;
 import static uk.co.real_logic.artio.messages.InitialAcceptedSessionOwner.SOLE_LIBRARY;
 import static uk.co.real_logic.artio.messages.SessionState.ACTIVE;
+import static uk.co.real_logic.artio.session.InternalSession.NO_POLL_TIMER;
 import static uk.co.real_logic.artio.session.Session.UNKNOWN_TIME;
 
-final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, AutoCloseable
+final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, AutoCloseable,
+    DeadlineTimerWheel.TimerHandler
 {
     /**
      * Has connected to an engine instance
@@ -111,6 +117,9 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     private static final ILink3Connection[] EMPTY_ILINK_CONNECTIONS = new ILink3Connection[0];
     private static final InternalSession[] EMPTY_SESSIONS = new InternalSession[0];
 
+    private static final int POLL_TIMER_TICK_RESOLUTION_IN_MS = 1;
+    private static final int POLL_TIMER_TICKS_PER_WHEEL = 1024;
+
     private final Long2ObjectHashMap<WeakReference<InternalSession>> sessionIdToCachedSession =
         new Long2ObjectHashMap<>();
     private final Long2ObjectHashMap<SessionSubscriber> connectionIdToSession = new Long2ObjectHashMap<>();
@@ -122,6 +131,11 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     private InternalSession[] pendingInitiatorSessions = EMPTY_SESSIONS;
     private final List<Session> unmodifiableSessions = new UnmodifiableWrapper<>(() -> sessions);
 
+    // Sessions that have nothing to do wait on the timer wheel until their next poll time, rather than being polled
+    private final ArrayList<InternalSession> pollingSessions = new ArrayList<>();
+    private final Long2ObjectHashMap<InternalSession> pollTimerIdToSession = new Long2ObjectHashMap<>();
+    private final DeadlineTimerWheel pollTimerWheel;
+
     private final Long2ObjectHashMap<ILink3Subscription> connectionIdToILink3Subscription = new Long2ObjectHashMap<>();
 
     private static final ErrorHandler THROW_ERRORS = LangUtil::rethrowUnchecked;
@@ -213,6 +227,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         this.enginesAreClustered = configuration.libraryAeronChannels().size() > 1;
         this.epochFractionClock = EpochFractionClocks.create(
             epochClock, configuration.epochNanoClock(), configuration.sessionEpochFractionFormat());
+        pollTimerWheel = new DeadlineTimerWheel(
+            TimeUnit.MILLISECONDS, epochClock.time(), POLL_TIMER_TICK_RESOLUTION_IN_MS, POLL_TIMER_TICKS_PER_WHEEL);
     }
 
     boolean isConnected()
@@ -329,7 +345,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     void disableSession(final InternalSession session)
     {
-        sessions = ArrayUtil.remove(sessions, session);
+        removeSession(session);
         session.disable();
         cacheSession(session);
     }
@@ -734,13 +750,37 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     private int pollSessions(final long timeInMs)
     {
-        final InternalSession[] sessions = this.sessions;
-        int total = 0;
+        TimerWheels.poll(pollTimerWheel, timeInMs, this);
 
-        for (int i = 0, size = sessions.length; i < size; i++)
+        final ArrayList<InternalSession> pollingSessions = this.pollingSessions;
+        int total = 0;
+        for (int i = 0; i < pollingSessions.size();)
         {
-            final InternalSession session = sessions[i];
-            total += session.poll(timeInMs);
+            final InternalSession session = pollingSessions.get(i);
+            final int events = session.poll(timeInMs);
+            total += events;
+
+            if (i >= pollingSessions.size() || pollingSessions.get(i) != session)
+            {
+                // Removed whilst being polled
+                continue;
+            }
+
+            final long nextPollTimeInMs = events > 0 ? timeInMs : session.nextPollTimeInMs(timeInMs);
+            if (nextPollTimeInMs <= timeInMs)
+            {
+                i++;
+            }
+            else
+            {
+                removePolling(session, i);
+                if (nextPollTimeInMs != Long.MAX_VALUE)
+                {
+                    final long timerId = pollTimerWheel.scheduleTimer(nextPollTimeInMs);
+                    session.pollTimerId(timerId);
+                    pollTimerIdToSession.put(timerId, session);
+                }
+            }
         }
 
         final ILink3Connection[] iLink3Connections = this.iLink3Connections;
@@ -753,6 +793,73 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         return total;
     }
 
+    public boolean onTimerExpiry(final TimeUnit timeUnit, final long now, final long timerId)
+    {
+        final InternalSession session = pollTimerIdToSession.remove(timerId);
+        if (session != null)
+        {
+            session.pollTimerId(NO_POLL_TIMER);
+            addPolling(session);
+        }
+
+        return true;
+    }
+
+    void requirePoll(final InternalSession session)
+    {
+        if (session.isPolled() && !session.isPolling())
+        {
+            cancelPollTimer(session);
+            addPolling(session);
+        }
+    }
+
+    private void addSession(final InternalSession session)
+    {
+        sessions = ArrayUtil.add(sessions, session);
+        session.isPolled(true);
+        requirePoll(session);
+    }
+
+    private void removeSession(final InternalSession session)
+    {
+        sessions = ArrayUtil.remove(sessions, session);
+        unschedulePolls(session);
+    }
+
+    private void unschedulePolls(final InternalSession session)
+    {
+        session.isPolled(false);
+        cancelPollTimer(session);
+        if (session.isPolling())
+        {
+            removePolling(session, pollingSessions.indexOf(session));
+        }
+    }
+
+    private void addPolling(final InternalSession session)
+    {
+        session.isPolling(true);
+        pollingSessions.add(session);
+    }
+
+    private void removePolling(final InternalSession session, final int index)
+    {
+        session.isPolling(false);
+        ArrayListUtil.fastUnorderedRemove(pollingSessions, index);
+    }
+
+    private void cancelPollTimer(final InternalSession session)
+    {
+        final long timerId = session.pollTimerId();
+        if (timerId != NO_POLL_TIMER)
+        {
+            pollTimerWheel.cancelTimer(timerId);
+            pollTimerIdToSession.remove(timerId);
+            session.pollTimerId(NO_POLL_TIMER);
+        }
+    }
+
     private int pollPendingInitiatorSessions(final long timeInMs)
     {
         InternalSession[] pendingSessions = this.pendingInitiatorSessions;
@@ -766,7 +873,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
             {
                 this.pendingInitiatorSessions = pendingSessions = ArrayUtil.remove(pendingSessions, i);
                 size--;
-                sessions = ArrayUtil.add(sessions, session);
+                addSession(session);
             }
             else
             {
@@ -1120,7 +1227,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         }
         else
         {
-            sessions = ArrayUtil.add(sessions, session);
+            addSession(session);
         }
     }
 
@@ -1203,7 +1310,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     session.close();
                     // session will be in either pendingInitiatorSessions or sessions
                     pendingInitiatorSessions = ArrayUtil.remove(pendingInitiatorSessions, session);
-                    sessions = ArrayUtil.remove(sessions, session);
+                    removeSession(session);
                     cacheSession(session);
                 }
 
@@ -1596,6 +1703,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     subscriber.onTimeout(libraryId);
                 }
                 session.close();
+                unschedulePolls(session);
                 // TODO(Nick): Maybe we shouldn't be creating a lot of arrays and batch this up?
                 sessions = ArrayUtil.remove(sessions, i);
                 size--;
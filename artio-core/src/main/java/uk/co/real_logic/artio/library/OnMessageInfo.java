@@ -15,12 +15,15 @@
  */
 package uk.co.real_logic.artio.library;
 
+import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.messages.MessageStatus;
 
 public class OnMessageInfo
 {
     private MessageStatus status;
     private boolean isValid;
+    private SessionHeaderDecoder header;
+    private int headerLength;
 
     public OnMessageInfo status(final MessageStatus status)
     {
@@ -34,6 +37,13 @@ public class OnMessageInfo
         return this;
     }
 
+    public OnMessageInfo header(final SessionHeaderDecoder header, final int headerLength)
+    {
+        this.header = header;
+        this.headerLength = headerLength;
+        return this;
+    }
+
     public MessageStatus status()
     {
         return status;
@@ -43,4 +53,34 @@ public class OnMessageInfo
     {
         return isValid;
     }
+
+    /**
+     * Gets the header of the message, as it has already been decoded and validated by the session layer. This is
+     * only available for application messages that the session layer has accepted, it's null for session messages,
+     * catchup replays and messages that failed validation.
+     * <p>
+     * Decoders generated from the same dictionary as the session can decode the rest of the message without scanning
+     * the header again, for example:
+     * <pre>
+     * executionReport.decode((HeaderDecoder)messageInfo.header(), messageInfo.headerLength(), asciiBuffer, offset,
+     *     length);
+     * </pre>
+     * The header decoder is owned by the session, so it must not be modified and is only valid during the callback.
+     *
+     * @return the header of the message or null if it hasn't been decoded.
+     */
+    public SessionHeaderDecoder header()
+    {
+        return header;
+    }
+
+    /**
+     * Gets the length of the header returned by {@link #header()}, from the start of the message.
+     *
+     * @return the length of the header of the message.
+     */
+    public int headerLength()
+    {
+        return headerLength;
+    }
 }
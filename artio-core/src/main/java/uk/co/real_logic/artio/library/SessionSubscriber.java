@@ -140,6 +140,8 @@ class SessionSubscriber implements AutoCloseable, SessionProcessHandler
                     }
 
                 case CATCHUP_REPLAY:
+                    // Replayed messages aren't parsed by the session
+                    info.header(null, 0);
                     return handler.onMessage(
                         buffer,
                         offset,
@@ -214,6 +216,11 @@ class SessionSubscriber implements AutoCloseable, SessionProcessHandler
         libraryPoller.enqueueTask(task);
     }
 
+    public void onPollTimeChanged(final Session session)
+    {
+        libraryPoller.requirePoll(this.session);
+    }
+
     void onTimeout(final int libraryId)
     {
         handler.onTimeout(libraryId, session);
@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.protocol;
 
 import io.aeron.ExclusivePublication;
 import io.aeron.logbuffer.BufferClaim;
+import io.aeron.protocol.DataHeaderFlyweight;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.IdleStrategy;
@@ -146,6 +147,10 @@ public class GatewayPublication extends ClaimablePublication
     private final InitiateILinkConnectionEncoder initiateILinkConnection = new InitiateILinkConnectionEncoder();
     private final ILinkConnectEncoder iLinkConnect = new ILinkConnectEncoder();
 
+    private final TrimmableBufferClaim messageClaim = new TrimmableBufferClaim();
+    // Every session in a library shares this publication, and so its message claim.
+    private boolean hasClaimedMessage;
+
     private final Clock clock;
     private final int maxPayloadLength;
     private final int maxInitialBodyLength;
@@ -368,6 +373,106 @@ public class GatewayPublication extends ClaimablePublication
         destBuffer.putShort(position, (short)srcLength, LITTLE_ENDIAN);
     }
 
+    /**
+     * Claims space for a fix message that is encoded directly into the {@link #claimedMessageBuffer()} at the
+     * {@link #claimedMessageOffset(int)}, rather than being copied in. The message must then be committed with
+     * {@link #commitClaimedMessage} or aborted with {@link #abortClaimedMessage()} before anything else is
+     * published. Any of the claim that the message doesn't use is padded out when it's committed.
+     * <p>
+     * Only one message can be claimed at a time on this publication, whichever session claims it.
+     *
+     * @param maxMessageLength the maximum length of the fix message that will be encoded.
+     * @param metaDataLength   the length of the metadata that will be associated with the message.
+     * @return the position of the end of the claim, or a negative number indicating an error status.
+     * @throws IllegalArgumentException if the message could be too large to fit into a single frame.
+     * @throws IllegalStateException if a previously claimed message hasn't been committed or aborted.
+     */
+    public long claimMessage(final int maxMessageLength, final int metaDataLength)
+    {
+        if (hasClaimedMessage)
+        {
+            throw new IllegalStateException(
+                "A message has already been claimed, it must be committed or aborted before claiming another");
+        }
+
+        final int framedLength = FRAMED_MESSAGE_SIZE + metaDataLength + maxMessageLength;
+        if (framedLength > maxPayloadLength)
+        {
+            throw new IllegalArgumentException(
+                "Unable to claim " + maxMessageLength + " bytes for a message, the maximum is " +
+                (maxPayloadLength - FRAMED_MESSAGE_SIZE - metaDataLength));
+        }
+
+        // Claim whole frames so that there's always room for a padding frame after the committed message.
+        final int claimLength = align(framedLength + DataHeaderFlyweight.HEADER_LENGTH, FRAME_ALIGNMENT) -
+            DataHeaderFlyweight.HEADER_LENGTH;
+
+        final long position = claim(claimLength, messageClaim);
+        hasClaimedMessage = position > 0;
+        return position;
+    }
+
+    public MutableDirectBuffer claimedMessageBuffer()
+    {
+        return messageClaim.buffer();
+    }
+
+    public int claimedMessageOffset(final int metaDataLength)
+    {
+        return messageClaim.offset() + FRAMED_MESSAGE_SIZE + metaDataLength;
+    }
+
+    public void commitClaimedMessage(
+        final int messageLength,
+        final int libraryId,
+        final long messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber,
+        final DirectBuffer srcMetaDataBuffer,
+        final int metaDataUpdateOffset)
+    {
+        final DirectBuffer metaDataBuffer = srcMetaDataBuffer == null ? NO_METADATA : srcMetaDataBuffer;
+        final int metaDataLength = metaDataBuffer.capacity();
+        final MutableDirectBuffer destBuffer = messageClaim.buffer();
+        final int offset = messageClaim.offset();
+
+        header.wrap(destBuffer, offset)
+            .blockLength(fixMessage.sbeBlockLength())
+            .templateId(fixMessage.sbeTemplateId())
+            .schemaId(fixMessage.sbeSchemaId())
+            .version(fixMessage.sbeSchemaVersion());
+
+        fixMessage.wrap(destBuffer, offset + header.encodedLength())
+            .libraryId(libraryId)
+            .messageType(messageType)
+            .session(sessionId)
+            .sequenceIndex(sequenceIndex)
+            .connection(connectionId)
+            .timestamp(clock.time())
+            .status(status)
+            .sequenceNumber(sequenceNumber)
+            .metaDataUpdateOffset(metaDataUpdateOffset)
+            .putMetaData(metaDataBuffer, 0, metaDataLength);
+
+        // The body has already been encoded after its length
+        destBuffer.putShort(fixMessage.limit(), (short)messageLength, LITTLE_ENDIAN);
+
+        messageClaim.commit(FRAMED_MESSAGE_SIZE + metaDataLength + messageLength);
+        hasClaimedMessage = false;
+
+        DebugLogger.log(
+            FIX_MESSAGE_FLOW, "Enqueued ", destBuffer, claimedMessageOffset(metaDataLength), messageLength);
+    }
+
+    public void abortClaimedMessage()
+    {
+        messageClaim.abort();
+        hasClaimedMessage = false;
+    }
+
     public long saveManageSession(
         final int libraryId,
         final long connection,
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.protocol;
+
+import io.aeron.logbuffer.BufferClaim;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import static io.aeron.logbuffer.FrameDescriptor.*;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.BitUtil.align;
+
+/**
+ * A {@link BufferClaim} that can be committed with less data than was claimed, this is useful when the length of a
+ * message isn't known until it has been encoded into the claim. The unused remainder of the claim is committed as a
+ * padding frame, which subscribers skip over.
+ * <p>
+ * Claims should be a whole number of frame alignments long so that the remainder always has space for a padding
+ * frame's header.
+ */
+class TrimmableBufferClaim extends BufferClaim
+{
+    /**
+     * Commit the start of the claim as a message, padding out the rest of it.
+     *
+     * @param length the length of the message from {@link #offset()}, this must not be longer than the claim.
+     */
+    void commit(final int length)
+    {
+        final UnsafeBuffer buffer = this.buffer;
+        final int frameLength = HEADER_LENGTH + length;
+        final int paddingOffset = align(frameLength, FRAME_ALIGNMENT);
+        final int paddingLength = buffer.capacity() - paddingOffset;
+        if (paddingLength <= 0)
+        {
+            frameLengthOrdered(buffer, 0, frameLength);
+            return;
+        }
+
+        // The padding frame has to be complete before the message is committed, as the message makes it reachable
+        buffer.putBytes(paddingOffset, buffer, 0, HEADER_LENGTH);
+        buffer.putInt(
+            termOffsetOffset(paddingOffset),
+            buffer.getInt(termOffsetOffset(0), LITTLE_ENDIAN) + paddingOffset,
+            LITTLE_ENDIAN);
+        buffer.putByte(flagsOffset(paddingOffset), UNFRAGMENTED);
+        frameType(buffer, paddingOffset, PADDING_FRAME_TYPE);
+        frameLengthOrdered(buffer, paddingOffset, paddingLength);
+
+        frameLengthOrdered(buffer, 0, frameLength);
+    }
+}
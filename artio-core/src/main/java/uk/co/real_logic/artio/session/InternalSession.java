@@ -39,6 +39,13 @@ public class InternalSession extends Session implements AutoCloseable
     public static final int INITIAL_END_OF_RESEND_REQUEST_RANGE = 0;
     public static final boolean INITIAL_AWAITING_HEARTBEAT = false;
 
+    public static final long NO_POLL_TIMER = -1;
+
+    // Poll scheduling state, owned by the library that this session is polled by.
+    private boolean isPolled;
+    private boolean isPolling;
+    private long pollTimerId = NO_POLL_TIMER;
+
     public InternalSession(
         final int heartbeatIntervalInS,
         final long connectionId,
@@ -91,6 +98,41 @@ public class InternalSession extends Session implements AutoCloseable
         return super.poll(time);
     }
 
+    public long nextPollTimeInMs(final long time)
+    {
+        return super.nextPollTimeInMs(time);
+    }
+
+    public boolean isPolled()
+    {
+        return isPolled;
+    }
+
+    public void isPolled(final boolean isPolled)
+    {
+        this.isPolled = isPolled;
+    }
+
+    public boolean isPolling()
+    {
+        return isPolling;
+    }
+
+    public void isPolling(final boolean isPolling)
+    {
+        this.isPolling = isPolling;
+    }
+
+    public long pollTimerId()
+    {
+        return pollTimerId;
+    }
+
+    public void pollTimerId(final long pollTimerId)
+    {
+        this.pollTimerId = pollTimerId;
+    }
+
     public void disable()
     {
         super.disable();
@@ -52,6 +52,32 @@ class SenderTargetAndSubSessionIdStrategy implements SessionIdStrategy
             header.senderCompID(), header.senderCompIDLength());
     }
 
+    public int acceptLogonHashCode(final SessionHeaderDecoder header)
+    {
+        int result = CodecUtil.hashCode(header.targetCompID(), 0, header.targetCompIDLength());
+        result = 31 * result + CodecUtil.hashCode(header.senderSubID(), 0, header.senderSubIDLength());
+        result = 31 * result + CodecUtil.hashCode(header.senderCompID(), 0, header.senderCompIDLength());
+        return result;
+    }
+
+    public boolean matchesAcceptLogon(final CompositeKey compositeKey, final SessionHeaderDecoder header)
+    {
+        if (!(compositeKey instanceof CompositeKeyImpl))
+        {
+            return false;
+        }
+
+        final CompositeKeyImpl key = (CompositeKeyImpl)compositeKey;
+        return equals(key.localCompID, header.targetCompID(), header.targetCompIDLength()) &&
+            equals(key.localSubID, header.senderSubID(), header.senderSubIDLength()) &&
+            equals(key.remoteCompID, header.senderCompID(), header.senderCompIDLength());
+    }
+
+    private static boolean equals(final char[] keyField, final char[] headerField, final int headerFieldLength)
+    {
+        return keyField.length == headerFieldLength && CodecUtil.equals(keyField, headerField, headerFieldLength);
+    }
+
     public CompositeKey onInitiateLogon(
         final String localCompId,
         final String localSubId,
@@ -91,6 +91,7 @@ public class Session
     static final String TEST_REQ_ID = "TEST";
     private static final char[] TEST_REQ_ID_CHARS = TEST_REQ_ID.toCharArray();
     private static final int NO_LOGOUT_REJECT_REASON = -1;
+    private static final int NO_CLAIM = -1;
 
     private final UtcTimestampEncoder timestampEncoder;
 
@@ -159,6 +160,16 @@ public class Session
     private int logoutRejectReason = NO_LOGOUT_REJECT_REASON;
     private FixDictionary fixDictionary;
 
+    private final MutableAsciiBuffer claimBuffer = new MutableAsciiBuffer();
+    private int claimedMessageLength = NO_CLAIM;
+    private int claimedSeqNum;
+    private long claimedMessageType;
+    private long claimedPosition;
+    private DirectBuffer claimedMetaDataBuffer;
+    private int claimedMetaDataUpdateOffset;
+    // How far from the offset that an encoder is given does the message start, depends on its header's length.
+    private int encodedMessageStartGap;
+
     public Session(
         final int heartbeatIntervalInS,
         final long connectionId,
@@ -677,6 +688,175 @@ public class Session
         return trySend(messageBuffer, offset, length, seqNum, messageType, metaDataBuffer, metaDataUpdateOffset);
     }
 
+    /**
+     * Tries to claim space for a message on this session and encodes it straight into the claim, avoiding the copy
+     * that {@link #trySend(Encoder)} makes. The message isn't sent until {@link #commit()} is called, or it can be
+     * discarded with {@link #abort()}.
+     * <p>
+     * Every session in a {@link uk.co.real_logic.artio.library.FixLibrary} shares the same claim, so in between no
+     * other message can be claimed on <em>any</em> session of the library, and no other message can be sent on this
+     * session.
+     * <p>
+     * Space for <code>maxMessageLength</code> bytes is claimed, space that the message doesn't use is still taken up
+     * in the outbound stream and the archive, so this should be a tight bound on the encoded message's length. The
+     * message has to fit into a single Aeron frame, so larger messages should be sent with
+     * {@link #trySend(Encoder)}. This isn't limited by {@link CommonConfiguration#sessionBufferSize(int)}.
+     *
+     * @param encoder          the encoder of the message to be sent
+     * @param maxMessageLength the maximum length of the encoded message
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status.
+     * @throws IllegalArgumentException if the maxMessageLength doesn't fit into a single frame.
+     * @throws IllegalStateException if a message claimed on this, or any other session of the library, hasn't been
+     *                               committed or aborted.
+     * @throws IndexOutOfBoundsException if the encoded message is longer than the maxMessageLength, the claim is
+     *                                   aborted if this happens.
+     * @throws NotConnectedException if the underlying Publication to the FixEngine has been closed or its max position
+     *                               exceeded.
+     * @see #trySend(Encoder)
+     */
+    public long tryClaim(final Encoder encoder, final int maxMessageLength)
+    {
+        return tryClaim(encoder, maxMessageLength, null, 0);
+    }
+
+    /**
+     * Tries to claim space for a message on this session and encodes it straight into the claim. See
+     * {@link #tryClaim(Encoder, int)} for details.
+     *
+     * @param encoder              the encoder of the message to be sent
+     * @param maxMessageLength     the maximum length of the encoded message
+     * @param metaDataBuffer       the metadata to associate with this message.
+     * @param metaDataUpdateOffset the offset within the session's metadata buffer.
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status.
+     * @see #tryClaim(Encoder, int)
+     * @see uk.co.real_logic.artio.library.FixLibrary#writeMetaData(long, int, DirectBuffer, int, int)
+     */
+    public long tryClaim(
+        final Encoder encoder,
+        final int maxMessageLength,
+        final DirectBuffer metaDataBuffer,
+        final int metaDataUpdateOffset)
+    {
+        validateCanSendMessage();
+        if (claimedMessageLength != NO_CLAIM)
+        {
+            throw new IllegalStateException("The previously claimed message must be committed or aborted first");
+        }
+
+        final GatewayPublication outboundPublication = this.outboundPublication;
+        final int metaDataLength = metaDataBuffer == null ? 0 : metaDataBuffer.capacity();
+        final long position = outboundPublication.claimMessage(maxMessageLength, metaDataLength);
+        if (position < 0)
+        {
+            return position;
+        }
+
+        final int sentSeqNum = prepare(encoder.header());
+
+        final MutableAsciiBuffer claimBuffer = this.claimBuffer;
+        claimBuffer.wrap(outboundPublication.claimedMessageBuffer());
+        final int messageOffset = outboundPublication.claimedMessageOffset(metaDataLength);
+        final int encodeOffset = messageOffset - encodedMessageStartGap;
+
+        final long result;
+        try
+        {
+            result = encoder.encode(claimBuffer, encodeOffset);
+        }
+        catch (final IndexOutOfBoundsException e)
+        {
+            outboundPublication.abortClaimedMessage();
+            throw e;
+        }
+
+        final int messageStart = Encoder.offset(result);
+        final int length = Encoder.length(result);
+        if (messageStart != messageOffset)
+        {
+            // The header was a different length to the last message's, so the message needs to be moved up against
+            // the framing in front of it. The next message is likely to be the same length as this one.
+            encodedMessageStartGap = messageStart - encodeOffset;
+            if (messageOffset + length > claimBuffer.capacity())
+            {
+                outboundPublication.abortClaimedMessage();
+                throw new IndexOutOfBoundsException(
+                    "Encoded message of length " + length + " is longer than the claim of " + maxMessageLength);
+            }
+            claimBuffer.putBytes(messageOffset, claimBuffer, messageStart, length);
+        }
+
+        claimedMessageLength = length;
+        claimedSeqNum = sentSeqNum;
+        claimedMessageType = encoder.messageType();
+        claimedPosition = position;
+        claimedMetaDataBuffer = metaDataBuffer;
+        claimedMetaDataUpdateOffset = metaDataUpdateOffset;
+
+        return position;
+    }
+
+    /**
+     * Sends the message claimed by {@link #tryClaim(Encoder, int)}.
+     *
+     * @throws IllegalStateException if there's no claimed message.
+     */
+    public void commit()
+    {
+        validateClaim();
+
+        final GatewayPublication outboundPublication = this.outboundPublication;
+        final int messageLength = claimedMessageLength;
+        outboundPublication.commitClaimedMessage(
+            messageLength,
+            libraryId,
+            claimedMessageType,
+            id(),
+            sequenceIndex(),
+            connectionId,
+            OK,
+            claimedSeqNum,
+            claimedMetaDataBuffer,
+            claimedMetaDataUpdateOffset);
+
+        lastSentMsgSeqNum(claimedSeqNum, claimedPosition);
+
+        final int metaDataLength = claimedMetaDataBuffer == null ? 0 : claimedMetaDataBuffer.capacity();
+        DebugLogger.log(
+            FIX_MESSAGE, "Sent ", claimBuffer, outboundPublication.claimedMessageOffset(metaDataLength), messageLength);
+
+        resetClaim();
+    }
+
+    /**
+     * Discards the message claimed by {@link #tryClaim(Encoder, int)} without sending it.
+     *
+     * @throws IllegalStateException if there's no claimed message.
+     */
+    public void abort()
+    {
+        validateClaim();
+
+        outboundPublication.abortClaimedMessage();
+
+        resetClaim();
+    }
+
+    private void validateClaim()
+    {
+        if (claimedMessageLength == NO_CLAIM)
+        {
+            throw new IllegalStateException("No message has been claimed");
+        }
+    }
+
+    private void resetClaim()
+    {
+        claimedMessageLength = NO_CLAIM;
+        claimedMetaDataBuffer = null;
+    }
+
     /**
      * Check if the session is in a state where it can send a message.
      * <p>
@@ -1794,14 +1974,25 @@ public class Session
         incNextReceivedInboundMessageTime(time);
         sendingHeartbeatIntervalInMs = (long)(heartbeatIntervalInMs * HEARTBEAT_PAUSE_FACTOR);
         nextRequiredHeartbeatTimeInMs = time + sendingHeartbeatIntervalInMs;
+        onPollTimeChanged();
     }
 
     protected Session state(final SessionState state)
     {
         this.state = state;
+        onPollTimeChanged();
         return this;
     }
 
+    // See nextPollTimeInMs, timeouts that are only ever pushed back by activity don't need to call this
+    private void onPollTimeChanged()
+    {
+        if (sessionProcessHandler != null)
+        {
+            sessionProcessHandler.onPollTimeChanged(this);
+        }
+    }
+
     void id(final long id)
     {
         this.id = id;
@@ -2008,6 +2199,37 @@ public class Session
         }
     }
 
+    /**
+     * Get the earliest time at which {@link #poll(long)} has work to do, assuming that no messages are received
+     * and that the session's state isn't changed in the meantime.
+     *
+     * @param time the current time.
+     * @return the earliest time at which the session needs polling, or {@link Long#MAX_VALUE} if it doesn't.
+     */
+    long nextPollTimeInMs(final long time)
+    {
+        switch (state().value())
+        {
+            case DISCONNECTED_VALUE:
+            case DISABLED_VALUE:
+                return Long.MAX_VALUE;
+
+            case AWAITING_LOGOUT_VALUE:
+                return awaitingLogoutTimeoutInMs + 1;
+
+            case DISCONNECTING_VALUE:
+            case LOGGING_OUT_VALUE:
+            case LOGGING_OUT_AND_DISCONNECTING_VALUE:
+                return time;
+
+            case ACTIVE_VALUE:
+                return Math.min(nextRequiredHeartbeatTimeInMs, nextRequiredInboundMessageTimeInMs);
+
+            default:
+                return nextRequiredInboundMessageTimeInMs;
+        }
+    }
+
     void libraryConnected(final boolean libraryConnected)
     {
         proxy.libraryConnected(libraryConnected);
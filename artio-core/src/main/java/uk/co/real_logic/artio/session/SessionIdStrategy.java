@@ -58,6 +58,34 @@ public interface SessionIdStrategy
      */
     CompositeKey onAcceptLogon(SessionHeaderDecoder header);
 
+    /**
+     * Computes the hash code of the composite session key that {@link #onAcceptLogon(SessionHeaderDecoder)} would
+     * create, without creating it. Along with {@link #matchesAcceptLogon(CompositeKey, SessionHeaderDecoder)} this
+     * lets the engine look up the sessions that log on again without allocating. The default implementation creates
+     * the key, so strategies should override both methods.
+     *
+     * @param header the header of the logon message.
+     * @return the hash code of the composite session key.
+     */
+    default int acceptLogonHashCode(final SessionHeaderDecoder header)
+    {
+        return onAcceptLogon(header).hashCode();
+    }
+
+    /**
+     * Checks whether a composite session key is equal to the one that {@link #onAcceptLogon(SessionHeaderDecoder)}
+     * would create, without creating it.
+     *
+     * @param compositeKey the composite session key of an existing session.
+     * @param header the header of the logon message.
+     * @return true if the logon is for the session with this composite session key, false otherwise.
+     * @see #acceptLogonHashCode(SessionHeaderDecoder)
+     */
+    default boolean matchesAcceptLogon(final CompositeKey compositeKey, final SessionHeaderDecoder header)
+    {
+        return compositeKey.equals(onAcceptLogon(header));
+    }
+
     /**
      * Creates the composite session key when you initiate a logon.
      *
@@ -114,6 +114,7 @@ public class SessionParser
         final long position)
     {
         asciiBuffer.wrap(buffer);
+        messageInfo.header(null, 0);
 
         final Action action;
 
@@ -299,7 +300,7 @@ public class SessionParser
     {
         final SessionHeaderDecoder header = this.header;
         header.reset();
-        header.decode(asciiBuffer, offset, length);
+        final int headerLength = header.decode(asciiBuffer, offset, length);
 
         final char[] msgType = header.msgType();
         final int msgTypeLength = header.msgTypeLength();
@@ -317,7 +318,13 @@ public class SessionParser
         }
         else
         {
-            return onMessage(header, position);
+            final Action action = onMessage(header, position);
+            // The session sets the message info as invalid if the message fails its validation
+            if (messageInfo.isValid())
+            {
+                messageInfo.header(header, headerLength);
+            }
+            return action;
         }
 
         return CONTINUE;
@@ -37,4 +37,14 @@ public interface SessionProcessHandler
         long timeout);
 
     void enqueueTask(BooleanSupplier task);
+
+    /**
+     * Invoked when the state or heartbeat interval of the session changes, so it may need polling sooner than
+     * previously scheduled. Does nothing by default, for handlers that poll their sessions on every duty cycle.
+     *
+     * @param session the session that has changed.
+     */
+    default void onPollTimeChanged(final Session session)
+    {
+    }
 }
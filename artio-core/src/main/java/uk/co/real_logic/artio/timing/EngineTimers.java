@@ -20,8 +20,14 @@ import uk.co.real_logic.artio.Clock;
 import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Timers for the stages of a message's path through the engine. Inbound messages are timed from when they were read
+ * from their TCP connection and outbound messages from when they were sent by their library.
+ */
 public class EngineTimers
 {
+    private final Timer inboundPublishTimer;
+    private final Timer indexTimer;
     private final Timer outboundTimer;
     private final Timer sendTimer;
     private final List<Timer> timers;
@@ -30,7 +36,29 @@ public class EngineTimers
     {
         outboundTimer = new Timer(clock, "Outbound", 1);
         sendTimer = new Timer(clock, "Send", 2);
-        timers = Arrays.asList(outboundTimer, sendTimer);
+        inboundPublishTimer = new Timer(clock, "Inbound Publish", 3);
+        indexTimer = new Timer(clock, "Index", 4);
+        timers = Arrays.asList(inboundPublishTimer, indexTimer, outboundTimer, sendTimer);
+    }
+
+    /**
+     * Times inbound messages from their TCP read until they have been published to libraries by the framer.
+     *
+     * @return the timer.
+     */
+    public Timer inboundPublishTimer()
+    {
+        return inboundPublishTimer;
+    }
+
+    /**
+     * Times messages from their TCP read or library send until they have been indexed for replay.
+     *
+     * @return the timer.
+     */
+    public Timer indexTimer()
+    {
+        return indexTimer;
     }
 
     public Timer outboundTimer()
@@ -19,6 +19,7 @@ import org.agrona.CloseHelper;
 import org.agrona.ErrorHandler;
 import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.EpochClock;
+import uk.co.real_logic.artio.FixCounters;
 
 import java.util.List;
 
@@ -32,6 +33,31 @@ public class HistogramLogAgent implements Agent
 
     private long nextWriteTimeInMs = 0;
 
+    public HistogramLogAgent(
+        final List<Timer> timers,
+        final String logFile,
+        final long intervalInMs,
+        final ErrorHandler errorHandler,
+        final EpochClock milliClock,
+        final HistogramHandler histogramHandler,
+        final String agentNamePrefix)
+    {
+        this(timers, logFile, intervalInMs, errorHandler, milliClock, histogramHandler, agentNamePrefix, null, null);
+    }
+
+    /**
+     * Create the agent.
+     *
+     * @param timers the timers to poll.
+     * @param logFile the file to log histograms to if no histogramHandler is provided.
+     * @param intervalInMs the interval at which to poll the timers.
+     * @param errorHandler the error handler for failures logging histograms.
+     * @param milliClock the clock that determines when to poll the timers.
+     * @param histogramHandler the handler for polled histograms, or null to log them to logFile.
+     * @param agentNamePrefix the prefix for the agent's role name.
+     * @param fixCounters the counters to publish latency percentiles to, or null not to publish them.
+     * @param processName the name of this process in the latency counters' labels.
+     */
     @SuppressWarnings("FinalParameters")
     public HistogramLogAgent(
         final List<Timer> timers,
@@ -40,7 +66,9 @@ public class HistogramLogAgent implements Agent
         final ErrorHandler errorHandler,
         final EpochClock milliClock,
         HistogramHandler histogramHandler,
-        final String agentNamePrefix)
+        final String agentNamePrefix,
+        final FixCounters fixCounters,
+        final String processName)
     {
         this.timers = timers;
         this.intervalInMs = intervalInMs;
@@ -52,6 +80,11 @@ public class HistogramLogAgent implements Agent
             histogramHandler = new HistogramLogWriter(timers.size(), logFile, errorHandler);
         }
 
+        if (fixCounters != null)
+        {
+            histogramHandler = new LatencyCounters(fixCounters, processName, histogramHandler);
+        }
+
         this.histogramHandler = histogramHandler;
         timers.forEach(timer -> this.histogramHandler.identifyTimer(timer.id(), timer.name()));
         histogramHandler.onEndTimerIdentification();
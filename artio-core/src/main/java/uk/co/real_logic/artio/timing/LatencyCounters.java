@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+import org.HdrHistogram.Histogram;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.FixCounters;
+
+/**
+ * Publishes the count and percentiles of each timer's latest interval histogram to counters, before passing the
+ * histogram on to another {@link HistogramHandler}. This lets tools that read the Aeron counters file, such as
+ * AeronStat, sample the latency of each stage of a message's path live.
+ *
+ * Counter values are in the units of the configured {@link uk.co.real_logic.artio.Clock} and cover the period of
+ * the last histogram poll.
+ */
+class LatencyCounters implements HistogramHandler
+{
+    private static final double[] PERCENTILES = {50.0, 99.0, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p99", "p99.9"};
+    private static final int COUNT = 0;
+    private static final int FIRST_PERCENTILE = COUNT + 1;
+    private static final int MAX = FIRST_PERCENTILE + PERCENTILES.length;
+
+    private final Int2ObjectHashMap<AtomicCounter[]> timerIdToCounters = new Int2ObjectHashMap<>();
+    private final FixCounters fixCounters;
+    private final String processName;
+    private final HistogramHandler delegate;
+
+    LatencyCounters(final FixCounters fixCounters, final String processName, final HistogramHandler delegate)
+    {
+        this.fixCounters = fixCounters;
+        this.processName = processName;
+        this.delegate = delegate;
+    }
+
+    public void identifyTimer(final int id, final String name)
+    {
+        final AtomicCounter[] counters = new AtomicCounter[MAX + 1];
+        counters[COUNT] = fixCounters.latency(processName, name, "count");
+        for (int i = 0; i < PERCENTILES.length; i++)
+        {
+            counters[FIRST_PERCENTILE + i] = fixCounters.latency(processName, name, PERCENTILE_NAMES[i]);
+        }
+        counters[MAX] = fixCounters.latency(processName, name, "max");
+        timerIdToCounters.put(id, counters);
+
+        delegate.identifyTimer(id, name);
+    }
+
+    public void onEndTimerIdentification()
+    {
+        delegate.onEndTimerIdentification();
+    }
+
+    public void onBeginTimerUpdate(final long currentTimeInMs)
+    {
+        delegate.onBeginTimerUpdate(currentTimeInMs);
+    }
+
+    public void onTimerUpdate(final int id, final Histogram histogram)
+    {
+        final AtomicCounter[] counters = timerIdToCounters.get(id);
+        if (counters != null)
+        {
+            counters[COUNT].setOrdered(histogram.getTotalCount());
+            for (int i = 0; i < PERCENTILES.length; i++)
+            {
+                counters[FIRST_PERCENTILE + i].setOrdered(histogram.getValueAtPercentile(PERCENTILES[i]));
+            }
+            counters[MAX].setOrdered(histogram.getMaxValue());
+        }
+
+        delegate.onTimerUpdate(id, histogram);
+    }
+
+    public void onEndTimerUpdate()
+    {
+        delegate.onEndTimerUpdate();
+    }
+
+    public void close() throws Exception
+    {
+        delegate.close();
+    }
+}
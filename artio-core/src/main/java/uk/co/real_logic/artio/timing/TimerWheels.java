@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+import org.agrona.DeadlineTimerWheel;
+
+public final class TimerWheels
+{
+    /**
+     * Expire all the timers that are due. {@link DeadlineTimerWheel#poll(long, DeadlineTimerWheel.TimerHandler, int)}
+     * only advances the wheel by a single tick, so on its own the wheel falls behind the time whenever the duty
+     * cycle takes longer than a tick.
+     *
+     * @param timerWheel the timer wheel to poll.
+     * @param now the current time.
+     * @param handler the handler for the timers that have expired, this must always return true.
+     * @return the number of timers that have expired.
+     */
+    public static int poll(
+        final DeadlineTimerWheel timerWheel, final long now, final DeadlineTimerWheel.TimerHandler handler)
+    {
+        // The wheel only advances past a tick once it's over, so keep polling until it stops at the tick containing
+        // now, which is polled as well.
+        int expired = 0;
+        long tickTime;
+        do
+        {
+            tickTime = timerWheel.currentTickTime();
+            expired += timerWheel.poll(now, handler, Integer.MAX_VALUE);
+        }
+        while (timerWheel.timerCount() > 0 && timerWheel.currentTickTime() != tickTime);
+
+        if (timerWheel.timerCount() == 0)
+        {
+            // No timers to expire on the ticks in between
+            timerWheel.currentTickTime(now);
+        }
+
+        return expired;
+    }
+}
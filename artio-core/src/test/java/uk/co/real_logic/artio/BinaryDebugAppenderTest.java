@@ -0,0 +1,136 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Test;
+import uk.co.real_logic.artio.BinaryDebugAppender.BinaryThreadLocalAppender;
+import uk.co.real_logic.artio.util.CharFormatter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.Assert.assertEquals;
+
+public class BinaryDebugAppenderTest
+{
+    private static final int RING_BUFFER_CAPACITY = 64 * 1024;
+    private static final int SMALL_RING_BUFFER_CAPACITY = 1024;
+    private static final int FILLING_EVENTS = 10_000;
+    private static final Pattern DROPPED_PATTERN = Pattern.compile("\\d+:.*Dropped (\\d+) debug logging events");
+    private static final String MESSAGE = "8=FIX.4.4\0019=5\00135=0\00110=000\001";
+
+    private final File file = new File(IoUtil.tmpDirName(), "binary-debug-appender-test.log");
+    private final CharFormatter formatter = new CharFormatter("Received %s, seq=%s:%n%s");
+
+    @After
+    public void tearDown()
+    {
+        IoUtil.delete(file, true);
+    }
+
+    @Test
+    public void shouldDecodeEventsInTheFormatOfThePrintingAppender() throws IOException
+    {
+        final UnsafeBuffer message = new UnsafeBuffer(MESSAGE.getBytes(US_ASCII));
+
+        final BinaryDebugAppender appender = new BinaryDebugAppender(file, RING_BUFFER_CAPACITY);
+        final BinaryThreadLocalAppender localAppender = appender.makeLocalAppender();
+        localAppender
+            .event(LogTag.FIX_MESSAGE, formatter)
+            .arg("session")
+            .arg(42L)
+            .arg(message, 0, message.capacity())
+            .commit();
+        localAppender.event(LogTag.REPLAY, null).arg("Gateway Received ").arg(message, 0, message.capacity()).commit();
+        localAppender.log(LogTag.CLOSE, new StringBuilder("Closing").append(System.lineSeparator()));
+        appender.close();
+
+        final String[] lines = decode().split(System.lineSeparator());
+        final String prefix = "\\d+:" + Thread.currentThread().getName();
+        assertEquals(4, lines.length);
+        assertThat(lines[0], matchesPattern(prefix + "\\[FIX_MESSAGE]Received session, seq=42:"));
+        assertEquals(MESSAGE, lines[1]);
+        assertThat(lines[2], matchesPattern(prefix + "\\[REPLAY]Gateway Received " + MESSAGE));
+        assertThat(lines[3], matchesPattern(prefix + "\\[CLOSE]Closing"));
+    }
+
+    @Test
+    public void shouldCountEventsThatDoNotFitInTheRingBuffer() throws IOException
+    {
+        final UnsafeBuffer message = new UnsafeBuffer(MESSAGE.getBytes(US_ASCII));
+        final BinaryDebugAppender appender = new BinaryDebugAppender(file, RING_BUFFER_CAPACITY);
+        final BinaryThreadLocalAppender localAppender = appender.makeLocalAppender();
+
+        final UnsafeBuffer oversizedMessage = new UnsafeBuffer(new byte[RING_BUFFER_CAPACITY]);
+        localAppender.event(LogTag.FIX_MESSAGE, null).arg(oversizedMessage, 0, RING_BUFFER_CAPACITY).commit();
+        localAppender.event(LogTag.FIX_MESSAGE, null).arg(message, 0, message.capacity()).commit();
+        appender.close();
+
+        final String[] lines = decode().split(System.lineSeparator());
+        assertEquals(2, lines.length);
+        assertThat(lines[0], matchesPattern("\\d+:.*Dropped 1 debug logging events"));
+        assertThat(lines[1], matchesPattern("\\d+:.*\\[FIX_MESSAGE]" + MESSAGE));
+    }
+
+    @Test
+    public void shouldCountEachEventDroppedWhenTheRingBufferIsFull() throws IOException
+    {
+        final BinaryDebugAppender appender = new BinaryDebugAppender(file, SMALL_RING_BUFFER_CAPACITY);
+        final BinaryThreadLocalAppender localAppender = appender.makeLocalAppender();
+
+        // New formatters are written before their events, so dropping them has to be counted once too.
+        int loggedEvents = 0;
+        for (; loggedEvents < FILLING_EVENTS; loggedEvents++)
+        {
+            localAppender.event(LogTag.FIX_MESSAGE, new CharFormatter("Event " + loggedEvents + " %s"))
+                .arg(loggedEvents)
+                .commit();
+        }
+        assertThat(localAppender.droppedEvents(), greaterThan(0L));
+
+        // Keep logging until the count of dropped events has been written out
+        while (localAppender.droppedEvents() > 0)
+        {
+            localAppender.event(LogTag.FIX_MESSAGE, null).arg("Drained").commit();
+            loggedEvents++;
+        }
+        appender.close();
+
+        long decodedEvents = 0;
+        for (final String line : decode().split(System.lineSeparator()))
+        {
+            final Matcher dropped = DROPPED_PATTERN.matcher(line);
+            decodedEvents += dropped.matches() ? Long.parseLong(dropped.group(1)) : 1;
+        }
+        assertEquals(loggedEvents, decodedEvents);
+    }
+
+    private String decode() throws IOException
+    {
+        final StringBuilder output = new StringBuilder();
+        new BinaryDebugLogDecoder(output).decode(file);
+        return output.toString();
+    }
+}
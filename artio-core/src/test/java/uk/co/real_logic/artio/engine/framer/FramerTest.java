@@ -32,6 +32,7 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.verification.VerificationMode;
+import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.Timing;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.engine.CompletionPosition;
@@ -103,6 +104,7 @@ public class FramerTest
     private final SenderEndPoint mockSenderEndPoint = mock(SenderEndPoint.class);
     private final FixReceiverEndPoint mockReceiverEndPoint = mock(FixReceiverEndPoint.class);
     private final EndPointFactory mockEndPointFactory = mock(EndPointFactory.class);
+    private final FixCounters fixCounters = mock(FixCounters.class, RETURNS_MOCKS);
     private final GatewayPublication inboundPublication = mock(GatewayPublication.class);
     private final SessionIdStrategy mockSessionIdStrategy = mock(SessionIdStrategy.class);
     private final Header header = mock(Header.class);
@@ -178,6 +180,7 @@ public class FramerTest
             mock(Timer.class),
             engineConfiguration,
             mockEndPointFactory,
+            fixCounters,
             outboundLibrarySubscription,
             outboundSlowSubscription,
             replayImage,
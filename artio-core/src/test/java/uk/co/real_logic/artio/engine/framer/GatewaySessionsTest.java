@@ -0,0 +1,229 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+import uk.co.real_logic.artio.FixCounters;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.logger.SequenceNumberIndexReader;
+import uk.co.real_logic.artio.fields.EpochFractionFormat;
+import uk.co.real_logic.artio.messages.ConnectionType;
+import uk.co.real_logic.artio.messages.SessionState;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.session.SessionCustomisationStrategy;
+import uk.co.real_logic.artio.session.SessionIdStrategy;
+import uk.co.real_logic.artio.validation.SessionPersistenceStrategy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.engine.framer.GatewaySessions.NO_POLL_TIMER;
+
+public class GatewaySessionsTest
+{
+    private static final long SESSION_ID = 1;
+    private static final long OTHER_SESSION_ID = 2;
+    private static final int HEARTBEAT_INTERVAL_IN_S = 10;
+    private static final long DISCONNECT_TIME_IN_MS = 100;
+
+    private final FakeEpochClock epochClock = new FakeEpochClock();
+    private final FixCounters fixCounters = mock(FixCounters.class);
+    private final GatewayPublication outboundPublication = mock(GatewayPublication.class);
+
+    private long connectionId = 1;
+
+    private final GatewaySessions gatewaySessions = newGatewaySessions();
+
+    @Test
+    public void shouldScheduleIdleSessionUntilItNeedsPolling()
+    {
+        final FixReceiverEndPoint receiverEndPoint = mock(FixReceiverEndPoint.class);
+        final GatewaySession session = acquire(SESSION_ID, receiverEndPoint);
+        session.disconnectAt(DISCONNECT_TIME_IN_MS);
+        assertPolling(session);
+
+        assertEquals(0, gatewaySessions.pollSessions(0));
+        assertScheduled(session);
+
+        assertEquals(0, gatewaySessions.pollSessions(DISCONNECT_TIME_IN_MS - 1));
+        assertScheduled(session);
+        verify(receiverEndPoint, never()).onNoLogonDisconnect();
+
+        assertEquals(1, gatewaySessions.pollSessions(DISCONNECT_TIME_IN_MS));
+        assertPolling(session);
+        verify(receiverEndPoint).onNoLogonDisconnect();
+    }
+
+    @Test
+    public void shouldCancelScheduledPollWhenSessionStateChanges()
+    {
+        final GatewaySession session = acquire(SESSION_ID);
+        gatewaySessions.pollSessions(0);
+        assertScheduled(session);
+
+        session.session().requestDisconnect();
+        assertPolling(session);
+
+        // A disconnected session never needs polling again
+        gatewaySessions.pollSessions(1);
+        assertFalse(session.isPolling());
+        assertEquals(NO_POLL_TIMER, session.pollTimerId());
+    }
+
+    @Test
+    public void shouldCancelScheduledPollWhenSessionIsReleased()
+    {
+        final GatewaySession session = acquire(SESSION_ID);
+        gatewaySessions.pollSessions(0);
+        assertScheduled(session);
+
+        assertSame(session, gatewaySessions.releaseBySessionId(SESSION_ID));
+
+        assertFalse(session.isPolling());
+        assertEquals(NO_POLL_TIMER, session.pollTimerId());
+        assertEquals(0, gatewaySessions.pollSessions(SECONDS.toMillis(HEARTBEAT_INTERVAL_IN_S)));
+    }
+
+    @Test
+    public void shouldRemoveReleasedSessionsFromIndexes()
+    {
+        final GatewaySession session = acquire(SESSION_ID);
+        final GatewaySession otherSession = acquire(OTHER_SESSION_ID);
+
+        assertSame(session, gatewaySessions.releaseBySessionId(SESSION_ID));
+        assertNull(gatewaySessions.sessionById(SESSION_ID));
+        assertNull(gatewaySessions.releaseBySessionId(SESSION_ID));
+        assertSame(otherSession, gatewaySessions.sessionById(OTHER_SESSION_ID));
+
+        gatewaySessions.releaseByConnectionId(otherSession.connectionId());
+        assertNull(gatewaySessions.sessionById(OTHER_SESSION_ID));
+        assertEquals(Collections.emptyList(), gatewaySessions.sessions());
+    }
+
+    @Test
+    public void shouldFindOtherSessionsWithTheSameSessionIdOnceTheFirstIsReleased()
+    {
+        final GatewaySession firstSession = acquire(SESSION_ID);
+        final GatewaySession secondSession = acquire(SESSION_ID);
+        final GatewaySession thirdSession = acquire(SESSION_ID);
+
+        assertSame(firstSession, gatewaySessions.sessionById(SESSION_ID));
+
+        gatewaySessions.releaseByConnectionId(secondSession.connectionId());
+        assertSame(firstSession, gatewaySessions.sessionById(SESSION_ID));
+
+        gatewaySessions.releaseByConnectionId(firstSession.connectionId());
+        assertSame(thirdSession, gatewaySessions.sessionById(SESSION_ID));
+
+        gatewaySessions.releaseByConnectionId(thirdSession.connectionId());
+        assertNull(gatewaySessions.sessionById(SESSION_ID));
+    }
+
+    @Test
+    public void shouldKeepSessionsInTheOrderThatTheyWereAdded()
+    {
+        final GatewaySession firstSession = acquire(SESSION_ID);
+        final GatewaySession secondSession = acquire(OTHER_SESSION_ID);
+        final GatewaySession thirdSession = acquire(OTHER_SESSION_ID + 1);
+
+        gatewaySessions.releaseByConnectionId(firstSession.connectionId());
+        assertEquals(Arrays.asList(secondSession, thirdSession), gatewaySessions.sessions());
+
+        final GatewaySession fourthSession = acquire(OTHER_SESSION_ID + 2);
+        gatewaySessions.releaseBySessionId(thirdSession.sessionId());
+        assertEquals(Arrays.asList(secondSession, fourthSession), gatewaySessions.sessions());
+    }
+
+    private void assertPolling(final GatewaySession session)
+    {
+        assertTrue(session.isPolling());
+        assertEquals(NO_POLL_TIMER, session.pollTimerId());
+    }
+
+    private void assertScheduled(final GatewaySession session)
+    {
+        assertFalse(session.isPolling());
+        assertNotEquals(NO_POLL_TIMER, session.pollTimerId());
+    }
+
+    private GatewaySession acquire(final long sessionId)
+    {
+        return acquire(sessionId, mock(FixReceiverEndPoint.class));
+    }
+
+    private GatewaySession acquire(final long sessionId, final FixReceiverEndPoint receiverEndPoint)
+    {
+        final SessionContext context = mock(SessionContext.class);
+        when(context.sessionId()).thenReturn(sessionId);
+
+        final GatewaySession session = new GatewaySession(
+            connectionId++,
+            context,
+            "localhost",
+            ConnectionType.ACCEPTOR,
+            null,
+            receiverEndPoint,
+            mock(SenderEndPoint.class),
+            mock(Consumer.class),
+            false,
+            0,
+            false,
+            false,
+            null,
+            DISCONNECT_TIME_IN_MS);
+
+        gatewaySessions.acquire(
+            session,
+            SessionState.ACTIVE,
+            false,
+            HEARTBEAT_INTERVAL_IN_S,
+            0,
+            0,
+            null,
+            null,
+            mock(BlockablePosition.class));
+
+        return session;
+    }
+
+    private GatewaySessions newGatewaySessions()
+    {
+        when(fixCounters.sentMsgSeqNo(anyLong())).thenReturn(mock(AtomicCounter.class));
+        when(fixCounters.receivedMsgSeqNo(anyLong())).thenReturn(mock(AtomicCounter.class));
+
+        return new GatewaySessions(
+            epochClock,
+            mock(GatewayPublication.class),
+            outboundPublication,
+            mock(SessionIdStrategy.class),
+            mock(SessionCustomisationStrategy.class),
+            fixCounters,
+            new EngineConfiguration(),
+            mock(ErrorHandler.class),
+            mock(SessionContexts.class),
+            mock(SessionPersistenceStrategy.class),
+            mock(SequenceNumberIndexReader.class),
+            mock(SequenceNumberIndexReader.class),
+            EpochFractionFormat.MILLISECONDS);
+    }
+}
@@ -15,14 +15,15 @@
  */
 package uk.co.real_logic.artio.engine.framer;
 
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.status.AtomicCounter;
 import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.function.LongConsumer;
 
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.engine.framer.ReceiverEndPoints.disconnectILinkConnections;
 
 public class ReceiverEndPointsTest
@@ -30,6 +31,52 @@ public class ReceiverEndPointsTest
     private static final int LIBRARY_ID = 1;
 
     private final LongConsumer removeFunc = mock(LongConsumer.class);
+    private final AtomicCounter selects = mock(AtomicCounter.class);
+    private final AtomicCounter reads = mock(AtomicCounter.class);
+
+    @Test
+    public void shouldReadEveryEndPointBelowPollingThreshold()
+    {
+        final ReceiverEndPoints receiverEndPoints = new ReceiverEndPoints(
+            mock(ErrorHandler.class), 5, selects, reads);
+        final ReceiverEndPoint[] endPoints = makeEndPoints();
+        for (final ReceiverEndPoint endPoint : endPoints)
+        {
+            receiverEndPoints.add(endPoint);
+        }
+
+        receiverEndPoints.pollEndPoints();
+
+        for (final ReceiverEndPoint endPoint : endPoints)
+        {
+            verify(endPoint).poll();
+        }
+        verify(reads).getAndAddOrdered(endPoints.length);
+        verifyNoInteractions(selects);
+        receiverEndPoints.close();
+    }
+
+    @Test
+    public void shouldSelectAbovePollingThreshold()
+    {
+        final ReceiverEndPoints receiverEndPoints = new ReceiverEndPoints(
+            mock(ErrorHandler.class), 0, selects, reads);
+        final ReceiverEndPoint[] endPoints = makeEndPoints();
+        for (final ReceiverEndPoint endPoint : endPoints)
+        {
+            receiverEndPoints.add(endPoint);
+        }
+
+        receiverEndPoints.pollEndPoints();
+
+        for (final ReceiverEndPoint endPoint : endPoints)
+        {
+            verify(endPoint, never()).poll();
+        }
+        verify(selects).incrementOrdered();
+        verifyNoInteractions(reads);
+        receiverEndPoints.close();
+    }
 
     @Test
     public void shouldRemoveILink3EndPoints()
@@ -78,7 +78,46 @@ public class SenderEndPointTest
         DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
         0,
         senderSequenceNumber,
-        messageTimingHandler);
+        messageTimingHandler,
+        0,
+        mock(AtomicCounter.class),
+        mock(AtomicCounter.class));
+
+    @Test
+    public void shouldCoalesceMessagesIntoSingleWrite() throws IOException
+    {
+        final SenderEndPoint endPoint = newCoalescingEndPoint();
+        when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(2 * BODY_LENGTH);
+
+        endPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 1, POSITION, 0);
+        endPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 2, POSITION + FRAGMENT_LENGTH, 0);
+        verify(tcpChannel, never()).write(any(ByteBuffer.class));
+
+        assertEquals(2, endPoint.flush(0));
+        verify(tcpChannel, times(1)).write(any(ByteBuffer.class));
+        verify(messageTimingHandler).onMessage(1, CONNECTION_ID);
+        verify(messageTimingHandler).onMessage(2, CONNECTION_ID);
+        assertBytesInBuffer(0);
+        assertFalse(endPoint.hasCoalescedMessages());
+    }
+
+    @Test
+    public void shouldBecomeSlowConsumerWhenCoalescedWriteIsPartial() throws IOException
+    {
+        final SenderEndPoint endPoint = newCoalescingEndPoint();
+        final int firstWrites = BODY_LENGTH + 10;
+        when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(firstWrites);
+
+        endPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 1, POSITION, 0);
+        endPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 2, POSITION + FRAGMENT_LENGTH, 0);
+        endPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 3, POSITION + 2 * FRAGMENT_LENGTH, 0);
+        endPoint.flush(0);
+
+        verify(messageTimingHandler).onMessage(1, CONNECTION_ID);
+        verifyNoMoreInteractions(messageTimingHandler);
+        assertBytesInBuffer(3 * BODY_LENGTH - firstWrites);
+        verify(framer).slowStatus(LIBRARY_ID, CONNECTION_ID, true);
+    }
 
     @Test
     public void shouldRetrySlowConsumerMessage()
@@ -418,6 +457,28 @@ public class SenderEndPointTest
         verifyNoMoreErrors();
     }
 
+    private SenderEndPoint newCoalescingEndPoint()
+    {
+        return new SenderEndPoint(
+            CONNECTION_ID,
+            LIBRARY_ID,
+            libraryBlockablePosition,
+            replayBlockablePosition,
+            tcpChannel,
+            bytesInBuffer,
+            invalidLibraryAttempts,
+            errorHandler,
+            framer,
+            MAX_BYTES_IN_BUFFER,
+            DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
+            0,
+            senderSequenceNumber,
+            messageTimingHandler,
+            1024,
+            mock(AtomicCounter.class),
+            mock(AtomicCounter.class));
+    }
+
     private void byteBufferNotWritten()
     {
         byteBufferWritten(never());
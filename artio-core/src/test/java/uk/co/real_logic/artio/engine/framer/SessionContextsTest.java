@@ -21,7 +21,10 @@ import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Test;
 import uk.co.real_logic.artio.FileSystemCorruptionException;
+import uk.co.real_logic.artio.builder.Encoder;
 import uk.co.real_logic.artio.builder.LogonEncoder;
+import uk.co.real_logic.artio.decoder.LogonDecoder;
+import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.MappedFile;
@@ -45,6 +48,7 @@ import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_INITIAL_SEQUENCE_INDEX;
@@ -266,6 +270,48 @@ public class SessionContextsTest
         assertEquals(3, cContext.sessionId());
     }
 
+    @Test
+    public void shouldLookupAcceptedLogonsOfExistingSessionsWithoutCreatingKeys()
+    {
+        final SessionIdStrategy idStrategy = spy(this.idStrategy);
+        when(mappedFile.buffer()).thenReturn(buffer);
+        final SessionContexts sessionContexts = new SessionContexts(
+            mappedFile, idStrategy, DEFAULT_INITIAL_SEQUENCE_INDEX, errorHandler);
+        final SessionContext aContext = sessionContexts.onLogon(aSession, fixDictionary);
+        sessionContexts.onDisconnect(aContext.sessionId());
+
+        final SessionHeaderDecoder header = decodeLogonHeader(aSession.remoteCompId(), aSession.localCompId());
+
+        assertSame(aContext, sessionContexts.onAcceptLogon(header, fixDictionary));
+        assertEquals(DUPLICATE_SESSION, sessionContexts.onAcceptLogon(header, fixDictionary));
+        verify(idStrategy, never()).onAcceptLogon(any());
+    }
+
+    @Test
+    public void shouldLookupManyAcceptedLogons()
+    {
+        final int sessionCount = 1_000;
+        sessionContexts = newSessionContexts(new UnsafeBuffer(ByteBuffer.allocate(128 * 1024)));
+
+        final SessionContext[] contexts = new SessionContext[sessionCount];
+        for (int i = 0; i < sessionCount; i++)
+        {
+            contexts[i] = sessionContexts.onAcceptLogon(decodeLogonHeader("init" + i, "acc"), fixDictionary);
+            assertNotEquals(DUPLICATE_SESSION, contexts[i]);
+        }
+
+        assertThat(sessionContexts.allSessions(), hasSize(sessionCount));
+        for (int i = 0; i < sessionCount; i++)
+        {
+            final SessionContext context = contexts[i];
+            sessionContexts.onDisconnect(context.sessionId());
+            assertSame(context, sessionContexts.allSessions().get(i));
+            assertSame(context, sessionContexts.lookupById(context.sessionId()));
+            assertSame(context, sessionContexts.onLogon(
+                idStrategy.onInitiateLogon("acc", null, null, "init" + i, null, null), fixDictionary));
+        }
+    }
+
     @Test
     public void shouldSupportDictionaryUpdatesAndCompaction()
     {
@@ -287,7 +333,7 @@ public class SessionContextsTest
 
         // Restart with compaction
         sessionContexts = newSessionContexts(buffer);
-        final SessionContext reloadedAContext = sessionContexts.lookupById(sessionIdA).getValue();
+        final SessionContext reloadedAContext = sessionContexts.lookupById(sessionIdA);
         assertEquals(fixtDictionary.getClass(), reloadedAContext.lastFixDictionary().getClass());
         final int filePosition3 = sessionContexts.filePosition();
         assertThat(filePosition3, lessThan(filePosition2));
@@ -315,7 +361,7 @@ public class SessionContextsTest
         // Check that reloaded information is read
         final SessionContexts sessionContexts2 = newSessionContexts(oldBuffer);
         assertThat(sessionContexts2.allSessions(), hasSize(1));
-        final SessionContext newContext = sessionContexts2.lookupById(context.sessionId()).getValue();
+        final SessionContext newContext = sessionContexts2.lookupById(context.sessionId());
         assertEquals(fixtDictionary.getClass(), newContext.lastFixDictionary().getClass());
     }
 
@@ -371,4 +417,12 @@ public class SessionContextsTest
             .targetCompID(targetCompID);
         return logonEncoder.encryptMethod(0).heartBtInt(0).encode(asciiBuffer, 0);
     }
+
+    private SessionHeaderDecoder decodeLogonHeader(final String senderCompID, final String targetCompID)
+    {
+        final long result = logonWithSenderAndTarget(senderCompID, targetCompID);
+        final LogonDecoder logon = new LogonDecoder();
+        logon.decode(asciiBuffer, Encoder.offset(result), Encoder.length(result));
+        return logon.header();
+    }
 }
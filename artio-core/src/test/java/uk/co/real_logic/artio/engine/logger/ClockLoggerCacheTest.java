@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ClockLoggerCacheTest
+{
+    private static final int CAPACITY = 4;
+
+    private final List<Long> evicted = new ArrayList<>();
+    private final List<Long> created = new ArrayList<>();
+
+    private LoggerCache<Long> cache = new ClockLoggerCache<>(CAPACITY, evicted::add);
+
+    @Test
+    public void shouldCreateValueOnlyOnceWhileCached()
+    {
+        assertEquals(Long.valueOf(1), lookup(1));
+        assertEquals(Long.valueOf(1), lookup(1));
+
+        assertThat(created, contains(1L));
+        assertThat(evicted, empty());
+    }
+
+    @Test
+    public void shouldEvictWhenFull()
+    {
+        lookupAll(1, 2, 3, 4, 5);
+
+        assertThat(evicted, contains(1L));
+        assertEquals(CAPACITY, ((ClockLoggerCache<Long>)cache).size());
+
+        lookup(1);
+        assertThat(created, contains(1L, 2L, 3L, 4L, 5L, 1L));
+    }
+
+    @Test
+    public void shouldKeepFrequentlyUsedValuesOverOneOffLookups()
+    {
+        lookupAll(1, 2, 1, 2, 1, 2, 1, 2);
+
+        // A scan of keys that are only looked up once
+        lookupAll(3, 4, 5, 6, 7, 8, 9, 10);
+        created.clear();
+
+        lookupAll(1, 2);
+
+        assertThat(created, empty());
+        assertThat(evicted, not(hasItems(1L, 2L)));
+    }
+
+    @Test
+    public void shouldCloseRemovedValues()
+    {
+        lookupAll(1, 2, 3);
+
+        assertEquals(Long.valueOf(2), cache.remove(2));
+        assertNull(cache.remove(2));
+        assertThat(evicted, contains(2L));
+
+        final List<Long> values = new ArrayList<>();
+        cache.forEach(values::add);
+        assertThat(values, containsInAnyOrder(1L, 3L));
+
+        created.clear();
+        lookupAll(1, 3, 2);
+        assertThat(created, contains(2L));
+    }
+
+    @Test
+    public void shouldCloseAllValuesWhenCleared()
+    {
+        lookupAll(1, 2, 3);
+
+        cache.clear();
+
+        assertThat(evicted, containsInAnyOrder(1L, 2L, 3L));
+        final List<Long> values = new ArrayList<>();
+        cache.forEach(values::add);
+        assertThat(values, empty());
+    }
+
+    @Test
+    public void shouldNotCacheNullValues()
+    {
+        assertNull(cache.computeIfAbsent(1, key -> null));
+
+        lookup(1);
+        assertThat(created, contains(1L));
+    }
+
+    @Test
+    public void shouldCountHitsMissesAndEvictions()
+    {
+        final AtomicCounter hits = mock(AtomicCounter.class);
+        final AtomicCounter misses = mock(AtomicCounter.class);
+        final AtomicCounter evictions = mock(AtomicCounter.class);
+        cache = CountingLoggerCache.factory(ClockLoggerCache::new, hits, misses, evictions)
+            .newCache(1, CAPACITY, evicted::add);
+
+        lookupAll(1, 1, 2, 3, 4, 5);
+        cache.remove(5);
+        cache.clear();
+
+        verify(hits, times(1)).increment();
+        verify(misses, times(5)).increment();
+        verify(evictions, times(1)).increment();
+        assertThat(evicted, containsInAnyOrder(1L, 2L, 3L, 4L, 5L));
+    }
+
+    private void lookupAll(final long... keys)
+    {
+        for (final long key : keys)
+        {
+            lookup(key);
+        }
+    }
+
+    private Long lookup(final long key)
+    {
+        return cache.computeIfAbsent(key, this::create);
+    }
+
+    private Long create(final long key)
+    {
+        created.add(key);
+        return key;
+    }
+}
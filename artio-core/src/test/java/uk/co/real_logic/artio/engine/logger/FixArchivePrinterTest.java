@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.fail;
+
+public class FixArchivePrinterTest
+{
+    private final FixArchivePrinter printer = new FixArchivePrinter();
+
+    @Test
+    public void shouldIgnoreFixDictionaryOptionWithDeprecationWarning()
+    {
+        final PrintStream err = System.err;
+        final ByteArrayOutputStream errOutput = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(errOutput));
+        try
+        {
+            printer.parseArgs(new String[]{"--aeron-dir-name=dir", "--aeron-channel=aeron:ipc",
+                "--fix-dictionary=uk.co.real_logic.artio.ExampleDictionary"});
+            printer.validateArgs();
+        }
+        finally
+        {
+            System.setErr(err);
+        }
+
+        assertThat(errOutput.toString(), containsString("--fix-dictionary is deprecated and ignored"));
+    }
+
+    @Test
+    public void shouldAcceptILinkOptionForCompatibility()
+    {
+        printer.parseArgs(new String[]{"--aeron-dir-name=dir", "--aeron-channel=aeron:ipc", "--ilink"});
+        printer.validateArgs();
+    }
+
+    @Test
+    public void shouldRejectFieldWithoutValue()
+    {
+        assertRejected("--field", "--aeron-dir-name=dir", "--aeron-channel=aeron:ipc", "--field=55");
+    }
+
+    private void assertRejected(final String expectedMessage, final String... args)
+    {
+        try
+        {
+            printer.parseArgs(args);
+            printer.validateArgs();
+            fail("Accepted arguments");
+        }
+        catch (final IllegalArgumentException e)
+        {
+            assertThat(e.getMessage(), containsString(expectedMessage));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import uk.co.real_logic.artio.dictionary.generation.GenerationUtil;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static org.junit.Assert.*;
+
+public class FixMessageFilterTest
+{
+    private static final String BODY =
+        "8=FIX.4.4\0019=0079\00135=D\00149=INITIATOR\00156=ACCEPTOR\00134=2\001" +
+        "55=MSFT\00138=100\00155=AAPL\00110=123\001";
+    private static final long SESSION_ID = 3;
+    private static final long TIMESTAMP = 200;
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[1024]);
+    private final FixMessageEncoder encoder = new FixMessageEncoder()
+        .wrap(buffer, 0)
+        .session(SESSION_ID)
+        .timestamp(TIMESTAMP)
+        .messageType(GenerationUtil.packMessageType("D"))
+        .body(BODY);
+    private final FixMessageDecoder decoder = new FixMessageDecoder()
+        .wrap(buffer, 0, encoder.sbeBlockLength(), encoder.sbeSchemaVersion());
+
+    @Test
+    public void shouldPassEverythingWhenEmpty()
+    {
+        final CompiledFixMessageFilter predicate = new FixMessageFilter().compile();
+
+        assertTrue(predicate.test(decoder));
+        assertNarrowed(predicate, false);
+    }
+
+    @Test
+    public void shouldFilterOnFrameFields()
+    {
+        assertPasses(new FixMessageFilter().from(TIMESTAMP).to(TIMESTAMP + 1));
+        assertPasses(new FixMessageFilter().sessionIds(1, SESSION_ID));
+        assertPasses(new FixMessageFilter().messageTypes("8", "D"));
+
+        assertFails(new FixMessageFilter().from(TIMESTAMP + 1));
+        assertFails(new FixMessageFilter().to(TIMESTAMP));
+        assertFails(new FixMessageFilter().sessionIds(SESSION_ID + 1));
+        assertFails(new FixMessageFilter().messageTypes("8"));
+    }
+
+    @Test
+    public void shouldFilterOnFields()
+    {
+        assertPasses(new FixMessageFilter().senderCompId("INITIATOR").targetCompId("ACCEPTOR"));
+        assertPasses(new FixMessageFilter().fieldEquals(38, "100"));
+        assertPasses(new FixMessageFilter().fieldEquals(10, "123"));
+
+        assertFails(new FixMessageFilter().senderCompId("ACCEPTOR"));
+        assertFails(new FixMessageFilter().senderCompId("INITIATOR").targetCompId("INITIATOR"));
+        assertFails(new FixMessageFilter().fieldEquals(38, "10"));
+        assertFails(new FixMessageFilter().fieldEquals(38, "1000"));
+        assertFails(new FixMessageFilter().senderSubId("INITIATOR"));
+    }
+
+    @Test
+    public void shouldOnlyMatchFirstOccurrenceOfField()
+    {
+        assertPasses(new FixMessageFilter().fieldEquals(55, "MSFT"));
+        assertFails(new FixMessageFilter().fieldEquals(55, "AAPL"));
+    }
+
+    @Test
+    public void shouldReplaceRepeatedFieldCondition()
+    {
+        assertPasses(new FixMessageFilter().fieldEquals(55, "AAPL").fieldEquals(55, "MSFT"));
+    }
+
+    @Test
+    public void shouldNotBeAffectedByChangesAfterCompilation()
+    {
+        final FixMessageFilter filter = new FixMessageFilter().senderCompId("INITIATOR");
+        final CompiledFixMessageFilter predicate = filter.compile();
+
+        filter.senderCompId("ACCEPTOR").sessionIds(SESSION_ID + 1);
+
+        assertTrue(predicate.test(decoder));
+    }
+
+    @Test
+    public void shouldMatchRawFixMessages()
+    {
+        final MutableAsciiBuffer asciiBuffer = new MutableAsciiBuffer(BODY.getBytes());
+        final CompiledFixMessageFilter predicate = new FixMessageFilter()
+            .targetCompId("ACCEPTOR")
+            .fieldEquals(38, "100")
+            .compile();
+
+        assertTrue(predicate.matchesBody(asciiBuffer, 0, asciiBuffer.capacity()));
+        assertFalse(predicate.matchesBody(asciiBuffer, 0, BODY.indexOf("38=")));
+    }
+
+    @Test
+    public void shouldNarrowTimeIndexQuery()
+    {
+        assertNarrowed(new FixMessageFilter().from(TIMESTAMP).compile(), true);
+        assertNarrowed(new FixMessageFilter().sessionIds(SESSION_ID).compile(), true);
+        assertNarrowed(new FixMessageFilter().messageTypes("D").compile(), true);
+        assertNarrowed(new FixMessageFilter().senderCompId("INITIATOR").compile(), false);
+    }
+
+    @Test
+    public void shouldComposeWithOtherPredicates()
+    {
+        final CompiledFixMessageFilter predicate = new FixMessageFilter().fieldEquals(38, "100").compile();
+
+        assertTrue(predicate.and(FixMessagePredicates.sessionOf(SESSION_ID)).test(decoder));
+        assertFalse(predicate.and(FixMessagePredicates.sessionOf(SESSION_ID + 1)).test(decoder));
+    }
+
+    private void assertPasses(final FixMessageFilter filter)
+    {
+        assertTrue(filter.compile().test(decoder));
+    }
+
+    private void assertFails(final FixMessageFilter filter)
+    {
+        assertFalse(filter.compile().test(decoder));
+    }
+
+    private static void assertNarrowed(final FixMessagePredicate predicate, final boolean narrowed)
+    {
+        final TimeIndexQuery query = new TimeIndexQuery();
+        predicate.narrow(query);
+        assertEquals(narrowed, !query.isUnconstrained());
+    }
+}
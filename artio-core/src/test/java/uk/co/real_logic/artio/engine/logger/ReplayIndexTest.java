@@ -22,6 +22,7 @@ import io.aeron.Subscription;
 import io.aeron.archive.ArchivingMediaDriver;
 import io.aeron.archive.client.AeronArchive;
 import io.aeron.archive.codecs.SourceLocation;
+import io.aeron.archive.status.RecordingPos;
 import io.aeron.logbuffer.ControlledFragmentHandler;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
@@ -31,6 +32,7 @@ import org.agrona.concurrent.NoOpIdleStrategy;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.YieldingIdleStrategy;
 import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.concurrent.status.CountersReader;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -46,19 +48,22 @@ import uk.co.real_logic.artio.session.Session;
 
 import java.io.File;
 import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.stream.IntStream;
 
 import static io.aeron.Aeron.NULL_VALUE;
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.aMapWithSize;
 import static org.hamcrest.Matchers.greaterThan;
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_INBOUND_MAX_CLAIM_ATTEMPTS;
 import static uk.co.real_logic.artio.LogTag.REPLAY;
 import static uk.co.real_logic.artio.TestFixtures.cleanupMediaDriver;
 import static uk.co.real_logic.artio.TestFixtures.largeTestReqId;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.*;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.INITIAL_RECORD_OFFSET;
 import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.RECORD_LENGTH;
 import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
 
@@ -82,6 +87,7 @@ public class ReplayIndexTest extends AbstractLogTest
     });
 
     private ReplayIndex replayIndex;
+    private int sessionsPerSegment = 0;
 
     private final UnsafeBuffer replayPositionBuffer =
         new UnsafeBuffer(new byte[EngineConfiguration.DEFAULT_REPLAY_POSITION_BUFFER_SIZE]);
@@ -104,15 +110,50 @@ public class ReplayIndexTest extends AbstractLogTest
             DEFAULT_LOG_FILE_DIR,
             STREAM_ID,
             DEFAULT_REPLAY_INDEX_FILE_SIZE,
+            DEFAULT_REPLAY_INDEX_INITIAL_FILE_SIZE,
             DEFAULT_LOGGER_CACHE_NUM_SETS,
             DEFAULT_LOGGER_CACHE_SET_SIZE,
-            newBufferFactory,
+            ClockLoggerCache::new,
+            newStorage(),
             replayPositionBuffer,
             errorHandler,
             recordingIdLookup,
             new Long2LongHashMap(Session.UNKNOWN));
     }
 
+    private void newReplayQuery()
+    {
+        query = new ReplayQuery(
+            DEFAULT_LOGGER_CACHE_NUM_SETS,
+            DEFAULT_LOGGER_CACHE_SET_SIZE,
+            ClockLoggerCache::new,
+            newStorage(),
+            new NoOpIdleStrategy(),
+            aeronArchive,
+            errorHandler,
+            DEFAULT_ARCHIVE_REPLAY_STREAM);
+    }
+
+    private ReplayIndexStorage newStorage()
+    {
+        if (sessionsPerSegment > 0)
+        {
+            return new SegmentedReplayIndexStorage(
+                DEFAULT_LOG_FILE_DIR, STREAM_ID, DEFAULT_REPLAY_INDEX_FILE_SIZE, sessionsPerSegment);
+        }
+
+        return new FileReplayIndexStorage(
+            DEFAULT_LOG_FILE_DIR, STREAM_ID, newBufferFactory, existingBufferFactory, errorHandler);
+    }
+
+    private void useSegments(final int sessionsPerSegment)
+    {
+        Exceptions.closeAll(query, replayIndex);
+        this.sessionsPerSegment = sessionsPerSegment;
+        newReplayIndex();
+        newReplayQuery();
+    }
+
     private Aeron aeron()
     {
         return aeronArchive.context().aeron();
@@ -136,18 +177,10 @@ public class ReplayIndexTest extends AbstractLogTest
 
         IoUtil.deleteIfExists(logFile(SESSION_ID));
         IoUtil.deleteIfExists(logFile(SESSION_ID_2));
+        IntStream.range(0, 2).forEach(segmentIndex -> IoUtil.deleteIfExists(segmentFile(segmentIndex)));
 
         newReplayIndex();
-        query = new ReplayQuery(
-            DEFAULT_LOG_FILE_DIR,
-            DEFAULT_LOGGER_CACHE_NUM_SETS,
-            DEFAULT_LOGGER_CACHE_SET_SIZE,
-            existingBufferFactory,
-            DEFAULT_OUTBOUND_LIBRARY_STREAM,
-            new NoOpIdleStrategy(),
-            aeronArchive,
-            errorHandler,
-            DEFAULT_ARCHIVE_REPLAY_STREAM);
+        newReplayQuery();
     }
 
     @After
@@ -268,6 +301,23 @@ public class ReplayIndexTest extends AbstractLogTest
         assertEquals(2, msgCount);
     }
 
+    @Test(timeout = 20_000L)
+    public void shouldQueryWithinLaterSequenceIndex()
+    {
+        final int previousSequenceIndexMessages = 300;
+        IntStream.rangeClosed(1, previousSequenceIndexMessages).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+
+        final int nextSequenceIndex = SEQUENCE_INDEX + 1;
+        IntStream.rangeClosed(1, 5).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, nextSequenceIndex));
+
+        final int msgCount = query(2, nextSequenceIndex, 4, nextSequenceIndex);
+
+        verifyMessagesRead(3);
+        assertEquals(3, msgCount);
+    }
+
     @Test(timeout = 20_000L)
     public void shouldNotStopIndexingWhenBufferFull()
     {
@@ -287,6 +337,46 @@ public class ReplayIndexTest extends AbstractLogTest
         verifyMessagesRead(expectedMessages);
     }
 
+    @Test(timeout = 20_000L)
+    public void shouldGrowIndexFileWhenFull()
+    {
+        final int initialRecords = (DEFAULT_REPLAY_INDEX_INITIAL_FILE_SIZE - INITIAL_RECORD_OFFSET) / RECORD_LENGTH;
+
+        IntStream.rangeClosed(1, initialRecords).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+
+        assertEquals(DEFAULT_REPLAY_INDEX_INITIAL_FILE_SIZE, logFile(SESSION_ID).length());
+
+        final int endSequenceNumber = initialRecords + 1;
+        indexExampleMessage(SESSION_ID, endSequenceNumber, SEQUENCE_INDEX);
+
+        assertEquals(
+            INITIAL_RECORD_OFFSET + 2 * (DEFAULT_REPLAY_INDEX_INITIAL_FILE_SIZE - INITIAL_RECORD_OFFSET),
+            logFile(SESSION_ID).length());
+
+        final int msgCount = query(1, SEQUENCE_INDEX, endSequenceNumber, SEQUENCE_INDEX);
+
+        assertEquals(endSequenceNumber, msgCount);
+        verifyMessagesRead(endSequenceNumber);
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldQueryRecordsIndexedAfterIndexFileGrew()
+    {
+        indexExampleMessage(SESSION_ID, 1, SEQUENCE_INDEX);
+        assertEquals(1, query(1, SEQUENCE_INDEX, 1, SEQUENCE_INDEX));
+
+        final int endSequenceNumber = 3 * (DEFAULT_REPLAY_INDEX_INITIAL_FILE_SIZE - INITIAL_RECORD_OFFSET) /
+            RECORD_LENGTH;
+        IntStream.rangeClosed(2, endSequenceNumber).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+
+        final int beginSequenceNumber = endSequenceNumber - 1;
+        assertEquals(2, query(beginSequenceNumber, SEQUENCE_INDEX, endSequenceNumber, SEQUENCE_INDEX));
+        assertEquals(endSequenceNumber, query(1, SEQUENCE_INDEX, endSequenceNumber, SEQUENCE_INDEX));
+        verifyMappedFile(SESSION_ID, 2);
+    }
+
     @Test(timeout = 20_000L)
     public void shouldUpdatePositionForIndexedRecord()
     {
@@ -356,6 +446,124 @@ public class ReplayIndexTest extends AbstractLogTest
         assertEquals(otherPrunePosition, startPositions.get(otherRecordingId));
     }
 
+    @Test(timeout = 20_000L)
+    public void shouldQueryRecordsFromSegments()
+    {
+        useSegments(2);
+
+        final long thirdSessionId = SESSION_ID_2 + 1;
+        indexExampleMessage(SESSION_ID, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+        indexExampleMessage(SESSION_ID_2, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+        indexExampleMessage(thirdSessionId, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+        indexExampleMessage(SESSION_ID, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+
+        assertEquals(2, query(SESSION_ID, SEQUENCE_NUMBER, SEQUENCE_INDEX, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX));
+        assertEquals(1, query(SESSION_ID_2, SEQUENCE_NUMBER, SEQUENCE_INDEX, SEQUENCE_NUMBER, SEQUENCE_INDEX));
+        assertEquals(1, query(thirdSessionId, SEQUENCE_NUMBER, SEQUENCE_INDEX, SEQUENCE_NUMBER, SEQUENCE_INDEX));
+        assertTrue(segmentFile(1).exists());
+        assertFalse(logFile(SESSION_ID).exists());
+        verifyNoInteractions(newBufferFactory, existingBufferFactory);
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldReadRecordsFromSegmentsBeforeARestart()
+    {
+        useSegments(2);
+        indexExampleMessage();
+        indexExampleMessage(SESSION_ID_2, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+
+        useSegments(2);
+        indexExampleMessage(SESSION_ID, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+
+        assertEquals(2, query(SESSION_ID, SEQUENCE_NUMBER, SEQUENCE_INDEX, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX));
+        assertEquals(1, query(SESSION_ID_2, SEQUENCE_NUMBER, SEQUENCE_INDEX, SEQUENCE_NUMBER, SEQUENCE_INDEX));
+        assertFalse(segmentFile(1).exists());
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldClearSegmentSlotWhenSequenceNumberIsReset()
+    {
+        useSegments(2);
+        indexExampleMessage();
+        indexExampleMessage(SESSION_ID_2, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+
+        final GatewayPublication gatewayPublication = newGatewayPublication(publication);
+        assertThat(gatewayPublication.saveResetSequenceNumber(SESSION_ID), greaterThan(0L));
+        indexRecord();
+
+        assertEquals(0, query());
+        assertEquals(1, query(SESSION_ID_2, SEQUENCE_NUMBER, SEQUENCE_INDEX, SEQUENCE_NUMBER, SEQUENCE_INDEX));
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldOnlyQueryRecordsIndexedAfterSegmentSlotIsReset()
+    {
+        useSegments(2);
+        IntStream.range(0, 3).forEach(i -> indexExampleMessage(SESSION_ID, SEQUENCE_NUMBER + i, SEQUENCE_INDEX));
+        assertEquals(3, query(SEQUENCE_NUMBER, SEQUENCE_INDEX, SEQUENCE_NUMBER + 2, SEQUENCE_INDEX));
+
+        final GatewayPublication gatewayPublication = newGatewayPublication(publication);
+        assertThat(gatewayPublication.saveResetSequenceNumber(SESSION_ID), greaterThan(0L));
+        indexRecord();
+        indexExampleMessage(SESSION_ID, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+
+        assertEquals(1, query(SEQUENCE_NUMBER, SEQUENCE_INDEX, SEQUENCE_NUMBER + 2, SEQUENCE_INDEX));
+        assertEquals(1, query(SEQUENCE_NUMBER, SEQUENCE_INDEX, MOST_RECENT_MESSAGE, SEQUENCE_INDEX));
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldQueryStartPositionsFromSegments()
+    {
+        useSegments(1);
+
+        shouldQueryStartPositions();
+    }
+
+    private File segmentFile(final int segmentIndex)
+    {
+        return ReplayIndexDescriptor.replayIndexSegmentFile(DEFAULT_LOG_FILE_DIR, segmentIndex, STREAM_ID);
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldCatchUpWithRecordedMessagesThatWereNotIndexed()
+    {
+        indexExampleMessage(SESSION_ID, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+        bufferContainsExampleMessage(true, SESSION_ID, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        publishBuffer(publication);
+        bufferContainsExampleMessage(true, SESSION_ID_2, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+        final long stopPosition = publishBuffer(publication);
+        awaitRecordingStopped(stopPosition);
+
+        final AtomicCounter remainingBytes = mock(AtomicCounter.class);
+        final AtomicCounter remainingRecordings = mock(AtomicCounter.class);
+        final IndexCatchup catchup = new IndexCatchup(
+            aeronArchive, errorHandler, DEFAULT_ARCHIVE_REPLAY_STREAM, remainingBytes, remainingRecordings);
+        catchup.add(Collections.singletonList(replayIndex));
+        catchup.run();
+
+        assertEquals(2, query(SESSION_ID, SEQUENCE_NUMBER, SEQUENCE_INDEX, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX));
+        assertEquals(1, query(SESSION_ID_2, SEQUENCE_NUMBER, SEQUENCE_INDEX, SEQUENCE_NUMBER, SEQUENCE_INDEX));
+        verify(remainingRecordings).setOrdered(1);
+        verify(remainingRecordings).decrement();
+    }
+
+    private void awaitRecordingStopped(final long stopPosition)
+    {
+        final CountersReader counters = aeron().countersReader();
+        final int counterId = RecordingPos.findCounterIdBySession(counters, publication.sessionId());
+        final long recordingId = RecordingPos.getRecordingId(counters, counterId);
+        while (counters.getCounterValue(counterId) < stopPosition)
+        {
+            Thread.yield();
+        }
+
+        aeronArchive.stopRecording(CHANNEL, STREAM_ID);
+        while (aeronArchive.getStopPosition(recordingId) == NULL_POSITION)
+        {
+            Thread.yield();
+        }
+    }
+
     private void captureRecordingIds()
     {
         final int recordingCount = aeronArchive.listRecordings(0, 2,
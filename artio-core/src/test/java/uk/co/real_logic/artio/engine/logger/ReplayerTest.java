@@ -80,6 +80,7 @@ public class ReplayerTest extends AbstractLogTest
             "112=a12345678910123456789101234567891012345\00110=005\001").getBytes(US_ASCII);
 
     private static final int MAX_CLAIM_ATTEMPTS = 100;
+    private static final int RESEND_CACHE_SESSION_SIZE = 64 * 1024;
 
     private final ReplayQuery replayQuery = mock(ReplayQuery.class);
     private final Subscription subscription = mock(Subscription.class);
@@ -94,6 +95,15 @@ public class ReplayerTest extends AbstractLogTest
     private final ReplayOperation replayOperation = mock(ReplayOperation.class);
     private final AtomicCounter bytesInBufferCounter = mock(AtomicCounter.class);
     private final AtomicCounter currentReplayCounter = mock(AtomicCounter.class);
+    private final AtomicCounter resendCacheHits = mock(AtomicCounter.class);
+    private final AtomicCounter resendCacheMisses = mock(AtomicCounter.class);
+    private final ResendCache resendCache = new ResendCache(
+        RESEND_CACHE_SESSION_SIZE,
+        RESEND_CACHE_SESSION_SIZE,
+        STREAM_ID,
+        errorHandler,
+        resendCacheHits,
+        resendCacheMisses);
 
     private Replayer replayer;
 
@@ -101,6 +111,7 @@ public class ReplayerTest extends AbstractLogTest
     public void setUp()
     {
         when(fragmentHeader.flags()).thenReturn((byte)DataHeaderFlyweight.BEGIN_AND_END_FLAGS);
+        when(fragmentHeader.streamId()).thenReturn(STREAM_ID);
         when(clock.time()).thenReturn(DATE_TIME_EPOCH_MS);
         when(publication.tryClaim(anyInt(), any())).thenReturn(1L);
         when(publication.maxPayloadLength()).thenReturn(Configuration.mtuLength() - DataHeaderFlyweight.HEADER_LENGTH);
@@ -132,7 +143,8 @@ public class ReplayerTest extends AbstractLogTest
             mock(ReplayerCommandQueue.class),
             EpochFractionFormat.MILLISECONDS,
             currentReplayCounter,
-            DEFAULT_MAX_CONCURRENT_SESSION_REPLAYS);
+            DEFAULT_MAX_CONCURRENT_SESSION_REPLAYS,
+            resendCache);
     }
 
     private void setReplayedMessages(final int replayedMessages)
@@ -175,6 +187,28 @@ public class ReplayerTest extends AbstractLogTest
         verifyReplayCompleteMessageSent();
     }
 
+    @Test
+    public void shouldResendCachedMessagesWithoutQueryingArchive()
+    {
+        bufferContainsExampleMessage(true);
+        final int srcLength = fragmentLength();
+        resendCache.onFragment(buffer, START, srcLength, fragmentHeader);
+
+        setupCapturingClaim();
+        final long result = bufferHasResendRequest(END_SEQ_NO);
+        onRequestResendMessage(result, END_SEQ_NO);
+
+        replayer.doWork();
+
+        verifyNoInteractions(replayQuery);
+        verify(resendCacheHits).increment();
+        assertHasResentWithPossDupFlag(srcLength, times(1));
+
+        replayer.doWork();
+
+        verifyReplayCompleteMessageSent();
+    }
+
     @Test
     public void shouldSupportConcurrentReplayRequests()
     {
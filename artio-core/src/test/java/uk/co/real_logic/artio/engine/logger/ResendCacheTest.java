@@ -0,0 +1,239 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ResendCacheTest extends AbstractLogTest
+{
+    private static final int SESSION_CACHE_SIZE = 1024;
+    private static final int MESSAGES_TO_WRAP = 20;
+
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final AtomicCounter hits = mock(AtomicCounter.class);
+    private final AtomicCounter misses = mock(AtomicCounter.class);
+    private final Header header = mock(Header.class);
+    private final List<String> replayedMessages = new ArrayList<>();
+
+    private Action replayAction = CONTINUE;
+    private ResendCache resendCache = newResendCache(4 * SESSION_CACHE_SIZE);
+
+    @Before
+    public void setUp()
+    {
+        when(header.streamId()).thenReturn(STREAM_ID);
+        when(header.flags()).thenReturn(UNFRAGMENTED);
+    }
+
+    @After
+    public void tearDown()
+    {
+        verify(errorHandler, never()).onError(any());
+    }
+
+    @Test
+    public void shouldReplayCachedRange()
+    {
+        sendMessages(SESSION_ID, 1, 5);
+
+        final ResendCache.Replay replay = replay(SESSION_ID, 2, 4);
+
+        assertNotNull(replay);
+        assertTrue(replay.attemptReplay());
+        assertFalse(replay.evicted());
+        assertEquals(3, replay.replayedMessages());
+        assertReplayedSequenceNumbers(2, 4);
+        verify(hits).increment();
+        verify(misses, never()).increment();
+    }
+
+    @Test
+    public void shouldMissWhenRangeIsNotFullyCached()
+    {
+        sendMessages(SESSION_ID, 2, 5);
+
+        assertNull(replay(SESSION_ID, 1, 3));
+        assertNull(replay(SESSION_ID, 4, 6));
+        assertNull(replay(SESSION_ID_2, 2, 3));
+        assertNull(resendCache.replay(SESSION_ID, SEQUENCE_INDEX + 1, 2, 3, this::onReplayed));
+        verify(misses, times(4)).increment();
+        verify(hits, never()).increment();
+    }
+
+    @Test
+    public void shouldEvictOldestMessagesOfSession()
+    {
+        sendMessages(SESSION_ID, 1, MESSAGES_TO_WRAP);
+
+        assertNull(replay(SESSION_ID, 1, MESSAGES_TO_WRAP));
+        assertReplaysRange(SESSION_ID, MESSAGES_TO_WRAP - 1, MESSAGES_TO_WRAP);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedSession()
+    {
+        resendCache = newResendCache(2 * SESSION_CACHE_SIZE);
+
+        sendMessages(SESSION_ID, 1, 2);
+        sendMessages(SESSION_ID_2, 1, 2);
+        assertReplaysRange(SESSION_ID, 1, 2);
+
+        final long thirdSessionId = SESSION_ID_2 + 1;
+        sendMessages(thirdSessionId, 1, 2);
+
+        assertNull(replay(SESSION_ID_2, 1, 2));
+        assertReplaysRange(SESSION_ID, 1, 2);
+        assertReplaysRange(thirdSessionId, 1, 2);
+    }
+
+    @Test
+    public void shouldRestartRangeWhenSequenceNumbersAreNotContiguous()
+    {
+        sendMessages(SESSION_ID, 1, 2);
+        sendMessages(SESSION_ID, 5, 6);
+
+        assertNull(replay(SESSION_ID, 1, 2));
+        assertNull(replay(SESSION_ID, 2, 5));
+        assertReplaysRange(SESSION_ID, 5, 6);
+    }
+
+    @Test
+    public void shouldRestartRangeAfterFragmentedMessage()
+    {
+        sendMessages(SESSION_ID, 1, 2);
+
+        when(header.flags()).thenReturn(BEGIN_FRAG_FLAG);
+        sendMessages(SESSION_ID, 3, 3);
+        when(header.flags()).thenReturn(UNFRAGMENTED);
+        sendMessages(SESSION_ID, 4, 4);
+
+        assertNull(replay(SESSION_ID, 1, 4));
+        assertNull(replay(SESSION_ID, 3, 4));
+        assertReplaysRange(SESSION_ID, 4, 4);
+    }
+
+    @Test
+    public void shouldNotCacheWhenDisabled()
+    {
+        resendCache = newResendCache(0);
+
+        sendMessages(SESSION_ID, 1, 2);
+
+        assertNull(replay(SESSION_ID, 1, 2));
+        verify(misses).increment();
+    }
+
+    @Test
+    public void shouldContinueReplayAfterHandlerAborts()
+    {
+        sendMessages(SESSION_ID, 1, 3);
+        final ResendCache.Replay replay = replay(SESSION_ID, 1, 3);
+
+        replayAction = ABORT;
+        assertFalse(replay.attemptReplay());
+        assertEquals(0, replay.replayedMessages());
+
+        replayAction = CONTINUE;
+        replayedMessages.clear();
+        assertTrue(replay.attemptReplay());
+        assertFalse(replay.evicted());
+        assertEquals(3, replay.replayedMessages());
+        assertReplayedSequenceNumbers(1, 3);
+    }
+
+    @Test
+    public void shouldStopReplayWhenMessagesAreEvicted()
+    {
+        sendMessages(SESSION_ID, 1, 3);
+        final ResendCache.Replay replay = replay(SESSION_ID, 1, 3);
+
+        replayAction = ABORT;
+        assertFalse(replay.attemptReplay());
+
+        sendMessages(SESSION_ID, 4, MESSAGES_TO_WRAP);
+
+        replayAction = CONTINUE;
+        assertTrue(replay.attemptReplay());
+        assertTrue(replay.evicted());
+        assertEquals(0, replay.replayedMessages());
+    }
+
+    private ResendCache newResendCache(final int cacheSize)
+    {
+        return new ResendCache(SESSION_CACHE_SIZE, cacheSize, STREAM_ID, errorHandler, hits, misses);
+    }
+
+    private void sendMessages(final long sessionId, final int fromSequenceNumber, final int toSequenceNumber)
+    {
+        for (int sequenceNumber = fromSequenceNumber; sequenceNumber <= toSequenceNumber; sequenceNumber++)
+        {
+            bufferContainsExampleMessage(true, sessionId, sequenceNumber, SEQUENCE_INDEX);
+            resendCache.onFragment(buffer, START, fragmentLength(), header);
+        }
+    }
+
+    private ResendCache.Replay replay(final long sessionId, final int beginSeqNo, final int endSeqNo)
+    {
+        return resendCache.replay(sessionId, SEQUENCE_INDEX, beginSeqNo, endSeqNo, this::onReplayed);
+    }
+
+    private Action onReplayed(
+        final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        if (replayAction != ABORT)
+        {
+            replayedMessages.add(buffer.getStringWithoutLengthAscii(offset, length));
+        }
+        return replayAction;
+    }
+
+    private void assertReplaysRange(final long sessionId, final int beginSeqNo, final int endSeqNo)
+    {
+        replayedMessages.clear();
+        final ResendCache.Replay replay = replay(sessionId, beginSeqNo, endSeqNo);
+        assertNotNull(replay);
+        assertTrue(replay.attemptReplay());
+        assertReplayedSequenceNumbers(beginSeqNo, endSeqNo);
+    }
+
+    private void assertReplayedSequenceNumbers(final int beginSeqNo, final int endSeqNo)
+    {
+        assertEquals(replayedMessages.toString(), endSeqNo - beginSeqNo + 1, replayedMessages.size());
+        for (int i = 0; i < replayedMessages.size(); i++)
+        {
+            assertThat(replayedMessages.get(i), containsString("\00134=" + (beginSeqNo + i) + "\001"));
+        }
+    }
+}
@@ -316,6 +316,62 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         }
     }
 
+    @Test
+    public void shouldPersistRecordsUpdatedAcrossSeveralFlushes()
+    {
+        // Enough sessions that their records span more than one sector
+        final int sessions = SECTOR_SIZE / RECORD_SIZE + 1;
+        for (int sessionId = 1; sessionId <= sessions; sessionId++)
+        {
+            bufferContainsExampleMessage(true, sessionId, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+            indexRecord();
+        }
+        flushIndexFile();
+
+        bufferContainsExampleMessage(true, sessions, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexRecord();
+        flushIndexFile();
+
+        bufferContainsExampleMessage(true, 1, SEQUENCE_NUMBER + 2, SEQUENCE_INDEX);
+        final long position = indexRecord();
+        flushIndexFile();
+
+        final SequenceNumberIndexReader newReader = newInstanceAfterRestart();
+        assertLastKnownSequenceNumberIs(1, SEQUENCE_NUMBER + 2, newReader);
+        for (int sessionId = 2; sessionId < sessions; sessionId++)
+        {
+            assertLastKnownSequenceNumberIs(sessionId, SEQUENCE_NUMBER, newReader);
+        }
+        assertLastKnownSequenceNumberIs(sessions, SEQUENCE_NUMBER + 1, newReader);
+        assertEquals(position, newReader.indexedPosition(publication.sessionId()));
+    }
+
+    @Test
+    public void shouldPersistSectorsOnlyChecksummedAtStartupWhenFlushedTwice()
+    {
+        // Large enough for the indexed positions table to span several sectors
+        final int bufferSize = 8 * BUFFER_SIZE;
+        writer.close();
+        deleteFiles();
+        writer = newWriter(new UnsafeBuffer(new byte[bufferSize]), bufferSize);
+
+        indexFixMessage();
+        flushIndexFile();
+
+        bufferContainsExampleMessage(true, SESSION_ID, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexRecord();
+        flushIndexFile();
+
+        // Validates the checksum of every sector of the index file
+        newWriter(new UnsafeBuffer(new byte[bufferSize]), bufferSize).close();
+    }
+
+    private void flushIndexFile()
+    {
+        clock.advanceMilliSeconds(DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS + 1);
+        assertEquals(1, writer.doWork());
+    }
+
     @Test
     public void shouldResetSequenceNumbers()
     {
@@ -352,6 +408,50 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         assertLastKnownSequenceNumberIs(SESSION_ID_2, 0);
     }
 
+    @Test
+    public void shouldFindSessionsIndexedAfterAnUnknownLookup()
+    {
+        indexFixMessage();
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, UNK_SESSION);
+
+        writer.resetSequenceNumber(SESSION_ID_2, 1000);
+
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, 0);
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER);
+    }
+
+    @Test
+    public void shouldNotFindSessionAtItsOldRecordAfterReset()
+    {
+        indexFixMessage();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER);
+
+        writer.resetSequenceNumbers();
+        writer.resetSequenceNumber(SESSION_ID_2, 1000);
+
+        assertUnknownSession();
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, 0);
+    }
+
+    @Test
+    public void shouldFindSessionWrittenBeforeAnUnchangedLastRecordAfterReset()
+    {
+        final long otherSessionId = SESSION_ID_2 + 1;
+
+        writer.resetSequenceNumber(SESSION_ID, 1000);
+        writer.resetSequenceNumber(SESSION_ID_2, 1000);
+        assertLastKnownSequenceNumberIs(SESSION_ID, 0);
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, 0);
+
+        writer.resetSequenceNumbers();
+        writer.resetSequenceNumber(otherSessionId, 1000);
+        writer.resetSequenceNumber(SESSION_ID_2, 1000);
+
+        assertLastKnownSequenceNumberIs(otherSessionId, 0);
+        assertUnknownSession();
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, 0);
+    }
+
     private SequenceNumberIndexReader newInstanceAfterRestart()
     {
         final AtomicBuffer inMemoryBuffer = newBuffer();
@@ -361,7 +461,12 @@ public class SequenceNumberIndexTest extends AbstractLogTest
 
     private SequenceNumberIndexWriter newWriter(final AtomicBuffer inMemoryBuffer)
     {
-        final MappedFile indexFile = newIndexFile();
+        return newWriter(inMemoryBuffer, BUFFER_SIZE);
+    }
+
+    private SequenceNumberIndexWriter newWriter(final AtomicBuffer inMemoryBuffer, final int bufferSize)
+    {
+        final MappedFile indexFile = MappedFile.map(INDEX_FILE_PATH, bufferSize);
         return new SequenceNumberIndexWriter(inMemoryBuffer, indexFile, errorHandler, STREAM_ID, recordingIdLookup,
             DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS, clock, null,
             new Long2LongHashMap(UNK_SESSION));
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.archive.client.ArchiveException;
+import io.aeron.logbuffer.Header;
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.messages.MessageStatus;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.dictionary.generation.GenerationUtil.packMessageType;
+import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.*;
+
+public class TimeIndexTest
+{
+    private static final String LOG_FILE_DIR = IoUtil.tmpDirName() + "/TimeIndexTest";
+    private static final int STREAM_ID = 1;
+    private static final long RECORDING_ID = 7;
+    private static final int AERON_SESSION_ID = 11;
+    private static final int FRAME_LENGTH = 128;
+    private static final long INDEXED_POSITION = 4 * FRAME_LENGTH;
+
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[FRAME_LENGTH]);
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final FixMessageEncoder messageEncoder = new FixMessageEncoder();
+    private final Header header = mock(Header.class);
+
+    private TimeIndexWriter writer;
+
+    @Before
+    public void setUp()
+    {
+        IoUtil.delete(new File(LOG_FILE_DIR), true);
+        IoUtil.ensureDirectoryExists(new File(LOG_FILE_DIR), LOG_FILE_DIR);
+
+        when(header.streamId()).thenReturn(STREAM_ID);
+        when(header.sessionId()).thenReturn(AERON_SESSION_ID);
+        when(header.frameLength()).thenReturn(FRAME_LENGTH);
+        when(header.flags()).thenReturn(UNFRAGMENTED);
+
+        writer = newWriter();
+        indexMessage(1, 100, "A");
+        indexMessage(2, 200, "D");
+        indexMessage(1, 300, "D");
+        indexMessage(2, 400, "0");
+        writer.close();
+    }
+
+    @After
+    public void tearDown()
+    {
+        verify(errorHandler, never()).onError(any());
+        IoUtil.delete(new File(LOG_FILE_DIR), true);
+    }
+
+    @Test
+    public void shouldOnlyScanBlocksWithinTimeRange()
+    {
+        final List<FixArchiveScanner.ArchiveLocation> ranges = findRanges(between(200, 300), INDEXED_POSITION);
+
+        assertRanges(ranges, FRAME_LENGTH, 2 * FRAME_LENGTH);
+    }
+
+    @Test
+    public void shouldOnlyScanBlocksContainingSession()
+    {
+        final List<FixArchiveScanner.ArchiveLocation> ranges = findRanges(sessionOf(2), INDEXED_POSITION);
+
+        assertRanges(ranges, FRAME_LENGTH, 2 * FRAME_LENGTH, 3 * FRAME_LENGTH, 4 * FRAME_LENGTH);
+    }
+
+    @Test
+    public void shouldMergeAdjacentBlocksContainingMessageType()
+    {
+        final List<FixArchiveScanner.ArchiveLocation> ranges = findRanges(messageTypeOf("D"), INDEXED_POSITION);
+
+        assertRanges(ranges, FRAME_LENGTH, 3 * FRAME_LENGTH);
+    }
+
+    @Test
+    public void shouldCombinePredicatesThatAreAnded()
+    {
+        final List<FixArchiveScanner.ArchiveLocation> ranges = findRanges(
+            messageTypeOf("D").and(sessionOf(1)), INDEXED_POSITION);
+
+        assertRanges(ranges, 2 * FRAME_LENGTH, 3 * FRAME_LENGTH);
+    }
+
+    @Test
+    public void shouldNotNarrowPredicatesThatAreOred()
+    {
+        final TimeIndexQuery query = new TimeIndexQuery();
+
+        sessionOf(1).or(sessionOf(2)).narrow(query);
+
+        assertTrue(query.isUnconstrained());
+    }
+
+    @Test
+    public void shouldScanTailOfRecordingThatHasNotBeenIndexed()
+    {
+        final long stopPosition = INDEXED_POSITION + FRAME_LENGTH;
+        final List<FixArchiveScanner.ArchiveLocation> ranges = findRanges(between(200, 300), stopPosition);
+
+        assertRanges(ranges, FRAME_LENGTH, 2 * FRAME_LENGTH, INDEXED_POSITION, stopPosition);
+    }
+
+    @Test
+    public void shouldFollowRecordingAfterLastMatchingBlock()
+    {
+        final List<FixArchiveScanner.ArchiveLocation> ranges = findRanges(from(400), NULL_POSITION);
+
+        assertRanges(ranges, 3 * FRAME_LENGTH, NULL_POSITION);
+    }
+
+    @Test
+    public void shouldFindRangesBeyondTheFirstBatchOfRecordsRead()
+    {
+        writer = newWriter();
+        final int messages = 2500;
+        for (int i = 0; i < messages; i++)
+        {
+            indexMessage(1, 500, "D");
+        }
+        indexMessage(2, 600, "D");
+        writer.close();
+
+        final long stopPosition = INDEXED_POSITION + (messages + 1) * FRAME_LENGTH;
+        final List<FixArchiveScanner.ArchiveLocation> ranges = findRanges(between(600, 601), stopPosition);
+
+        assertRanges(ranges, stopPosition - FRAME_LENGTH, stopPosition);
+    }
+
+    @Test
+    public void shouldReadIndexedPositionAfterRestart()
+    {
+        writer = newWriter();
+        final IndexedPositionConsumer consumer = mock(IndexedPositionConsumer.class);
+
+        writer.readLastPosition(consumer);
+        writer.close();
+
+        verify(consumer).accept(AERON_SESSION_ID, RECORDING_ID, INDEXED_POSITION);
+        verifyNoMoreInteractions(consumer);
+    }
+
+    @Test
+    public void shouldRemoveRecordsOfBlocksBeforePrunedPosition()
+    {
+        writer = newWriter();
+        final Long2LongHashMap recordingIdToStartPosition = new Long2LongHashMap(NULL_POSITION);
+        recordingIdToStartPosition.put(RECORDING_ID, 2 * FRAME_LENGTH);
+
+        writer.onPruned(recordingIdToStartPosition);
+        assertEquals(1, writer.doWork());
+        writer.close();
+
+        assertEquals(2 * TimeIndexDescriptor.RECORD_LENGTH, timeIndexFile().length());
+        assertRanges(findRanges(messageTypeOf("D"), INDEXED_POSITION), 0, 3 * FRAME_LENGTH);
+    }
+
+    @Test
+    public void shouldRemoveRecordsOfTruncatedRecordingOnRestart()
+    {
+        final AeronArchive aeronArchive = mock(AeronArchive.class);
+        when(aeronArchive.getStartPosition(RECORDING_ID)).thenReturn(3L * FRAME_LENGTH);
+
+        writer = newWriter(aeronArchive);
+        writer.close();
+
+        assertEquals(TimeIndexDescriptor.RECORD_LENGTH, timeIndexFile().length());
+    }
+
+    @Test
+    public void shouldRemoveRecordsOfDeletedRecordingOnRestart()
+    {
+        final AeronArchive aeronArchive = mock(AeronArchive.class);
+        when(aeronArchive.getStartPosition(RECORDING_ID)).thenThrow(
+            new ArchiveException("unknown recording", ArchiveException.UNKNOWN_RECORDING));
+        final IndexedPositionConsumer consumer = mock(IndexedPositionConsumer.class);
+
+        writer = newWriter(aeronArchive);
+        writer.readLastPosition(consumer);
+        writer.close();
+
+        verifyNoMoreInteractions(consumer);
+        assertEquals(0, timeIndexFile().length());
+    }
+
+    private TimeIndexWriter newWriter()
+    {
+        return newWriter(null);
+    }
+
+    private TimeIndexWriter newWriter(final AeronArchive aeronArchive)
+    {
+        return new TimeIndexWriter(LOG_FILE_DIR, STREAM_ID, 1, errorHandler, null, aeronArchive);
+    }
+
+    private File timeIndexFile()
+    {
+        return TimeIndexDescriptor.timeIndexFile(LOG_FILE_DIR, STREAM_ID);
+    }
+
+    private void indexMessage(final long sessionId, final long timestamp, final String messageType)
+    {
+        messageEncoder
+            .wrapAndApplyHeader(buffer, 0, headerEncoder)
+            .session(sessionId)
+            .timestamp(timestamp)
+            .messageType(packMessageType(messageType))
+            .status(MessageStatus.OK);
+
+        final long position = header.position();
+        when(header.position()).thenReturn(position + FRAME_LENGTH);
+
+        writer.onCatchup(buffer, 0, FRAME_LENGTH, header, RECORDING_ID);
+    }
+
+    private List<FixArchiveScanner.ArchiveLocation> findRanges(
+        final FixMessagePredicate predicate, final long stopPosition)
+    {
+        final TimeIndexQuery query = new TimeIndexQuery();
+        predicate.narrow(query);
+
+        final List<FixArchiveScanner.ArchiveLocation> ranges = new ArrayList<>();
+        try (TimeIndexReader reader = new TimeIndexReader(timeIndexFile()))
+        {
+            reader.findRanges(RECORDING_ID, 0, stopPosition, query, ranges);
+        }
+        return ranges;
+    }
+
+    private void assertRanges(final List<FixArchiveScanner.ArchiveLocation> ranges, final long... positions)
+    {
+        assertEquals(ranges.toString(), positions.length / 2, ranges.size());
+        for (int i = 0; i < ranges.size(); i++)
+        {
+            final FixArchiveScanner.ArchiveLocation range = ranges.get(i);
+            assertEquals(ranges.toString(), RECORDING_ID, range.recordingId);
+            assertEquals(ranges.toString(), positions[2 * i], range.startPosition);
+            assertEquals(ranges.toString(), positions[2 * i + 1], range.stopPosition);
+        }
+    }
+}
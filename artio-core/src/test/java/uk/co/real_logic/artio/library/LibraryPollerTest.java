@@ -122,6 +122,34 @@ public class LibraryPollerTest
         verify(sessionHandler).onTimeout(libraryId(), firstSession);
     }
 
+    @Test
+    public void shouldOnlyPollSessionsWhenTheyHaveWorkToDo()
+    {
+        connectToSingleEngine();
+        manageConnection(CONNECTION_ID, SESSION_ID);
+        final InternalSession internalSession = (InternalSession)session.getValue();
+
+        pollTwice();
+        assertFalse("Polling a session with nothing to do", internalSession.isPolling());
+
+        clock.advanceMilliSeconds(HEARTBEAT_INTERVAL_IN_S * 1000L);
+        poll();
+        assertTrue("Session not polled after its heartbeat became due", internalSession.isPolling());
+    }
+
+    @Test
+    public void shouldPollSessionsWhenTheirStateChanges()
+    {
+        connectToSingleEngine();
+        manageConnection(CONNECTION_ID, SESSION_ID);
+        final InternalSession internalSession = (InternalSession)session.getValue();
+        pollTwice();
+
+        internalSession.logoutAndDisconnect();
+
+        assertTrue("Session not polled after logging out", internalSession.isPolling());
+    }
+
     @Test
     public void shouldDisconnectSingleEngineAfterTimeout()
     {
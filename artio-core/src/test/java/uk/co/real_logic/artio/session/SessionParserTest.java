@@ -20,6 +20,7 @@ import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Before;
 import org.junit.Test;
 import uk.co.real_logic.artio.decoder.LogonDecoder;
+import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.fields.RejectReason;
 import uk.co.real_logic.artio.library.OnMessageInfo;
@@ -99,6 +100,30 @@ public class SessionParserTest
         verify(mockSession, never()).onInvalidMessageType(anyInt(), any(), anyInt(), eq(POSITION));
     }
 
+    @Test
+    public void shouldExposeDecodedHeaderOfApplicationMessages()
+    {
+        final String header = "8=FIX.4.4\0019=68\00135=D\00134=2\00149=abc\00152=00000101-00:00:00.000\00156=das\001";
+        final UnsafeBuffer buffer = bufferOf(header + "11=A\00110=123\001");
+        when(messageInfo.isValid()).thenReturn(true);
+
+        parser.onMessage(buffer, 0, buffer.capacity(), 'D', POSITION);
+
+        verify(messageInfo).header(any(SessionHeaderDecoder.class), eq(header.length()));
+    }
+
+    @Test
+    public void shouldNotExposeHeaderOfMessagesThatFailSessionValidation()
+    {
+        final UnsafeBuffer buffer = bufferOf(
+            "8=FIX.4.4\0019=68\00135=D\00134=2\00149=abc\00152=00000101-00:00:00.000\00156=das\00111=A\00110=123\001");
+        when(messageInfo.isValid()).thenReturn(false);
+
+        parser.onMessage(buffer, 0, buffer.capacity(), 'D', POSITION);
+
+        verify(messageInfo, never()).header(any(SessionHeaderDecoder.class), anyInt());
+    }
+
     private UnsafeBuffer bufferOf(final String str)
     {
         return new UnsafeBuffer(str.getBytes(US_ASCII));
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+import org.HdrHistogram.Histogram;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.FixCounters;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class LatencyCountersTest
+{
+    private static final int TIMER_ID = 3;
+    private static final String TIMER_NAME = "Inbound Publish";
+
+    private final Map<String, AtomicCounter> statisticToCounter = new HashMap<>();
+    private final FixCounters fixCounters = mock(FixCounters.class);
+    private final HistogramHandler delegate = mock(HistogramHandler.class);
+
+    private LatencyCounters latencyCounters;
+
+    @Before
+    public void setUp()
+    {
+        when(fixCounters.latency(eq("engine"), eq(TIMER_NAME), anyString())).then(inv ->
+        {
+            final AtomicCounter counter = mock(AtomicCounter.class);
+            statisticToCounter.put(inv.getArgument(2), counter);
+            return counter;
+        });
+
+        latencyCounters = new LatencyCounters(fixCounters, "engine", delegate);
+        latencyCounters.identifyTimer(TIMER_ID, TIMER_NAME);
+        latencyCounters.onEndTimerIdentification();
+    }
+
+    @Test
+    public void shouldPublishPercentilesOfEachHistogramToCounters()
+    {
+        final Histogram histogram = new Histogram(3);
+        for (int i = 1; i <= 1000; i++)
+        {
+            histogram.recordValue(i);
+        }
+
+        latencyCounters.onBeginTimerUpdate(100);
+        latencyCounters.onTimerUpdate(TIMER_ID, histogram);
+        latencyCounters.onEndTimerUpdate();
+
+        verify(statisticToCounter.get("count")).setOrdered(1000);
+        verify(statisticToCounter.get("p50")).setOrdered(500);
+        verify(statisticToCounter.get("p99")).setOrdered(990);
+        verify(statisticToCounter.get("p99.9")).setOrdered(999);
+        verify(statisticToCounter.get("max")).setOrdered(1000);
+
+        verify(delegate).identifyTimer(TIMER_ID, TIMER_NAME);
+        verify(delegate).onTimerUpdate(TIMER_ID, histogram);
+        verify(delegate).onEndTimerUpdate();
+    }
+}
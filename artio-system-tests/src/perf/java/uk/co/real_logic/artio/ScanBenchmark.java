@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.dictionary.SessionConstants.START_OF_HEADER;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+/**
+ * Compares the word at a time field scanning and checksum computation of {@link MutableAsciiBuffer} against the
+ * byte at a time implementation, tokenising whole messages in the same way as the generated decoders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ScanBenchmark
+{
+    private static final byte EQUALS = '=';
+
+    @Param({"NewOrderSingle", "MarketDataSnapshot"})
+    String message;
+
+    private MutableAsciiBuffer buffer;
+    private int length;
+
+    @Setup
+    public void setup()
+    {
+        buffer = new MutableAsciiBuffer(
+            "NewOrderSingle".equals(message) ? TestData.NEW_ORDER_SINGLE : TestData.MARKET_DATA_SNAPSHOT);
+        length = buffer.capacity();
+    }
+
+    @Benchmark
+    public void tokeniseWordAtATime(final Blackhole bh)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int end = length;
+        int position = 0;
+        while (position < end)
+        {
+            final int equalsPosition = buffer.scan(position, end, EQUALS);
+            final int endOfField = buffer.scan(equalsPosition + 1, end, START_OF_HEADER);
+            bh.consume(equalsPosition);
+            position = endOfField + 1;
+        }
+    }
+
+    @Benchmark
+    public void tokeniseByteAtATime(final Blackhole bh)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int end = length;
+        int position = 0;
+        while (position < end)
+        {
+            final int equalsPosition = byteAtATimeScan(buffer, position, end, EQUALS);
+            final int endOfField = byteAtATimeScan(buffer, equalsPosition + 1, end, START_OF_HEADER);
+            bh.consume(equalsPosition);
+            position = endOfField + 1;
+        }
+    }
+
+    @Benchmark
+    public int checksumWordAtATime()
+    {
+        return buffer.computeChecksum(0, length);
+    }
+
+    @Benchmark
+    public int checksumByteAtATime()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int end = length;
+        int total = 0;
+        for (int i = 0; i < end; i++)
+        {
+            total += buffer.getByte(i);
+        }
+
+        return total % 256;
+    }
+
+    private static int byteAtATimeScan(
+        final MutableAsciiBuffer buffer, final int startInclusive, final int endExclusive, final byte terminator)
+    {
+        for (int i = startInclusive; i < endExclusive; i++)
+        {
+            if (buffer.getByte(i) == terminator)
+            {
+                return i;
+            }
+        }
+
+        return UNKNOWN_INDEX;
+    }
+}
@@ -31,4 +31,14 @@ public final class TestData
         ("8=FIX.4.4\0019=0103\00135=A\00149=ABC_DEFG01\00156=CCG\00134=10\001" +
         "52=20150514-15:57:31.336\00198=0\001108=10\001383=512\001553=username" +
         "\001554=password\00110=243\001").getBytes(StandardCharsets.US_ASCII));
+
+    public static final UnsafeBuffer MARKET_DATA_SNAPSHOT = new UnsafeBuffer(
+        ("8=FIX.4.4\0019=0510\00135=W\00149=CCG\00156=ABC_DEFG01\00134=12\00152=20150514-15:57:31.336\001" +
+        "262=MDR-1\00155=CVS\00148=126650100\00122=1\001268=10\001" +
+        "269=0\001270=45.10\001271=500\001290=1\001269=1\001270=45.12\001271=300\001290=1\001" +
+        "269=0\001270=45.09\001271=1200\001290=2\001269=1\001270=45.13\001271=900\001290=2\001" +
+        "269=0\001270=45.08\001271=2500\001290=3\001269=1\001270=45.14\001271=1500\001290=3\001" +
+        "269=0\001270=45.07\001271=100\001290=4\001269=1\001270=45.15\001271=700\001290=4\001" +
+        "269=0\001270=45.06\001271=4000\001290=5\001269=1\001270=45.16\001271=3200\001290=5\001" +
+        "10=123\001").getBytes(StandardCharsets.US_ASCII));
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.Header;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.co.real_logic.artio.dictionary.FixDictionary;
+import uk.co.real_logic.artio.dictionary.generation.GenerationUtil;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.*;
+
+/**
+ * Filters a synthetic archive of FIX messages in memory, in the same way that the {@link FixArchiveScanner}
+ * filters the fragments that it replays. The archive is split into chunks so that it can be sized to several
+ * gigabytes, eg: -p archiveMegabytes=4096, given enough memory. Under 1% of the messages pass the filter, which
+ * compares the compiled {@link FixMessageFilter} to the equivalent composition of {@link FixMessagePredicates}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArchiveFilterBenchmark
+{
+    private static final int CHUNK_SIZE = 256 * 1024 * 1024;
+    private static final int COUNTERPARTIES = 20;
+    private static final String[] SYMBOLS = { "MSFT", "AAPL", "GOOG", "AMZN", "IBM" };
+
+    @Param("256")
+    private int archiveMegabytes;
+
+    private final FixMessageEncoder fixMessage = new FixMessageEncoder();
+    private final MessageHeaderEncoder messageHeader = new MessageHeaderEncoder();
+    private final byte[] noMetaData = new byte[0];
+
+    private UnsafeBuffer[] chunks;
+    private int[] chunkLengths;
+    private int passed;
+
+    private LogEntryHandler composedHandler;
+    private LogEntryHandler compiledHandler;
+
+    @Setup
+    public void setup()
+    {
+        final int chunkCount = (int)((archiveMegabytes * 1024L * 1024L + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        chunks = new UnsafeBuffer[chunkCount];
+        chunkLengths = new int[chunkCount];
+
+        long remaining = archiveMegabytes * 1024L * 1024L;
+        int messageIndex = 0;
+        for (int i = 0; i < chunkCount; i++)
+        {
+            final int chunkSize = (int)Math.min(CHUNK_SIZE, remaining);
+            final UnsafeBuffer chunk = new UnsafeBuffer(ByteBuffer.allocateDirect(chunkSize));
+            int offset = 0;
+            int frameLength;
+            while ((frameLength = writeFrame(chunk, offset, messageIndex)) != -1)
+            {
+                offset += BitUtil.align(BitUtil.SIZE_OF_INT + frameLength, BitUtil.SIZE_OF_LONG);
+                messageIndex++;
+            }
+            chunks[i] = chunk;
+            chunkLengths[i] = offset;
+            remaining -= chunkSize;
+        }
+
+        final FixDictionary fixDictionary = FixDictionary.of(FixDictionary.findDefault());
+        final FixMessagePredicate composed = messageTypeOf("D")
+            .and(whereHeader(fixDictionary, senderCompIdOf("INITIATOR1")))
+            .and(bodyMatches(Pattern.compile(".*\00155=MSFT\001.*")));
+        final FixMessagePredicate compiled = new FixMessageFilter()
+            .messageTypes("D")
+            .senderCompId("INITIATOR1")
+            .fieldEquals(55, "MSFT")
+            .compile();
+
+        composedHandler = new LogEntryHandler(filterBy(this::onMessage, composed), null);
+        compiledHandler = new LogEntryHandler(filterBy(this::onMessage, compiled), null);
+    }
+
+    @Benchmark
+    public void composedPredicates(final Blackhole bh)
+    {
+        scan(composedHandler, bh);
+    }
+
+    @Benchmark
+    public void compiledFilter(final Blackhole bh)
+    {
+        scan(compiledHandler, bh);
+    }
+
+    private void scan(final LogEntryHandler handler, final Blackhole bh)
+    {
+        final UnsafeBuffer[] chunks = this.chunks;
+        final int[] chunkLengths = this.chunkLengths;
+        for (int i = 0; i < chunks.length; i++)
+        {
+            final UnsafeBuffer chunk = chunks[i];
+            final int end = chunkLengths[i];
+            int offset = 0;
+            while (offset < end)
+            {
+                final int frameLength = chunk.getInt(offset);
+                handler.onFragment(chunk, offset + BitUtil.SIZE_OF_INT, frameLength, null);
+                offset += BitUtil.align(BitUtil.SIZE_OF_INT + frameLength, BitUtil.SIZE_OF_LONG);
+            }
+        }
+        bh.consume(passed);
+        passed = 0;
+    }
+
+    private void onMessage(
+        final FixMessageDecoder message,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final Header header)
+    {
+        passed++;
+    }
+
+    private int writeFrame(final UnsafeBuffer chunk, final int offset, final int messageIndex)
+    {
+        final boolean isOrder = messageIndex % 3 != 0;
+        final String body =
+            "8=FIX.4.4\0019=0150\00135=" + (isOrder ? "D" : "8") +
+            "\00149=INITIATOR" + (messageIndex % COUNTERPARTIES) +
+            "\00156=ACCEPTOR\00134=" + messageIndex +
+            "\00152=20201017-12:00:00.000\00111=" + messageIndex +
+            "\00121=1\00155=" + SYMBOLS[(messageIndex / COUNTERPARTIES) % SYMBOLS.length] +
+            "\00154=1\00160=20201017-12:00:00.000\00138=100\00140=2\00144=123.45\00110=000\001";
+
+        final int frameLength = MessageHeaderEncoder.ENCODED_LENGTH + FixMessageEncoder.BLOCK_LENGTH +
+            FixMessageEncoder.metaDataHeaderLength() + FixMessageEncoder.bodyHeaderLength() + body.length();
+        if (offset + BitUtil.SIZE_OF_INT + frameLength > chunk.capacity())
+        {
+            return -1;
+        }
+
+        chunk.putInt(offset, frameLength);
+        fixMessage
+            .wrapAndApplyHeader(chunk, offset + BitUtil.SIZE_OF_INT, messageHeader)
+            .session(messageIndex % COUNTERPARTIES)
+            .timestamp(messageIndex)
+            .messageType(GenerationUtil.packMessageType(isOrder ? "D" : "8"))
+            .putMetaData(noMetaData, 0, 0)
+            .body(body);
+        return frameLength;
+    }
+}
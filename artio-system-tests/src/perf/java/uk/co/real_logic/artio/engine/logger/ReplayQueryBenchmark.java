@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_REPLAY_INDEX_FILE_SIZE;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+
+/**
+ * Looks up resend requests against a replay index that the writer has filled up and wrapped around, so every
+ * record in the file is in use. Sequence numbers restart from 1 with a new sequence index every
+ * sequenceIndexLength messages, as happens when sessions reset their sequence numbers each day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReplayQueryBenchmark
+{
+    private static final int STREAM_ID = 1;
+    private static final long SESSION_ID = 1;
+    private static final int MESSAGE_LENGTH = 256;
+
+    @Param("10")
+    private int resendSize;
+
+    @Param({"10000", "1000000"})
+    private int sequenceIndexLength;
+
+    private final File logFileDir = new File(IoUtil.tmpDirName(), "ReplayQueryBenchmark");
+
+    private ReplayQuery replayQuery;
+    private int oldestMessage;
+    private int newestMessage;
+
+    @Setup
+    public void setup()
+    {
+        IoUtil.delete(logFileDir, true);
+        IoUtil.ensureDirectoryExists(logFileDir, logFileDir.getAbsolutePath());
+
+        final int recordCapacity = recordCapacity(DEFAULT_REPLAY_INDEX_FILE_SIZE);
+        final int records = recordCapacity / RECORD_LENGTH;
+        // Wrap part way around a second time, so that the oldest record isn't at the start of the file.
+        newestMessage = records + records / 2;
+        oldestMessage = newestMessage - records + 1;
+
+        writeIndex(recordCapacity);
+
+        replayQuery = new ReplayQuery(
+            1,
+            1,
+            ClockLoggerCache::new,
+            new FileReplayIndexStorage(
+                logFileDir.getAbsolutePath(),
+                STREAM_ID,
+                LoggerUtil::map,
+                LoggerUtil::mapExistingFile,
+                Throwable::printStackTrace),
+            new NoOpIdleStrategy(),
+            null,
+            Throwable::printStackTrace,
+            0);
+    }
+
+    private void writeIndex(final int recordCapacity)
+    {
+        final File file = replayIndexFile(logFileDir.getAbsolutePath(), SESSION_ID, STREAM_ID);
+        final MappedByteBuffer mappedBuffer = LoggerUtil.mapNewFile(file, DEFAULT_REPLAY_INDEX_FILE_SIZE);
+        final UnsafeBuffer buffer = new UnsafeBuffer(mappedBuffer);
+        final ReplayIndexRecordEncoder replayIndexRecord = new ReplayIndexRecordEncoder();
+
+        new MessageHeaderEncoder()
+            .wrap(buffer, 0)
+            .blockLength(replayIndexRecord.sbeBlockLength())
+            .templateId(replayIndexRecord.sbeTemplateId())
+            .schemaId(replayIndexRecord.sbeSchemaId())
+            .version(replayIndexRecord.sbeSchemaVersion());
+
+        long changePosition = 0;
+        for (int message = 1; message <= newestMessage; message++)
+        {
+            replayIndexRecord
+                .wrap(buffer, offset(changePosition, recordCapacity))
+                .position((long)message * MESSAGE_LENGTH)
+                .sequenceNumber(sequenceNumber(message))
+                .sequenceIndex(sequenceIndex(message))
+                .recordingId(0)
+                .length(MESSAGE_LENGTH);
+
+            changePosition += RECORD_LENGTH;
+        }
+
+        beginChangeOrdered(buffer, changePosition);
+        endChangeOrdered(buffer, changePosition);
+        IoUtil.unmap(mappedBuffer);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        replayQuery.close();
+        IoUtil.delete(logFileDir, true);
+    }
+
+    @Benchmark
+    public List<RecordingRange> queryNewestMessages()
+    {
+        return query(newestMessage - resendSize + 1);
+    }
+
+    @Benchmark
+    public List<RecordingRange> queryMiddleMessages()
+    {
+        return query((oldestMessage + newestMessage) / 2);
+    }
+
+    @Benchmark
+    public List<RecordingRange> queryOldestMessages()
+    {
+        return query(oldestMessage);
+    }
+
+    private List<RecordingRange> query(final int beginMessage)
+    {
+        final int endMessage = beginMessage + resendSize - 1;
+        return replayQuery.queryRanges(
+            SESSION_ID,
+            sequenceNumber(beginMessage),
+            sequenceIndex(beginMessage),
+            sequenceNumber(endMessage),
+            sequenceIndex(endMessage));
+    }
+
+    private int sequenceNumber(final int message)
+    {
+        return (message - 1) % sequenceIndexLength + 1;
+    }
+
+    private int sequenceIndex(final int message)
+    {
+        return (message - 1) / sequenceIndexLength;
+    }
+}
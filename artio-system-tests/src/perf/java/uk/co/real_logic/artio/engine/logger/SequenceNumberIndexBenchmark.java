@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.SystemEpochClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.engine.MappedFile;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.engine.ConnectedSessionInfo.UNK_SESSION;
+import static uk.co.real_logic.artio.engine.SectorFramer.SECTOR_SIZE;
+import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor.RECORD_SIZE;
+
+/**
+ * Looks up the sequence numbers of an index containing many sessions, as happens when they all logon after
+ * market open.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SequenceNumberIndexBenchmark
+{
+    private static final ErrorHandler ERROR_HANDLER = Throwable::printStackTrace;
+
+    @Param("50000")
+    private int sessionCount;
+
+    private final File indexFile = new File(IoUtil.tmpDirName(), "SequenceNumberIndexBenchmark");
+
+    private AtomicBuffer inMemoryBuffer;
+    private SequenceNumberIndexWriter writer;
+    private SequenceNumberIndexReader reader;
+    private long[] sessionIds;
+    private int sessionIndex;
+
+    @Setup
+    public void setup()
+    {
+        deleteFiles();
+
+        final int capacity = ((sessionCount * RECORD_SIZE * 2) / SECTOR_SIZE + 1) * SECTOR_SIZE;
+        inMemoryBuffer = new UnsafeBuffer(new byte[capacity]);
+        writer = new SequenceNumberIndexWriter(
+            inMemoryBuffer,
+            MappedFile.map(indexFile, capacity),
+            ERROR_HANDLER,
+            0,
+            null,
+            Long.MAX_VALUE,
+            new SystemEpochClock(),
+            null,
+            new Long2LongHashMap(UNK_SESSION));
+
+        sessionIds = new long[sessionCount];
+        for (int i = 0; i < sessionCount; i++)
+        {
+            final long sessionId = i + 1;
+            writer.resetSequenceNumber(sessionId, sessionId);
+            sessionIds[i] = sessionId;
+        }
+
+        final Random random = new Random(42);
+        for (int i = sessionCount - 1; i > 0; i--)
+        {
+            final int j = random.nextInt(i + 1);
+            final long sessionId = sessionIds[i];
+            sessionIds[i] = sessionIds[j];
+            sessionIds[j] = sessionId;
+        }
+
+        reader = newReader();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        reader.close();
+        writer.close();
+        deleteFiles();
+    }
+
+    @Benchmark
+    public int lookupKnownSession()
+    {
+        final long[] sessionIds = this.sessionIds;
+        final int sessionIndex = this.sessionIndex;
+        this.sessionIndex = sessionIndex + 1 == sessionIds.length ? 0 : sessionIndex + 1;
+
+        return reader.lastKnownSequenceNumber(sessionIds[sessionIndex]);
+    }
+
+    @Benchmark
+    public int lookupUnknownSession()
+    {
+        return reader.lastKnownSequenceNumber(sessionCount + 1);
+    }
+
+    /**
+     * A single session sends a message between each flush of the index file, which is the worst case for the
+     * amount of the file that's changed per message.
+     */
+    @Benchmark
+    public void updateOneSessionAndFlush()
+    {
+        final long[] sessionIds = this.sessionIds;
+        final int sessionIndex = this.sessionIndex;
+        this.sessionIndex = sessionIndex + 1 == sessionIds.length ? 0 : sessionIndex + 1;
+
+        final long sessionId = sessionIds[sessionIndex];
+        writer.resetSequenceNumber(sessionId, sessionId);
+        writer.updateFile();
+    }
+
+    /**
+     * Every session logs on once against a newly started reader.
+     *
+     * @return the sum of the sequence numbers read.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public long logonStorm()
+    {
+        long sum = 0;
+        try (SequenceNumberIndexReader reader = newReader())
+        {
+            for (final long sessionId : sessionIds)
+            {
+                sum += reader.lastKnownSequenceNumber(sessionId);
+            }
+        }
+
+        return sum;
+    }
+
+    private SequenceNumberIndexReader newReader()
+    {
+        return new SequenceNumberIndexReader(inMemoryBuffer, ERROR_HANDLER, null, null);
+    }
+
+    private void deleteFiles()
+    {
+        IoUtil.deleteIfExists(indexFile);
+        IoUtil.deleteIfExists(SequenceNumberIndexDescriptor.writableFile(indexFile.getAbsolutePath()));
+        IoUtil.deleteIfExists(SequenceNumberIndexDescriptor.passingFile(indexFile.getAbsolutePath()));
+    }
+}
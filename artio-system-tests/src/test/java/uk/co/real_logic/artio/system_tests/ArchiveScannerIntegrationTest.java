@@ -16,22 +16,34 @@
 package uk.co.real_logic.artio.system_tests;
 
 import org.agrona.CloseHelper;
+import org.agrona.collections.LongArrayList;
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
+import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.FixEngine;
+import uk.co.real_logic.artio.engine.logger.FixArchiveScanner;
 import uk.co.real_logic.artio.library.LibraryConfiguration;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
 import static uk.co.real_logic.artio.TestFixtures.largeTestReqId;
 import static uk.co.real_logic.artio.TestFixtures.launchMediaDriver;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.LOGON_MESSAGE_TYPE_STR;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_ARCHIVE_SCANNER_STREAM;
+import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.between;
+import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.messageTypeOf;
 import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
 
 public class ArchiveScannerIntegrationTest extends AbstractGatewayToGatewaySystemTest
 {
+    private static final int TIME_INDEX_BLOCK_SIZE = 1024;
+
     private final FakeConnectHandler fakeConnectHandler = new FakeConnectHandler();
 
     @Before
@@ -41,7 +53,9 @@ public class ArchiveScannerIntegrationTest extends AbstractGatewayToGatewaySyste
 
         mediaDriver = launchMediaDriver();
 
-        launchAcceptingEngine();
+        // The time index is opt-in
+        acceptingEngine = FixEngine.launch(
+            acceptingConfig(port, ACCEPTOR_ID, INITIATOR_ID).timeIndexBlockSize(TIME_INDEX_BLOCK_SIZE));
         initiatingEngine = launchInitiatingEngine(libraryAeronPort);
 
         final LibraryConfiguration acceptingLibraryConfig = acceptingLibraryConfig(acceptingHandler);
@@ -91,6 +105,84 @@ public class ArchiveScannerIntegrationTest extends AbstractGatewayToGatewaySyste
         assertArchiveContainsMessages("hi");
     }
 
+    @Test
+    public void canScanArchiveUsingTimeIndex()
+    {
+        setupAndExchangeMessages();
+
+        final EngineConfiguration configuration = acceptingEngine.configuration();
+
+        CloseHelper.close(initiatingLibrary);
+        CloseHelper.close(acceptingLibrary);
+
+        CloseHelper.close(initiatingEngine);
+        CloseHelper.close(acceptingEngine);
+
+        final List<String> messages = new ArrayList<>();
+        final FixArchiveScanner.Context context = new FixArchiveScanner.Context()
+            .aeronDirectoryName(configuration.aeronContext().aeronDirectoryName())
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy())
+            .logFileDir(configuration.logFileDir());
+
+        try (FixArchiveScanner scanner = new FixArchiveScanner(context))
+        {
+            scanner.scan(
+                configuration.libraryAeronChannel(),
+                configuration.outboundLibraryStream(),
+                messageTypeOf(LOGON_MESSAGE_TYPE_STR).and(between(0, Long.MAX_VALUE)),
+                (message, buffer, offset, length, header) -> messages.add(message.body()),
+                false,
+                DEFAULT_ARCHIVE_SCANNER_STREAM);
+        }
+
+        assertThat(messages.toString(), messages, hasSize(1));
+        assertThat(messages.get(0), Matchers.containsString("35=A\00149=acceptor\00156=initiator\00134=1"));
+    }
+
+    @Test
+    public void canScanArchiveInTimestampOrderWithParallelism()
+    {
+        setupAndExchangeMessages();
+
+        final EngineConfiguration configuration = acceptingEngine.configuration();
+
+        CloseHelper.close(initiatingLibrary);
+        CloseHelper.close(acceptingLibrary);
+
+        CloseHelper.close(initiatingEngine);
+        CloseHelper.close(acceptingEngine);
+
+        final List<String> messages = new ArrayList<>();
+        final LongArrayList timestamps = new LongArrayList();
+        final FixArchiveScanner.Context context = new FixArchiveScanner.Context()
+            .aeronDirectoryName(configuration.aeronContext().aeronDirectoryName())
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy())
+            .parallelism(2);
+
+        try (FixArchiveScanner scanner = new FixArchiveScanner(context))
+        {
+            scanner.scan(
+                configuration.libraryAeronChannel(),
+                configuration.outboundLibraryStream(),
+                (message, buffer, offset, length, header) ->
+                {
+                    messages.add(message.body());
+                    timestamps.addLong(message.timestamp());
+                },
+                false,
+                DEFAULT_ARCHIVE_SCANNER_STREAM);
+        }
+
+        assertThat(messages.toString(), messages, hasItems(
+            Matchers.containsString("35=A\00149=acceptor\00156=initiator\00134=1"),
+            Matchers.containsString("\001112=hi")));
+        for (int i = 1; i < timestamps.size(); i++)
+        {
+            assertThat(timestamps.toString(), timestamps.getLong(i),
+                Matchers.greaterThanOrEqualTo(timestamps.getLong(i - 1)));
+        }
+    }
+
     private void setupAndExchangeMessages()
     {
         messagesCanBeExchanged();
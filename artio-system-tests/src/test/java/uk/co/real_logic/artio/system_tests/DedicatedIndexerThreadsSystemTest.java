@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.system_tests;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.FixEngine;
+import uk.co.real_logic.artio.library.LibraryConfiguration;
+
+import static uk.co.real_logic.artio.Constants.SEQUENCE_RESET_MESSAGE_AS_STR;
+import static uk.co.real_logic.artio.TestFixtures.launchMediaDriver;
+import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
+
+public class DedicatedIndexerThreadsSystemTest extends AbstractGatewayToGatewaySystemTest
+{
+    @Before
+    public void launch()
+    {
+        mediaDriver = launchMediaDriver();
+
+        acceptingEngine = FixEngine.launch(dedicatedIndexerThreads(acceptingConfig(port, ACCEPTOR_ID, INITIATOR_ID)));
+        initiatingEngine = FixEngine.launch(dedicatedIndexerThreads(initiatingConfig(libraryAeronPort)));
+
+        final LibraryConfiguration acceptingLibraryConfig = acceptingLibraryConfig(acceptingHandler);
+        acceptingLibrary = connect(acceptingLibraryConfig);
+        initiatingLibrary = newInitiatingLibrary(libraryAeronPort, initiatingHandler);
+        testSystem = new TestSystem(acceptingLibrary, initiatingLibrary);
+
+        connectSessions();
+    }
+
+    private EngineConfiguration dedicatedIndexerThreads(final EngineConfiguration configuration)
+    {
+        return configuration
+            .dedicatedIndexerThreads(true)
+            // Resends have to be served from the replay index rather than the resend cache
+            .resendCacheSize(0)
+            .deleteLogFileDirOnStart(true);
+    }
+
+    @Test
+    public void shouldProcessResendRequests()
+    {
+        acquireAcceptingSession();
+
+        messagesCanBeExchanged();
+
+        final int sequenceNumber = acceptorSendsResendRequest();
+
+        assertMessageResent(sequenceNumber, SEQUENCE_RESET_MESSAGE_AS_STR, true);
+
+        assertSequenceIndicesAre(0);
+    }
+
+    @Test
+    public void sequenceNumbersShouldResetOverDisconnects()
+    {
+        acquireAcceptingSession();
+
+        messagesCanBeExchanged();
+        assertSequenceFromInitToAcceptAt(2, 2);
+
+        logoutSession(initiatingSession);
+
+        assertSequenceIndicesAre(0);
+        assertSessionsDisconnected();
+        clearMessages();
+
+        wireSessions();
+
+        assertSequenceFromInitToAcceptAt(1, 1);
+
+        assertSequenceIndicesAre(1);
+    }
+}
@@ -22,6 +22,7 @@ import uk.co.real_logic.artio.*;
 import uk.co.real_logic.artio.builder.ExampleMessageEncoder;
 import uk.co.real_logic.artio.builder.ExecutionReportEncoder;
 import uk.co.real_logic.artio.builder.ResendRequestEncoder;
+import uk.co.real_logic.artio.builder.TestRequestEncoder;
 import uk.co.real_logic.artio.builder.UserRequestEncoder;
 import uk.co.real_logic.artio.engine.*;
 import uk.co.real_logic.artio.engine.framer.LibraryInfo;
@@ -103,6 +104,59 @@ public class GatewayToGatewaySystemTest extends AbstractGatewayToGatewaySystemTe
         assertInitiatingSequenceIndexIs(0);
     }
 
+    @Test
+    public void messagesCanBeEncodedIntoAClaim()
+    {
+        final TestRequestEncoder testRequest = new TestRequestEncoder();
+        testRequest.testReqID("aborted");
+        assertThat(initiatingSession.tryClaim(testRequest, 256), greaterThan(0L));
+        initiatingSession.abort();
+
+        // Body lengths with a different number of digits change where the encoded message starts
+        for (final int testReqIdLength : new int[]{1, 100, 2})
+        {
+            final String testReqID = largeTestReqId().substring(0, testReqIdLength);
+            testRequest.testReqID(testReqID);
+            assertThat(initiatingSession.tryClaim(testRequest, 256), greaterThan(0L));
+            initiatingSession.commit();
+
+            assertReceivedSingleHeartbeat(testSystem, initiatingOtfAcceptor, testReqID);
+        }
+
+        messagesCanBeExchanged();
+    }
+
+    @Test
+    public void onlyOneMessageCanBeClaimedAcrossALibrarysSessions()
+    {
+        final Reply<Session> reply = testSystem.awaitReply(
+            initiate(initiatingLibrary, port, INITIATOR_ID2, ACCEPTOR_ID));
+        final Session initiatingSession2 = reply.resultIfPresent();
+        assertConnected(initiatingSession2);
+
+        final TestRequestEncoder testRequest = new TestRequestEncoder();
+        testRequest.testReqID("claimed");
+        assertThat(initiatingSession.tryClaim(testRequest, 256), greaterThan(0L));
+
+        try
+        {
+            initiatingSession2.tryClaim(testRequest, 256);
+            fail("Claimed a second message whilst the first was still claimed");
+        }
+        catch (final IllegalStateException e)
+        {
+            // Deliberately blank
+        }
+
+        initiatingSession.abort();
+
+        testRequest.testReqID("second");
+        assertThat(initiatingSession2.tryClaim(testRequest, 256), greaterThan(0L));
+        initiatingSession2.commit();
+
+        messagesCanBeExchanged();
+    }
+
     @Test
     public void messagesCanBeSentFromInitiatorToAcceptingLibrary()
     {